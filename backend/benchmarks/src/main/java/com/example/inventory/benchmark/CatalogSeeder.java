@@ -0,0 +1,185 @@
+package com.example.inventory.benchmark;
+
+import com.example.inventory.InventoryApplication;
+import com.example.inventory.dto.BomLine;
+import com.example.inventory.dto.ProductSummary;
+import com.example.inventory.dto.RawMaterialSummary;
+import com.example.inventory.model.RawMaterial;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fills a database with a {@link SyntheticCatalog} through JDBC batches, for trying the
+ * service at production scale. The catalog is streamed, so millions of BOM lines need no
+ * more memory than one batch.
+ * <p>
+ * Rows are appended after the highest ids already present, each material gets a receipt in
+ * the stock journal, and the id sequences and {@code catalog_revision} are moved past the
+ * new rows. Batches commit on their own: an interrupted run leaves what it wrote so far.
+ * Seed before starting the service, or restart it afterwards, so no cache holds the old
+ * catalog.
+ * <p>
+ * As a program it runs the migrations on the configured datasource first. Options are
+ * Spring properties: {@code --seed.products}, {@code --seed.fan-out}, {@code --seed.materials},
+ * {@code --seed.skew} and {@code --seed.random-seed}, plus any {@code --spring.datasource.*}.
+ */
+public final class CatalogSeeder {
+
+    private static final int BATCH_SIZE = 1000;
+
+    /** Ids handed out are {@code first + 1 .. first + count}. */
+    public record Result(long firstMaterialId, int materials, long firstProductId, int products, long lines) {}
+
+    private CatalogSeeder() {
+    }
+
+    public static void main(String[] args) {
+        String[] arguments = withDefaults(args, Map.of("inventory.snapshot.path", "",
+                "logging.level.root", "WARN", "spring.main.banner-mode", "off"));
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(InventoryApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(arguments)) {
+            SyntheticCatalog catalog = catalog(context.getEnvironment(), 100_000);
+            long started = System.nanoTime();
+            Result result = seed(context.getBean(JdbcTemplate.class), catalog);
+            System.out.printf("Seeded %d materials, %d products and %d BOM lines in %d s%n",
+                    result.materials(), result.products(), result.lines(),
+                    TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - started));
+        }
+    }
+
+    /** The catalog the {@code seed.*} properties describe. */
+    static SyntheticCatalog catalog(Environment environment, int defaultProducts) {
+        return new SyntheticCatalog(
+                environment.getProperty("seed.products", Integer.class, defaultProducts),
+                environment.getProperty("seed.fan-out", Integer.class, 6),
+                environment.getProperty("seed.materials", Integer.class, 5_000),
+                environment.getProperty("seed.skew", Double.class, 1.0),
+                environment.getProperty("seed.random-seed", Long.class, 42L));
+    }
+
+    public static Result seed(JdbcTemplate jdbc, SyntheticCatalog catalog) {
+        long materialOffset = maxId(jdbc, "raw_materials");
+        long productOffset = maxId(jdbc, "products");
+        long lineOffset = maxId(jdbc, "product_materials");
+
+        Batches batches = new Batches(jdbc, materialOffset, productOffset, lineOffset);
+        catalog.generate(batches);
+        batches.flushMaterials();
+        batches.flushProducts();
+
+        jdbc.update("insert into stock_movements (raw_material_id, kind, quantity, occurred_at, reference) "
+                + "select id, 'RECEIPT', stock_quantity, current_timestamp, 'seed' "
+                + "from raw_materials where id > ? and stock_quantity <> 0", materialOffset);
+        restartSequence(jdbc, "raw_materials");
+        restartSequence(jdbc, "products");
+        restartSequence(jdbc, "product_materials");
+        jdbc.update("update catalog_revision set revision = revision + 1 where id = 1");
+
+        return new Result(materialOffset, batches.materials, productOffset, batches.products, batches.lines);
+    }
+
+    /**
+     * {@code args} plus {@code --key=value} for every default the caller did not set. Spring
+     * joins repeated options instead of letting the last one win, so they cannot simply be
+     * prepended.
+     */
+    static String[] withDefaults(String[] args, Map<String, String> defaults) {
+        List<String> arguments = new ArrayList<>(Arrays.asList(args));
+        defaults.forEach((key, value) -> {
+            if (arguments.stream().noneMatch(argument -> argument.startsWith("--" + key + "="))) {
+                arguments.add("--" + key + "=" + value);
+            }
+        });
+        return arguments.toArray(new String[0]);
+    }
+
+    private static long maxId(JdbcTemplate jdbc, String table) {
+        return jdbc.queryForObject("select coalesce(max(id), 0) from " + table, Long.class);
+    }
+
+    // The sequences hand out blocks of 50 ending at the value returned; start the next block
+    // past the seeded rows.
+    private static void restartSequence(JdbcTemplate jdbc, String table) {
+        jdbc.execute("alter sequence " + table + "_seq restart with " + (maxId(jdbc, table) + 50));
+    }
+
+    private static final class Batches implements SyntheticCatalog.Sink {
+
+        private final JdbcTemplate jdbc;
+        private final long materialOffset;
+        private final long productOffset;
+        private final List<Object[]> materialRows = new ArrayList<>(BATCH_SIZE);
+        private final List<Object[]> productRows = new ArrayList<>(BATCH_SIZE);
+        private final List<Object[]> lineRows = new ArrayList<>();
+        private long nextLineId;
+        private int materials;
+        private int products;
+        private long lines;
+
+        Batches(JdbcTemplate jdbc, long materialOffset, long productOffset, long lineOffset) {
+            this.jdbc = jdbc;
+            this.materialOffset = materialOffset;
+            this.productOffset = productOffset;
+            this.nextLineId = lineOffset + 1;
+        }
+
+        @Override
+        public void material(RawMaterialSummary material) {
+            long id = materialOffset + material.id();
+            String name = "Material " + id;
+            materialRows.add(new Object[]{id, name, RawMaterial.normalize(name), material.stockQuantity()});
+            materials++;
+            if (materialRows.size() == BATCH_SIZE) {
+                flushMaterials();
+            }
+        }
+
+        @Override
+        public void product(ProductSummary product, List<BomLine> bom) {
+            if (products == 0) {
+                // Lines reference the materials, which all come first.
+                flushMaterials();
+            }
+            long id = productOffset + product.id();
+            productRows.add(new Object[]{id, "Product " + id, product.value()});
+            for (BomLine line : bom) {
+                lineRows.add(new Object[]{nextLineId++, id, materialOffset + line.rawMaterialId(), line.requiredQuantity()});
+            }
+            products++;
+            lines += bom.size();
+            if (productRows.size() == BATCH_SIZE) {
+                flushProducts();
+            }
+        }
+
+        void flushMaterials() {
+            if (materialRows.isEmpty()) {
+                return;
+            }
+            jdbc.batchUpdate("insert into raw_materials (id, name, normalized_name, stock_quantity) values (?, ?, ?, ?)",
+                    materialRows);
+            materialRows.clear();
+        }
+
+        void flushProducts() {
+            if (productRows.isEmpty()) {
+                return;
+            }
+            jdbc.batchUpdate("insert into products (id, name, value) values (?, ?, ?)", productRows);
+            jdbc.batchUpdate("insert into product_materials (id, product_id, raw_material_id, required_quantity) "
+                    + "values (?, ?, ?, ?)", lineRows);
+            productRows.clear();
+            lineRows.clear();
+        }
+    }
+}
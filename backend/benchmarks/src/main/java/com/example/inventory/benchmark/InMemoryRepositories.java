@@ -0,0 +1,57 @@
+package com.example.inventory.benchmark;
+
+import com.example.inventory.repository.ProductComponentRepository;
+import com.example.inventory.repository.ProductMaterialRepository;
+import com.example.inventory.repository.ProductRepository;
+import com.example.inventory.repository.RawMaterialRepository;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+
+/**
+ * Repository stand-ins that serve a generated catalog from memory, so the planning
+ * benchmarks measure snapshot compilation and the planning loop without a database.
+ * Only the bulk reads used by {@code BomSnapshotLoader} and {@code BomExplosionCache}
+ * are implemented.
+ */
+final class InMemoryRepositories {
+
+    private InMemoryRepositories() {
+    }
+
+    static ProductRepository products(SyntheticCatalog.Data data) {
+        return proxy(ProductRepository.class, "findAllSummaries", data.products());
+    }
+
+    static RawMaterialRepository rawMaterials(SyntheticCatalog.Data data) {
+        return proxy(RawMaterialRepository.class, "findAllSummaries", data.materials());
+    }
+
+    static ProductMaterialRepository productMaterials(SyntheticCatalog.Data data) {
+        return proxy(ProductMaterialRepository.class, "findAllLines", data.lines());
+    }
+
+    /**
+     * Synthetic catalogs are single-level: no product uses another as a component.
+     */
+    static ProductComponentRepository productComponents() {
+        return proxy(ProductComponentRepository.class, "findAllLines", List.of());
+    }
+
+    private static <T> T proxy(Class<T> type, String method, List<?> rows) {
+        Object instance = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (self, m, args) -> {
+            if (m.getName().equals(method)) {
+                return rows;
+            }
+            if (m.getDeclaringClass() == Object.class) {
+                return switch (m.getName()) {
+                    case "hashCode" -> System.identityHashCode(self);
+                    case "equals" -> self == args[0];
+                    default -> type.getSimpleName() + "(in-memory)";
+                };
+            }
+            throw new UnsupportedOperationException(type.getSimpleName() + "." + m.getName());
+        });
+        return type.cast(instance);
+    }
+}
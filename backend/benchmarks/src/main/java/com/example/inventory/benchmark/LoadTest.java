@@ -0,0 +1,359 @@
+package com.example.inventory.benchmark;
+
+import com.example.inventory.InventoryApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Drives the REST API at a fixed concurrency and reports throughput and latency
+ * percentiles per operation.
+ * <p>
+ * The service is started in this JVM on a random port, by default on in-memory H2 seeded by
+ * {@link CatalogSeeder} ({@code --seed.*} options; {@code --seed.products=0} uses the
+ * database as it is, e.g. with {@code --spring.datasource.url} pointing at a seeded
+ * PostgreSQL). Every worker thread sends one request at a time and the next one as soon as
+ * the answer is in, so latencies are service times at that concurrency, not at a fixed
+ * arrival rate.
+ * <p>
+ * Options: {@code --load.threads} (8), {@code --load.duration} (60s), {@code --load.warmup}
+ * (10s, not recorded), {@code --load.mix} (operation weights, see {@link Operation}) and
+ * {@code --load.report} (target/load-test-report.json).
+ */
+public final class LoadTest {
+
+    /** Operations of the mix, by the name used in {@code --load.mix}. */
+    enum Operation {
+        SUGGESTION("suggestion", 30),
+        PRODUCT_PAGE("product-page", 25),
+        MATERIAL_SEARCH("material-search", 15),
+        STOCK_RECEIPT("stock-receipt", 15),
+        PRODUCT_CREATE("product-create", 10),
+        PRODUCT_DELETE("product-delete", 5);
+
+        final String key;
+        final int defaultWeight;
+
+        Operation(String key, int defaultWeight) {
+            this.key = key;
+            this.defaultWeight = defaultWeight;
+        }
+    }
+
+    public record Report(Instant startedAt, int threads, Duration duration, Duration warmup,
+                         long products, long materials, long bomLines,
+                         List<OperationReport> operations, OperationReport total) {}
+
+    public record OperationReport(String operation, long requests, long errors, double throughputPerSecond,
+                                  double p50Millis, double p99Millis, double p999Millis, double maxMillis) {}
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final long[] productIds;
+    private final long[] materialIds;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    // Products this run created, for the deletes to take from.
+    private final ConcurrentLinkedQueue<Long> created = new ConcurrentLinkedQueue<>();
+
+    private LoadTest(ObjectMapper objectMapper, String baseUrl, long[] productIds, long[] materialIds,
+                     Map<Operation, Integer> mix) {
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+        this.productIds = productIds;
+        this.materialIds = materialIds;
+        this.operations = mix.keySet().toArray(new Operation[0]);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += mix.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        String[] arguments = CatalogSeeder.withDefaults(args, Map.of(
+                "spring.datasource.url", "jdbc:h2:mem:load;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+                        + "DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1;NON_KEYWORDS=VALUE",
+                "spring.datasource.driver-class-name", "org.h2.Driver",
+                "spring.datasource.username", "sa",
+                "spring.datasource.password", "",
+                "server.port", "0",
+                "inventory.snapshot.path", "",
+                "logging.level.root", "WARN",
+                "spring.main.banner-mode", "off"));
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(InventoryApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .run(arguments)) {
+            Environment environment = context.getEnvironment();
+            JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+            SyntheticCatalog catalog = CatalogSeeder.catalog(environment, 20_000);
+            if (catalog.productCount() > 0) {
+                CatalogSeeder.seed(jdbc, catalog);
+            }
+
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            long[] productIds = jdbc.queryForList("select id from products", Long.class)
+                    .stream().mapToLong(Long::longValue).toArray();
+            long[] materialIds = jdbc.queryForList("select id from raw_materials", Long.class)
+                    .stream().mapToLong(Long::longValue).toArray();
+            long bomLines = jdbc.queryForObject("select count(*) from product_materials", Long.class);
+            if (productIds.length == 0 || materialIds.length == 0) {
+                throw new IllegalStateException("The catalog is empty: seed it or pass --seed.products");
+            }
+
+            LoadTest test = new LoadTest(context.getBean(ObjectMapper.class), "http://localhost:" + port,
+                    productIds, materialIds, mix(environment.getProperty("load.mix", "")));
+            Report report = test.run(
+                    environment.getProperty("load.threads", Integer.class, 8),
+                    environment.getProperty("load.duration", Duration.class, Duration.ofSeconds(60)),
+                    environment.getProperty("load.warmup", Duration.class, Duration.ofSeconds(10)),
+                    bomLines);
+
+            Path path = Path.of(environment.getProperty("load.report", "target/load-test-report.json"));
+            Files.createDirectories(path.toAbsolutePath().getParent());
+            context.getBean(ObjectMapper.class).writerWithDefaultPrettyPrinter().writeValue(path.toFile(), report);
+            print(report);
+            System.out.println("Report written to " + path.toAbsolutePath());
+        }
+    }
+
+    /** Weights from {@code name=weight,...}; operations left out keep their default weight. */
+    static Map<Operation, Integer> mix(String spec) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            weights.put(operation, operation.defaultWeight);
+        }
+        for (String part : spec.split(",")) {
+            if (part.isBlank()) {
+                continue;
+            }
+            String[] pair = part.trim().split("=", 2);
+            Operation operation = Arrays.stream(Operation.values())
+                    .filter(candidate -> candidate.key.equals(pair[0]))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown operation in load.mix: " + pair[0]));
+            int weight = pair.length == 2 ? Integer.parseInt(pair[1]) : 0;
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight in load.mix: " + part);
+            }
+            weights.put(operation, weight);
+        }
+        weights.values().removeIf(weight -> weight == 0);
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("load.mix leaves no operation to run");
+        }
+        return weights;
+    }
+
+    private Report run(int threads, Duration duration, Duration warmup, long bomLines) throws InterruptedException {
+        Instant startedAt = Instant.now();
+        long start = System.nanoTime();
+        long recordFrom = start + warmup.toNanos();
+        long end = recordFrom + duration.toNanos();
+
+        Worker[] workers = new Worker[threads];
+        Thread[] running = new Thread[threads];
+        SplittableRandom seeds = new SplittableRandom(7);
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Worker(seeds.split(), recordFrom, end);
+            running[i] = new Thread(workers[i], "load-" + i);
+            running[i].start();
+        }
+        for (Thread thread : running) {
+            thread.join();
+        }
+
+        double seconds = duration.toNanos() / 1e9;
+        List<OperationReport> reports = new ArrayList<>();
+        Samples all = new Samples();
+        for (Operation operation : Operation.values()) {
+            Samples merged = new Samples();
+            for (Worker worker : workers) {
+                merged.addAll(worker.samples.get(operation));
+            }
+            if (merged.requests() > 0) {
+                reports.add(merged.report(operation.key, seconds));
+                all.addAll(merged);
+            }
+        }
+        return new Report(startedAt, threads, duration, warmup, productIds.length, materialIds.length, bomLines,
+                reports, all.report("total", seconds));
+    }
+
+    private final class Worker implements Runnable {
+
+        private final SplittableRandom random;
+        private final long recordFrom;
+        private final long end;
+        private final Map<Operation, Samples> samples = new EnumMap<>(Operation.class);
+
+        Worker(SplittableRandom random, long recordFrom, long end) {
+            this.random = random;
+            this.recordFrom = recordFrom;
+            this.end = end;
+            for (Operation operation : Operation.values()) {
+                samples.put(operation, new Samples());
+            }
+        }
+
+        @Override
+        public void run() {
+            long now;
+            while ((now = System.nanoTime()) < end) {
+                Operation operation = pick();
+                HttpRequest request = request(operation);
+                if (request == null) {
+                    continue;
+                }
+                boolean ok;
+                try {
+                    HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                    ok = response.statusCode() / 100 == 2;
+                    if (ok && operation == Operation.PRODUCT_CREATE) {
+                        JsonNode body = objectMapper.readTree(response.body());
+                        created.add(body.get("id").asLong());
+                    }
+                } catch (IOException ex) {
+                    ok = false;
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                long finished = System.nanoTime();
+                if (now >= recordFrom) {
+                    samples.get(operation).add(finished - now, ok);
+                }
+            }
+        }
+
+        private Operation pick() {
+            int draw = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+            int i = 0;
+            while (cumulativeWeights[i] <= draw) {
+                i++;
+            }
+            return operations[i];
+        }
+
+        // Null when there is nothing to do, i.e. a delete before anything was created.
+        private HttpRequest request(Operation operation) {
+            return switch (operation) {
+                case SUGGESTION -> get("/api/production/suggestion");
+                case PRODUCT_PAGE -> get("/api/products/page?size=50&cursor=" + productIds[random.nextInt(productIds.length)]);
+                case MATERIAL_SEARCH -> get("/api/raw-materials/search?limit=10&q=material+"
+                        + materialIds[random.nextInt(materialIds.length)] / 10);
+                case STOCK_RECEIPT -> send("POST", "/api/stock/" + materialIds[random.nextInt(materialIds.length)] + "/receive",
+                        "{\"quantity\":" + (1 + random.nextInt(100)) + "}");
+                case PRODUCT_CREATE -> send("POST", "/api/products", String.format(Locale.ROOT,
+                        "{\"name\":\"Load product\",\"value\":%s}", BigDecimal.valueOf(100 + random.nextInt(100_000), 2)));
+                case PRODUCT_DELETE -> {
+                    Long id = created.poll();
+                    yield id == null ? null : send("DELETE", "/api/products/" + id, null);
+                }
+            };
+        }
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30)).GET().build();
+    }
+
+    private HttpRequest send(String method, String path, String json) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30));
+        if (json == null) {
+            return builder.method(method, HttpRequest.BodyPublishers.noBody()).build();
+        }
+        return builder.header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    /** Latencies of one operation, in nanoseconds, kept whole so percentiles are exact. */
+    private static final class Samples {
+        private long[] latencies = new long[1024];
+        private int size;
+        private long errors;
+
+        void add(long latency, boolean ok) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = latency;
+            if (!ok) {
+                errors++;
+            }
+        }
+
+        void addAll(Samples other) {
+            if (size + other.size > latencies.length) {
+                latencies = Arrays.copyOf(latencies, Math.max(latencies.length * 2, size + other.size));
+            }
+            System.arraycopy(other.latencies, 0, latencies, size, other.size);
+            size += other.size;
+            errors += other.errors;
+        }
+
+        int requests() {
+            return size;
+        }
+
+        OperationReport report(String name, double seconds) {
+            long[] sorted = Arrays.copyOf(latencies, size);
+            Arrays.sort(sorted);
+            return new OperationReport(name, size, errors, size / seconds,
+                    millis(sorted, 0.50), millis(sorted, 0.99), millis(sorted, 0.999),
+                    size == 0 ? 0 : sorted[size - 1] / 1e6);
+        }
+
+        private static double millis(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(0, rank)] / 1e6;
+        }
+    }
+
+    private static void print(Report report) {
+        System.out.printf(Locale.ROOT, "%d products, %d materials, %d BOM lines; %d threads for %s%n",
+                report.products(), report.materials(), report.bomLines(), report.threads(), report.duration());
+        System.out.printf(Locale.ROOT, "%-16s %10s %8s %10s %10s %10s %10s %10s%n",
+                "operation", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        List<OperationReport> rows = new ArrayList<>(report.operations());
+        rows.add(report.total());
+        for (OperationReport row : rows) {
+            System.out.printf(Locale.ROOT, "%-16s %10d %8d %10.1f %10.2f %10.2f %10.2f %10.2f%n",
+                    row.operation(), row.requests(), row.errors(), row.throughputPerSecond(),
+                    row.p50Millis(), row.p99Millis(), row.p999Millis(), row.maxMillis());
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.inventory.benchmark;
+
+import com.example.inventory.dto.ProductionSuggestionResponse;
+import com.example.inventory.metrics.PlanningMetrics;
+import com.example.inventory.planning.BomExplosionCache;
+import com.example.inventory.planning.BomSnapshot;
+import com.example.inventory.planning.BomSnapshotLoader;
+import com.example.inventory.planning.CatalogChangedEvent;
+import com.example.inventory.planning.CatalogVersion;
+import com.example.inventory.planning.OptimalPlanner;
+import com.example.inventory.planning.PlanningStrategy;
+import com.example.inventory.planning.RankingPolicy;
+import com.example.inventory.planning.SuggestionCache;
+import com.example.inventory.service.ProductionPlanningService;
+import com.example.inventory.service.stock.StockJournal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Planning hot path without a database: snapshot compilation plus the greedy plan under
+ * each ranking policy. The suggestion cache is invalidated before every call so each
+ * invocation measures a full recomputation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PlanningLoopBenchmark {
+
+    private static final CatalogChangedEvent CHANGE = new CatalogChangedEvent(CatalogChangedEvent.Kind.RAW_MATERIAL, 0L);
+
+    @Param({"1000", "20000"})
+    public int productCount;
+
+    @Param({"4", "12"})
+    public int fanOut;
+
+    @Param({"200", "2000"})
+    public int materialCount;
+
+    @Param({"0.0", "1.2"})
+    public double stockSkew;
+
+    @Param({"VALUE", "SCARCE_MATERIAL", "SCARCITY_WEIGHTED"})
+    public RankingPolicy ranking;
+
+    private BomSnapshotLoader loader;
+    private CatalogVersion catalogVersion;
+    private ProductionPlanningService productionPlanningService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticCatalog.Data data = new SyntheticCatalog(productCount, fanOut, materialCount, stockSkew, 42L).generate();
+        PlanningMetrics metrics = PlanningMetrics.detached();
+        catalogVersion = new CatalogVersion();
+        BomExplosionCache explosions = new BomExplosionCache(
+                InMemoryRepositories.productComponents(),
+                InMemoryRepositories.productMaterials(data),
+                catalogVersion,
+                metrics);
+        loader = new BomSnapshotLoader(
+                InMemoryRepositories.products(data),
+                InMemoryRepositories.rawMaterials(data),
+                InMemoryRepositories.productMaterials(data),
+                explosions,
+                metrics,
+                catalogVersion);
+        SuggestionCache cache = new SuggestionCache(catalogVersion, metrics);
+        // The journal is only read for plans as of a past instant, which the loop never makes.
+        productionPlanningService = new ProductionPlanningService(loader, cache, new OptimalPlanner(Duration.ofSeconds(2)), metrics,
+                new StockJournal(new JdbcTemplate()));
+    }
+
+    @Benchmark
+    public BomSnapshot compileSnapshot() {
+        return loader.load();
+    }
+
+    @Benchmark
+    public ProductionSuggestionResponse suggestion() {
+        catalogVersion.onCatalogChanged(CHANGE);
+        return productionPlanningService.suggestProduction(PlanningStrategy.GREEDY, ranking);
+    }
+}
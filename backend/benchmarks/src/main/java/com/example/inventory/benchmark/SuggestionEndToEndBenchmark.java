@@ -0,0 +1,91 @@
+package com.example.inventory.benchmark;
+
+import com.example.inventory.InventoryApplication;
+import com.example.inventory.dto.ProductionSuggestionResponse;
+import com.example.inventory.planning.CatalogChangedEvent;
+import com.example.inventory.planning.CatalogVersion;
+import com.example.inventory.service.ProductionPlanningService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The suggestion engine against a real Spring context on in-memory H2, so entity loading
+ * and query count regressions show up next to the planning loop cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SuggestionEndToEndBenchmark {
+
+    private static final CatalogChangedEvent CHANGE = new CatalogChangedEvent(CatalogChangedEvent.Kind.RAW_MATERIAL, 0L);
+
+    @Param({"1000", "20000"})
+    public int productCount;
+
+    @Param({"6"})
+    public int fanOut;
+
+    @Param({"500"})
+    public int materialCount;
+
+    @Param({"1.0"})
+    public double stockSkew;
+
+    private ConfigurableApplicationContext context;
+    private CatalogVersion catalogVersion;
+    private ProductionPlanningService productionPlanningService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(InventoryApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:bench;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+                                + "DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1;NON_KEYWORDS=VALUE",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--logging.level.root=WARN");
+
+        CatalogSeeder.seed(context.getBean(JdbcTemplate.class),
+                new SyntheticCatalog(productCount, fanOut, materialCount, stockSkew, 42L));
+
+        catalogVersion = context.getBean(CatalogVersion.class);
+        productionPlanningService = context.getBean(ProductionPlanningService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ProductionSuggestionResponse suggestion() {
+        catalogVersion.onCatalogChanged(CHANGE);
+        return productionPlanningService.suggestProduction();
+    }
+
+    @Benchmark
+    public ProductionSuggestionResponse cachedSuggestion() {
+        return productionPlanningService.suggestProduction();
+    }
+}
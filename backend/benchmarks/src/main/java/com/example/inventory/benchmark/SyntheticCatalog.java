@@ -0,0 +1,126 @@
+package com.example.inventory.benchmark;
+
+import com.example.inventory.dto.BomLine;
+import com.example.inventory.dto.ProductSummary;
+import com.example.inventory.dto.RawMaterialSummary;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic generator of product / raw material / BOM catalogs.
+ *
+ * @param productCount  number of products
+ * @param fanOut        BOM lines per product (capped at the material count)
+ * @param materialCount number of raw materials
+ * @param stockSkew     Zipf exponent: 0 picks materials uniformly and spreads stock evenly;
+ *                      larger values concentrate BOM usage on a few hot materials and leave
+ *                      the long tail with little stock
+ * @param seed          random seed, so every fork sees the same catalog
+ */
+public record SyntheticCatalog(
+        int productCount,
+        int fanOut,
+        int materialCount,
+        double stockSkew,
+        long seed
+) {
+
+    private static final int MAX_STOCK = 1_000_000;
+    private static final int MAX_REQUIRED_QUANTITY = 50;
+
+    public record Data(
+            List<ProductSummary> products,
+            List<RawMaterialSummary> materials,
+            List<BomLine> lines
+    ) {}
+
+    /** Receives a catalog as it is generated: all materials first, then each product with its BOM. */
+    public interface Sink {
+        void material(RawMaterialSummary material);
+
+        void product(ProductSummary product, List<BomLine> lines);
+    }
+
+    public Data generate() {
+        List<RawMaterialSummary> materials = new ArrayList<>(materialCount);
+        List<ProductSummary> products = new ArrayList<>(productCount);
+        List<BomLine> lines = new ArrayList<>(productCount * Math.min(fanOut, materialCount));
+        generate(new Sink() {
+            @Override
+            public void material(RawMaterialSummary material) {
+                materials.add(material);
+            }
+
+            @Override
+            public void product(ProductSummary product, List<BomLine> bom) {
+                products.add(product);
+                lines.addAll(bom);
+            }
+        });
+        return new Data(products, materials, lines);
+    }
+
+    /**
+     * Streams the same catalog as {@link #generate()} without holding it, for catalogs with
+     * millions of BOM lines. The list passed with each product is reused for the next one.
+     */
+    public void generate(Sink sink) {
+        SplittableRandom random = new SplittableRandom(seed);
+        double[] cumulative = zipfCumulative(materialCount, stockSkew);
+
+        for (int m = 0; m < materialCount; m++) {
+            // Rank 0 is the hottest material and gets the most stock.
+            int stock = (int) Math.max(1, MAX_STOCK * random.nextDouble(0.5, 1.0) / Math.pow(m + 1, stockSkew));
+            sink.material(new RawMaterialSummary((long) m + 1, "Material " + (m + 1), stock));
+        }
+
+        int linesPerProduct = Math.min(fanOut, materialCount);
+        List<BomLine> lines = new ArrayList<>(linesPerProduct);
+        int[] seen = new int[materialCount];
+        for (int p = 0; p < productCount; p++) {
+            long productId = (long) p + 1;
+            BigDecimal value = BigDecimal.valueOf(random.nextLong(100, 1_000_000), 2);
+
+            lines.clear();
+            while (lines.size() < linesPerProduct) {
+                int material = pick(cumulative, random.nextDouble());
+                if (seen[material] == p + 1) {
+                    continue;
+                }
+                seen[material] = p + 1;
+                lines.add(new BomLine(productId, (long) material + 1, 1 + random.nextInt(MAX_REQUIRED_QUANTITY)));
+            }
+            sink.product(new ProductSummary(productId, "Product " + productId, value), lines);
+        }
+    }
+
+    private static double[] zipfCumulative(int size, double exponent) {
+        double[] cumulative = new double[size];
+        double total = 0;
+        for (int i = 0; i < size; i++) {
+            total += 1.0 / Math.pow(i + 1, exponent);
+            cumulative[i] = total;
+        }
+        for (int i = 0; i < size; i++) {
+            cumulative[i] /= total;
+        }
+        return cumulative;
+    }
+
+    private static int pick(double[] cumulative, double u) {
+        int low = 0;
+        int high = cumulative.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cumulative[mid] < u) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.inventory.config;
+
+import com.example.inventory.model.Product;
+import com.example.inventory.model.ProductMaterial;
+import com.example.inventory.model.RawMaterial;
+import com.example.inventory.planning.CatalogChangedEvent;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evicts second-level cache data for writes that bypass Hibernate (plain JDBC). Call it
+ * after the writing transaction committed; Hibernate cannot see those writes, so cached
+ * rows and query results of the kind would otherwise stay stale until they expire.
+ */
+@Component
+public class CatalogCache {
+
+    private static final String PRODUCT_MATERIALS_ROLE = Product.class.getName() + ".materials";
+
+    private final Cache cache;
+
+    public CatalogCache(EntityManagerFactory entityManagerFactory) {
+        this.cache = entityManagerFactory.getCache().unwrap(Cache.class);
+    }
+
+    public void evictAfterJdbcWrite(CatalogChangedEvent.Kind kind) {
+        switch (kind) {
+            case RAW_MATERIAL -> cache.evictEntityData(RawMaterial.class);
+            case PRODUCT -> cache.evictEntityData(Product.class);
+            case BOM -> {
+                cache.evictEntityData(ProductMaterial.class);
+                cache.evictCollectionData(PRODUCT_MATERIALS_ROLE);
+            }
+        }
+        cache.evictQueryRegions();
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.inventory.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Wraps the application {@link DataSource} in a {@link ThrottledDataSource}. The number of
+ * permits is {@code inventory.datasource.max-concurrent}; 0 (default) uses the Hikari
+ * maximum pool size, negative values turn the throttle off.
+ */
+@Configuration
+public class DataSourceThrottleConfig {
+
+    @Bean
+    static BeanPostProcessor dataSourceThrottle(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ThrottledDataSource) {
+                    return bean;
+                }
+                int maxConcurrent = environment.getProperty("inventory.datasource.max-concurrent", Integer.class, 0);
+                if (maxConcurrent == 0 && dataSource instanceof HikariDataSource hikari) {
+                    maxConcurrent = hikari.getMaximumPoolSize();
+                }
+                if (maxConcurrent <= 0) {
+                    return bean;
+                }
+                Duration acquireTimeout = environment.getProperty(
+                        "inventory.datasource.acquire-timeout", Duration.class, Duration.ofSeconds(30));
+                return new ThrottledDataSource(dataSource, maxConcurrent, acquireTimeout);
+            }
+        };
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.inventory.config;
+
+import com.example.inventory.planning.PlanningStrategy;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PlanningStrategyConverter implements Converter<String, PlanningStrategy> {
+
+    @Override
+    public PlanningStrategy convert(String source) {
+        return PlanningStrategy.fromParameter(source);
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.inventory.config;
+
+import com.example.inventory.planning.RankingPolicy;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+
+@Component
+public class RankingPolicyConverter implements Converter<String, RankingPolicy> {
+
+    @Override
+    public RankingPolicy convert(String source) {
+        return RankingPolicy.fromParameter(source);
+    }
+}
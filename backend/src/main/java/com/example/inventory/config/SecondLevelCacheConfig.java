@@ -0,0 +1,82 @@
+package com.example.inventory.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Hibernate second-level cache for the catalog entities, backed by Caffeine through JCache.
+ * <p>
+ * Every region is created here with a size bound and a time-to-live, and Hibernate is told
+ * to fail on regions it does not find, so nothing ends up in an unbounded default cache.
+ * With {@code inventory.cache.statistics} on, hit and miss counts per region are published
+ * by Hibernate statistics as {@code hibernate.second.level.cache.requests} and
+ * {@code hibernate.cache.query.requests}.
+ * <p>
+ * Writes through JPA keep the regions consistent on their own (JPQL bulk updates evict the
+ * entity region they touch). Writes through plain JDBC must call {@link CatalogCache}.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    public static final String PRODUCTS = "products";
+    public static final String PRODUCT_MATERIALS = "product-materials";
+    public static final String PRODUCT_MATERIALS_BY_PRODUCT = "product-materials-by-product";
+    public static final String RAW_MATERIALS = "raw-materials";
+    private static final String QUERY_RESULTS = "default-query-results-region";
+    private static final String UPDATE_TIMESTAMPS = "default-update-timestamps-region";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager(
+            @Value("${inventory.cache.entity-max-entries:10000}") long entityMaxEntries,
+            @Value("${inventory.cache.query-max-entries:1000}") long queryMaxEntries,
+            @Value("${inventory.cache.time-to-live:10m}") Duration timeToLive) {
+        // A manager of its own per application context: contexts must not share regions.
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("inventory-l2-" + UUID.randomUUID()), getClass().getClassLoader());
+        for (String region : new String[]{PRODUCTS, PRODUCT_MATERIALS, PRODUCT_MATERIALS_BY_PRODUCT, RAW_MATERIALS}) {
+            cacheManager.createCache(region, bounded(entityMaxEntries, timeToLive));
+        }
+        cacheManager.createCache(QUERY_RESULTS, bounded(queryMaxEntries, timeToLive));
+        // One entry per table, and evicting them would serve stale query results.
+        cacheManager.createCache(UPDATE_TIMESTAMPS, new CaffeineConfiguration<>().setStoreByValue(false));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCache(
+            CacheManager secondLevelCacheManager,
+            @Value("${inventory.cache.statistics:false}") boolean statistics) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            // BOM lines are saved and deleted on their own, not through Product.materials.
+            properties.put(AvailableSettings.AUTO_EVICT_COLLECTION_CACHE, true);
+            properties.put(AvailableSettings.GENERATE_STATISTICS, statistics);
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> bounded(long maxEntries, Duration timeToLive) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxEntries));
+        configuration.setExpireAfterWrite(OptionalLong.of(timeToLive.toNanos()));
+        configuration.setStatisticsEnabled(true);
+        configuration.setStoreByValue(false);
+        return configuration;
+    }
+}
@@ -1,10 +1,17 @@
 package com.example.inventory.controller;
 
+import com.example.inventory.service.ConflictException;
+import com.example.inventory.service.PlanningQueueFullException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.util.Map;
 
@@ -26,4 +33,35 @@ public class ApiExceptionHandler {
                 .orElse("Invalid request");
         return Map.of("error", message);
     }
+
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, String> handleTypeMismatch(MethodArgumentTypeMismatchException ex) {
+        return Map.of("error", ex.getName() + " has an invalid value: " + ex.getValue());
+    }
+
+    @ExceptionHandler(ConflictException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public Map<String, String> handleConflict(ConflictException ex) {
+        return Map.of("error", ex.getMessage());
+    }
+
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public Map<String, String> handleConcurrentUpdate(ObjectOptimisticLockingFailureException ex) {
+        return Map.of("error", "The record was changed by another request, try again");
+    }
+
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public Map<String, String> handleConstraintViolation(DataIntegrityViolationException ex) {
+        return Map.of("error", "The change conflicts with existing data (for example a duplicate name)");
+    }
+
+    @ExceptionHandler(PlanningQueueFullException.class)
+    public ResponseEntity<Map<String, String>> handleOverload(PlanningQueueFullException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(Map.of("error", "Too many planning jobs in progress, try again later"));
+    }
 }
@@ -0,0 +1,55 @@
+package com.example.inventory.controller;
+
+import com.example.inventory.dto.BulkImportReport;
+import com.example.inventory.service.bulk.BulkFormat;
+import com.example.inventory.service.bulk.BulkImportService;
+import com.example.inventory.service.bulk.CatalogExportService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/api/bulk")
+public class BulkController {
+
+    private final BulkImportService bulkImportService;
+    private final CatalogExportService catalogExportService;
+
+    public BulkController(BulkImportService bulkImportService, CatalogExportService catalogExportService) {
+        this.bulkImportService = bulkImportService;
+        this.catalogExportService = catalogExportService;
+    }
+
+    @PostMapping(value = "/raw-materials", consumes = {BulkFormat.NDJSON_VALUE, BulkFormat.CSV_VALUE})
+    public BulkImportReport importRawMaterials(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                               InputStream body) {
+        return bulkImportService.importRawMaterials(body, BulkFormat.of(contentType));
+    }
+
+    @PostMapping(value = "/products", consumes = {BulkFormat.NDJSON_VALUE, BulkFormat.CSV_VALUE})
+    public BulkImportReport importProducts(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                           InputStream body) {
+        return bulkImportService.importProducts(body, BulkFormat.of(contentType));
+    }
+
+    @PostMapping(value = "/product-materials", consumes = {BulkFormat.NDJSON_VALUE, BulkFormat.CSV_VALUE})
+    public BulkImportReport importProductMaterials(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                   InputStream body) {
+        return bulkImportService.importProductMaterials(body, BulkFormat.of(contentType));
+    }
+
+    @GetMapping("/catalog")
+    public void exportCatalog(HttpServletResponse response) throws IOException {
+        response.setContentType(BulkFormat.NDJSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        catalogExportService.exportCatalog(response.getOutputStream());
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.inventory.controller;
+
+import com.example.inventory.dto.MaterialImpactResponse;
+import com.example.inventory.service.ImpactService;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/raw-materials")
+public class ImpactController {
+
+    private final ImpactService impactService;
+
+    public ImpactController(ImpactService impactService) {
+        this.impactService = impactService;
+    }
+
+    @GetMapping("/{rawMaterialId}/impact")
+    public MaterialImpactResponse impact(@PathVariable Long rawMaterialId,
+                                         @RequestParam(defaultValue = "0") int delta) {
+        return impactService.impact(rawMaterialId, delta);
+    }
+}
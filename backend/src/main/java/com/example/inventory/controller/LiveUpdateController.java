@@ -0,0 +1,32 @@
+package com.example.inventory.controller;
+
+import com.example.inventory.service.live.LiveUpdateService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.concurrent.RejectedExecutionException;
+
+@RestController
+@RequestMapping("/api/live")
+public class LiveUpdateController {
+
+    private final LiveUpdateService liveUpdateService;
+
+    public LiveUpdateController(LiveUpdateService liveUpdateService) {
+        this.liveUpdateService = liveUpdateService;
+    }
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribe(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        try {
+            return ResponseEntity.ok(liveUpdateService.subscribe(lastEventId));
+        } catch (RejectedExecutionException ex) {
+            // No JSON error body: the client only accepts text/event-stream.
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "5").build();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.inventory.controller;
+
+import com.example.inventory.model.ProductionPlan;
+import com.example.inventory.planning.PlanningStrategy;
+import com.example.inventory.planning.RankingPolicy;
+import com.example.inventory.service.plan.PlanService;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/plans")
+public class PlanController {
+
+    private final PlanService planService;
+
+    public PlanController(PlanService planService) {
+        this.planService = planService;
+    }
+
+    @GetMapping
+    public List<ProductionPlan> list() { return planService.findAll(); }
+
+    @GetMapping("/{id}")
+    public ProductionPlan find(@PathVariable Long id) { return planService.findById(id); }
+
+    @PostMapping
+    public ProductionPlan accept(@RequestParam(defaultValue = "greedy") PlanningStrategy strategy,
+                                 @RequestParam(defaultValue = "value") RankingPolicy ranking) {
+        return planService.accept(strategy, ranking);
+    }
+
+    @PostMapping("/{id}/replan")
+    public ProductionPlan replan(@PathVariable Long id) {
+        return planService.replan(id);
+    }
+
+    @PostMapping("/{id}/close")
+    public ProductionPlan close(@PathVariable Long id) {
+        return planService.close(id);
+    }
+}
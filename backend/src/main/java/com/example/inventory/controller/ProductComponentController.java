@@ -0,0 +1,42 @@
+package com.example.inventory.controller;
+
+import com.example.inventory.dto.BomLine;
+import com.example.inventory.dto.ProductComponentLine;
+import com.example.inventory.dto.ProductComponentRequest;
+import com.example.inventory.service.ProductComponentService;
+import jakarta.validation.Valid;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/products")
+public class ProductComponentController {
+
+    private final ProductComponentService productComponentService;
+
+    public ProductComponentController(ProductComponentService productComponentService) {
+        this.productComponentService = productComponentService;
+    }
+
+    @GetMapping("/{productId}/components")
+    public List<ProductComponentLine> list(@PathVariable Long productId) {
+        return productComponentService.findByProductId(productId);
+    }
+
+    @PostMapping("/{productId}/components")
+    public ProductComponentLine upsert(@PathVariable Long productId,
+                                       @Valid @RequestBody ProductComponentRequest request) {
+        return productComponentService.upsert(productId, request);
+    }
+
+    @DeleteMapping("/components/{id}")
+    public void delete(@PathVariable Long id) {
+        productComponentService.delete(id);
+    }
+
+    @GetMapping("/{productId}/requirements")
+    public List<BomLine> requirements(@PathVariable Long productId) {
+        return productComponentService.requirements(productId);
+    }
+}
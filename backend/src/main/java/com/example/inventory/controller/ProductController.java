@@ -1,5 +1,7 @@
 package com.example.inventory.controller;
 
+import com.example.inventory.dto.PageResponse;
+import com.example.inventory.dto.ProductListItem;
 import com.example.inventory.dto.ProductRequest;
 import com.example.inventory.model.Product;
 import com.example.inventory.service.ProductService;
@@ -21,6 +23,14 @@ public class ProductController {
     @GetMapping
     public List<Product> list() { return productService.findAll(); }
 
+    @GetMapping("/page")
+    public PageResponse<ProductListItem> page(@RequestParam(required = false) Long cursor,
+                                              @RequestParam(required = false) Integer size,
+                                              @RequestParam(required = false) String prefix,
+                                              @RequestParam(defaultValue = "false") boolean includeMaterials) {
+        return productService.page(cursor, size, prefix, includeMaterials);
+    }
+
     @PostMapping
     public Product create(@Valid @RequestBody ProductRequest request) {
         return productService.create(request);
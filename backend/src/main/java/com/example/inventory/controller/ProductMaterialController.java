@@ -1,6 +1,10 @@
 package com.example.inventory.controller;
 
+import com.example.inventory.dto.PageResponse;
+import com.example.inventory.dto.ProductMaterialLine;
 import com.example.inventory.dto.ProductMaterialRequest;
+import com.example.inventory.dto.ProductRecipeRequest;
+import com.example.inventory.dto.ProductRecipeResponse;
 import com.example.inventory.model.ProductMaterial;
 import com.example.inventory.service.ProductMaterialService;
 import jakarta.validation.Valid;
@@ -23,6 +27,13 @@ public class ProductMaterialController {
         return productMaterialService.findByProductId(productId);
     }
 
+    @GetMapping("/{productId}/materials/page")
+    public PageResponse<ProductMaterialLine> page(@PathVariable Long productId,
+                                                  @RequestParam(required = false) Long cursor,
+                                                  @RequestParam(required = false) Integer size) {
+        return productMaterialService.page(productId, cursor, size);
+    }
+
     // ✅ UPSERT (não duplica)
     @PostMapping("/{productId}/materials")
     public ProductMaterial upsert(@PathVariable Long productId,
@@ -30,6 +41,13 @@ public class ProductMaterialController {
         return productMaterialService.upsert(productId, request);
     }
 
+    @PutMapping("/{productId}/materials")
+    public ProductRecipeResponse replace(@PathVariable Long productId,
+                                         @RequestParam(defaultValue = "false") boolean merge,
+                                         @Valid @RequestBody ProductRecipeRequest request) {
+        return productMaterialService.replaceMaterials(productId, request, merge);
+    }
+
     @DeleteMapping("/materials/{id}")
     public void delete(@PathVariable Long id) {
         productMaterialService.delete(id);
@@ -1,23 +1,73 @@
 package com.example.inventory.controller;
 
+import com.example.inventory.dto.ProductionExecutionRequest;
+import com.example.inventory.dto.ProductionExecutionResponse;
 import com.example.inventory.dto.ProductionSuggestionResponse;
-import com.example.inventory.service.ProductionService;
+import com.example.inventory.planning.CatalogVersion;
+import com.example.inventory.planning.PlanningStrategy;
+import com.example.inventory.planning.RankingPolicy;
+import com.example.inventory.service.ProductionPlanningService;
+import com.example.inventory.service.ProductionStreamService;
+import com.example.inventory.service.stock.StockLedgerService;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.IOException;
 
 @RestController
 @RequestMapping("/api/production")
 public class ProductionController {
 
-    private final ProductionService productionService;
+    private final ProductionPlanningService productionPlanningService;
+    private final CatalogVersion catalogVersion;
+    private final StockLedgerService stockLedgerService;
+    private final ProductionStreamService productionStreamService;
 
-    public ProductionController(ProductionService productionService) {
-        this.productionService = productionService;
+    public ProductionController(ProductionPlanningService productionPlanningService, CatalogVersion catalogVersion,
+                                StockLedgerService stockLedgerService, ProductionStreamService productionStreamService) {
+        this.productionPlanningService = productionPlanningService;
+        this.catalogVersion = catalogVersion;
+        this.stockLedgerService = stockLedgerService;
+        this.productionStreamService = productionStreamService;
     }
 
     @GetMapping("/suggestion")
-    public ProductionSuggestionResponse getSuggestion() {
-        return productionService.suggestProduction();
+    public ResponseEntity<ProductionSuggestionResponse> getSuggestion(
+            @RequestParam(defaultValue = "value") RankingPolicy ranking,
+            WebRequest request) {
+        String eTag = catalogVersion.eTag();
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(productionPlanningService.suggestProduction(PlanningStrategy.GREEDY, ranking));
+    }
+
+    // Written synchronously to the response so large catalogs are not cut by the async timeout.
+    @GetMapping("/suggestion/stream")
+    public void streamSuggestion(@RequestParam(defaultValue = "value") RankingPolicy ranking,
+                                 WebRequest request, HttpServletResponse response) throws IOException {
+        String eTag = catalogVersion.eTag();
+        if (request.checkNotModified(eTag)) {
+            return;
+        }
+        response.setHeader(HttpHeaders.ETAG, eTag);
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        productionStreamService.writeSuggestion(ranking, response.getOutputStream());
+    }
+
+    @PostMapping("/executions")
+    public ProductionExecutionResponse execute(@Valid @RequestBody ProductionExecutionRequest request) {
+        return stockLedgerService.execute(request);
     }
 }
@@ -1,23 +1,79 @@
 package com.example.inventory.controller;
 
+import com.example.inventory.dto.PlanningJobResponse;
 import com.example.inventory.dto.ProductionSuggestionResponse;
+import com.example.inventory.dto.ScenarioRequest;
+import com.example.inventory.dto.ScenarioResponse;
+import com.example.inventory.planning.CatalogVersion;
+import com.example.inventory.planning.PlanningStrategy;
+import com.example.inventory.planning.RankingPolicy;
+import com.example.inventory.service.PlanningJobService;
 import com.example.inventory.service.ProductionPlanningService;
+import com.example.inventory.service.ScenarioService;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.time.Instant;
 
 @RestController
 @RequestMapping("/api/production")
 public class ProductionPlanningController {
 
     private final ProductionPlanningService productionPlanningService;
+    private final CatalogVersion catalogVersion;
+    private final ScenarioService scenarioService;
+    private final PlanningJobService planningJobService;
 
-    public ProductionPlanningController(ProductionPlanningService productionPlanningService) {
+    public ProductionPlanningController(ProductionPlanningService productionPlanningService, CatalogVersion catalogVersion,
+                                        ScenarioService scenarioService, PlanningJobService planningJobService) {
         this.productionPlanningService = productionPlanningService;
+        this.catalogVersion = catalogVersion;
+        this.scenarioService = scenarioService;
+        this.planningJobService = planningJobService;
     }
 
     @GetMapping("/suggestions")
-    public ProductionSuggestionResponse suggestions() {
-        return productionPlanningService.suggestProduction();
+    public ResponseEntity<ProductionSuggestionResponse> suggestions(
+            @RequestParam(defaultValue = "greedy") PlanningStrategy strategy,
+            @RequestParam(defaultValue = "value") RankingPolicy ranking,
+            @RequestParam(required = false) Instant asOf,
+            WebRequest request) {
+        if (asOf != null) {
+            return ResponseEntity.ok(productionPlanningService.suggestProductionAsOf(strategy, ranking, asOf));
+        }
+        String eTag = catalogVersion.eTag();
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(productionPlanningService.suggestProduction(strategy, ranking));
+    }
+
+    @PostMapping("/scenarios")
+    public ScenarioResponse scenarios(@RequestParam(defaultValue = "greedy") PlanningStrategy strategy,
+                                      @Valid @RequestBody ScenarioRequest request) {
+        return scenarioService.evaluate(request, strategy);
+    }
+
+    @PostMapping("/jobs")
+    public ResponseEntity<PlanningJobResponse> submitJob(@RequestParam(defaultValue = "greedy") PlanningStrategy strategy) {
+        PlanningJobResponse job = planningJobService.submit(strategy);
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentRequest().replaceQuery(null)
+                        .path("/{id}").buildAndExpand(job.id()).toUri())
+                .body(job);
+    }
+
+    @GetMapping("/jobs/{id}")
+    public PlanningJobResponse job(@PathVariable String id) {
+        return planningJobService.find(id);
     }
 }
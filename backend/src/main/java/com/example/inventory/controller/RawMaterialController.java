@@ -1,5 +1,8 @@
 package com.example.inventory.controller;
 
+import com.example.inventory.dto.PageResponse;
+import com.example.inventory.dto.RawMaterialListItem;
+import com.example.inventory.dto.RawMaterialMatch;
 import com.example.inventory.dto.RawMaterialRequest;
 import com.example.inventory.model.RawMaterial;
 import com.example.inventory.service.RawMaterialService;
@@ -21,6 +24,19 @@ public class RawMaterialController {
     @GetMapping
     public List<RawMaterial> list() { return rawMaterialService.findAll(); }
 
+    @GetMapping("/page")
+    public PageResponse<RawMaterialListItem> page(@RequestParam(required = false) Long cursor,
+                                                  @RequestParam(required = false) Integer size,
+                                                  @RequestParam(required = false) String prefix) {
+        return rawMaterialService.page(cursor, size, prefix);
+    }
+
+    @GetMapping("/search")
+    public List<RawMaterialMatch> search(@RequestParam String q,
+                                         @RequestParam(required = false) Integer limit) {
+        return rawMaterialService.search(q, limit);
+    }
+
     @PostMapping
     public RawMaterial create(@Valid @RequestBody RawMaterialRequest request) {
         return rawMaterialService.create(request);
@@ -0,0 +1,66 @@
+package com.example.inventory.controller;
+
+import com.example.inventory.dto.PageResponse;
+import com.example.inventory.dto.StockMovement;
+import com.example.inventory.dto.StockPosition;
+import com.example.inventory.dto.StockReceiptRequest;
+import com.example.inventory.dto.StockReservationRequest;
+import com.example.inventory.model.RawMaterial;
+import com.example.inventory.model.StockReservation;
+import com.example.inventory.service.stock.StockJournal;
+import com.example.inventory.service.stock.StockLedgerService;
+import jakarta.validation.Valid;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/stock")
+public class StockController {
+
+    private final StockLedgerService stockLedgerService;
+    private final StockJournal stockJournal;
+
+    public StockController(StockLedgerService stockLedgerService, StockJournal stockJournal) {
+        this.stockLedgerService = stockLedgerService;
+        this.stockJournal = stockJournal;
+    }
+
+    @PostMapping("/{rawMaterialId}/receive")
+    public RawMaterial receive(@PathVariable Long rawMaterialId, @Valid @RequestBody StockReceiptRequest request) {
+        return stockLedgerService.receive(rawMaterialId, request.quantity());
+    }
+
+    @PostMapping("/reservations")
+    public StockReservation reserve(@Valid @RequestBody StockReservationRequest request) {
+        return stockLedgerService.reserve(request.items());
+    }
+
+    @GetMapping("/reservations/{id}")
+    public StockReservation findReservation(@PathVariable Long id) {
+        return stockLedgerService.findReservation(id);
+    }
+
+    @PostMapping("/reservations/{id}/commit")
+    public StockReservation commit(@PathVariable Long id) {
+        return stockLedgerService.commit(id);
+    }
+
+    @PostMapping("/reservations/{id}/release")
+    public StockReservation release(@PathVariable Long id) {
+        return stockLedgerService.release(id);
+    }
+
+    @GetMapping("/{rawMaterialId}/movements")
+    public PageResponse<StockMovement> movements(@PathVariable Long rawMaterialId,
+                                                 @RequestParam(required = false) Long cursor,
+                                                 @RequestParam(required = false) Integer size) {
+        return stockJournal.movements(rawMaterialId, cursor, size);
+    }
+
+    @GetMapping("/levels")
+    public List<StockPosition> levels(@RequestParam(required = false) Instant asOf) {
+        return stockJournal.stockAsOf(asOf != null ? asOf : Instant.now());
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.inventory.controller;
+
+import com.example.inventory.dto.ProductionSuggestionResponse;
+import com.example.inventory.dto.StockPosition;
+import com.example.inventory.dto.StockReceiptRequest;
+import com.example.inventory.dto.WarehouseRequest;
+import com.example.inventory.dto.WarehouseStockRequest;
+import com.example.inventory.dto.WarehouseSuggestionsResponse;
+import com.example.inventory.model.Warehouse;
+import com.example.inventory.planning.PlanningStrategy;
+import com.example.inventory.planning.RankingPolicy;
+import com.example.inventory.service.warehouse.WarehousePlanningService;
+import com.example.inventory.service.warehouse.WarehouseService;
+import jakarta.validation.Valid;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/warehouses")
+public class WarehouseController {
+
+    private final WarehouseService warehouseService;
+    private final WarehousePlanningService warehousePlanningService;
+
+    public WarehouseController(WarehouseService warehouseService, WarehousePlanningService warehousePlanningService) {
+        this.warehouseService = warehouseService;
+        this.warehousePlanningService = warehousePlanningService;
+    }
+
+    @GetMapping
+    public List<Warehouse> list() { return warehouseService.findAll(); }
+
+    @GetMapping("/{id}")
+    public Warehouse find(@PathVariable Long id) { return warehouseService.findById(id); }
+
+    @PostMapping
+    public Warehouse create(@Valid @RequestBody WarehouseRequest request) {
+        return warehouseService.create(request);
+    }
+
+    @GetMapping("/{id}/stock")
+    public List<StockPosition> stock(@PathVariable Long id) {
+        return warehouseService.stock(id);
+    }
+
+    @PostMapping("/{id}/stock/{rawMaterialId}/receive")
+    public StockPosition receive(@PathVariable Long id, @PathVariable Long rawMaterialId,
+                                 @Valid @RequestBody StockReceiptRequest request) {
+        return warehouseService.receive(id, rawMaterialId, request.quantity());
+    }
+
+    @PutMapping("/{id}/stock/{rawMaterialId}")
+    public StockPosition count(@PathVariable Long id, @PathVariable Long rawMaterialId,
+                               @Valid @RequestBody WarehouseStockRequest request) {
+        return warehouseService.count(id, rawMaterialId, request.quantity());
+    }
+
+    @GetMapping("/{id}/suggestion")
+    public ProductionSuggestionResponse suggestion(@PathVariable Long id,
+                                                   @RequestParam(defaultValue = "greedy") PlanningStrategy strategy,
+                                                   @RequestParam(defaultValue = "value") RankingPolicy ranking) {
+        return warehousePlanningService.suggestProduction(id, strategy, ranking);
+    }
+
+    @GetMapping("/suggestions")
+    public WarehouseSuggestionsResponse suggestions(@RequestParam(defaultValue = "greedy") PlanningStrategy strategy,
+                                                    @RequestParam(defaultValue = "value") RankingPolicy ranking) {
+        return warehousePlanningService.suggestProduction(strategy, ranking);
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.inventory.dto;
+
+public record BomLine(
+        Long productId,
+        Long rawMaterialId,
+        Integer requiredQuantity
+) {
+}
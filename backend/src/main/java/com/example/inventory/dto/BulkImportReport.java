@@ -0,0 +1,13 @@
+package com.example.inventory.dto;
+
+import java.util.List;
+
+public record BulkImportReport(
+        long processed,
+        long inserted,
+        long updated,
+        long failed,
+        List<BulkRowError> errors,
+        boolean errorsTruncated
+) {
+}
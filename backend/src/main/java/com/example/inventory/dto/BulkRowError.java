@@ -0,0 +1,7 @@
+package com.example.inventory.dto;
+
+public record BulkRowError(
+        long line,
+        String error
+) {
+}
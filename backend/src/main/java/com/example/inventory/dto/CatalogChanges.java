@@ -0,0 +1,17 @@
+package com.example.inventory.dto;
+
+import java.util.List;
+
+/**
+ * Catalog and stock changes committed during one live update window. {@code stock} holds
+ * the current row of every changed raw material that still exists, so clients apply it in
+ * place; a changed id without a row was deleted. With {@code reload} set the changes were
+ * too broad to list (bulk imports) and the lists are empty.
+ */
+public record CatalogChanges(
+        boolean reload,
+        List<Long> products,
+        List<Long> rawMaterials,
+        List<Long> boms,
+        List<RawMaterialListItem> stock
+) {}
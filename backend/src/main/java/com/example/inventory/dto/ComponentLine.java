@@ -0,0 +1,8 @@
+package com.example.inventory.dto;
+
+public record ComponentLine(
+        Long productId,
+        Long componentId,
+        Integer requiredQuantity
+) {
+}
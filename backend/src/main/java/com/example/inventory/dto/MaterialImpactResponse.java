@@ -0,0 +1,11 @@
+package com.example.inventory.dto;
+
+import java.util.List;
+
+public record MaterialImpactResponse(
+        Long rawMaterialId,
+        Integer availableQuantity,
+        Integer delta,
+        List<ProductImpact> items
+) {
+}
@@ -0,0 +1,13 @@
+package com.example.inventory.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing. {@code nextCursor} is the id to pass as
+ * {@code cursor} for the following page, or {@code null} on the last page.
+ */
+public record PageResponse<T>(
+        List<T> items,
+        Long nextCursor
+) {
+}
@@ -0,0 +1,15 @@
+package com.example.inventory.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Difference between two consecutive greedy plans: the items that are new or changed, the
+ * products that dropped out, and the products of the new plan in plan order.
+ */
+public record PlanChanges(
+        List<ProductionSuggestionItem> changed,
+        List<Long> removed,
+        List<Long> order,
+        BigDecimal grandTotalValue
+) {}
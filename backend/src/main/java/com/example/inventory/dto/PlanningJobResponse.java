@@ -0,0 +1,21 @@
+package com.example.inventory.dto;
+
+import com.example.inventory.planning.PlanningStrategy;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record PlanningJobResponse(
+        String id,
+        Status status,
+        PlanningStrategy strategy,
+        long catalogVersion,
+        Instant submittedAt,
+        Instant completedAt,
+        ProductionSuggestionResponse result,
+        String error
+) {
+
+    public enum Status { QUEUED, RUNNING, SUCCEEDED, FAILED }
+}
@@ -0,0 +1,16 @@
+package com.example.inventory.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * One product joined with one of its BOM lines; the material columns are {@code null}
+ * for a product without lines.
+ */
+public record ProductBomRow(
+        Long productId,
+        String productName,
+        BigDecimal productValue,
+        Long rawMaterialId,
+        Integer requiredQuantity
+) {
+}
@@ -0,0 +1,10 @@
+package com.example.inventory.dto;
+
+public record ProductComponentLine(
+        Long id,
+        Long productId,
+        Long componentId,
+        String componentName,
+        Integer requiredQuantity
+) {
+}
@@ -0,0 +1,9 @@
+package com.example.inventory.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+public record ProductComponentRequest(
+        @NotNull Long componentId,
+        @NotNull @Min(1) Integer requiredQuantity
+) {}
@@ -0,0 +1,10 @@
+package com.example.inventory.dto;
+
+public record ProductImpact(
+        Long productId,
+        String productName,
+        Integer requiredQuantity,
+        Integer maxProducible,
+        Integer previousMaxProducible
+) {
+}
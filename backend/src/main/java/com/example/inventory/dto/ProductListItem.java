@@ -0,0 +1,14 @@
+package com.example.inventory.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record ProductListItem(
+        Long id,
+        String name,
+        BigDecimal value,
+        @JsonInclude(JsonInclude.Include.NON_NULL) List<ProductMaterialLine> materials
+) {
+}
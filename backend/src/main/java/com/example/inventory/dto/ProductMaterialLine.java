@@ -0,0 +1,10 @@
+package com.example.inventory.dto;
+
+public record ProductMaterialLine(
+        Long id,
+        Long productId,
+        Long rawMaterialId,
+        String rawMaterialName,
+        Integer requiredQuantity
+) {
+}
@@ -0,0 +1,11 @@
+package com.example.inventory.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+/** A product's whole BOM, as written by {@code PUT /api/products/{id}/materials}. */
+public record ProductRecipeRequest(
+        @NotNull List<@NotNull @Valid ProductMaterialRequest> materials
+) {}
@@ -0,0 +1,11 @@
+package com.example.inventory.dto;
+
+import java.util.List;
+
+public record ProductRecipeResponse(
+        Long productId,
+        int inserted,
+        int updated,
+        int deleted,
+        List<ProductMaterialLine> materials
+) {}
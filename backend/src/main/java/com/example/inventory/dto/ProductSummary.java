@@ -0,0 +1,10 @@
+package com.example.inventory.dto;
+
+import java.math.BigDecimal;
+
+public record ProductSummary(
+        Long id,
+        String name,
+        BigDecimal value
+) {
+}
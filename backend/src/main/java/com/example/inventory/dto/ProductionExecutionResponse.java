@@ -0,0 +1,12 @@
+package com.example.inventory.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record ProductionExecutionResponse(
+        Long productId,
+        String productName,
+        int quantity,
+        BigDecimal totalValue,
+        List<StockLevel> materials
+) {}
@@ -0,0 +1,9 @@
+package com.example.inventory.dto;
+
+public record RawMaterialListItem(
+        Long id,
+        String name,
+        Integer stockQuantity,
+        Integer reservedQuantity
+) {
+}
@@ -0,0 +1,10 @@
+package com.example.inventory.dto;
+
+public record RawMaterialMatch(
+        Long id,
+        String name,
+        Integer stockQuantity,
+        Integer reservedQuantity,
+        double score
+) {
+}
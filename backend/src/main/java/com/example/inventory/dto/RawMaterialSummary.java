@@ -0,0 +1,8 @@
+package com.example.inventory.dto;
+
+public record RawMaterialSummary(
+        Long id,
+        String name,
+        Integer stockQuantity
+) {
+}
@@ -0,0 +1,53 @@
+package com.example.inventory.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record ScenarioRequest(
+        @NotEmpty @Size(max = 100) List<@Valid Scenario> scenarios
+) {
+
+    /**
+     * One what-if variant of the current catalog. All changes are optional.
+     */
+    public record Scenario(
+            String name,
+            List<@Valid StockChange> stock,
+            List<@Valid PriceChange> prices,
+            List<@Valid BomChange> bom
+    ) {}
+
+    /** Adds {@code delta} to the available stock (negative to remove; floors at zero). */
+    public record StockChange(
+            @NotNull Long rawMaterialId,
+            @NotNull Integer delta
+    ) {}
+
+    /** New product value, either absolute ({@code value}) or relative ({@code factor}, e.g. 0.9). */
+    public record PriceChange(
+            @NotNull Long productId,
+            @DecimalMin("0.01") BigDecimal value,
+            @DecimalMin(value = "0", inclusive = false) BigDecimal factor
+    ) {
+
+        @AssertTrue(message = "must set either value or factor")
+        public boolean isValueOrFactor() {
+            return (value == null) != (factor == null);
+        }
+    }
+
+    /** Sets a BOM line's required quantity; 0 removes the line. */
+    public record BomChange(
+            @NotNull Long productId,
+            @NotNull Long rawMaterialId,
+            @NotNull @Min(0) Integer requiredQuantity
+    ) {}
+}
@@ -0,0 +1,26 @@
+package com.example.inventory.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record ScenarioResponse(
+        ProductionSuggestionResponse baseline,
+        List<Result> scenarios
+) {
+
+    public record Result(
+            String name,
+            ProductionSuggestionResponse plan,
+            BigDecimal grandTotalDelta,
+            List<ItemDelta> changes
+    ) {}
+
+    /** A product whose planned quantity differs from the baseline. */
+    public record ItemDelta(
+            Long productId,
+            String productName,
+            int baselineQuantity,
+            int scenarioQuantity,
+            BigDecimal valueDelta
+    ) {}
+}
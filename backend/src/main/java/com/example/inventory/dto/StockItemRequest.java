@@ -0,0 +1,9 @@
+package com.example.inventory.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+public record StockItemRequest(
+        @NotNull Long rawMaterialId,
+        @NotNull @Min(1) Integer quantity
+) {}
@@ -0,0 +1,7 @@
+package com.example.inventory.dto;
+
+public record StockLevel(
+        Long rawMaterialId,
+        int stockQuantity,
+        int reservedQuantity
+) {}
@@ -0,0 +1,15 @@
+package com.example.inventory.dto;
+
+import java.time.Instant;
+
+public record StockMovement(
+        Long id,
+        Long rawMaterialId,
+        Kind kind,
+        Integer quantity,
+        Instant occurredAt,
+        String reference
+) {
+
+    public enum Kind { RECEIPT, CONSUMPTION, ADJUSTMENT }
+}
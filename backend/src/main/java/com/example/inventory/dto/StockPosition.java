@@ -0,0 +1,7 @@
+package com.example.inventory.dto;
+
+public record StockPosition(
+        Long rawMaterialId,
+        Long stockQuantity
+) {
+}
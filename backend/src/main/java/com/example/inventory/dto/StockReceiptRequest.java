@@ -0,0 +1,8 @@
+package com.example.inventory.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+public record StockReceiptRequest(
+        @NotNull @Min(1) Integer quantity
+) {}
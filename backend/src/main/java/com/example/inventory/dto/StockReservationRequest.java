@@ -0,0 +1,10 @@
+package com.example.inventory.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public record StockReservationRequest(
+        @NotEmpty List<@Valid StockItemRequest> items
+) {}
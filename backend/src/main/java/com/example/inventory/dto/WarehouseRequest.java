@@ -0,0 +1,10 @@
+package com.example.inventory.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+public record WarehouseRequest(
+        @NotBlank @Size(max = 64) String code,
+        @NotBlank String name
+) {
+}
@@ -0,0 +1,9 @@
+package com.example.inventory.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+/** Counted stock of one material at a location; replaces what was recorded. */
+public record WarehouseStockRequest(
+        @NotNull @Min(0) Integer quantity
+) {}
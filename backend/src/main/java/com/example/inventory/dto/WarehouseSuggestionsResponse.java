@@ -0,0 +1,19 @@
+package com.example.inventory.dto;
+
+import java.util.List;
+
+/**
+ * Plans of every location, each against its own stock, and their sum. Stock is not moved
+ * between locations, so the total is what all of them produce together.
+ */
+public record WarehouseSuggestionsResponse(
+        List<Location> warehouses,
+        ProductionSuggestionResponse total
+) {
+
+    public record Location(
+            Long warehouseId,
+            String code,
+            ProductionSuggestionResponse plan
+    ) {}
+}
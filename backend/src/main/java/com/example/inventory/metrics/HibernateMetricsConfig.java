@@ -0,0 +1,18 @@
+package com.example.inventory.metrics;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class HibernateMetricsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer queryCountingCustomizer(QueryCounters queryCounters) {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, queryCounters);
+            properties.put(AvailableSettings.INTERCEPTOR, queryCounters);
+        };
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.inventory.metrics;
+
+import com.example.inventory.planning.BomSnapshot;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Meters of the suggestion path:
+ * <ul>
+ *   <li>{@code inventory.planning.phase} timer, tagged with {@code phase} (load, explode, index,
+ *       compile, plan, stream, serialize) and {@code strategy}, published as a percentile histogram;</li>
+ *   <li>{@code inventory.catalog.*} gauges with the size of the last compiled snapshot;</li>
+ *   <li>{@code inventory.suggestion.cache.requests} counter tagged {@code result=hit|miss}.</li>
+ * </ul>
+ */
+@Component
+public class PlanningMetrics {
+
+    public static final String NO_STRATEGY = "none";
+
+    private final MeterRegistry registry;
+    private final AtomicLong products = new AtomicLong();
+    private final AtomicLong bomEdges = new AtomicLong();
+    private final AtomicLong materials = new AtomicLong();
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+
+    public PlanningMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        Gauge.builder("inventory.catalog.products", products, AtomicLong::get)
+                .description("Products in the last compiled catalog snapshot").register(registry);
+        Gauge.builder("inventory.catalog.bom.edges", bomEdges, AtomicLong::get)
+                .description("BOM lines in the last compiled catalog snapshot").register(registry);
+        Gauge.builder("inventory.catalog.materials", materials, AtomicLong::get)
+                .description("Raw materials in the last compiled catalog snapshot").register(registry);
+        cacheHits = cacheCounter("hit");
+        cacheMisses = cacheCounter("miss");
+    }
+
+    /**
+     * Meters backed by an in-memory registry, for code constructed outside Spring.
+     */
+    public static PlanningMetrics detached() {
+        return new PlanningMetrics(new SimpleMeterRegistry());
+    }
+
+    public <T> T time(String phase, String strategy, Supplier<T> work) {
+        return phaseTimer(phase, strategy).record(work);
+    }
+
+    public Timer phaseTimer(String phase, String strategy) {
+        return Timer.builder("inventory.planning.phase")
+                .description("Time spent in each phase of a production suggestion")
+                .tag("phase", phase)
+                .tag("strategy", strategy)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    public void recordSnapshot(BomSnapshot snapshot) {
+        products.set(snapshot.productCount());
+        bomEdges.set(snapshot.edgeCount());
+        materials.set(snapshot.materialCount());
+    }
+
+    public void cacheHit() {
+        cacheHits.increment();
+    }
+
+    public void cacheMiss() {
+        cacheMisses.increment();
+    }
+
+    private Counter cacheCounter(String result) {
+        return Counter.builder("inventory.suggestion.cache.requests")
+                .description("Suggestion cache lookups")
+                .tag("result", result)
+                .register(registry);
+    }
+}
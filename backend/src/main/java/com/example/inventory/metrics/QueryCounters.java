@@ -0,0 +1,66 @@
+package com.example.inventory.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.Interceptor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.type.Type;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts SQL statements prepared by Hibernate and entities it loads, both in total
+ * ({@code inventory.sql.statements}, {@code inventory.entities.loaded}) and for the current
+ * request thread, so {@link QueryCountingFilter} can record them per endpoint. An N+1 shows
+ * up as a per-request count that grows with the catalog.
+ * <p>
+ * Plain JDBC access (bulk import, export) does not go through Hibernate and is not counted.
+ */
+@Component
+public class QueryCounters implements StatementInspector, Interceptor {
+
+    private static final ThreadLocal<long[]> CURRENT = new ThreadLocal<>();
+
+    private final Counter statements;
+    private final Counter entities;
+
+    public QueryCounters(MeterRegistry registry) {
+        statements = Counter.builder("inventory.sql.statements")
+                .description("SQL statements prepared by Hibernate").register(registry);
+        entities = Counter.builder("inventory.entities.loaded")
+                .description("Entities loaded by Hibernate").register(registry);
+    }
+
+    /**
+     * Starts counting for the current thread; returns the counters as
+     * {@code [statements, entities]}, updated in place until {@link #stop()}.
+     */
+    long[] start() {
+        long[] counts = new long[2];
+        CURRENT.set(counts);
+        return counts;
+    }
+
+    void stop() {
+        CURRENT.remove();
+    }
+
+    @Override
+    public String inspect(String sql) {
+        statements.increment();
+        long[] counts = CURRENT.get();
+        if (counts != null) {
+            counts[0]++;
+        }
+        return sql;
+    }
+
+    @Override
+    public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        entities.increment();
+        long[] counts = CURRENT.get();
+        if (counts != null) {
+            counts[1]++;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.inventory.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records how many SQL statements and entity loads each API request caused, as
+ * {@code inventory.request.sql.statements} and {@code inventory.request.entities.loaded}
+ * tagged with the request method and URI template.
+ */
+@Component
+public class QueryCountingFilter extends OncePerRequestFilter {
+
+    private final QueryCounters queryCounters;
+    private final MeterRegistry registry;
+
+    public QueryCountingFilter(QueryCounters queryCounters, MeterRegistry registry) {
+        this.queryCounters = queryCounters;
+        this.registry = registry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long[] counts = queryCounters.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            queryCounters.stop();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+            summary("inventory.request.sql.statements", "SQL statements per request", request, uri).record(counts[0]);
+            summary("inventory.request.entities.loaded", "Entities loaded per request", request, uri).record(counts[1]);
+        }
+    }
+
+    private DistributionSummary summary(String name, String description, HttpServletRequest request, String uri) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.inventory.metrics;
+
+import com.example.inventory.dto.ProductionSuggestionResponse;
+import com.example.inventory.dto.ScenarioResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The regular Jackson converter, timing the serialization of suggestion responses as the
+ * {@code serialize} phase. Replaces Spring Boot's default converter bean.
+ */
+@Component
+public class TimedJsonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    private final Timer serializeTimer;
+
+    public TimedJsonHttpMessageConverter(ObjectMapper objectMapper, PlanningMetrics planningMetrics) {
+        super(objectMapper);
+        this.serializeTimer = planningMetrics.phaseTimer("serialize", PlanningMetrics.NO_STRATEGY);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        if (!(object instanceof ProductionSuggestionResponse || object instanceof ScenarioResponse)) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } finally {
+            serializeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
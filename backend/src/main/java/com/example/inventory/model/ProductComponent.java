@@ -0,0 +1,43 @@
+package com.example.inventory.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * A product used as a sub-assembly of another product: making one unit of
+ * {@code product} takes {@code requiredQuantity} units of {@code component}.
+ */
+@Entity
+@Table(name = "product_components", uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"product_id", "component_id"})
+})
+public class ProductComponent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_components_seq")
+    @SequenceGenerator(name = "product_components_seq", sequenceName = "product_components_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", nullable = false)
+    private Product product;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "component_id", nullable = false)
+    private Product component;
+
+    @NotNull
+    @Min(1)
+    @Column(nullable = false)
+    private Integer requiredQuantity;
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Product getProduct() { return product; }
+    public void setProduct(Product product) { this.product = product; }
+    public Product getComponent() { return component; }
+    public void setComponent(Product component) { this.component = component; }
+    public Integer getRequiredQuantity() { return requiredQuantity; }
+    public void setRequiredQuantity(Integer requiredQuantity) { this.requiredQuantity = requiredQuantity; }
+}
@@ -1,18 +1,23 @@
 package com.example.inventory.model;
 
+import com.example.inventory.config.SecondLevelCacheConfig;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.PRODUCT_MATERIALS)
 @Table(name = "product_materials", uniqueConstraints = {
         @UniqueConstraint(columnNames = {"product_id", "raw_material_id"})
 })
 public class ProductMaterial {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_materials_seq")
+    @SequenceGenerator(name = "product_materials_seq", sequenceName = "product_materials_seq", allocationSize = 50)
     private Long id;
 
     @JsonBackReference
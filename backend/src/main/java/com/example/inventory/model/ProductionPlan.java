@@ -0,0 +1,96 @@
+package com.example.inventory.model;
+
+import com.example.inventory.planning.PlanningStrategy;
+import com.example.inventory.planning.RankingPolicy;
+import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An accepted production plan: header, the products to make and the stock they use up.
+ * While {@link Status#ACCEPTED} it is repaired as stock and BOMs change, and
+ * {@code revision} counts the versions of its lines.
+ */
+@Entity
+@Table(name = "production_plans")
+public class ProductionPlan {
+
+    public enum Status { ACCEPTED, CLOSED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "production_plans_seq")
+    @SequenceGenerator(name = "production_plans_seq", sequenceName = "production_plans_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false, length = 16)
+    private PlanningStrategy strategy;
+
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false, length = 32)
+    private RankingPolicy ranking;
+
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(nullable = false, length = 16)
+    private Status status = Status.ACCEPTED;
+
+    @Column(nullable = false)
+    private Instant acceptedAt = Instant.now();
+
+    private Instant replannedAt;
+
+    @Column(nullable = false)
+    private Integer revision = 1;
+
+    @Column(nullable = false, precision = 38, scale = 2)
+    private BigDecimal grandTotalValue;
+
+    @Column(nullable = false)
+    private Integer revisitedProducts;
+
+    @Column(nullable = false)
+    private Integer reusedProducts;
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "production_plan_items", joinColumns = @JoinColumn(name = "plan_id"))
+    @OrderColumn(name = "line_number")
+    private List<ProductionPlanItem> items = new ArrayList<>();
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "production_plan_materials", joinColumns = @JoinColumn(name = "plan_id"))
+    @OrderColumn(name = "line_number")
+    private List<ProductionPlanMaterial> materials = new ArrayList<>();
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public PlanningStrategy getStrategy() { return strategy; }
+    public void setStrategy(PlanningStrategy strategy) { this.strategy = strategy; }
+    public RankingPolicy getRanking() { return ranking; }
+    public void setRanking(RankingPolicy ranking) { this.ranking = ranking; }
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+    public Instant getAcceptedAt() { return acceptedAt; }
+    public void setAcceptedAt(Instant acceptedAt) { this.acceptedAt = acceptedAt; }
+    public Instant getReplannedAt() { return replannedAt; }
+    public void setReplannedAt(Instant replannedAt) { this.replannedAt = replannedAt; }
+    public Integer getRevision() { return revision; }
+    public void setRevision(Integer revision) { this.revision = revision; }
+    public BigDecimal getGrandTotalValue() { return grandTotalValue; }
+    public void setGrandTotalValue(BigDecimal grandTotalValue) { this.grandTotalValue = grandTotalValue; }
+    public Integer getRevisitedProducts() { return revisitedProducts; }
+    public void setRevisitedProducts(Integer revisitedProducts) { this.revisitedProducts = revisitedProducts; }
+    public Integer getReusedProducts() { return reusedProducts; }
+    public void setReusedProducts(Integer reusedProducts) { this.reusedProducts = reusedProducts; }
+    public List<ProductionPlanItem> getItems() { return items; }
+    public void setItems(List<ProductionPlanItem> items) { this.items = items; }
+    public List<ProductionPlanMaterial> getMaterials() { return materials; }
+    public void setMaterials(List<ProductionPlanMaterial> materials) { this.materials = materials; }
+}
@@ -0,0 +1,52 @@
+package com.example.inventory.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+@Embeddable
+public class ProductionPlanItem {
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private String productName;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(nullable = false, precision = 38, scale = 2)
+    private BigDecimal totalValue;
+
+    protected ProductionPlanItem() {
+    }
+
+    public ProductionPlanItem(Long productId, String productName, Integer quantity, BigDecimal totalValue) {
+        this.productId = productId;
+        this.productName = productName;
+        this.quantity = quantity;
+        this.totalValue = totalValue;
+    }
+
+    public Long getProductId() { return productId; }
+    public String getProductName() { return productName; }
+    public Integer getQuantity() { return quantity; }
+    public BigDecimal getTotalValue() { return totalValue; }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof ProductionPlanItem other
+                && productId.equals(other.productId)
+                && productName.equals(other.productName)
+                && quantity.equals(other.quantity)
+                && totalValue.compareTo(other.totalValue) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(productId, quantity);
+    }
+}
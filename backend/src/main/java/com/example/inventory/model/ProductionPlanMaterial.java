@@ -0,0 +1,26 @@
+package com.example.inventory.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+/** Stock of one material the plan uses up. */
+@Embeddable
+public class ProductionPlanMaterial {
+
+    @Column(name = "raw_material_id", nullable = false)
+    private Long rawMaterialId;
+
+    @Column(nullable = false)
+    private Integer consumedQuantity;
+
+    protected ProductionPlanMaterial() {
+    }
+
+    public ProductionPlanMaterial(Long rawMaterialId, Integer consumedQuantity) {
+        this.rawMaterialId = rawMaterialId;
+        this.consumedQuantity = consumedQuantity;
+    }
+
+    public Long getRawMaterialId() { return rawMaterialId; }
+    public Integer getConsumedQuantity() { return consumedQuantity; }
+}
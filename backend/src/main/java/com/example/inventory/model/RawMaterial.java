@@ -1,32 +1,70 @@
 package com.example.inventory.model;
 
+import com.example.inventory.config.SecondLevelCacheConfig;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.util.Locale;
 
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.RAW_MATERIALS)
 @Table(name = "raw_materials")
 public class RawMaterial {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "raw_materials_seq")
+    @SequenceGenerator(name = "raw_materials_seq", sequenceName = "raw_materials_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
     @Column(nullable = false)
     private String name;
 
+    // Lookup key: names are unique ignoring case and surrounding blanks.
+    @JsonIgnore
+    @Column(nullable = false, unique = true)
+    private String normalizedName;
+
     @NotNull
     @Min(0)
     @Column(nullable = false)
     private Integer stockQuantity;
 
+    // Part of stockQuantity held by open reservations; not available for new ones.
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Integer reservedQuantity = 0;
+
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    public static String normalize(String name) {
+        return name.strip().toLowerCase(Locale.ROOT);
+    }
+
+    @PrePersist
+    @PreUpdate
+    void normalizeName() {
+        normalizedName = normalize(name);
+    }
+
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
     public String getName() { return name; }
     public void setName(String name) { this.name = name; }
+    public String getNormalizedName() { return normalizedName; }
     public Integer getStockQuantity() { return stockQuantity; }
     public void setStockQuantity(Integer stockQuantity) { this.stockQuantity = stockQuantity; }
-    
+    public Integer getReservedQuantity() { return reservedQuantity; }
+    public void setReservedQuantity(Integer reservedQuantity) { this.reservedQuantity = reservedQuantity; }
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
 }
@@ -0,0 +1,25 @@
+package com.example.inventory.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+@Embeddable
+public class StockReservationItem {
+
+    @Column(name = "raw_material_id", nullable = false)
+    private Long rawMaterialId;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    protected StockReservationItem() {
+    }
+
+    public StockReservationItem(Long rawMaterialId, Integer quantity) {
+        this.rawMaterialId = rawMaterialId;
+        this.quantity = quantity;
+    }
+
+    public Long getRawMaterialId() { return rawMaterialId; }
+    public Integer getQuantity() { return quantity; }
+}
@@ -0,0 +1,35 @@
+package com.example.inventory.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+
+/**
+ * A plant or other stock location. Its stock is kept per raw material in
+ * {@code warehouse_stock}; see {@link com.example.inventory.service.warehouse.WarehouseService}.
+ */
+@Entity
+@Table(name = "warehouses")
+public class Warehouse {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "warehouses_seq")
+    @SequenceGenerator(name = "warehouses_seq", sequenceName = "warehouses_seq", allocationSize = 50)
+    private Long id;
+
+    @NotBlank
+    @Column(nullable = false, unique = true, length = 64)
+    private String code;
+
+    @NotBlank
+    @Column(nullable = false)
+    private String name;
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getCode() { return code; }
+    public void setCode(String code) { this.code = code; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+}
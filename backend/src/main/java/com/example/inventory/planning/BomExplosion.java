@@ -0,0 +1,219 @@
+package com.example.inventory.planning;
+
+import com.example.inventory.dto.BomLine;
+import com.example.inventory.dto.ComponentLine;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Multi-level BOMs flattened to raw-material requirements.
+ * <p>
+ * Products that use other products as components ("assemblies") get a flattened
+ * requirement vector: their own raw-material lines plus, for every component, its
+ * flattened vector times the quantity used. The component graph is walked once in
+ * topological order (components before the assemblies that use them), so each vector is
+ * built from already finished ones and no subtree is visited twice. Products without
+ * components keep their own lines and are not part of the explosion.
+ * <p>
+ * Requirements that do not fit an {@code int} saturate at {@link Integer#MAX_VALUE}: no
+ * stock level can satisfy them anyway, so the plans stay the same.
+ */
+public final class BomExplosion {
+
+    public static final BomExplosion EMPTY = new BomExplosion(new long[0], Map.of());
+
+    private final long[] order;
+    private final Map<Long, List<BomLine>> flattened;
+
+    private BomExplosion(long[] order, Map<Long, List<BomLine>> flattened) {
+        this.order = order;
+        this.flattened = flattened;
+    }
+
+    /**
+     * Products whose raw-material lines are needed to explode {@code components}.
+     */
+    public static Set<Long> productsInvolved(List<ComponentLine> components) {
+        Set<Long> ids = new TreeSet<>();
+        for (ComponentLine line : components) {
+            ids.add(line.productId());
+            ids.add(line.componentId());
+        }
+        return ids;
+    }
+
+    /**
+     * @param components  every component link of the catalog
+     * @param directLines raw-material lines of at least {@link #productsInvolved} products
+     * @throws IllegalStateException if the component links contain a cycle
+     */
+    public static BomExplosion explode(List<ComponentLine> components, List<BomLine> directLines) {
+        if (components.isEmpty()) {
+            return EMPTY;
+        }
+
+        Map<Long, List<ComponentLine>> usedBy = new HashMap<>();
+        Map<Long, Integer> pending = new HashMap<>();
+        Set<Long> assemblies = new HashSet<>();
+        for (ComponentLine line : components) {
+            assemblies.add(line.productId());
+            usedBy.computeIfAbsent(line.componentId(), id -> new ArrayList<>()).add(line);
+            pending.merge(line.productId(), 1, Integer::sum);
+            pending.putIfAbsent(line.componentId(), 0);
+        }
+
+        Map<Long, TreeMap<Long, Long>> requirements = new HashMap<>(pending.size() * 2);
+        for (BomLine line : directLines) {
+            if (pending.containsKey(line.productId())) {
+                requirements.computeIfAbsent(line.productId(), id -> new TreeMap<>())
+                        .merge(line.rawMaterialId(), (long) line.requiredQuantity(), BomExplosion::saturatedAdd);
+            }
+        }
+
+        ArrayDeque<Long> ready = new ArrayDeque<>();
+        pending.forEach((id, count) -> {
+            if (count == 0) {
+                ready.add(id);
+            }
+        });
+
+        long[] order = new long[pending.size()];
+        int done = 0;
+        Map<Long, List<BomLine>> flattened = new HashMap<>();
+        while (!ready.isEmpty()) {
+            long id = ready.poll();
+            order[done++] = id;
+            TreeMap<Long, Long> vector = requirements.getOrDefault(id, new TreeMap<>());
+            if (assemblies.contains(id)) {
+                flattened.put(id, toLines(id, vector));
+            }
+            for (ComponentLine use : usedBy.getOrDefault(id, List.of())) {
+                TreeMap<Long, Long> parent = requirements.computeIfAbsent(use.productId(), p -> new TreeMap<>());
+                vector.forEach((material, quantity) ->
+                        parent.merge(material, saturatedMultiply(quantity, use.requiredQuantity()), BomExplosion::saturatedAdd));
+                if (pending.merge(use.productId(), -1, Integer::sum) == 0) {
+                    ready.add(use.productId());
+                }
+            }
+            // Only ancestors still need this vector, and they have all been fed.
+            requirements.remove(id);
+        }
+
+        if (done < order.length) {
+            Set<Long> cyclic = new TreeSet<>();
+            pending.forEach((id, count) -> {
+                if (count > 0) {
+                    cyclic.add(id);
+                }
+            });
+            throw new IllegalStateException("Product components form a cycle through products " + cyclic);
+        }
+        return new BomExplosion(order, Collections.unmodifiableMap(flattened));
+    }
+
+    /**
+     * Chain of product ids from {@code componentId} down to {@code productId} that would
+     * close a cycle if {@code componentId} became a component of {@code productId}; empty
+     * if the link keeps the graph acyclic.
+     */
+    public static List<Long> cycleIfLinked(List<ComponentLine> components, long productId, long componentId) {
+        if (productId == componentId) {
+            return List.of(productId, productId);
+        }
+        Map<Long, List<Long>> uses = new HashMap<>();
+        for (ComponentLine line : components) {
+            uses.computeIfAbsent(line.productId(), id -> new ArrayList<>()).add(line.componentId());
+        }
+        Map<Long, Long> reachedFrom = new HashMap<>();
+        ArrayDeque<Long> queue = new ArrayDeque<>();
+        queue.add(componentId);
+        reachedFrom.put(componentId, componentId);
+        while (!queue.isEmpty()) {
+            long id = queue.poll();
+            if (id == productId) {
+                List<Long> path = new ArrayList<>();
+                for (long step = id; step != componentId; step = reachedFrom.get(step)) {
+                    path.add(step);
+                }
+                path.add(componentId);
+                Collections.reverse(path);
+                return path;
+            }
+            for (long next : uses.getOrDefault(id, List.of())) {
+                if (reachedFrom.putIfAbsent(next, id) == null) {
+                    queue.add(next);
+                }
+            }
+        }
+        return List.of();
+    }
+
+    public boolean isAssembly(long productId) {
+        return flattened.containsKey(productId);
+    }
+
+    /**
+     * Flattened raw-material lines of an assembly, ordered by raw material id; {@code null}
+     * for products without components.
+     */
+    public List<BomLine> lines(long productId) {
+        return flattened.get(productId);
+    }
+
+    /**
+     * Replaces the lines of every assembly in {@code lines} with its flattened vector.
+     */
+    public List<BomLine> apply(List<BomLine> lines) {
+        if (flattened.isEmpty()) {
+            return lines;
+        }
+        List<BomLine> result = new ArrayList<>(lines.size() + flattened.size() * 4);
+        for (BomLine line : lines) {
+            if (!flattened.containsKey(line.productId())) {
+                result.add(line);
+            }
+        }
+        for (long id : order) {
+            List<BomLine> assembly = flattened.get(id);
+            if (assembly != null) {
+                result.addAll(assembly);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Products of the component graph, every component before the assemblies using it.
+     */
+    public long[] order() {
+        return order.clone();
+    }
+
+    public int assemblyCount() {
+        return flattened.size();
+    }
+
+    private static List<BomLine> toLines(long productId, TreeMap<Long, Long> vector) {
+        List<BomLine> lines = new ArrayList<>(vector.size());
+        vector.forEach((material, quantity) ->
+                lines.add(new BomLine(productId, material, (int) Math.min(quantity, Integer.MAX_VALUE))));
+        return List.copyOf(lines);
+    }
+
+    private static long saturatedAdd(long a, long b) {
+        return Math.min(a + b, Integer.MAX_VALUE);
+    }
+
+    private static long saturatedMultiply(long a, long b) {
+        return Math.min(a * b, Integer.MAX_VALUE);
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.inventory.planning;
+
+import com.example.inventory.dto.BomLine;
+import com.example.inventory.dto.ComponentLine;
+import com.example.inventory.metrics.PlanningMetrics;
+import com.example.inventory.repository.IdBatches;
+import com.example.inventory.repository.ProductComponentRepository;
+import com.example.inventory.repository.ProductMaterialRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Memoizes the {@link BomExplosion} of the catalog until the BOM structure changes
+ * ({@link CatalogVersion#structure()}). Stock movements keep the memo.
+ */
+@Component
+public class BomExplosionCache {
+
+    private record Memo(long structure, BomExplosion explosion) {}
+
+    private final ProductComponentRepository productComponentRepository;
+    private final ProductMaterialRepository productMaterialRepository;
+    private final CatalogVersion catalogVersion;
+    private final PlanningMetrics planningMetrics;
+    private volatile Memo memo;
+
+    public BomExplosionCache(ProductComponentRepository productComponentRepository,
+                             ProductMaterialRepository productMaterialRepository,
+                             CatalogVersion catalogVersion,
+                             PlanningMetrics planningMetrics) {
+        this.productComponentRepository = productComponentRepository;
+        this.productMaterialRepository = productMaterialRepository;
+        this.catalogVersion = catalogVersion;
+        this.planningMetrics = planningMetrics;
+    }
+
+    public BomExplosion current() {
+        // Same ordering as SuggestionCache: a change landing during the load leaves the memo
+        // under the older version, so the next call rebuilds it.
+        long structure = catalogVersion.structure();
+        Memo cached = memo;
+        if (cached != null && cached.structure() == structure) {
+            return cached.explosion();
+        }
+
+        BomExplosion explosion = planningMetrics.time("explode", PlanningMetrics.NO_STRATEGY, this::load);
+        synchronized (this) {
+            if (memo == null || memo.structure() <= structure) {
+                memo = new Memo(structure, explosion);
+            }
+        }
+        return explosion;
+    }
+
+    /**
+     * Raw-material requirements per unit of {@code productId}: flattened for assemblies,
+     * the product's own lines otherwise.
+     */
+    public List<BomLine> requirements(Long productId) {
+        List<BomLine> flattened = current().lines(productId);
+        return flattened != null ? flattened : productMaterialRepository.findLinesByProductId(productId);
+    }
+
+    private BomExplosion load() {
+        List<ComponentLine> components = productComponentRepository.findAllLines();
+        if (components.isEmpty()) {
+            return BomExplosion.EMPTY;
+        }
+        List<BomLine> lines = IdBatches.query(BomExplosion.productsInvolved(components),
+                productMaterialRepository::findLinesByProductIds);
+        return BomExplosion.explode(components, lines);
+    }
+}
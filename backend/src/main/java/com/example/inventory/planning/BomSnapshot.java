@@ -0,0 +1,374 @@
+package com.example.inventory.planning;
+
+import com.example.inventory.dto.BomLine;
+import com.example.inventory.dto.ProductSummary;
+import com.example.inventory.dto.RawMaterialSummary;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, array-based view of the catalog used by the planning loops.
+ * <p>
+ * Products are stored in planning order (highest value first, ties by id) and their
+ * bill of materials is kept in CSR form: the lines of product {@code p} are the edges
+ * {@code bomStart(p) .. bomEnd(p) - 1}, each one pointing to a material index and the
+ * quantity required per unit. Stock is a plain {@code int[]} indexed by material. Values
+ * are held as scaled longs ({@link FixedPoint}), so ordering and totalling them allocates
+ * nothing; {@link #productValue} materializes one.
+ */
+public final class BomSnapshot {
+
+    private final long[] productIds;
+    private final String[] productNames;
+    private final ProductValues productValues;
+    private final int[] bomOffsets;
+    private final int[] bomMaterials;
+    private final int[] bomQuantities;
+    private final long[] materialIds;
+    private final int[] stock;
+    // Built on first lookup; the planning loops never need them.
+    private volatile IdIndex productIndex;
+    private volatile IdIndex materialIndex;
+
+    private BomSnapshot(long[] productIds, String[] productNames, ProductValues productValues,
+                        int[] bomOffsets, int[] bomMaterials, int[] bomQuantities,
+                        long[] materialIds, int[] stock, IdIndex productIndex, IdIndex materialIndex) {
+        this.productIds = productIds;
+        this.productNames = productNames;
+        this.productValues = productValues;
+        this.bomOffsets = bomOffsets;
+        this.bomMaterials = bomMaterials;
+        this.bomQuantities = bomQuantities;
+        this.materialIds = materialIds;
+        this.stock = stock;
+        this.productIndex = productIndex;
+        this.materialIndex = materialIndex;
+    }
+
+    public static BomSnapshot compile(List<ProductSummary> products,
+                                      List<RawMaterialSummary> materials,
+                                      List<BomLine> lines) {
+
+        int productCount = products.size();
+        BigDecimal[] inputValues = new BigDecimal[productCount];
+        long[] inputIds = new long[productCount];
+        for (int i = 0; i < productCount; i++) {
+            inputValues[i] = products.get(i).value();
+            inputIds[i] = products.get(i).id();
+        }
+        ProductValues inputOrder = ProductValues.of(inputValues);
+        int[] planningOrder = inputOrder.planningOrder(inputIds);
+        ProductValues productValues = inputOrder.reorder(planningOrder);
+
+        long[] productIds = new long[productCount];
+        String[] productNames = new String[productCount];
+        Map<Long, Integer> productIndex = new HashMap<>(productCount * 2);
+        for (int p = 0; p < productCount; p++) {
+            ProductSummary product = products.get(planningOrder[p]);
+            productIds[p] = product.id();
+            productNames[p] = product.name();
+            productIndex.put(product.id(), p);
+        }
+        Map<Long, Integer> materialIndex = new HashMap<>(materials.size() * 2);
+        long[] materialIds = new long[materials.size()];
+        int[] stock = new int[materials.size()];
+        int materialCount = 0;
+        for (RawMaterialSummary material : materials) {
+            materialIndex.put(material.id(), materialCount);
+            materialIds[materialCount] = material.id();
+            stock[materialCount] = material.stockQuantity();
+            materialCount++;
+        }
+
+        // First pass: count lines per product so offsets can be laid out.
+        int[] bomOffsets = new int[productCount + 1];
+        for (BomLine line : lines) {
+            Integer p = productIndex.get(line.productId());
+            if (p != null) {
+                bomOffsets[p + 1]++;
+            }
+        }
+        for (int p = 0; p < productCount; p++) {
+            bomOffsets[p + 1] += bomOffsets[p];
+        }
+
+        // Second pass: fill the edges. A line pointing to a material that is not in the
+        // stock list is kept against an empty stock slot, as the old map lookups did.
+        int[] bomMaterials = new int[bomOffsets[productCount]];
+        int[] bomQuantities = new int[bomOffsets[productCount]];
+        int[] cursor = Arrays.copyOf(bomOffsets, productCount);
+        for (BomLine line : lines) {
+            Integer p = productIndex.get(line.productId());
+            if (p == null) {
+                continue;
+            }
+            Integer m = materialIndex.get(line.rawMaterialId());
+            if (m == null) {
+                m = materialCount;
+                if (m == materialIds.length) {
+                    materialIds = Arrays.copyOf(materialIds, m + 1);
+                    stock = Arrays.copyOf(stock, m + 1);
+                }
+                materialIds[m] = line.rawMaterialId();
+                materialIndex.put(line.rawMaterialId(), m);
+                materialCount++;
+            }
+            int edge = cursor[p]++;
+            bomMaterials[edge] = m;
+            bomQuantities[edge] = line.requiredQuantity();
+        }
+
+        materialIds = Arrays.copyOf(materialIds, materialCount);
+        return new BomSnapshot(productIds, productNames, productValues,
+                bomOffsets, bomMaterials, bomQuantities,
+                materialIds, Arrays.copyOf(stock, materialCount), null, null);
+    }
+
+    /**
+     * Rebuilds a snapshot from arrays laid out as by {@link #compile}, as read back by
+     * {@link CatalogSnapshotFile}. The arrays are used as they are, not copied.
+     */
+    static BomSnapshot restore(long[] productIds, String[] productNames, long[] valueUnits, int[] valueScales,
+                               int[] bomOffsets, int[] bomMaterials, int[] bomQuantities,
+                               long[] materialIds, int[] stock) {
+        return new BomSnapshot(productIds, productNames, ProductValues.of(valueUnits, valueScales), bomOffsets, bomMaterials, bomQuantities,
+                materialIds, stock, null, null);
+    }
+
+    public int productCount() { return productIds.length; }
+    public long productId(int product) { return productIds[product]; }
+    public String productName(int product) { return productNames[product]; }
+    public BigDecimal productValue(int product) { return productValues.get(product); }
+    public double productValueAsDouble(int product) { return productValues.asDouble(product); }
+
+    /**
+     * Whether every product value is held as {@link FixedPoint} units and a scale; false
+     * only if some value has more unscaled digits than a long.
+     */
+    public boolean fixedPointValues() { return productValues.fixedPoint(); }
+    /** Unscaled value of a product, if {@link #fixedPointValues()}. */
+    public long productValueUnits(int product) { return productValues.units(product); }
+    /** Scale of a product's value, if {@link #fixedPointValues()}. */
+    public int productValueScale(int product) { return productValues.scale(product); }
+
+    /** {@code productValue(product).multiply(quantity)}, computed on the scaled value. */
+    public BigDecimal productTotal(int product, int quantity) {
+        return productValues.times(product, quantity);
+    }
+
+    /** Adds {@code productTotal(product, quantity)} to {@code sum} without materializing it. */
+    public void addProductTotal(FixedPoint.Sum sum, int product, int quantity) {
+        productValues.addTo(sum, product, quantity);
+    }
+
+    /** Numeric order of this snapshot's value of {@code product} against {@code other}'s value of {@code otherProduct}. */
+    public int compareValue(int product, BomSnapshot other, int otherProduct) {
+        return productValues.compare(product, other.productValues, otherProduct);
+    }
+
+    public int bomStart(int product) { return bomOffsets[product]; }
+    public int bomEnd(int product) { return bomOffsets[product + 1]; }
+    public int edgeCount() { return bomMaterials.length; }
+    public int edgeMaterial(int edge) { return bomMaterials[edge]; }
+    public int edgeQuantity(int edge) { return bomQuantities[edge]; }
+    // The edge arrays themselves, for GreedyPlanner; never modified.
+    int[] edgeMaterials() { return bomMaterials; }
+    int[] edgeQuantities() { return bomQuantities; }
+
+    public int materialCount() { return materialIds.length; }
+    public long materialId(int material) { return materialIds[material]; }
+    public int stock(int material) { return stock[material]; }
+
+    /** @return the product index of {@code id}, or -1 */
+    public int indexOfProduct(long id) {
+        IdIndex index = productIndex;
+        if (index == null) {
+            productIndex = index = IdIndex.of(productIds);
+        }
+        return index.indexOf(id);
+    }
+
+    /** @return the material index of {@code id}, or -1 */
+    public int indexOfMaterial(long id) {
+        IdIndex index = materialIndex;
+        if (index == null) {
+            materialIndex = index = IdIndex.of(materialIds);
+        }
+        return index.indexOf(id);
+    }
+
+    /**
+     * Returns a private copy of the stock vector that a planning loop can consume.
+     */
+    public int[] copyStock() {
+        return stock.clone();
+    }
+
+    /**
+     * Starts a what-if copy of this snapshot. Only the parts that a change touches are
+     * copied: a stock-only variant shares every product and BOM array with this snapshot.
+     */
+    public Variant variant() {
+        return new Variant(this);
+    }
+
+    public static final class Variant {
+
+        private final BomSnapshot base;
+        private int[] stock;
+        private final Map<Integer, BigDecimal> values = new HashMap<>();
+        private final Map<Integer, Map<Integer, Integer>> lines = new HashMap<>();
+
+        private Variant(BomSnapshot base) {
+            this.base = base;
+        }
+
+        /** Adds {@code delta} (possibly negative) to a material's stock, never going below zero. */
+        public Variant adjustStock(long materialId, int delta) {
+            int m = material(materialId);
+            if (stock == null) {
+                stock = base.stock.clone();
+            }
+            long adjusted = (long) stock[m] + delta;
+            stock[m] = (int) Math.max(0, Math.min(Integer.MAX_VALUE, adjusted));
+            return this;
+        }
+
+        public Variant setValue(long productId, BigDecimal value) {
+            values.put(product(productId), value);
+            return this;
+        }
+
+        public BigDecimal value(long productId) {
+            int p = product(productId);
+            return values.containsKey(p) ? values.get(p) : base.productValues.get(p);
+        }
+
+        /** Sets the quantity of one BOM line; 0 removes the line. */
+        public Variant setRequiredQuantity(long productId, long materialId, int quantity) {
+            lines.computeIfAbsent(product(productId), p -> new HashMap<>()).put(material(materialId), quantity);
+            return this;
+        }
+
+        public BomSnapshot build() {
+            int[] variantStock = stock != null ? stock : base.stock;
+            if (values.isEmpty() && lines.isEmpty()) {
+                return new BomSnapshot(base.productIds, base.productNames, base.productValues,
+                        base.bomOffsets, base.bomMaterials, base.bomQuantities,
+                        base.materialIds, variantStock, base.productIndex, base.materialIndex);
+            }
+
+            int productCount = base.productIds.length;
+            ProductValues newValues = values.isEmpty() ? base.productValues : base.productValues.with(values);
+            int[] order;
+            if (values.isEmpty()) {
+                order = new int[productCount];
+                for (int p = 0; p < productCount; p++) {
+                    order[p] = p;
+                }
+            } else {
+                order = newValues.planningOrder(base.productIds);
+            }
+
+            long[] productIds = new long[productCount];
+            String[] productNames = new String[productCount];
+            int[] bomOffsets = new int[productCount + 1];
+            int[] bomMaterials = new int[base.bomMaterials.length + countAddedLines()];
+            int[] bomQuantities = new int[bomMaterials.length];
+            int edge = 0;
+            for (int position = 0; position < productCount; position++) {
+                int p = order[position];
+                productIds[position] = base.productIds[p];
+                productNames[position] = base.productNames[p];
+                Map<Integer, Integer> changed = lines.getOrDefault(p, Map.of());
+                for (int e = base.bomOffsets[p]; e < base.bomOffsets[p + 1]; e++) {
+                    int quantity = changed.getOrDefault(base.bomMaterials[e], base.bomQuantities[e]);
+                    if (quantity > 0) {
+                        bomMaterials[edge] = base.bomMaterials[e];
+                        bomQuantities[edge++] = quantity;
+                    }
+                }
+                for (Map.Entry<Integer, Integer> entry : changed.entrySet()) {
+                    if (entry.getValue() > 0 && !base.hasLine(p, entry.getKey())) {
+                        bomMaterials[edge] = entry.getKey();
+                        bomQuantities[edge++] = entry.getValue();
+                    }
+                }
+                bomOffsets[position + 1] = edge;
+            }
+
+            return new BomSnapshot(productIds, productNames, values.isEmpty() ? newValues : newValues.reorder(order),
+                    bomOffsets, Arrays.copyOf(bomMaterials, edge), Arrays.copyOf(bomQuantities, edge),
+                    base.materialIds, variantStock,
+                    values.isEmpty() ? base.productIndex : null, base.materialIndex);
+        }
+
+        private int countAddedLines() {
+            int added = 0;
+            for (Map.Entry<Integer, Map<Integer, Integer>> entry : lines.entrySet()) {
+                for (int material : entry.getValue().keySet()) {
+                    if (!base.hasLine(entry.getKey(), material)) {
+                        added++;
+                    }
+                }
+            }
+            return added;
+        }
+
+        private int product(long id) {
+            int p = base.indexOfProduct(id);
+            if (p < 0) {
+                throw new IllegalArgumentException("Product not found: " + id);
+            }
+            return p;
+        }
+
+        private int material(long id) {
+            int m = base.indexOfMaterial(id);
+            if (m < 0) {
+                throw new IllegalArgumentException("Raw material not found: " + id);
+            }
+            return m;
+        }
+    }
+
+    private boolean hasLine(int product, int material) {
+        for (int e = bomOffsets[product]; e < bomOffsets[product + 1]; e++) {
+            if (bomMaterials[e] == material) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Id to index lookup: ids sorted once, with the index each one maps to.
+     */
+    private record IdIndex(long[] sortedIds, int[] indexes) {
+
+        static IdIndex of(long[] ids) {
+            Integer[] order = new Integer[ids.length];
+            for (int i = 0; i < ids.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.comparingLong(i -> ids[i]));
+            long[] sortedIds = new long[ids.length];
+            int[] indexes = new int[ids.length];
+            for (int i = 0; i < ids.length; i++) {
+                sortedIds[i] = ids[order[i]];
+                indexes[i] = order[i];
+            }
+            return new IdIndex(sortedIds, indexes);
+        }
+
+        int indexOf(long id) {
+            int position = Arrays.binarySearch(sortedIds, id);
+            return position < 0 ? -1 : indexes[position];
+        }
+    }
+}
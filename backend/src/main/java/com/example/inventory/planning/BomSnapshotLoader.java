@@ -0,0 +1,79 @@
+package com.example.inventory.planning;
+
+import com.example.inventory.dto.BomLine;
+import com.example.inventory.dto.ProductSummary;
+import com.example.inventory.dto.RawMaterialSummary;
+import com.example.inventory.metrics.PlanningMetrics;
+import com.example.inventory.repository.ProductMaterialRepository;
+import com.example.inventory.repository.ProductRepository;
+import com.example.inventory.repository.RawMaterialRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Builds a {@link BomSnapshot} with three bulk queries, independent of catalog size.
+ * Assemblies get their flattened requirements from the memoized {@link BomExplosion}.
+ * <p>
+ * A snapshot known to match the database can be {@linkplain #seed seeded} (at startup, from
+ * the {@link CatalogSnapshotStore}); it is served without querying until the catalog moves.
+ */
+@Component
+public class BomSnapshotLoader {
+
+    private final ProductRepository productRepository;
+    private final RawMaterialRepository rawMaterialRepository;
+    private final ProductMaterialRepository productMaterialRepository;
+    private final BomExplosionCache bomExplosionCache;
+    private final PlanningMetrics planningMetrics;
+    private final CatalogVersion catalogVersion;
+
+    private record Seed(long version, BomSnapshot snapshot) {}
+
+    private final AtomicReference<Seed> seed = new AtomicReference<>();
+
+    public BomSnapshotLoader(ProductRepository productRepository,
+                             RawMaterialRepository rawMaterialRepository,
+                             ProductMaterialRepository productMaterialRepository,
+                             BomExplosionCache bomExplosionCache,
+                             PlanningMetrics planningMetrics,
+                             CatalogVersion catalogVersion) {
+        this.productRepository = productRepository;
+        this.rawMaterialRepository = rawMaterialRepository;
+        this.productMaterialRepository = productMaterialRepository;
+        this.bomExplosionCache = bomExplosionCache;
+        this.planningMetrics = planningMetrics;
+        this.catalogVersion = catalogVersion;
+    }
+
+    /** Serves {@code snapshot} for as long as the catalog stays at {@code version}. */
+    public void seed(BomSnapshot snapshot, long version) {
+        seed.set(new Seed(version, snapshot));
+    }
+
+    private record Rows(List<ProductSummary> products, List<RawMaterialSummary> materials, List<BomLine> lines) {}
+
+    @Transactional(readOnly = true)
+    public BomSnapshot load() {
+        Seed current = seed.get();
+        if (current != null) {
+            if (current.version() == catalogVersion.current()) {
+                return current.snapshot();
+            }
+            // Versions only grow, so it will never match again.
+            seed.compareAndSet(current, null);
+        }
+        Rows rows = planningMetrics.time("load", PlanningMetrics.NO_STRATEGY, () -> new Rows(
+                productRepository.findAllSummaries(),
+                rawMaterialRepository.findAllSummaries(),
+                productMaterialRepository.findAllLines()
+        ));
+        BomExplosion explosion = bomExplosionCache.current();
+        BomSnapshot snapshot = planningMetrics.time("compile", PlanningMetrics.NO_STRATEGY,
+                () -> BomSnapshot.compile(rows.products(), rows.materials(), explosion.apply(rows.lines())));
+        planningMetrics.recordSnapshot(snapshot);
+        return snapshot;
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.inventory.planning;
+
+/**
+ * Published by the write paths whenever a product, raw material, BOM line or
+ * component link changes. Component links are {@link Kind#BOM} changes.
+ */
+public record CatalogChangedEvent(
+        Kind kind,
+        Long id
+) {
+
+    public enum Kind { PRODUCT, RAW_MATERIAL, BOM }
+}
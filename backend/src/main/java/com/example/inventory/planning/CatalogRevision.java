@@ -0,0 +1,39 @@
+package com.example.inventory.planning;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Keeps {@code catalog_revision} moving with the catalog structure. Unlike
+ * {@link CatalogVersion}, it lives in the database and so survives restarts; stock changes
+ * are left out, {@code raw_materials.version} already records those.
+ * <p>
+ * The bump runs in the transaction of the change. Writes that publish their event after
+ * committing on their own get it right after.
+ */
+@Component
+public class CatalogRevision {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CatalogRevision(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.kind() != CatalogChangedEvent.Kind.RAW_MATERIAL) {
+            jdbcTemplate.update("update catalog_revision set revision = revision + 1 where id = 1");
+        }
+    }
+
+    /** The database's current stamp, to compare with the one a snapshot was written under. */
+    public CatalogSnapshotFile.Stamp stamp() {
+        Long revision = jdbcTemplate.queryForObject("select revision from catalog_revision where id = 1", Long.class);
+        return jdbcTemplate.queryForObject(
+                "select count(*), coalesce(sum(version), 0), coalesce(max(id), 0) from raw_materials",
+                (rs, rowNum) -> new CatalogSnapshotFile.Stamp(revision, rs.getLong(1), rs.getLong(2), rs.getLong(3)));
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.inventory.planning;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Binary form of a {@link BomSnapshot}: a fixed header followed by the snapshot's arrays,
+ * one column after the other, little-endian.
+ * <pre>
+ * int magic, int format
+ * long revision, long materialRows, long materialVersions, long maxMaterialId   (the stamp)
+ * int products, int edges, int materials, int nameBytes
+ * long crc32 of everything below
+ * long[products] ids, long[products] unscaled values, int[products] value scales
+ * int[products + 1] bom offsets, int[edges] bom materials, int[edges] bom quantities
+ * long[materials] ids, int[materials] stock
+ * int[products + 1] name offsets, byte[nameBytes] UTF-8 names
+ * </pre>
+ * Files are read through a read-only mapping and the columns bulk-copied into the arrays
+ * the planners work on; nothing is parsed per element except the names.
+ */
+public final class CatalogSnapshotFile {
+
+    /** Database state a snapshot was taken at; see {@link CatalogRevision#stamp()}. */
+    public record Stamp(long revision, long materialRows, long materialVersions, long maxMaterialId) {}
+
+    public record Contents(Stamp stamp, BomSnapshot snapshot) {}
+
+    private static final int MAGIC = 0x494e5643;
+    private static final int FORMAT = 1;
+    private static final int HEADER_BYTES = 64;
+
+    private CatalogSnapshotFile() {
+    }
+
+    /** Writes next to {@code path} and moves the file into place, so readers never see half of it. */
+    public static void write(Path path, Stamp stamp, BomSnapshot snapshot) throws IOException {
+        int products = snapshot.productCount();
+        int edges = snapshot.edgeCount();
+        int materials = snapshot.materialCount();
+        if (!snapshot.fixedPointValues()) {
+            throw new IOException("Catalog has product values too large for a snapshot file");
+        }
+        byte[][] names = new byte[products][];
+        int nameBytes = 0;
+        for (int p = 0; p < products; p++) {
+            names[p] = snapshot.productName(p).getBytes(StandardCharsets.UTF_8);
+            nameBytes += names[p].length;
+        }
+
+        long size = HEADER_BYTES + 20L * products + 8L * (products + 1) + 8L * edges + 12L * materials + nameBytes;
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Catalog too large for a snapshot file: " + size + " bytes");
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) size).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(FORMAT)
+                .putLong(stamp.revision()).putLong(stamp.materialRows())
+                .putLong(stamp.materialVersions()).putLong(stamp.maxMaterialId())
+                .putInt(products).putInt(edges).putInt(materials).putInt(nameBytes)
+                .putLong(0);
+
+        for (int p = 0; p < products; p++) {
+            buffer.putLong(snapshot.productId(p));
+        }
+        for (int p = 0; p < products; p++) {
+            buffer.putLong(snapshot.productValueUnits(p));
+        }
+        for (int p = 0; p < products; p++) {
+            buffer.putInt(snapshot.productValueScale(p));
+        }
+        for (int p = 0; p <= products; p++) {
+            buffer.putInt(p < products ? snapshot.bomStart(p) : edges);
+        }
+        for (int edge = 0; edge < edges; edge++) {
+            buffer.putInt(snapshot.edgeMaterial(edge));
+        }
+        for (int edge = 0; edge < edges; edge++) {
+            buffer.putInt(snapshot.edgeQuantity(edge));
+        }
+        for (int m = 0; m < materials; m++) {
+            buffer.putLong(snapshot.materialId(m));
+        }
+        for (int m = 0; m < materials; m++) {
+            buffer.putInt(snapshot.stock(m));
+        }
+        int offset = 0;
+        for (int p = 0; p <= products; p++) {
+            buffer.putInt(offset);
+            offset += p < products ? names[p].length : 0;
+        }
+        for (byte[] name : names) {
+            buffer.put(name);
+        }
+
+        buffer.putLong(HEADER_BYTES - 8, crc(buffer.position(HEADER_BYTES)));
+        buffer.position(0);
+
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Maps and reads a snapshot file.
+     *
+     * @throws IOException if the file cannot be read, is of another format or is damaged
+     */
+    public static Contents read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+                throw new IOException("Not a catalog snapshot: " + size + " bytes");
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            ByteBuffer buffer = mapped.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT) {
+                throw new IOException("Not a catalog snapshot of format " + FORMAT);
+            }
+            Stamp stamp = new Stamp(buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong());
+            int products = buffer.getInt();
+            int edges = buffer.getInt();
+            int materials = buffer.getInt();
+            int nameBytes = buffer.getInt();
+            long crc = buffer.getLong();
+            long expected = HEADER_BYTES + 20L * products + 8L * (products + 1) + 8L * edges + 12L * materials + nameBytes;
+            if (products < 0 || edges < 0 || materials < 0 || nameBytes < 0 || expected != size) {
+                throw new IOException("Catalog snapshot is truncated");
+            }
+            if (crc(buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN)) != crc) {
+                throw new IOException("Catalog snapshot is damaged");
+            }
+
+            long[] productIds = longs(buffer, products);
+            long[] unscaled = longs(buffer, products);
+            int[] scales = ints(buffer, products);
+            int[] bomOffsets = ints(buffer, products + 1);
+            int[] bomMaterials = ints(buffer, edges);
+            int[] bomQuantities = ints(buffer, edges);
+            long[] materialIds = longs(buffer, materials);
+            int[] stock = ints(buffer, materials);
+            int[] nameOffsets = ints(buffer, products + 1);
+            byte[] nameData = new byte[nameBytes];
+            buffer.get(nameData);
+
+            String[] names = new String[products];
+            for (int p = 0; p < products; p++) {
+                names[p] = new String(nameData, nameOffsets[p], nameOffsets[p + 1] - nameOffsets[p], StandardCharsets.UTF_8);
+            }
+            return new Contents(stamp, BomSnapshot.restore(productIds, names, unscaled, scales,
+                    bomOffsets, bomMaterials, bomQuantities, materialIds, stock));
+        } catch (RuntimeException ex) {
+            // Offsets pointing outside the data: the checksum matched a file we did not write.
+            throw new IOException("Catalog snapshot is inconsistent", ex);
+        }
+    }
+
+    // Checksum of everything from the buffer's position on.
+    private static long crc(ByteBuffer buffer) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer);
+        return crc.getValue();
+    }
+
+    private static long[] longs(ByteBuffer buffer, int count) {
+        long[] values = new long[count];
+        buffer.asLongBuffer().get(values);
+        buffer.position(buffer.position() + 8 * count);
+        return values;
+    }
+
+    private static int[] ints(ByteBuffer buffer, int count) {
+        int[] values = new int[count];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + 4 * count);
+        return values;
+    }
+}
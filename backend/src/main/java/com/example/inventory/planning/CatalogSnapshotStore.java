@@ -0,0 +1,146 @@
+package com.example.inventory.planning;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps a {@link CatalogSnapshotFile} of the catalog on local disk so a restarted service
+ * can plan before it has loaded anything.
+ * <p>
+ * At startup the file is mapped and its stamp compared with the database's
+ * ({@link CatalogRevision#stamp()}). If they match, the snapshot is
+ * {@linkplain BomSnapshotLoader#seed seeded} and the first suggestions are served from it.
+ * If not, the file is ignored and the catalog is loaded in the background instead, so
+ * requests arriving meanwhile load it themselves as before.
+ * <p>
+ * The file is rewritten every {@code inventory.snapshot.interval} in which the catalog
+ * moved, and on shutdown. An empty {@code inventory.snapshot.path} turns all of this off.
+ */
+@Component
+public class CatalogSnapshotStore {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogSnapshotStore.class);
+
+    private final BomSnapshotLoader bomSnapshotLoader;
+    private final CatalogRevision catalogRevision;
+    private final CatalogVersion catalogVersion;
+    private final Path path;
+    private final Duration interval;
+    private ScheduledExecutorService executor;
+
+    // Catalog version of the last file written or restored.
+    private volatile long writtenVersion = -1;
+
+    public CatalogSnapshotStore(BomSnapshotLoader bomSnapshotLoader,
+                                CatalogRevision catalogRevision,
+                                CatalogVersion catalogVersion,
+                                @Value("${inventory.snapshot.path:}") String path,
+                                @Value("${inventory.snapshot.interval:5m}") Duration interval) {
+        this.bomSnapshotLoader = bomSnapshotLoader;
+        this.catalogRevision = catalogRevision;
+        this.catalogVersion = catalogVersion;
+        this.path = path.isBlank() ? null : Path.of(path);
+        this.interval = interval;
+    }
+
+    @PostConstruct
+    void start() {
+        if (path == null) {
+            return;
+        }
+        boolean restored = restore();
+        executor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "catalog-snapshots");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (!restored) {
+            executor.execute(this::catchUp);
+        }
+        if (interval.isPositive()) {
+            executor.scheduleWithFixedDelay(this::write, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        write();
+    }
+
+    /** Seeds the loader from the file if it matches the database; false otherwise. */
+    boolean restore() {
+        long started = System.nanoTime();
+        // Read before the stamp: changes after it leave the seed behind on their own.
+        long version = catalogVersion.current();
+        try {
+            CatalogSnapshotFile.Contents contents = CatalogSnapshotFile.read(path);
+            CatalogSnapshotFile.Stamp stamp = catalogRevision.stamp();
+            if (!contents.stamp().equals(stamp)) {
+                log.info("Catalog snapshot {} is out of date ({} vs {}), loading the catalog instead",
+                        path, contents.stamp(), stamp);
+                return false;
+            }
+            bomSnapshotLoader.seed(contents.snapshot(), version);
+            writtenVersion = version;
+            log.info("Restored {} products from catalog snapshot {} in {} ms", contents.snapshot().productCount(),
+                    path, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            return true;
+        } catch (NoSuchFileException ex) {
+            return false;
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Catalog snapshot {} could not be restored: {}", path, ex.getMessage());
+            return false;
+        }
+    }
+
+    // Loads the catalog ahead of the first request and stores it for the next start.
+    private void catchUp() {
+        try {
+            long version = catalogVersion.current();
+            bomSnapshotLoader.seed(bomSnapshotLoader.load(), version);
+        } catch (RuntimeException ex) {
+            log.warn("Loading the catalog in the background failed: {}", ex.getMessage());
+        }
+        write();
+    }
+
+    void write() {
+        try {
+            long version = catalogVersion.current();
+            if (version == writtenVersion) {
+                return;
+            }
+            // Stamp before data: a change in between makes the file look older than it is,
+            // which only costs a load at the next start.
+            CatalogSnapshotFile.Stamp stamp = catalogRevision.stamp();
+            BomSnapshot snapshot = bomSnapshotLoader.load();
+            Files.createDirectories(path.toAbsolutePath().getParent());
+            CatalogSnapshotFile.write(path, stamp, snapshot);
+            writtenVersion = version;
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Writing catalog snapshot {} failed: {}", path, ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.inventory.planning;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonic counter of catalog changes. It is bumped only after the writing transaction
+ * commits, so a reader that sees version {@code v} is guaranteed to read data at least as
+ * new as the change that produced {@code v}.
+ */
+@Component
+public class CatalogVersion {
+
+    private final long epoch = System.currentTimeMillis();
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicLong structureVersion = new AtomicLong();
+
+    public long current() {
+        return version.get();
+    }
+
+    /**
+     * Counter of changes that can alter the BOM structure (products and BOM lines). Stock
+     * movements do not move it, so data derived only from the structure survives them.
+     */
+    public long structure() {
+        return structureVersion.get();
+    }
+
+    /**
+     * Entity tag for the current version. The process start time is part of the tag so
+     * clients holding a tag from a previous run never get a false 304.
+     */
+    public String eTag() {
+        return "\"" + Long.toString(epoch, 36) + "-" + version.get() + "\"";
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.kind() != CatalogChangedEvent.Kind.RAW_MATERIAL) {
+            structureVersion.incrementAndGet();
+        }
+        version.incrementAndGet();
+    }
+}
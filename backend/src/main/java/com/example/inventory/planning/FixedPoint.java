@@ -0,0 +1,149 @@
+package com.example.inventory.planning;
+
+import java.math.BigDecimal;
+
+/**
+ * Decimal arithmetic on scaled longs: {@code units} and {@code scale} stand for
+ * {@code units × 10^-scale}, as in {@link BigDecimal#valueOf(long, int)}. Every result is
+ * equal, scale included, to what the same {@code BigDecimal} operation gives; when a long
+ * would overflow, that one operation is done in {@code BigDecimal} instead.
+ */
+public final class FixedPoint {
+
+    private static final long[] LONG_POWERS_OF_TEN = new long[19];
+    // Powers of ten a double holds exactly.
+    private static final double[] DOUBLE_POWERS_OF_TEN = new double[23];
+
+    static {
+        LONG_POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < LONG_POWERS_OF_TEN.length; i++) {
+            LONG_POWERS_OF_TEN[i] = LONG_POWERS_OF_TEN[i - 1] * 10;
+        }
+        DOUBLE_POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < DOUBLE_POWERS_OF_TEN.length; i++) {
+            DOUBLE_POWERS_OF_TEN[i] = DOUBLE_POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private FixedPoint() {
+    }
+
+    /** Whether {@code value} has a {@code long} unscaled value. */
+    public static boolean fits(BigDecimal value) {
+        return value.unscaledValue().bitLength() < Long.SIZE;
+    }
+
+    /** {@code value.multiply(BigDecimal.valueOf(quantity))}. */
+    public static BigDecimal times(long units, int scale, int quantity) {
+        long product = multiply(units, quantity);
+        if (product != Long.MIN_VALUE) {
+            return BigDecimal.valueOf(product, scale);
+        }
+        return BigDecimal.valueOf(units, scale).multiply(BigDecimal.valueOf(quantity));
+    }
+
+    /** {@code a.compareTo(b)}: numeric order, whatever the scales. */
+    public static int compare(long unitsA, int scaleA, long unitsB, int scaleB) {
+        if (scaleA == scaleB) {
+            return Long.compare(unitsA, unitsB);
+        }
+        if (scaleA < scaleB) {
+            long rescaled = rescale(unitsA, scaleB - scaleA);
+            if (rescaled != Long.MIN_VALUE) {
+                return Long.compare(rescaled, unitsB);
+            }
+        } else {
+            long rescaled = rescale(unitsB, scaleA - scaleB);
+            if (rescaled != Long.MIN_VALUE) {
+                return Long.compare(unitsA, rescaled);
+            }
+        }
+        return BigDecimal.valueOf(unitsA, scaleA).compareTo(BigDecimal.valueOf(unitsB, scaleB));
+    }
+
+    /**
+     * {@code value.doubleValue()}. Both are correctly rounded: the fast path divides or
+     * multiplies two doubles that hold their operands exactly.
+     */
+    public static double toDouble(long units, int scale) {
+        if (Math.abs(units) < 1L << 52) {
+            if (scale == 0) {
+                return units;
+            }
+            if (scale > 0 && scale < DOUBLE_POWERS_OF_TEN.length) {
+                return units / DOUBLE_POWERS_OF_TEN[scale];
+            }
+            if (scale < 0 && -scale < DOUBLE_POWERS_OF_TEN.length) {
+                return units * DOUBLE_POWERS_OF_TEN[-scale];
+            }
+        }
+        return BigDecimal.valueOf(units, scale).doubleValue();
+    }
+
+    /** {@code a × b}, or {@code Long.MIN_VALUE} if that does not fit a long. */
+    static long multiply(long a, long b) {
+        long high = Math.multiplyHigh(a, b);
+        long low = a * b;
+        return high == (low >> 63) && low != Long.MIN_VALUE ? low : Long.MIN_VALUE;
+    }
+
+    // units × 10^digits, or Long.MIN_VALUE when it overflows.
+    private static long rescale(long units, int digits) {
+        if (digits >= LONG_POWERS_OF_TEN.length) {
+            return units == 0 ? 0 : Long.MIN_VALUE;
+        }
+        return multiply(units, LONG_POWERS_OF_TEN[digits]);
+    }
+
+    /**
+     * A running total, equal to adding every amount to {@link BigDecimal#ZERO} in turn. It
+     * stays a long at the largest scale seen and becomes a {@code BigDecimal} if that
+     * overflows.
+     */
+    public static final class Sum {
+
+        private long units;
+        private int scale;
+        private BigDecimal overflowed;
+
+        public void add(long amountUnits, int amountScale) {
+            if (overflowed == null) {
+                long total = units;
+                int totalScale = scale;
+                long amount = amountUnits;
+                if (amountScale > totalScale) {
+                    total = rescale(total, amountScale - totalScale);
+                    totalScale = amountScale;
+                } else if (amountScale < totalScale) {
+                    amount = rescale(amount, totalScale - amountScale);
+                }
+                if (total != Long.MIN_VALUE && amount != Long.MIN_VALUE) {
+                    long sum = total + amount;
+                    // Overflow only if both operands have the same sign and the sum does not.
+                    if (((total ^ sum) & (amount ^ sum)) >= 0 && sum != Long.MIN_VALUE) {
+                        units = sum;
+                        scale = totalScale;
+                        return;
+                    }
+                }
+                overflowed = BigDecimal.valueOf(units, scale);
+            }
+            overflowed = overflowed.add(BigDecimal.valueOf(amountUnits, amountScale));
+        }
+
+        public void add(BigDecimal amount) {
+            if (overflowed == null && fits(amount)) {
+                add(amount.unscaledValue().longValue(), amount.scale());
+            } else {
+                if (overflowed == null) {
+                    overflowed = BigDecimal.valueOf(units, scale);
+                }
+                overflowed = overflowed.add(amount);
+            }
+        }
+
+        public BigDecimal value() {
+            return overflowed != null ? overflowed : BigDecimal.valueOf(units, scale);
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.example.inventory.planning;
+
+/**
+ * The greedy plan: products are taken one at a time in {@link RankingPolicy} order and
+ * each gets as many units as the remaining stock allows.
+ * <p>
+ * Works on the arrays of a {@link BomSnapshot} only. Besides the plan itself it allocates
+ * one stock copy and, for rankings other than {@link RankingPolicy#VALUE} (the snapshot's
+ * own order), the scores and the order they sort into.
+ */
+public final class GreedyPlanner {
+
+    /** A repaired plan and how many products had to be decided again. */
+    public record Repair(int[] quantities, int revisited) {}
+
+    /** Told of each product {@link #plan} decides to produce, as soon as it is decided. */
+    @FunctionalInterface
+    public interface Decisions {
+        void produce(int product, int quantity);
+    }
+
+    private GreedyPlanner() {
+    }
+
+    /**
+     * Snapshot product indexes in the order {@code policy} serves them; {@code null} for the
+     * snapshot order. Products that rank equal keep the snapshot order between them.
+     */
+    public static int[] rank(BomSnapshot snapshot, RankingPolicy policy) {
+        if (policy == RankingPolicy.VALUE) {
+            return null;
+        }
+        double[] pressure = pressure(snapshot);
+        double[] score = new double[snapshot.productCount()];
+        for (int p = 0; p < score.length; p++) {
+            score[p] = score(snapshot, p, policy, pressure);
+        }
+        int[] order = new int[score.length];
+        for (int p = 0; p < order.length; p++) {
+            order[p] = p;
+        }
+        sortDescending(order, new int[order.length], 0, order.length, score);
+        return order;
+    }
+
+    /**
+     * Units to produce per snapshot product index, deciding products in {@code order}
+     * ({@code null} for the snapshot order).
+     */
+    public static int[] plan(BomSnapshot snapshot, int[] order) {
+        return plan(snapshot, order, null);
+    }
+
+    /**
+     * {@link #plan(BomSnapshot, int[])}, passing each product given a quantity to
+     * {@code decisions} (if not {@code null}) in the order it is decided.
+     */
+    public static int[] plan(BomSnapshot snapshot, int[] order, Decisions decisions) {
+        int[] stock = snapshot.copyStock();
+        int[] edgeMaterials = snapshot.edgeMaterials();
+        int[] edgeQuantities = snapshot.edgeQuantities();
+        int[] quantities = new int[snapshot.productCount()];
+
+        for (int i = 0; i < quantities.length; i++) {
+            int product = order == null ? i : order[i];
+            int quantity = decide(stock, edgeMaterials, edgeQuantities, snapshot.bomStart(product), snapshot.bomEnd(product));
+            if (quantity > 0) {
+                quantities[product] = quantity;
+                if (decisions != null) {
+                    decisions.produce(product, quantity);
+                }
+            }
+        }
+        return quantities;
+    }
+
+    /**
+     * One greedy decision: as many units as {@code stock} allows of a product that needs
+     * {@code quantities[line]} of material {@code materials[line]} per unit, for the lines in
+     * {@code [from, to)}. The units are taken out of {@code stock}; a product without lines
+     * gets none. Also used to plan products read one at a time, without a snapshot.
+     */
+    public static int decide(int[] stock, int[] materials, int[] quantities, int from, int to) {
+        if (from == to) {
+            return 0;
+        }
+        int maxProducible = Integer.MAX_VALUE;
+        for (int line = from; line < to; line++) {
+            maxProducible = Math.min(maxProducible, stock[materials[line]] / quantities[line]);
+        }
+        if (maxProducible <= 0) {
+            return 0;
+        }
+        for (int line = from; line < to; line++) {
+            stock[materials[line]] -= maxProducible * quantities[line];
+        }
+        return maxProducible;
+    }
+
+    /**
+     * The plan {@link #plan} gives {@code current} in snapshot order, reusing the decisions
+     * {@code previousQuantities} made over {@code previous}. A product is decided again only
+     * if it is new or changed, or needs a material whose stock differs or whose consumption
+     * by an earlier product moved; any other product sees exactly the stock it saw before
+     * and keeps its quantity.
+     * <p>
+     * With {@code structureChanged} false the products and their BOMs are taken to be the
+     * same in both snapshots (only stock moved), which skips comparing them.
+     */
+    public static Repair repair(BomSnapshot previous, int[] previousQuantities, BomSnapshot current,
+                                boolean structureChanged) {
+        boolean[] dirty = new boolean[current.materialCount()];
+        for (int m = 0; m < dirty.length; m++) {
+            int before = previous.indexOfMaterial(current.materialId(m));
+            dirty[m] = current.stock(m) != (before < 0 ? 0 : previous.stock(before));
+        }
+        int[] previousIndex = null;
+        boolean[] changed = null;
+        if (structureChanged || previous.productCount() != current.productCount()) {
+            previousIndex = new int[current.productCount()];
+            changed = new boolean[current.productCount()];
+            compareStructure(previous, current, previousIndex, changed, dirty);
+        }
+
+        int[] stock = current.copyStock();
+        int[] quantities = new int[current.productCount()];
+        int revisited = 0;
+        for (int p = 0; p < quantities.length; p++) {
+            int from = current.bomStart(p);
+            int to = current.bomEnd(p);
+            int before = previousIndex == null ? p : previousIndex[p];
+            int quantity = before < 0 ? 0 : previousQuantities[before];
+
+            boolean revisit = changed != null && changed[p];
+            for (int edge = from; !revisit && edge < to; edge++) {
+                revisit = dirty[current.edgeMaterial(edge)];
+            }
+            if (revisit) {
+                revisited++;
+                int decided = from == to ? 0 : Integer.MAX_VALUE;
+                for (int edge = from; edge < to; edge++) {
+                    decided = Math.min(decided, stock[current.edgeMaterial(edge)] / current.edgeQuantity(edge));
+                }
+                decided = Math.max(0, decided);
+                // Later users of these materials now see different stock.
+                if (decided != quantity) {
+                    for (int edge = from; edge < to; edge++) {
+                        dirty[current.edgeMaterial(edge)] = true;
+                    }
+                }
+                quantity = decided;
+            }
+
+            for (int edge = from; edge < to && quantity > 0; edge++) {
+                stock[current.edgeMaterial(edge)] -= quantity * current.edgeQuantity(edge);
+            }
+            quantities[p] = quantity;
+        }
+        return new Repair(quantities, revisited);
+    }
+
+    // Maps products to their previous index (-1 if new) and flags new or changed ones. The
+    // materials a changed or removed product used, before or now, all become dirty.
+    private static void compareStructure(BomSnapshot previous, BomSnapshot current, int[] previousIndex,
+                                         boolean[] changed, boolean[] dirty) {
+        boolean[] kept = new boolean[previous.productCount()];
+        for (int p = 0; p < previousIndex.length; p++) {
+            int before = previous.indexOfProduct(current.productId(p));
+            previousIndex[p] = before;
+            if (before >= 0) {
+                kept[before] = true;
+            }
+            if (before >= 0 && sameProduct(previous, before, current, p)) {
+                continue;
+            }
+            changed[p] = true;
+            for (int edge = current.bomStart(p); edge < current.bomEnd(p); edge++) {
+                dirty[current.edgeMaterial(edge)] = true;
+            }
+            if (before >= 0) {
+                markPrevious(previous, before, current, dirty);
+            }
+        }
+        for (int before = 0; before < kept.length; before++) {
+            if (!kept[before]) {
+                markPrevious(previous, before, current, dirty);
+            }
+        }
+    }
+
+    private static boolean sameProduct(BomSnapshot previous, int before, BomSnapshot current, int p) {
+        if (previous.compareValue(before, current, p) != 0
+                || previous.bomEnd(before) - previous.bomStart(before) != current.bomEnd(p) - current.bomStart(p)) {
+            return false;
+        }
+        for (int i = 0; i < current.bomEnd(p) - current.bomStart(p); i++) {
+            int edge = current.bomStart(p) + i;
+            int previousEdge = previous.bomStart(before) + i;
+            if (current.edgeQuantity(edge) != previous.edgeQuantity(previousEdge)
+                    || current.materialId(current.edgeMaterial(edge)) != previous.materialId(previous.edgeMaterial(previousEdge))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void markPrevious(BomSnapshot previous, int before, BomSnapshot current, boolean[] dirty) {
+        for (int edge = previous.bomStart(before); edge < previous.bomEnd(before); edge++) {
+            int m = current.indexOfMaterial(previous.materialId(previous.edgeMaterial(edge)));
+            if (m >= 0) {
+                dirty[m] = true;
+            }
+        }
+    }
+
+    // Units all products need per unit of stock, by material; infinite for materials out of stock.
+    private static double[] pressure(BomSnapshot snapshot) {
+        double[] demand = new double[snapshot.materialCount()];
+        for (int edge = 0; edge < snapshot.edgeCount(); edge++) {
+            demand[snapshot.edgeMaterial(edge)] += snapshot.edgeQuantity(edge);
+        }
+        for (int m = 0; m < demand.length; m++) {
+            demand[m] = snapshot.stock(m) > 0 ? demand[m] / snapshot.stock(m) : Double.POSITIVE_INFINITY;
+        }
+        return demand;
+    }
+
+    private static double score(BomSnapshot snapshot, int product, RankingPolicy policy, double[] pressure) {
+        double value = snapshot.productValueAsDouble(product);
+        double cost = 0;
+        double highestPressure = -1;
+        for (int edge = snapshot.bomStart(product); edge < snapshot.bomEnd(product); edge++) {
+            double materialPressure = pressure[snapshot.edgeMaterial(edge)];
+            if (policy == RankingPolicy.SCARCITY_WEIGHTED) {
+                cost += snapshot.edgeQuantity(edge) * materialPressure;
+            } else if (materialPressure > highestPressure) {
+                highestPressure = materialPressure;
+                cost = snapshot.edgeQuantity(edge);
+            }
+        }
+        // Products without BOM or needing a material out of stock are never produced anyway.
+        return cost > 0 && cost < Double.POSITIVE_INFINITY && highestPressure < Double.POSITIVE_INFINITY
+                ? value / cost
+                : Double.NEGATIVE_INFINITY;
+    }
+
+    // Stable merge sort of indexes by descending score, without boxing them.
+    private static void sortDescending(int[] order, int[] buffer, int from, int to, double[] score) {
+        if (to - from < 2) {
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        sortDescending(order, buffer, from, middle, score);
+        sortDescending(order, buffer, middle, to, score);
+        if (score[order[middle - 1]] >= score[order[middle]]) {
+            return;
+        }
+        System.arraycopy(order, from, buffer, from, to - from);
+        int left = from;
+        int right = middle;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < middle && score[buffer[left]] >= score[buffer[right]])) {
+                order[i] = buffer[left++];
+            } else {
+                order[i] = buffer[right++];
+            }
+        }
+    }
+}
@@ -0,0 +1,435 @@
+package com.example.inventory.planning;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+/**
+ * Bounded integer program for one independent group of products:
+ * <pre>
+ *   maximize  sum(value[j] * x[j])
+ *   subject to  sum(quantity[i][j] * x[j]) &lt;= stock[i]   for every material i
+ *               x[j] &gt;= 0, integer
+ * </pre>
+ * The LP relaxation is solved with a revised simplex; integrality is reached by
+ * depth-first branch-and-bound. Variables are expected in planning order, so the greedy
+ * plan used as the first incumbent matches the greedy strategy exactly. Every search
+ * stops at the deadline and keeps the best feasible plan found so far.
+ */
+final class IntegerProgramSolver {
+
+    private static final double EPSILON = 1e-9;
+    private static final int UNBOUNDED = Integer.MAX_VALUE;
+    private static final int DEGENERATE_PIVOTS_BEFORE_BLAND = 50;
+    private static final int DUAL_REFRESH_INTERVAL = 64;
+
+    /** Problems whose basis inverse would exceed this many cells are only solved greedily. */
+    static final long MAX_BASIS_CELLS = 4_000_000L;
+
+    private final int variables;
+    private final int constraints;
+    private final double[] objective;
+    private final int[] columnStart;
+    private final int[] columnRow;
+    private final int[] columnQuantity;
+    private final int[] capacity;
+    private final long deadline;
+
+    private final double[] columnNorm;
+    private int[] best;
+    private double bestValue = -1;
+    private boolean exhausted;
+
+    IntegerProgramSolver(double[] objective, int[] columnStart, int[] columnRow, int[] columnQuantity,
+                         int[] capacity, long deadline) {
+        this.variables = objective.length;
+        this.constraints = capacity.length;
+        this.objective = objective;
+        this.columnStart = columnStart;
+        this.columnRow = columnRow;
+        this.columnQuantity = columnQuantity;
+        this.capacity = capacity;
+        this.deadline = deadline;
+        this.columnNorm = new double[variables];
+        for (int j = 0; j < variables; j++) {
+            double sum = 0;
+            for (int k = columnStart[j]; k < columnStart[j + 1]; k++) {
+                sum += (double) columnQuantity[k] * columnQuantity[k];
+            }
+            columnNorm[j] = Math.sqrt(sum);
+        }
+    }
+
+    /**
+     * True when the last solve finished without hitting the deadline or the size guard.
+     */
+    boolean optimal() {
+        return !exhausted;
+    }
+
+    /**
+     * Solves the LP relaxation once, rounds it down and fills the remaining stock greedily.
+     */
+    int[] solveRelaxation() {
+        consider(fill(new int[variables]));
+        if (tooLarge(0)) {
+            exhausted = true;
+            return best;
+        }
+        int[] lower = new int[variables];
+        int[] upper = new int[variables];
+        Arrays.fill(upper, UNBOUNDED);
+        double[] x = solveLinear(lower, upper);
+        if (x != null) {
+            consider(roundAndFill(x));
+        }
+        return best;
+    }
+
+    /**
+     * Branch-and-bound over the LP relaxation, returning the best plan found before the deadline.
+     */
+    int[] solveInteger() {
+        consider(fill(new int[variables]));
+        if (tooLarge(0)) {
+            exhausted = true;
+            return best;
+        }
+
+        int[] rootUpper = new int[variables];
+        Arrays.fill(rootUpper, UNBOUNDED);
+        Deque<int[][]> open = new ArrayDeque<>();
+        open.push(new int[][]{new int[variables], rootUpper});
+
+        while (!open.isEmpty()) {
+            if (System.nanoTime() > deadline) {
+                exhausted = true;
+                break;
+            }
+            int[][] node = open.pop();
+            int[] lower = node[0];
+            int[] upper = node[1];
+
+            double[] x = solveLinear(lower, upper);
+            if (x == null) {
+                if (exhausted) {
+                    break;
+                }
+                continue;
+            }
+
+            double bound = value(x);
+            if (bound <= bestValue + EPSILON * Math.max(1, Math.abs(bestValue))) {
+                continue;
+            }
+            consider(roundAndFill(x));
+
+            int branch = -1;
+            double mostFractional = 0;
+            for (int j = 0; j < variables; j++) {
+                double fraction = x[j] - Math.floor(x[j]);
+                double distance = Math.min(fraction, 1 - fraction);
+                if (distance > 1e-6 && distance > mostFractional) {
+                    mostFractional = distance;
+                    branch = j;
+                }
+            }
+            if (branch < 0) {
+                continue;
+            }
+
+            int floor = (int) Math.floor(x[branch]);
+            int[] upLower = lower.clone();
+            upLower[branch] = floor + 1;
+            int[] downUpper = upper.clone();
+            downUpper[branch] = floor;
+            open.push(new int[][]{upLower, upper});
+            open.push(new int[][]{lower, downUpper});
+        }
+        return best;
+    }
+
+    /**
+     * Greedy completion in variable order, starting from a feasible partial plan.
+     */
+    private int[] fill(int[] plan) {
+        long[] residual = residual(plan);
+        if (residual == null) {
+            return null;
+        }
+        for (int j = 0; j < variables; j++) {
+            long possible = Long.MAX_VALUE;
+            for (int k = columnStart[j]; k < columnStart[j + 1]; k++) {
+                possible = Math.min(possible, residual[columnRow[k]] / columnQuantity[k]);
+            }
+            if (possible <= 0 || possible == Long.MAX_VALUE) {
+                continue;
+            }
+            plan[j] += (int) possible;
+            for (int k = columnStart[j]; k < columnStart[j + 1]; k++) {
+                residual[columnRow[k]] -= possible * columnQuantity[k];
+            }
+        }
+        return plan;
+    }
+
+    private int[] roundAndFill(double[] x) {
+        int[] plan = new int[variables];
+        for (int j = 0; j < variables; j++) {
+            plan[j] = (int) Math.floor(x[j] + 1e-6);
+        }
+        int[] filled = fill(plan);
+        // Numerical noise can push a rounded LP point past a stock limit; fall back to zero.
+        return filled != null ? filled : fill(new int[variables]);
+    }
+
+    private long[] residual(int[] plan) {
+        long[] residual = new long[constraints];
+        for (int i = 0; i < constraints; i++) {
+            residual[i] = capacity[i];
+        }
+        for (int j = 0; j < variables; j++) {
+            if (plan[j] == 0) {
+                continue;
+            }
+            for (int k = columnStart[j]; k < columnStart[j + 1]; k++) {
+                residual[columnRow[k]] -= (long) plan[j] * columnQuantity[k];
+            }
+        }
+        for (long r : residual) {
+            if (r < 0) {
+                return null;
+            }
+        }
+        return residual;
+    }
+
+    private void consider(int[] plan) {
+        if (plan == null) {
+            return;
+        }
+        double planValue = 0;
+        for (int j = 0; j < variables; j++) {
+            planValue += objective[j] * plan[j];
+        }
+        if (best == null || planValue > bestValue + EPSILON * Math.max(1, Math.abs(bestValue))) {
+            best = plan;
+            bestValue = planValue;
+        }
+    }
+
+    private double value(double[] x) {
+        double total = 0;
+        for (int j = 0; j < variables; j++) {
+            total += objective[j] * x[j];
+        }
+        return total;
+    }
+
+    private boolean tooLarge(int boundedRows) {
+        long rows = constraints + boundedRows;
+        return rows * rows > MAX_BASIS_CELLS;
+    }
+
+    /**
+     * Solves the LP relaxation with {@code lower <= x <= upper} using the revised simplex
+     * method with an explicit basis inverse. Lower bounds are shifted into the right-hand
+     * side and finite upper bounds become extra rows, so every node starts from the
+     * all-slack basis and pricing only touches the sparse BOM columns.
+     *
+     * @return the optimal point, or {@code null} when the node is infeasible or the
+     * deadline passed (the latter also marks the search as exhausted)
+     */
+    private double[] solveLinear(int[] lower, int[] upper) {
+        long[] residual = new long[constraints];
+        for (int i = 0; i < constraints; i++) {
+            residual[i] = capacity[i];
+        }
+        int bounded = 0;
+        for (int j = 0; j < variables; j++) {
+            if (upper[j] != UNBOUNDED) {
+                if (upper[j] < lower[j]) {
+                    return null;
+                }
+                bounded++;
+            }
+            if (lower[j] > 0) {
+                for (int k = columnStart[j]; k < columnStart[j + 1]; k++) {
+                    residual[columnRow[k]] -= (long) lower[j] * columnQuantity[k];
+                }
+            }
+        }
+        for (long r : residual) {
+            if (r < 0) {
+                return null;
+            }
+        }
+        if (tooLarge(bounded)) {
+            exhausted = true;
+            return null;
+        }
+
+        int rows = constraints + bounded;
+        int[] boundRow = new int[variables];
+        double[] values = new double[rows];
+        for (int i = 0; i < constraints; i++) {
+            values[i] = residual[i];
+        }
+        int row = constraints;
+        for (int j = 0; j < variables; j++) {
+            boundRow[j] = -1;
+            if (upper[j] != UNBOUNDED) {
+                boundRow[j] = row;
+                values[row++] = upper[j] - lower[j];
+            }
+        }
+
+        double[] inverse = new double[rows * rows];
+        int[] basis = new int[rows];
+        double[] basisCost = new double[rows];
+        boolean[] basic = new boolean[variables + rows];
+        for (int r = 0; r < rows; r++) {
+            inverse[r * rows + r] = 1;
+            basis[r] = variables + r;
+            basic[variables + r] = true;
+        }
+
+        double[] duals = new double[rows];
+        double[] direction = new double[rows];
+        int degenerate = 0;
+        int iterations = 0;
+        while (true) {
+            if (System.nanoTime() > deadline) {
+                exhausted = true;
+                return null;
+            }
+
+            // Duals are updated incrementally after each pivot and refreshed from the
+            // basis inverse now and then to keep rounding errors from piling up.
+            if (++iterations % DUAL_REFRESH_INTERVAL == 0) {
+                Arrays.fill(duals, 0);
+                for (int r = 0; r < rows; r++) {
+                    double cost = basisCost[r];
+                    if (cost != 0) {
+                        int offset = r * rows;
+                        for (int k = 0; k < rows; k++) {
+                            duals[k] += cost * inverse[offset + k];
+                        }
+                    }
+                }
+            }
+
+            boolean bland = degenerate > DEGENERATE_PIVOTS_BEFORE_BLAND;
+            int entering = -1;
+            double enteringReduced = 0;
+            double bestScore = 0;
+            for (int j = 0; j < variables + rows; j++) {
+                if (basic[j]) {
+                    continue;
+                }
+                double reduced;
+                if (j < variables) {
+                    reduced = objective[j];
+                    for (int k = columnStart[j]; k < columnStart[j + 1]; k++) {
+                        reduced -= duals[columnRow[k]] * columnQuantity[k];
+                    }
+                    if (boundRow[j] >= 0) {
+                        reduced -= duals[boundRow[j]];
+                    }
+                } else {
+                    reduced = -duals[j - variables];
+                }
+                if (reduced > EPSILON) {
+                    double score = j < variables ? reduced / columnNorm[j] : reduced;
+                    if (score > bestScore) {
+                        entering = j;
+                        enteringReduced = reduced;
+                        if (bland) {
+                            break;
+                        }
+                        bestScore = score;
+                    }
+                }
+            }
+            if (entering < 0) {
+                break;
+            }
+
+            for (int r = 0; r < rows; r++) {
+                int offset = r * rows;
+                double d;
+                if (entering < variables) {
+                    d = 0;
+                    for (int k = columnStart[entering]; k < columnStart[entering + 1]; k++) {
+                        d += inverse[offset + columnRow[k]] * columnQuantity[k];
+                    }
+                    if (boundRow[entering] >= 0) {
+                        d += inverse[offset + boundRow[entering]];
+                    }
+                } else {
+                    d = inverse[offset + entering - variables];
+                }
+                direction[r] = d;
+            }
+
+            int leaving = -1;
+            double bestRatio = Double.POSITIVE_INFINITY;
+            for (int r = 0; r < rows; r++) {
+                if (direction[r] > EPSILON) {
+                    double ratio = Math.max(0, values[r]) / direction[r];
+                    if (ratio < bestRatio - EPSILON
+                            || (ratio < bestRatio + EPSILON && leaving >= 0 && basis[r] < basis[leaving])) {
+                        bestRatio = ratio;
+                        leaving = r;
+                    }
+                }
+            }
+            if (leaving < 0) {
+                // Cannot happen: every product consumes at least one bounded material.
+                return null;
+            }
+            degenerate = bestRatio < EPSILON ? degenerate + 1 : 0;
+
+            double pivot = direction[leaving];
+            int pivotOffset = leaving * rows;
+            for (int k = 0; k < rows; k++) {
+                inverse[pivotOffset + k] /= pivot;
+            }
+            values[leaving] = bestRatio;
+            for (int r = 0; r < rows; r++) {
+                double factor = direction[r];
+                if (r == leaving || factor == 0) {
+                    continue;
+                }
+                values[r] -= factor * bestRatio;
+                int offset = r * rows;
+                for (int k = 0; k < rows; k++) {
+                    double delta = inverse[pivotOffset + k];
+                    if (delta != 0) {
+                        inverse[offset + k] -= factor * delta;
+                    }
+                }
+            }
+
+            for (int k = 0; k < rows; k++) {
+                duals[k] += enteringReduced * inverse[pivotOffset + k];
+            }
+
+            basic[basis[leaving]] = false;
+            basic[entering] = true;
+            basis[leaving] = entering;
+            basisCost[leaving] = entering < variables ? objective[entering] : 0;
+        }
+
+        double[] x = new double[variables];
+        for (int j = 0; j < variables; j++) {
+            x[j] = lower[j];
+        }
+        for (int r = 0; r < rows; r++) {
+            if (basis[r] < variables) {
+                x[basis[r]] += Math.max(0, values[r]);
+            }
+        }
+        return x;
+    }
+}
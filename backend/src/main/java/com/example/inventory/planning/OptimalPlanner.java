@@ -0,0 +1,135 @@
+package com.example.inventory.planning;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maximizes the total plan value with {@link IntegerProgramSolver}.
+ * <p>
+ * Products that share no material cannot affect each other, so the catalog is split into
+ * connected components and each one is solved on its own, all against the same deadline.
+ * Components left over when time runs out keep their greedy plan.
+ */
+@Component
+public class OptimalPlanner {
+
+    private static final Logger log = LoggerFactory.getLogger(OptimalPlanner.class);
+
+    private final Duration timeBudget;
+
+    public OptimalPlanner(@Value("${inventory.planning.solver.time-budget:2s}") Duration timeBudget) {
+        this.timeBudget = timeBudget;
+    }
+
+    /**
+     * @return units to produce per snapshot product index
+     */
+    public int[] plan(BomSnapshot snapshot, PlanningStrategy strategy) {
+        long deadline = System.nanoTime() + timeBudget.toNanos();
+        int[] quantities = new int[snapshot.productCount()];
+
+        int[] parent = new int[snapshot.materialCount()];
+        for (int m = 0; m < parent.length; m++) {
+            parent[m] = m;
+        }
+        List<Integer> candidates = new ArrayList<>();
+        for (int p = 0; p < snapshot.productCount(); p++) {
+            int from = snapshot.bomStart(p);
+            int to = snapshot.bomEnd(p);
+            if (from == to) {
+                continue;
+            }
+            int standalone = Integer.MAX_VALUE;
+            for (int e = from; e < to; e++) {
+                standalone = Math.min(standalone, snapshot.stock(snapshot.edgeMaterial(e)) / snapshot.edgeQuantity(e));
+                union(parent, snapshot.edgeMaterial(from), snapshot.edgeMaterial(e));
+            }
+            if (standalone > 0) {
+                candidates.add(p);
+            }
+        }
+
+        Map<Integer, List<Integer>> components = new LinkedHashMap<>();
+        for (int p : candidates) {
+            int root = find(parent, snapshot.edgeMaterial(snapshot.bomStart(p)));
+            components.computeIfAbsent(root, r -> new ArrayList<>()).add(p);
+        }
+
+        boolean optimal = true;
+        for (List<Integer> component : components.values()) {
+            optimal &= solveComponent(snapshot, component, strategy, deadline, quantities);
+        }
+        if (!optimal) {
+            log.debug("{} plan stopped at the {} budget; returning best plan found", strategy, timeBudget);
+        }
+        return quantities;
+    }
+
+    private boolean solveComponent(BomSnapshot snapshot, List<Integer> products, PlanningStrategy strategy,
+                                   long deadline, int[] quantities) {
+        int variables = products.size();
+        int[] localRow = new int[snapshot.materialCount()];
+        Arrays.fill(localRow, -1);
+        List<Integer> rows = new ArrayList<>();
+
+        double[] objective = new double[variables];
+        int[] columnStart = new int[variables + 1];
+        for (int j = 0; j < variables; j++) {
+            int p = products.get(j);
+            objective[j] = snapshot.productValueAsDouble(p);
+            columnStart[j + 1] = columnStart[j] + snapshot.bomEnd(p) - snapshot.bomStart(p);
+        }
+        int[] columnRow = new int[columnStart[variables]];
+        int[] columnQuantity = new int[columnStart[variables]];
+        for (int j = 0; j < variables; j++) {
+            int p = products.get(j);
+            int k = columnStart[j];
+            for (int e = snapshot.bomStart(p); e < snapshot.bomEnd(p); e++, k++) {
+                int material = snapshot.edgeMaterial(e);
+                if (localRow[material] < 0) {
+                    localRow[material] = rows.size();
+                    rows.add(material);
+                }
+                columnRow[k] = localRow[material];
+                columnQuantity[k] = snapshot.edgeQuantity(e);
+            }
+        }
+        int[] capacity = new int[rows.size()];
+        for (int i = 0; i < capacity.length; i++) {
+            capacity[i] = snapshot.stock(rows.get(i));
+        }
+
+        IntegerProgramSolver solver = new IntegerProgramSolver(objective, columnStart, columnRow, columnQuantity,
+                capacity, deadline);
+        int[] plan = strategy == PlanningStrategy.ILP ? solver.solveInteger() : solver.solveRelaxation();
+        for (int j = 0; j < variables; j++) {
+            quantities[products.get(j)] = plan[j];
+        }
+        return solver.optimal();
+    }
+
+    private static int find(int[] parent, int node) {
+        while (parent[node] != node) {
+            parent[node] = parent[parent[node]];
+            node = parent[node];
+        }
+        return node;
+    }
+
+    private static void union(int[] parent, int a, int b) {
+        int rootA = find(parent, a);
+        int rootB = find(parent, b);
+        if (rootA != rootB) {
+            parent[rootB] = rootA;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.inventory.planning;
+
+import java.util.Locale;
+
+public enum PlanningStrategy {
+
+    /** Highest unit value first, as much as the remaining stock allows. */
+    GREEDY,
+
+    /** LP relaxation rounded down, then completed greedily. */
+    LP,
+
+    /** Branch-and-bound to the best integer plan within the solver time budget. */
+    ILP;
+
+    public static PlanningStrategy fromParameter(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Unknown planning strategy: " + value);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.inventory.planning;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Product values of a {@link BomSnapshot}, by product index. Normally held as
+ * {@link FixedPoint} units and scales; a catalog with a value whose unscaled digits do not
+ * fit a long keeps them all as {@code BigDecimal} instead.
+ */
+final class ProductValues {
+
+    private final long[] units;
+    private final int[] scales;
+    private final BigDecimal[] decimals;
+
+    private ProductValues(long[] units, int[] scales, BigDecimal[] decimals) {
+        this.units = units;
+        this.scales = scales;
+        this.decimals = decimals;
+    }
+
+    static ProductValues of(BigDecimal[] values) {
+        long[] units = new long[values.length];
+        int[] scales = new int[values.length];
+        for (int p = 0; p < values.length; p++) {
+            if (!FixedPoint.fits(values[p])) {
+                return new ProductValues(null, null, values);
+            }
+            units[p] = values[p].unscaledValue().longValue();
+            scales[p] = values[p].scale();
+        }
+        return new ProductValues(units, scales, null);
+    }
+
+    static ProductValues of(long[] units, int[] scales) {
+        return new ProductValues(units, scales, null);
+    }
+
+    boolean fixedPoint() {
+        return units != null;
+    }
+
+    long units(int product) {
+        return units[product];
+    }
+
+    int scale(int product) {
+        return scales[product];
+    }
+
+    BigDecimal get(int product) {
+        return units != null ? BigDecimal.valueOf(units[product], scales[product]) : decimals[product];
+    }
+
+    double asDouble(int product) {
+        return units != null ? FixedPoint.toDouble(units[product], scales[product]) : decimals[product].doubleValue();
+    }
+
+    /** Numeric order of this value of {@code product} against {@code other}'s value of {@code otherProduct}. */
+    int compare(int product, ProductValues other, int otherProduct) {
+        if (units != null && other.units != null) {
+            return FixedPoint.compare(units[product], scales[product], other.units[otherProduct], other.scales[otherProduct]);
+        }
+        return get(product).compareTo(other.get(otherProduct));
+    }
+
+    /** {@code value × quantity} of one product. */
+    BigDecimal times(int product, int quantity) {
+        return units != null
+                ? FixedPoint.times(units[product], scales[product], quantity)
+                : decimals[product].multiply(BigDecimal.valueOf(quantity));
+    }
+
+    void addTo(FixedPoint.Sum sum, int product, int quantity) {
+        if (units != null) {
+            long total = FixedPoint.multiply(units[product], quantity);
+            if (total != Long.MIN_VALUE) {
+                sum.add(total, scales[product]);
+                return;
+            }
+        }
+        sum.add(times(product, quantity));
+    }
+
+    /** These values with some replaced, by product index. */
+    ProductValues with(Map<Integer, BigDecimal> replaced) {
+        if (units != null && replaced.values().stream().allMatch(FixedPoint::fits)) {
+            long[] newUnits = units.clone();
+            int[] newScales = scales.clone();
+            replaced.forEach((p, value) -> {
+                newUnits[p] = value.unscaledValue().longValue();
+                newScales[p] = value.scale();
+            });
+            return new ProductValues(newUnits, newScales, null);
+        }
+        BigDecimal[] values = new BigDecimal[size()];
+        for (int p = 0; p < values.length; p++) {
+            values[p] = replaced.getOrDefault(p, get(p));
+        }
+        return new ProductValues(null, null, values);
+    }
+
+    /** The value at {@code order[i]} moved to {@code i}. */
+    ProductValues reorder(int[] order) {
+        if (units == null) {
+            BigDecimal[] values = new BigDecimal[order.length];
+            for (int i = 0; i < order.length; i++) {
+                values[i] = decimals[order[i]];
+            }
+            return new ProductValues(null, null, values);
+        }
+        long[] newUnits = new long[order.length];
+        int[] newScales = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            newUnits[i] = units[order[i]];
+            newScales[i] = scales[order[i]];
+        }
+        return new ProductValues(newUnits, newScales, null);
+    }
+
+    /**
+     * Product indexes in planning order: highest value first, ties by id. Values are
+     * compared as scaled longs, without boxing the indexes.
+     */
+    int[] planningOrder(long[] productIds) {
+        int[] order = new int[size()];
+        for (int p = 0; p < order.length; p++) {
+            order[p] = p;
+        }
+        sort(order, new int[order.length], 0, order.length, productIds);
+        return order;
+    }
+
+    private int size() {
+        return units != null ? units.length : decimals.length;
+    }
+
+    private void sort(int[] order, int[] buffer, int from, int to, long[] productIds) {
+        if (to - from < 2) {
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        sort(order, buffer, from, middle, productIds);
+        sort(order, buffer, middle, to, productIds);
+        if (before(order[middle - 1], order[middle], productIds)) {
+            return;
+        }
+        System.arraycopy(order, from, buffer, from, to - from);
+        int left = from;
+        int right = middle;
+        for (int i = from; i < to; i++) {
+            if (right >= to || (left < middle && before(buffer[left], buffer[right], productIds))) {
+                order[i] = buffer[left++];
+            } else {
+                order[i] = buffer[right++];
+            }
+        }
+    }
+
+    private boolean before(int a, int b, long[] productIds) {
+        int byValue = compare(b, this, a);
+        return byValue < 0 || (byValue == 0 && productIds[a] <= productIds[b]);
+    }
+}
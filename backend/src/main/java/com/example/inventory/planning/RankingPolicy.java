@@ -0,0 +1,28 @@
+package com.example.inventory.planning;
+
+import java.util.Locale;
+
+/**
+ * Order in which the greedy planner serves products. Material pressure is the quantity
+ * all products need per unit, summed, over the stock on hand: the higher it is, the more
+ * contended the material.
+ */
+public enum RankingPolicy {
+
+    /** Highest unit value first. */
+    VALUE,
+
+    /** Highest value per unit of the product's most contended material. */
+    SCARCE_MATERIAL,
+
+    /** Highest value per unit of material, each material weighted by its pressure. */
+    SCARCITY_WEIGHTED;
+
+    public static RankingPolicy fromParameter(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Unknown ranking policy: " + value);
+        }
+    }
+}
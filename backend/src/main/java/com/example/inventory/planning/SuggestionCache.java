@@ -0,0 +1,44 @@
+package com.example.inventory.planning;
+
+import com.example.inventory.dto.ProductionSuggestionResponse;
+import com.example.inventory.metrics.PlanningMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Memoizes suggestion responses until the {@link CatalogVersion} moves.
+ */
+@Component
+public class SuggestionCache {
+
+    private record Entry(long version, ProductionSuggestionResponse response) {}
+
+    private final CatalogVersion catalogVersion;
+    private final PlanningMetrics planningMetrics;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public SuggestionCache(CatalogVersion catalogVersion, PlanningMetrics planningMetrics) {
+        this.catalogVersion = catalogVersion;
+        this.planningMetrics = planningMetrics;
+    }
+
+    public ProductionSuggestionResponse get(String key, Supplier<ProductionSuggestionResponse> loader) {
+        // Read the version before loading: if a write lands meanwhile, the entry is
+        // stored under the older version and the next read simply recomputes.
+        long version = catalogVersion.current();
+        Entry cached = entries.get(key);
+        if (cached != null && cached.version() == version) {
+            planningMetrics.cacheHit();
+            return cached.response();
+        }
+        planningMetrics.cacheMiss();
+
+        ProductionSuggestionResponse response = loader.get();
+        entries.merge(key, new Entry(version, response),
+                (current, fresh) -> current.version() >= fresh.version() ? current : fresh);
+        return response;
+    }
+}
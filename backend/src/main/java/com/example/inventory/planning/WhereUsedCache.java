@@ -0,0 +1,48 @@
+package com.example.inventory.planning;
+
+import com.example.inventory.metrics.PlanningMetrics;
+import com.example.inventory.repository.ProductMaterialRepository;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the {@link WhereUsedIndex} of the catalog until the BOM structure changes, like
+ * {@link BomExplosionCache} (whose explosion it is built from). Stock movements keep it.
+ */
+@Component
+public class WhereUsedCache {
+
+    private record Memo(long structure, WhereUsedIndex index) {}
+
+    private final ProductMaterialRepository productMaterialRepository;
+    private final BomExplosionCache bomExplosionCache;
+    private final CatalogVersion catalogVersion;
+    private final PlanningMetrics planningMetrics;
+    private volatile Memo memo;
+
+    public WhereUsedCache(ProductMaterialRepository productMaterialRepository,
+                          BomExplosionCache bomExplosionCache,
+                          CatalogVersion catalogVersion,
+                          PlanningMetrics planningMetrics) {
+        this.productMaterialRepository = productMaterialRepository;
+        this.bomExplosionCache = bomExplosionCache;
+        this.catalogVersion = catalogVersion;
+        this.planningMetrics = planningMetrics;
+    }
+
+    public WhereUsedIndex current() {
+        long structure = catalogVersion.structure();
+        Memo cached = memo;
+        if (cached != null && cached.structure() == structure) {
+            return cached.index();
+        }
+
+        WhereUsedIndex index = planningMetrics.time("index", PlanningMetrics.NO_STRATEGY,
+                () -> WhereUsedIndex.build(productMaterialRepository.findAllLines(), bomExplosionCache.current()));
+        synchronized (this) {
+            if (memo == null || memo.structure() <= structure) {
+                memo = new Memo(structure, index);
+            }
+        }
+        return index;
+    }
+}
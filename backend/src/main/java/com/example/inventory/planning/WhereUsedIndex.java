@@ -0,0 +1,86 @@
+package com.example.inventory.planning;
+
+import com.example.inventory.dto.BomLine;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reverse BOM: for every raw material, the products that need it and how much per unit.
+ * <p>
+ * Requirements are the ones planning uses, so an assembly is listed under every material
+ * of its flattened {@link BomExplosion} vector, including materials it only needs through
+ * its components. The forward requirements are kept as well, which is all that is needed
+ * to recompute the producible quantity of the products touched by one material.
+ */
+public final class WhereUsedIndex {
+
+    public static final WhereUsedIndex EMPTY = new WhereUsedIndex(Map.of(), Map.of());
+
+    private static final Comparator<BomLine> BY_PRODUCT = Comparator.comparing(BomLine::productId);
+
+    private final Map<Long, List<BomLine>> usesByMaterial;
+    private final Map<Long, List<BomLine>> requirementsByProduct;
+
+    private WhereUsedIndex(Map<Long, List<BomLine>> usesByMaterial, Map<Long, List<BomLine>> requirementsByProduct) {
+        this.usesByMaterial = usesByMaterial;
+        this.requirementsByProduct = requirementsByProduct;
+    }
+
+    /**
+     * @param directLines every raw-material line of the catalog
+     * @param explosion   flattened requirements of the assemblies
+     */
+    public static WhereUsedIndex build(List<BomLine> directLines, BomExplosion explosion) {
+        Map<Long, List<BomLine>> requirements = new HashMap<>();
+        for (BomLine line : directLines) {
+            if (!explosion.isAssembly(line.productId())) {
+                requirements.computeIfAbsent(line.productId(), id -> new ArrayList<>()).add(line);
+            }
+        }
+        for (long id : explosion.order()) {
+            List<BomLine> flattened = explosion.lines(id);
+            if (flattened != null && !flattened.isEmpty()) {
+                requirements.put(id, flattened);
+            }
+        }
+        if (requirements.isEmpty()) {
+            return EMPTY;
+        }
+
+        Map<Long, List<BomLine>> uses = new HashMap<>();
+        requirements.forEach((productId, lines) -> {
+            for (BomLine line : lines) {
+                uses.computeIfAbsent(line.rawMaterialId(), id -> new ArrayList<>()).add(line);
+            }
+        });
+        uses.replaceAll((materialId, lines) -> {
+            lines.sort(BY_PRODUCT);
+            return Collections.unmodifiableList(lines);
+        });
+        requirements.replaceAll((productId, lines) -> Collections.unmodifiableList(lines));
+        return new WhereUsedIndex(uses, requirements);
+    }
+
+    /**
+     * Requirement lines naming {@code rawMaterialId}, one per product, ordered by product id.
+     */
+    public List<BomLine> uses(long rawMaterialId) {
+        return usesByMaterial.getOrDefault(rawMaterialId, List.of());
+    }
+
+    /**
+     * Every raw-material requirement of {@code productId} per unit; empty if it has none.
+     */
+    public List<BomLine> requirements(long productId) {
+        return requirementsByProduct.getOrDefault(productId, List.of());
+    }
+
+    public int materialCount() {
+        return usesByMaterial.size();
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.inventory.repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Runs a query taking an {@code IN} list of ids over any number of ids, a slice at a time,
+ * so every IN list stays well under the bind parameter limits of the drivers.
+ */
+public final class IdBatches {
+
+    static final int SIZE = 1000;
+
+    private IdBatches() {
+    }
+
+    /** The rows of {@code query} for every slice of {@code ids}, in slice order. */
+    public static <T> List<T> query(Collection<Long> ids, Function<List<Long>, List<T>> query) {
+        List<Long> list = ids instanceof List<Long> idList ? idList : new ArrayList<>(ids);
+        List<T> result = new ArrayList<>(list.size());
+        for (int from = 0; from < list.size(); from += SIZE) {
+            result.addAll(query.apply(list.subList(from, Math.min(from + SIZE, list.size()))));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.inventory.repository;
+
+import com.example.inventory.dto.ComponentLine;
+import com.example.inventory.dto.ProductComponentLine;
+import com.example.inventory.model.ProductComponent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface ProductComponentRepository extends JpaRepository<ProductComponent, Long> {
+
+    Optional<ProductComponent> findByProductIdAndComponentId(Long productId, Long componentId);
+
+    @Query("select new com.example.inventory.dto.ComponentLine(pc.product.id, pc.component.id, pc.requiredQuantity) "
+            + "from ProductComponent pc")
+    List<ComponentLine> findAllLines();
+
+    @Query("select new com.example.inventory.dto.ProductComponentLine(pc.id, pc.product.id, c.id, c.name, pc.requiredQuantity) "
+            + "from ProductComponent pc join pc.component c where pc.product.id = :productId order by pc.id")
+    List<ProductComponentLine> findDetailedByProductId(@Param("productId") Long productId);
+
+    @Modifying
+    @Query("delete from ProductComponent pc where pc.product.id = :productId or pc.component.id = :productId")
+    int deleteAllLinking(@Param("productId") Long productId);
+}
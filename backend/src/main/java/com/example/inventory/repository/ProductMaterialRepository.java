@@ -1,14 +1,45 @@
 package com.example.inventory.repository;
 
+import com.example.inventory.dto.BomLine;
+import com.example.inventory.dto.ProductMaterialLine;
 import com.example.inventory.model.ProductMaterial;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface ProductMaterialRepository extends JpaRepository<ProductMaterial, Long> {
 
+    // Query results hold ids only; the rows come from the entity region.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<ProductMaterial> findByProductId(Long productId);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<ProductMaterial> findByProductIdAndRawMaterialId(Long productId, Long rawMaterialId);
+
+    @Query("select new com.example.inventory.dto.BomLine(pm.product.id, pm.rawMaterial.id, pm.requiredQuantity) from ProductMaterial pm")
+    List<BomLine> findAllLines();
+
+    @Query("select new com.example.inventory.dto.BomLine(pm.product.id, pm.rawMaterial.id, pm.requiredQuantity) "
+            + "from ProductMaterial pm where pm.product.id = :productId")
+    List<BomLine> findLinesByProductId(@Param("productId") Long productId);
+
+    @Query("select new com.example.inventory.dto.BomLine(pm.product.id, pm.rawMaterial.id, pm.requiredQuantity) "
+            + "from ProductMaterial pm where pm.product.id in :productIds")
+    List<BomLine> findLinesByProductIds(@Param("productIds") Collection<Long> productIds);
+
+    @Query("select new com.example.inventory.dto.ProductMaterialLine(pm.id, pm.product.id, r.id, r.name, pm.requiredQuantity) "
+            + "from ProductMaterial pm join pm.rawMaterial r where pm.product.id in :productIds order by pm.id")
+    List<ProductMaterialLine> findDetailedLinesByProductIds(@Param("productIds") Collection<Long> productIds);
+
+    @Query("select new com.example.inventory.dto.ProductMaterialLine(pm.id, pm.product.id, r.id, r.name, pm.requiredQuantity) "
+            + "from ProductMaterial pm join pm.rawMaterial r where pm.product.id = :productId and pm.id > :after order by pm.id")
+    List<ProductMaterialLine> findDetailedLinePage(@Param("productId") Long productId, @Param("after") long after, Limit limit);
 }
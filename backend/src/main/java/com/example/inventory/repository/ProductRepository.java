@@ -1,7 +1,43 @@
 package com.example.inventory.repository;
 
+import com.example.inventory.dto.ProductBomRow;
+import com.example.inventory.dto.ProductSummary;
 import com.example.inventory.model.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
+
+    @Query("select new com.example.inventory.dto.ProductSummary(p.id, p.name, p.value) from Product p")
+    List<ProductSummary> findAllSummaries();
+
+    @Query("select new com.example.inventory.dto.ProductSummary(p.id, p.name, p.value) from Product p where p.id in :ids")
+    List<ProductSummary> findSummariesByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select new com.example.inventory.dto.ProductSummary(p.id, p.name, p.value) from Product p "
+            + "where p.id > :after order by p.id")
+    List<ProductSummary> findPage(@Param("after") long after, Limit limit);
+
+    @Query("select new com.example.inventory.dto.ProductSummary(p.id, p.name, p.value) from Product p "
+            + "where p.id > :after and lower(p.name) like :pattern escape '!' order by p.id")
+    List<ProductSummary> findPageByNamePattern(@Param("after") long after, @Param("pattern") String pattern, Limit limit);
+
+    /**
+     * Products in planning order (value desc, id), each followed by its BOM lines. Meant to be
+     * consumed forward-only inside a transaction; rows are projections, so nothing accumulates
+     * in the persistence context.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.example.inventory.dto.ProductBomRow(p.id, p.name, p.value, pm.rawMaterial.id, pm.requiredQuantity) "
+            + "from Product p left join p.materials pm order by p.value desc, p.id")
+    Stream<ProductBomRow> streamInPlanningOrder();
 }
@@ -0,0 +1,11 @@
+package com.example.inventory.repository;
+
+import com.example.inventory.model.ProductionPlan;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface ProductionPlanRepository extends JpaRepository<ProductionPlan, Long> {
+
+    List<ProductionPlan> findAllByStatusOrderById(ProductionPlan.Status status);
+}
@@ -1,12 +1,79 @@
 package com.example.inventory.repository;
 
+import com.example.inventory.dto.RawMaterialListItem;
+import com.example.inventory.dto.RawMaterialSummary;
 import com.example.inventory.model.RawMaterial;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
-public interface RawMaterialRepository extends JpaRepository<RawMaterial, Long> {
+public interface RawMaterialRepository extends JpaRepository<RawMaterial, Long>, RawMaterialRepositoryCustom {
 
-    Optional<RawMaterial> findByNameIgnoreCase(String name);
+    // Served by the unique index on normalized_name, unlike a lower(name) comparison.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Optional<RawMaterial> findByNormalizedName(String normalizedName);
 
+    default Optional<RawMaterial> findByNameIgnoreCase(String name) {
+        return findByNormalizedName(RawMaterial.normalize(name));
+    }
+
+    // Planning only sees stock that is not held by a reservation.
+    @Query("select new com.example.inventory.dto.RawMaterialSummary(r.id, r.name, r.stockQuantity - r.reservedQuantity) from RawMaterial r")
+    List<RawMaterialSummary> findAllSummaries();
+
+    @Query("select new com.example.inventory.dto.RawMaterialSummary(r.id, r.name, r.stockQuantity - r.reservedQuantity) "
+            + "from RawMaterial r where r.id in :ids")
+    List<RawMaterialSummary> findSummariesByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select new com.example.inventory.dto.RawMaterialListItem(r.id, r.name, r.stockQuantity, r.reservedQuantity) "
+            + "from RawMaterial r where r.id in :ids order by r.id")
+    List<RawMaterialListItem> findListItemsByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select new com.example.inventory.dto.RawMaterialListItem(r.id, r.name, r.stockQuantity, r.reservedQuantity) "
+            + "from RawMaterial r where r.id > :after order by r.id")
+    List<RawMaterialListItem> findPage(@Param("after") long after, Limit limit);
+
+    @Query("select new com.example.inventory.dto.RawMaterialListItem(r.id, r.name, r.stockQuantity, r.reservedQuantity) "
+            + "from RawMaterial r where r.id > :after and r.normalizedName like :pattern escape '!' order by r.id")
+    List<RawMaterialListItem> findPageByNamePattern(@Param("after") long after, @Param("pattern") String pattern, Limit limit);
+
+    /*
+     * Atomic stock movements. Each one is a single conditional UPDATE, so concurrent calls
+     * never lose increments; a result of 0 means the row is missing or the guard failed.
+     */
+
+    @Modifying(clearAutomatically = true)
+    @Query("update RawMaterial r set r.stockQuantity = r.stockQuantity + :quantity, r.version = r.version + 1 "
+            + "where r.id = :id and r.stockQuantity <= 2147483647 - :quantity")
+    int receive(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update RawMaterial r set r.reservedQuantity = r.reservedQuantity + :quantity, r.version = r.version + 1 "
+            + "where r.id = :id and r.stockQuantity - r.reservedQuantity >= :quantity")
+    int reserve(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update RawMaterial r set r.reservedQuantity = r.reservedQuantity - :quantity, r.version = r.version + 1 "
+            + "where r.id = :id and r.reservedQuantity >= :quantity")
+    int release(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update RawMaterial r set r.stockQuantity = r.stockQuantity - :quantity, "
+            + "r.reservedQuantity = r.reservedQuantity - :quantity, r.version = r.version + 1 "
+            + "where r.id = :id and r.reservedQuantity >= :quantity")
+    int consumeReserved(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update RawMaterial r set r.stockQuantity = r.stockQuantity - :quantity, r.version = r.version + 1 "
+            + "where r.id = :id and r.stockQuantity - r.reservedQuantity >= :quantity")
+    int consume(@Param("id") Long id, @Param("quantity") int quantity);
 }
@@ -0,0 +1,21 @@
+package com.example.inventory.repository;
+
+import com.example.inventory.dto.RawMaterialMatch;
+
+import java.util.List;
+
+public interface RawMaterialRepositoryCustom {
+
+    /**
+     * Creates the material or adds {@code quantity} to the one with the same normalized name,
+     * in one statement. Returns its id, or {@code null} if the stock would overflow.
+     */
+    Long addStock(String name, int quantity);
+
+    /**
+     * Materials whose normalized name starts with {@code query} (ranked first) or is similar
+     * to it by trigrams, best matches first. {@code prefixPattern} is {@code query} as a
+     * {@code LIKE} pattern escaped with {@code !}.
+     */
+    List<RawMaterialMatch> search(String query, String prefixPattern, int limit);
+}
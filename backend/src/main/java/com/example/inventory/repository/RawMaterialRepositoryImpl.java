@@ -0,0 +1,134 @@
+package com.example.inventory.repository;
+
+import com.example.inventory.dto.RawMaterialMatch;
+import com.example.inventory.model.RawMaterial;
+import jakarta.persistence.EntityManager;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.NativeQuery;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Name-keyed statements that need SQL beyond JPQL. PostgreSQL gets {@code INSERT ... ON
+ * CONFLICT} and pg_trgm; other databases (H2 in tests) get a standard {@code MERGE} and a
+ * trigram scan in Java.
+ */
+class RawMaterialRepositoryImpl implements RawMaterialRepositoryCustom {
+
+    private static final String UPSERT_POSTGRES =
+            "insert into raw_materials (id, name, normalized_name, stock_quantity, reserved_quantity, version) "
+                    + "values (nextval('raw_materials_seq'), :name, :normalizedName, :quantity, 0, 0) "
+                    + "on conflict (normalized_name) do update "
+                    + "set stock_quantity = raw_materials.stock_quantity + excluded.stock_quantity, "
+                    + "version = raw_materials.version + 1 "
+                    + "where raw_materials.stock_quantity <= 2147483647 - excluded.stock_quantity";
+
+    private static final String UPSERT_MERGE =
+            "merge into raw_materials r using (values (cast(:name as varchar(255)), "
+                    + "cast(:normalizedName as varchar(255)), cast(:quantity as integer))) s(name, normalized_name, quantity) "
+                    + "on r.normalized_name = s.normalized_name "
+                    + "when matched and r.stock_quantity <= 2147483647 - s.quantity then update "
+                    + "set stock_quantity = r.stock_quantity + s.quantity, version = r.version + 1 "
+                    + "when not matched then insert (id, name, normalized_name, stock_quantity, reserved_quantity, version) "
+                    + "values (nextval('raw_materials_seq'), s.name, s.normalized_name, s.quantity, 0, 0)";
+
+    // Prefix matches first; both conditions are served by the trigram GIN index.
+    private static final String SEARCH_TRIGRAM =
+            "select id, name, stock_quantity, reserved_quantity, similarity(normalized_name, :query) as score "
+                    + "from raw_materials "
+                    + "where normalized_name like :pattern escape '!' or normalized_name % :query "
+                    + "order by normalized_name like :pattern escape '!' desc, score desc, normalized_name "
+                    + "limit :limit";
+
+    private final EntityManager entityManager;
+    private final boolean postgres;
+    private volatile Boolean trigrams;
+
+    RawMaterialRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+        this.postgres = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+    }
+
+    @Override
+    public Long addStock(String name, int quantity) {
+        String normalizedName = RawMaterial.normalize(name);
+        // Declaring the entity limits cache invalidation to the raw material region.
+        int updated = entityManager.createNativeQuery(postgres ? UPSERT_POSTGRES : UPSERT_MERGE)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(RawMaterial.class)
+                .setParameter("name", name)
+                .setParameter("normalizedName", normalizedName)
+                .setParameter("quantity", quantity)
+                .executeUpdate();
+        if (updated == 0) {
+            return null;
+        }
+        return entityManager.createQuery(
+                        "select r.id from RawMaterial r where r.normalizedName = :normalizedName", Long.class)
+                .setParameter("normalizedName", normalizedName)
+                .getSingleResult();
+    }
+
+    @Override
+    public List<RawMaterialMatch> search(String query, String prefixPattern, int limit) {
+        if (trigramsAvailable()) {
+            List<?> rows = entityManager.createNativeQuery(SEARCH_TRIGRAM)
+                    .setParameter("query", query)
+                    .setParameter("pattern", prefixPattern)
+                    .setParameter("limit", limit)
+                    .getResultList();
+            List<RawMaterialMatch> matches = new ArrayList<>(rows.size());
+            for (Object row : rows) {
+                Object[] columns = (Object[]) row;
+                matches.add(new RawMaterialMatch(((Number) columns[0]).longValue(), (String) columns[1],
+                        ((Number) columns[2]).intValue(), ((Number) columns[3]).intValue(),
+                        ((Number) columns[4]).doubleValue()));
+            }
+            return matches;
+        }
+        return scan(query, limit);
+    }
+
+    // The query is already normalized, so it is also the plain prefix.
+    private List<RawMaterialMatch> scan(String query, int limit) {
+        record Scored(RawMaterialMatch match, boolean prefix, String key) {}
+        List<Scored> scored = new ArrayList<>();
+        List<Object[]> rows = entityManager.createQuery(
+                        "select r.id, r.name, r.normalizedName, r.stockQuantity, r.reservedQuantity from RawMaterial r",
+                        Object[].class)
+                .getResultList();
+        for (Object[] row : rows) {
+            String key = (String) row[2];
+            boolean startsWith = key.startsWith(query);
+            double score = Trigrams.similarity(key, query);
+            if (startsWith || score >= Trigrams.THRESHOLD) {
+                scored.add(new Scored(new RawMaterialMatch((Long) row[0], (String) row[1],
+                        (Integer) row[3], (Integer) row[4], score), startsWith, key));
+            }
+        }
+        return scored.stream()
+                .sorted(Comparator.comparing(Scored::prefix).reversed()
+                        .thenComparing(Comparator.comparingDouble((Scored s) -> s.match().score()).reversed())
+                        .thenComparing(Scored::key))
+                .limit(limit)
+                .map(Scored::match)
+                .toList();
+    }
+
+    private boolean trigramsAvailable() {
+        if (!postgres) {
+            return false;
+        }
+        Boolean known = trigrams;
+        if (known == null) {
+            known = ((Number) entityManager.createNativeQuery(
+                    "select count(*) from pg_extension where extname = 'pg_trgm'").getSingleResult()).longValue() > 0;
+            trigrams = known;
+        }
+        return known;
+    }
+}
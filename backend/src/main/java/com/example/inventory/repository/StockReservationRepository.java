@@ -0,0 +1,17 @@
+package com.example.inventory.repository;
+
+import com.example.inventory.model.StockReservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+
+    // Compare-and-set on the status, so a reservation is committed or released only once.
+    @Modifying(clearAutomatically = true)
+    @Query("update StockReservation r set r.status = :to where r.id = :id and r.status = :from")
+    int transition(@Param("id") Long id,
+                   @Param("from") StockReservation.Status from,
+                   @Param("to") StockReservation.Status to);
+}
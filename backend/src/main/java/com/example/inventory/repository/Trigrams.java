@@ -0,0 +1,56 @@
+package com.example.inventory.repository;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Trigram similarity computed the way PostgreSQL's pg_trgm does it: each run of letters
+ * and digits is padded with two blanks in front and one behind, and the score is the
+ * shared trigrams over all distinct trigrams of both strings. Used when the database
+ * cannot answer a fuzzy search itself.
+ */
+final class Trigrams {
+
+    // pg_trgm.similarity_threshold default
+    static final double THRESHOLD = 0.3;
+
+    private Trigrams() {
+    }
+
+    static double similarity(String a, String b) {
+        Set<String> left = of(a);
+        Set<String> right = of(b);
+        if (left.isEmpty() || right.isEmpty()) {
+            return 0;
+        }
+        int shared = 0;
+        for (String trigram : left) {
+            if (right.contains(trigram)) {
+                shared++;
+            }
+        }
+        return (double) shared / (left.size() + right.size() - shared);
+    }
+
+    static Set<String> of(String text) {
+        Set<String> trigrams = new HashSet<>();
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            while (i < length && !Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            int start = i;
+            while (i < length && Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            if (i > start) {
+                String word = "  " + text.substring(start, i) + " ";
+                for (int t = 0; t + 3 <= word.length(); t++) {
+                    trigrams.add(word.substring(t, t + 3));
+                }
+            }
+        }
+        return trigrams;
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.inventory.repository;
+
+import com.example.inventory.model.Warehouse;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface WarehouseRepository extends JpaRepository<Warehouse, Long> {
+
+    List<Warehouse> findAllByOrderByCode();
+}
@@ -0,0 +1,13 @@
+package com.example.inventory.service;
+
+/**
+ * A request that clashes with the current state of the data: not enough free stock, a
+ * stock limit, a closed reservation or plan, a component link that would close a BOM
+ * cycle. Answered with 409 and the message, which is written for the client.
+ */
+public class ConflictException extends RuntimeException {
+
+    public ConflictException(String message) {
+        super(message);
+    }
+}
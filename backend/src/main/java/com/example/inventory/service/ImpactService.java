@@ -0,0 +1,97 @@
+package com.example.inventory.service;
+
+import com.example.inventory.dto.BomLine;
+import com.example.inventory.dto.MaterialImpactResponse;
+import com.example.inventory.dto.ProductImpact;
+import com.example.inventory.dto.ProductSummary;
+import com.example.inventory.dto.RawMaterialSummary;
+import com.example.inventory.planning.WhereUsedCache;
+import com.example.inventory.planning.WhereUsedIndex;
+import com.example.inventory.repository.IdBatches;
+import com.example.inventory.repository.ProductRepository;
+import com.example.inventory.repository.RawMaterialRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Which products a raw material's stock affects, without planning the whole catalog.
+ * <p>
+ * The {@link WhereUsedIndex} gives the products that need the material; only their
+ * requirements and the stock of the materials they use are read. The producible quantity
+ * of each product is computed on its own against available stock (stock minus reserved),
+ * not as part of a plan where products compete for materials.
+ */
+@Service
+public class ImpactService {
+
+    private final WhereUsedCache whereUsedCache;
+    private final RawMaterialRepository rawMaterialRepository;
+    private final ProductRepository productRepository;
+
+    public ImpactService(WhereUsedCache whereUsedCache,
+                         RawMaterialRepository rawMaterialRepository,
+                         ProductRepository productRepository) {
+        this.whereUsedCache = whereUsedCache;
+        this.rawMaterialRepository = rawMaterialRepository;
+        this.productRepository = productRepository;
+    }
+
+    /**
+     * Products using {@code rawMaterialId} with their producible quantity now and before
+     * its available stock changed by {@code delta} (e.g. the quantity just received).
+     */
+    @Transactional(readOnly = true)
+    public MaterialImpactResponse impact(Long rawMaterialId, int delta) {
+        WhereUsedIndex index = whereUsedCache.current();
+        List<BomLine> uses = index.uses(rawMaterialId);
+
+        TreeSet<Long> materialIds = new TreeSet<>();
+        materialIds.add(rawMaterialId);
+        List<Long> productIds = new ArrayList<>(uses.size());
+        for (BomLine use : uses) {
+            productIds.add(use.productId());
+            index.requirements(use.productId()).forEach(line -> materialIds.add(line.rawMaterialId()));
+        }
+
+        Map<Long, Integer> available = new HashMap<>();
+        for (RawMaterialSummary material : IdBatches.query(materialIds, rawMaterialRepository::findSummariesByIds)) {
+            available.put(material.id(), material.stockQuantity());
+        }
+        Integer current = available.get(rawMaterialId);
+        if (current == null) {
+            throw new IllegalArgumentException("Raw material not found");
+        }
+        Map<Long, String> names = new HashMap<>();
+        for (ProductSummary product : IdBatches.query(productIds, productRepository::findSummariesByIds)) {
+            names.put(product.id(), product.name());
+        }
+
+        int previous = (int) Math.max(0, Math.min(Integer.MAX_VALUE, (long) current - delta));
+        List<ProductImpact> items = new ArrayList<>(uses.size());
+        for (BomLine use : uses) {
+            List<BomLine> requirements = index.requirements(use.productId());
+            items.add(new ProductImpact(use.productId(), names.get(use.productId()), use.requiredQuantity(),
+                    maxProducible(requirements, available, rawMaterialId, current),
+                    maxProducible(requirements, available, rawMaterialId, previous)));
+        }
+        return new MaterialImpactResponse(rawMaterialId, current, delta, items);
+    }
+
+    private static int maxProducible(List<BomLine> requirements, Map<Long, Integer> available,
+                                     Long rawMaterialId, int materialAvailable) {
+        int max = Integer.MAX_VALUE;
+        for (BomLine line : requirements) {
+            int stock = line.rawMaterialId().equals(rawMaterialId)
+                    ? materialAvailable
+                    : available.getOrDefault(line.rawMaterialId(), 0);
+            max = Math.min(max, Math.max(0, stock) / line.requiredQuantity());
+        }
+        return max;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.inventory.service;
+
+import com.example.inventory.dto.PageResponse;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Helpers for the keyset-paginated listings: pages are "ids greater than the cursor, in id
+ * order", fetched one row past the page size to know whether another page follows.
+ */
+final class Paging {
+
+    static final int DEFAULT_SIZE = 50;
+    static final int MAX_SIZE = 500;
+
+    private Paging() {
+    }
+
+    static long after(Long cursor) {
+        return cursor == null ? 0L : cursor;
+    }
+
+    static int size(Integer requested) {
+        if (requested == null) {
+            return DEFAULT_SIZE;
+        }
+        return Math.max(1, Math.min(requested, MAX_SIZE));
+    }
+
+    static Limit limit(int size) {
+        return Limit.of(size + 1);
+    }
+
+    static <T> PageResponse<T> page(List<T> rows, int size, Function<T, Long> id) {
+        if (rows.size() <= size) {
+            return new PageResponse<>(rows, null);
+        }
+        List<T> items = rows.subList(0, size);
+        return new PageResponse<>(List.copyOf(items), id.apply(items.get(size - 1)));
+    }
+
+    /**
+     * Lower-cased {@code LIKE} pattern matching names that start with {@code prefix},
+     * with {@code !} as escape character; {@code null} when there is no filter.
+     */
+    static String prefixPattern(String prefix) {
+        if (prefix == null || prefix.isBlank()) {
+            return null;
+        }
+        String escaped = prefix.strip().toLowerCase(Locale.ROOT)
+                .replace("!", "!!")
+                .replace("%", "!%")
+                .replace("_", "!_");
+        return escaped + "%";
+    }
+}
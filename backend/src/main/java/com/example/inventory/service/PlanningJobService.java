@@ -0,0 +1,147 @@
+package com.example.inventory.service;
+
+import com.example.inventory.dto.PlanningJobResponse;
+import com.example.inventory.dto.PlanningJobResponse.Status;
+import com.example.inventory.dto.ProductionSuggestionResponse;
+import com.example.inventory.planning.CatalogVersion;
+import com.example.inventory.planning.PlanningStrategy;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Suggestions computed in the background: {@link #submit} answers right away with a job id
+ * that {@link #find} polls.
+ * <p>
+ * Jobs run on a fixed set of platform threads behind a bounded queue; when the queue is
+ * full, {@link #submit} throws {@link PlanningQueueFullException} instead of piling up work.
+ * A submission for the same strategy and catalog version as a job still queued or running
+ * joins that job rather than planning the same catalog twice. Finished jobs are kept for
+ * polling until {@code retained} newer jobs have been submitted.
+ */
+@Service
+public class PlanningJobService {
+
+    private static final class Job {
+        final String id = UUID.randomUUID().toString();
+        final PlanningStrategy strategy;
+        final long catalogVersion;
+        final Instant submittedAt = Instant.now();
+        volatile Status status = Status.QUEUED;
+        volatile Instant completedAt;
+        volatile ProductionSuggestionResponse result;
+        volatile String error;
+
+        Job(PlanningStrategy strategy, long catalogVersion) {
+            this.strategy = strategy;
+            this.catalogVersion = catalogVersion;
+        }
+
+        PlanningJobResponse toResponse() {
+            return new PlanningJobResponse(id, status, strategy, catalogVersion, submittedAt, completedAt, result, error);
+        }
+    }
+
+    private record Key(PlanningStrategy strategy, long catalogVersion) {}
+
+    private final ProductionPlanningService productionPlanningService;
+    private final CatalogVersion catalogVersion;
+    private final ThreadPoolExecutor executor;
+    private final Map<Key, Job> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Job> jobs;
+
+    public PlanningJobService(ProductionPlanningService productionPlanningService,
+                              CatalogVersion catalogVersion,
+                              @Value("${inventory.planning.jobs.workers:2}") int workers,
+                              @Value("${inventory.planning.jobs.queue-capacity:16}") int queueCapacity,
+                              @Value("${inventory.planning.jobs.retained:100}") int retained) {
+        this.productionPlanningService = productionPlanningService;
+        this.catalogVersion = catalogVersion;
+
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                task -> new Thread(task, "planning-job-" + threads.incrementAndGet()),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        // Never evict a job that can still be queued or running.
+        int capacity = Math.max(retained, workers + queueCapacity);
+        this.jobs = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Job> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public PlanningJobResponse submit(PlanningStrategy strategy) {
+        Key key = new Key(strategy, catalogVersion.current());
+        Job job = new Job(strategy, key.catalogVersion());
+        Job running = inFlight.putIfAbsent(key, job);
+        if (running != null) {
+            return running.toResponse();
+        }
+
+        synchronized (jobs) {
+            jobs.put(job.id, job);
+        }
+        try {
+            executor.execute(() -> run(key, job));
+        } catch (RejectedExecutionException ex) {
+            inFlight.remove(key, job);
+            synchronized (jobs) {
+                jobs.remove(job.id);
+            }
+            throw new PlanningQueueFullException(ex);
+        }
+        return job.toResponse();
+    }
+
+    public PlanningJobResponse find(String id) {
+        Job job;
+        synchronized (jobs) {
+            job = jobs.get(id);
+        }
+        if (job == null) {
+            throw new IllegalArgumentException("Planning job not found");
+        }
+        return job.toResponse();
+    }
+
+    // Status is written last: a poller that reads a finished status (toResponse reads it
+    // first) also sees the completion time and the result or error.
+    private void run(Key key, Job job) {
+        job.status = Status.RUNNING;
+        try {
+            job.result = productionPlanningService.suggestProduction(job.strategy);
+            job.completedAt = Instant.now();
+            job.status = Status.SUCCEEDED;
+        } catch (Throwable ex) {
+            // Errors too: a job left RUNNING would be polled forever.
+            job.error = ex.getMessage() != null ? ex.getMessage() : ex.getClass().getSimpleName();
+            job.completedAt = Instant.now();
+            job.status = Status.FAILED;
+            if (ex instanceof Error error) {
+                throw error;
+            }
+        } finally {
+            inFlight.remove(key, job);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.inventory.service;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * The planning job queue is full. Answered with 503 and a {@code Retry-After}.
+ */
+public class PlanningQueueFullException extends RuntimeException {
+
+    public PlanningQueueFullException(RejectedExecutionException cause) {
+        super("Too many planning jobs in progress", cause);
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.inventory.service;
+
+import com.example.inventory.dto.BomLine;
+import com.example.inventory.dto.ProductComponentLine;
+import com.example.inventory.dto.ProductComponentRequest;
+import com.example.inventory.model.Product;
+import com.example.inventory.model.ProductComponent;
+import com.example.inventory.planning.BomExplosion;
+import com.example.inventory.planning.BomExplosionCache;
+import com.example.inventory.planning.CatalogChangedEvent;
+import com.example.inventory.repository.ProductComponentRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Sub-assembly links between products. Links are checked against the whole component
+ * graph before they are written, so the graph stays acyclic. The check and the write run
+ * under one lock: two concurrent links could otherwise each pass the check and close a
+ * cycle together.
+ */
+@Service
+public class ProductComponentService {
+
+    private final ProductComponentRepository productComponentRepository;
+    private final ProductService productService;
+    private final BomExplosionCache bomExplosionCache;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    public ProductComponentService(ProductComponentRepository productComponentRepository,
+                                   ProductService productService,
+                                   BomExplosionCache bomExplosionCache,
+                                   PlatformTransactionManager transactionManager,
+                                   ApplicationEventPublisher eventPublisher) {
+        this.productComponentRepository = productComponentRepository;
+        this.productService = productService;
+        this.bomExplosionCache = bomExplosionCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+    }
+
+    public List<ProductComponentLine> findByProductId(Long productId) {
+        productService.findById(productId);
+        return productComponentRepository.findDetailedByProductId(productId);
+    }
+
+    /**
+     * Raw-material requirements per unit of the product, with sub-assemblies flattened.
+     */
+    public List<BomLine> requirements(Long productId) {
+        productService.findById(productId);
+        return bomExplosionCache.requirements(productId);
+    }
+
+    /**
+     * Creates the link, or updates its quantity if the product already uses the component.
+     */
+    public ProductComponentLine upsert(Long productId, ProductComponentRequest request) {
+        writeLock.lock();
+        try {
+            return transactionTemplate.execute(status -> {
+                Product product = productService.findById(productId);
+                Product component = productService.findById(request.componentId());
+
+                List<Long> cycle = BomExplosion.cycleIfLinked(
+                        productComponentRepository.findAllLines(), productId, request.componentId());
+                if (!cycle.isEmpty()) {
+                    throw new ConflictException("Product " + productId + " cannot use product "
+                            + request.componentId() + " as a component: it would form the cycle " + cycle);
+                }
+
+                ProductComponent link = productComponentRepository
+                        .findByProductIdAndComponentId(productId, request.componentId())
+                        .orElseGet(() -> {
+                            ProductComponent created = new ProductComponent();
+                            created.setProduct(product);
+                            created.setComponent(component);
+                            return created;
+                        });
+                link.setRequiredQuantity(request.requiredQuantity());
+                ProductComponent saved = productComponentRepository.save(link);
+
+                eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Kind.BOM, productId));
+                return new ProductComponentLine(saved.getId(), productId, component.getId(), component.getName(),
+                        saved.getRequiredQuantity());
+            });
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void delete(Long id) {
+        transactionTemplate.executeWithoutResult(status ->
+                productComponentRepository.findById(id).ifPresent(link -> {
+                    productComponentRepository.delete(link);
+                    eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Kind.BOM, link.getProduct().getId()));
+                }));
+    }
+}
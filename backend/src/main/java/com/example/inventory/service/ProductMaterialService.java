@@ -1,14 +1,32 @@
 package com.example.inventory.service;
 
+import com.example.inventory.config.CatalogCache;
+import com.example.inventory.dto.PageResponse;
+import com.example.inventory.dto.ProductMaterialLine;
 import com.example.inventory.dto.ProductMaterialRequest;
+import com.example.inventory.dto.ProductRecipeRequest;
+import com.example.inventory.dto.ProductRecipeResponse;
 import com.example.inventory.model.Product;
 import com.example.inventory.model.ProductMaterial;
 import com.example.inventory.model.RawMaterial;
+import com.example.inventory.planning.CatalogChangedEvent;
 import com.example.inventory.repository.ProductMaterialRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 
 @Service
 public class ProductMaterialService {
@@ -16,19 +34,41 @@ public class ProductMaterialService {
     private final ProductMaterialRepository productMaterialRepository;
     private final ProductService productService;
     private final RawMaterialService rawMaterialService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CatalogCache catalogCache;
 
     public ProductMaterialService(ProductMaterialRepository productMaterialRepository,
                                   ProductService productService,
-                                  RawMaterialService rawMaterialService) {
+                                  RawMaterialService rawMaterialService,
+                                  ApplicationEventPublisher eventPublisher,
+                                  JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  CatalogCache catalogCache) {
         this.productMaterialRepository = productMaterialRepository;
         this.productService = productService;
         this.rawMaterialService = rawMaterialService;
+        this.eventPublisher = eventPublisher;
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.catalogCache = catalogCache;
     }
 
     public List<ProductMaterial> findByProductId(Long productId) {
         return productMaterialRepository.findByProductId(productId);
     }
 
+    public PageResponse<ProductMaterialLine> page(Long productId, Long cursor, Integer size) {
+        productService.findById(productId);
+        int pageSize = Paging.size(size);
+        List<ProductMaterialLine> rows = productMaterialRepository.findDetailedLinePage(
+                productId, Paging.after(cursor), Paging.limit(pageSize));
+        return Paging.page(rows, pageSize, ProductMaterialLine::id);
+    }
+
     /**
      * ✅ UPSERT:
      * se já existe vínculo (productId + rawMaterialId) -> atualiza requiredQuantity
@@ -40,6 +80,9 @@ public class ProductMaterialService {
         Product product = productService.findById(productId);
         RawMaterial rawMaterial = rawMaterialService.findById(request.rawMaterialId());
 
+        // O evento só é entregue após o commit da transação
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Kind.BOM, productId));
+
         return productMaterialRepository
                 .findByProductIdAndRawMaterialId(productId, request.rawMaterialId())
                 .map(existing -> {
@@ -55,7 +98,82 @@ public class ProductMaterialService {
                 });
     }
 
+    /**
+     * Writes a product's whole BOM in one transaction: the lines are read once, compared
+     * with {@code request} in memory and only the differences written, in JDBC batches.
+     * Lines for materials not in the request are deleted, unless {@code merge} is set. A
+     * material listed twice takes its last quantity.
+     * <p>
+     * Concurrent recipe writes for the same product wait for each other on the product row.
+     * Caches see one BOM change, and none if nothing differed.
+     */
+    public ProductRecipeResponse replaceMaterials(Long productId, ProductRecipeRequest request, boolean merge) {
+        Map<Long, Integer> wanted = new LinkedHashMap<>();
+        for (ProductMaterialRequest line : request.materials()) {
+            wanted.put(line.rawMaterialId(), line.requiredQuantity());
+        }
+
+        int[] counts = transactionTemplate.execute(status -> {
+            if (jdbcTemplate.queryForList("select id from products where id = ? for update", Long.class, productId).isEmpty()) {
+                throw new IllegalArgumentException("Product not found");
+            }
+            if (!wanted.isEmpty()) {
+                Set<Long> missing = new TreeSet<>(wanted.keySet());
+                missing.removeAll(namedJdbcTemplate.queryForList(
+                        "select id from raw_materials where id in (:ids)", Map.of("ids", wanted.keySet()), Long.class));
+                if (!missing.isEmpty()) {
+                    throw new IllegalArgumentException("Raw material not found: " + missing);
+                }
+            }
+
+            record Existing(long id, int quantity) {}
+            Map<Long, Existing> existing = new HashMap<>();
+            jdbcTemplate.query("select id, raw_material_id, required_quantity from product_materials where product_id = ?",
+                    rs -> { existing.put(rs.getLong(2), new Existing(rs.getLong(1), rs.getInt(3))); }, productId);
+
+            List<Object[]> inserts = new ArrayList<>();
+            List<Object[]> updates = new ArrayList<>();
+            wanted.forEach((rawMaterialId, quantity) -> {
+                Existing line = existing.get(rawMaterialId);
+                if (line == null) {
+                    inserts.add(new Object[]{productId, rawMaterialId, quantity});
+                } else if (line.quantity() != quantity) {
+                    updates.add(new Object[]{quantity, line.id()});
+                }
+            });
+            Set<Long> deletes = new HashSet<>();
+            if (!merge) {
+                existing.forEach((rawMaterialId, line) -> {
+                    if (!wanted.containsKey(rawMaterialId)) {
+                        deletes.add(line.id());
+                    }
+                });
+            }
+
+            if (!deletes.isEmpty()) {
+                namedJdbcTemplate.update("delete from product_materials where id in (:ids)", Map.of("ids", deletes));
+            }
+            jdbcTemplate.batchUpdate("update product_materials set required_quantity = ? where id = ?", updates);
+            jdbcTemplate.batchUpdate("insert into product_materials (id, product_id, raw_material_id, required_quantity) "
+                    + "values (nextval('product_materials_seq'), ?, ?, ?)", inserts);
+            if (inserts.size() + updates.size() + deletes.size() > 0) {
+                eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Kind.BOM, productId));
+            }
+            return new int[]{inserts.size(), updates.size(), deletes.size()};
+        });
+
+        if (counts[0] + counts[1] + counts[2] > 0) {
+            catalogCache.evictAfterJdbcWrite(CatalogChangedEvent.Kind.BOM);
+        }
+        List<ProductMaterialLine> lines = productMaterialRepository.findDetailedLinesByProductIds(List.of(productId));
+        return new ProductRecipeResponse(productId, counts[0], counts[1], counts[2], lines);
+    }
+
+    @Transactional
     public void delete(Long id) {
-        productMaterialRepository.deleteById(id);
+        productMaterialRepository.findById(id).ifPresent(pm -> {
+            productMaterialRepository.delete(pm);
+            eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Kind.BOM, pm.getProduct().getId()));
+        });
     }
 }
@@ -1,25 +1,73 @@
 package com.example.inventory.service;
 
+import com.example.inventory.dto.PageResponse;
+import com.example.inventory.dto.ProductListItem;
+import com.example.inventory.dto.ProductMaterialLine;
 import com.example.inventory.dto.ProductRequest;
+import com.example.inventory.dto.ProductSummary;
 import com.example.inventory.model.Product;
+import com.example.inventory.planning.CatalogChangedEvent;
+import com.example.inventory.repository.ProductComponentRepository;
+import com.example.inventory.repository.ProductMaterialRepository;
 import com.example.inventory.repository.ProductRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 public class ProductService {
 
     private final ProductRepository productRepository;
+    private final ProductMaterialRepository productMaterialRepository;
+    private final ProductComponentRepository productComponentRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public ProductService(ProductRepository productRepository) {
+    public ProductService(ProductRepository productRepository,
+                          ProductMaterialRepository productMaterialRepository,
+                          ProductComponentRepository productComponentRepository,
+                          ApplicationEventPublisher eventPublisher) {
         this.productRepository = productRepository;
+        this.productMaterialRepository = productMaterialRepository;
+        this.productComponentRepository = productComponentRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     public List<Product> findAll() {
         return productRepository.findAll();
     }
 
+    /**
+     * Keyset page of products ordered by id. With {@code includeMaterials} the BOM lines of
+     * the whole page are loaded in a single extra query.
+     */
+    public PageResponse<ProductListItem> page(Long cursor, Integer size, String prefix, boolean includeMaterials) {
+        int pageSize = Paging.size(size);
+        String pattern = Paging.prefixPattern(prefix);
+        List<ProductSummary> rows = pattern == null
+                ? productRepository.findPage(Paging.after(cursor), Paging.limit(pageSize))
+                : productRepository.findPageByNamePattern(Paging.after(cursor), pattern, Paging.limit(pageSize));
+        PageResponse<ProductSummary> page = Paging.page(rows, pageSize, ProductSummary::id);
+
+        Map<Long, List<ProductMaterialLine>> materials = Map.of();
+        if (includeMaterials && !page.items().isEmpty()) {
+            List<Long> ids = page.items().stream().map(ProductSummary::id).toList();
+            materials = productMaterialRepository.findDetailedLinesByProductIds(ids).stream()
+                    .collect(Collectors.groupingBy(ProductMaterialLine::productId));
+        }
+
+        List<ProductListItem> items = new ArrayList<>(page.items().size());
+        for (ProductSummary product : page.items()) {
+            List<ProductMaterialLine> lines = includeMaterials ? materials.getOrDefault(product.id(), List.of()) : null;
+            items.add(new ProductListItem(product.id(), product.name(), product.value(), lines));
+        }
+        return new PageResponse<>(items, page.nextCursor());
+    }
+
     public Product findById(Long id) {
         return productRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Product not found"));
@@ -29,17 +77,31 @@ public class ProductService {
         Product product = new Product();
         product.setName(request.name());
         product.setValue(request.value());
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Kind.PRODUCT, saved.getId()));
+        return saved;
     }
 
     public Product update(Long id, ProductRequest request) {
         Product product = findById(id);
         product.setName(request.name());
         product.setValue(request.value());
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Kind.PRODUCT, id));
+        return saved;
     }
 
+    /**
+     * Deletes the product together with its component links, including the ones where it
+     * is the component of another product. An unknown id changes nothing and publishes no
+     * event.
+     */
+    @Transactional
     public void delete(Long id) {
-        productRepository.deleteById(id);
+        productRepository.findById(id).ifPresent(product -> {
+            productComponentRepository.deleteAllLinking(id);
+            productRepository.delete(product);
+            eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Kind.PRODUCT, id));
+        });
     }
 }
@@ -2,75 +2,130 @@ package com.example.inventory.service;
 
 import com.example.inventory.dto.ProductionSuggestionItem;
 import com.example.inventory.dto.ProductionSuggestionResponse;
-import com.example.inventory.model.Product;
-import com.example.inventory.model.ProductMaterial;
-import com.example.inventory.model.RawMaterial;
-import com.example.inventory.repository.ProductRepository;
-import com.example.inventory.repository.RawMaterialRepository;
+import com.example.inventory.dto.StockPosition;
+import com.example.inventory.metrics.PlanningMetrics;
+import com.example.inventory.planning.BomSnapshot;
+import com.example.inventory.planning.BomSnapshotLoader;
+import com.example.inventory.planning.FixedPoint;
+import com.example.inventory.planning.GreedyPlanner;
+import com.example.inventory.planning.OptimalPlanner;
+import com.example.inventory.planning.PlanningStrategy;
+import com.example.inventory.planning.RankingPolicy;
+import com.example.inventory.planning.SuggestionCache;
+import com.example.inventory.service.stock.StockJournal;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.*;
 
+/**
+ * The one planning engine behind the suggestion endpoints, what-if scenarios and planning
+ * jobs. Every plan runs over a compiled {@link BomSnapshot}: greedily through
+ * {@link GreedyPlanner} in the requested {@link RankingPolicy} order, or optimized by
+ * {@link OptimalPlanner}.
+ */
 @Service
 public class ProductionPlanningService {
 
-    private final ProductRepository productRepository;
-    private final RawMaterialRepository rawMaterialRepository;
-
-    public ProductionPlanningService(ProductRepository productRepository, RawMaterialRepository rawMaterialRepository) {
-        this.productRepository = productRepository;
-        this.rawMaterialRepository = rawMaterialRepository;
+    private final BomSnapshotLoader bomSnapshotLoader;
+    private final SuggestionCache suggestionCache;
+    private final OptimalPlanner optimalPlanner;
+    private final PlanningMetrics planningMetrics;
+    private final StockJournal stockJournal;
+
+    public ProductionPlanningService(BomSnapshotLoader bomSnapshotLoader,
+                                     SuggestionCache suggestionCache,
+                                     OptimalPlanner optimalPlanner,
+                                     PlanningMetrics planningMetrics,
+                                     StockJournal stockJournal) {
+        this.bomSnapshotLoader = bomSnapshotLoader;
+        this.suggestionCache = suggestionCache;
+        this.optimalPlanner = optimalPlanner;
+        this.planningMetrics = planningMetrics;
+        this.stockJournal = stockJournal;
     }
 
     public ProductionSuggestionResponse suggestProduction() {
-        List<Product> products = new ArrayList<>(productRepository.findAll());
-        products.sort(Comparator.comparing(Product::getValue).reversed());
+        return suggestProduction(PlanningStrategy.GREEDY);
+    }
 
-        Map<Long, Integer> availableStock = new HashMap<>();
-        for (RawMaterial rawMaterial : rawMaterialRepository.findAll()) {
-            availableStock.put(rawMaterial.getId(), rawMaterial.getStockQuantity());
-        }
+    public ProductionSuggestionResponse suggestProduction(PlanningStrategy strategy) {
+        return suggestProduction(strategy, RankingPolicy.VALUE);
+    }
 
-        List<ProductionSuggestionItem> items = new ArrayList<>();
-        BigDecimal grandTotal = BigDecimal.ZERO;
+    /**
+     * Cached plan for the current catalog. {@code ranking} orders the greedy plan; the
+     * optimizing strategies do not depend on it.
+     */
+    public ProductionSuggestionResponse suggestProduction(PlanningStrategy strategy, RankingPolicy ranking) {
+        RankingPolicy effective = strategy == PlanningStrategy.GREEDY ? ranking : RankingPolicy.VALUE;
+        return suggestionCache.get("suggestions:" + strategy + ":" + effective,
+                () -> plan(bomSnapshotLoader.load(), strategy, effective));
+    }
 
-        for (Product product : products) {
-            List<ProductMaterial> billOfMaterial = product.getMaterials();
-            if (billOfMaterial.isEmpty()) {
-                continue;
-            }
+    /**
+     * Plans the current catalog against the stock on hand at {@code asOf}, rebuilt from the
+     * stock journal. Reservations are not journaled, so none are held back.
+     */
+    public ProductionSuggestionResponse suggestProductionAsOf(PlanningStrategy strategy, RankingPolicy ranking,
+                                                              Instant asOf) {
+        BomSnapshot current = bomSnapshotLoader.load();
+        Map<Long, Long> stockAsOf = new HashMap<>();
+        for (StockPosition position : stockJournal.stockAsOf(asOf)) {
+            stockAsOf.put(position.rawMaterialId(), position.stockQuantity());
+        }
+        BomSnapshot.Variant variant = current.variant();
+        for (int m = 0; m < current.materialCount(); m++) {
+            long target = Math.max(0, Math.min(Integer.MAX_VALUE, stockAsOf.getOrDefault(current.materialId(m), 0L)));
+            variant.adjustStock(current.materialId(m), (int) (target - current.stock(m)));
+        }
+        return plan(variant.build(), strategy, ranking);
+    }
 
-            int maxProducible = Integer.MAX_VALUE;
-            for (ProductMaterial material : billOfMaterial) {
-                int stock = availableStock.getOrDefault(material.getRawMaterial().getId(), 0);
-                maxProducible = Math.min(maxProducible, stock / material.getRequiredQuantity());
-            }
+    public BomSnapshot loadSnapshot() {
+        return bomSnapshotLoader.load();
+    }
 
-            if (maxProducible <= 0) {
-                continue;
-            }
+    /**
+     * Plans over any snapshot, bypassing the cache. Used for what-if variants.
+     */
+    public ProductionSuggestionResponse plan(BomSnapshot snapshot, PlanningStrategy strategy) {
+        return plan(snapshot, strategy, RankingPolicy.VALUE);
+    }
 
-            for (ProductMaterial material : billOfMaterial) {
-                Long rawMaterialId = material.getRawMaterial().getId();
-                int current = availableStock.getOrDefault(rawMaterialId, 0);
-                int consumed = maxProducible * material.getRequiredQuantity();
-                availableStock.put(rawMaterialId, current - consumed);
+    public ProductionSuggestionResponse plan(BomSnapshot snapshot, PlanningStrategy strategy, RankingPolicy ranking) {
+        return planningMetrics.time("plan", strategy.name().toLowerCase(Locale.ROOT), () -> {
+            if (strategy != PlanningStrategy.GREEDY) {
+                return toResponse(snapshot, optimalPlanner.plan(snapshot, strategy), null);
             }
+            int[] order = GreedyPlanner.rank(snapshot, ranking);
+            return toResponse(snapshot, GreedyPlanner.plan(snapshot, order), order);
+        });
+    }
 
-            BigDecimal totalValue = product.getValue().multiply(BigDecimal.valueOf(maxProducible));
-            grandTotal = grandTotal.add(totalValue);
+    /**
+     * The plan as a response: the products with a quantity, in the order they were decided
+     * ({@code null} for the snapshot order). Amounts are summed on the snapshot's scaled
+     * values; a {@code BigDecimal} is only created for each item and the grand total.
+     */
+    public static ProductionSuggestionResponse toResponse(BomSnapshot snapshot, int[] quantities, int[] order) {
+        List<ProductionSuggestionItem> items = new ArrayList<>();
+        FixedPoint.Sum grandTotal = new FixedPoint.Sum();
 
+        for (int i = 0; i < quantities.length; i++) {
+            int product = order == null ? i : order[i];
+            if (quantities[product] <= 0) {
+                continue;
+            }
+            snapshot.addProductTotal(grandTotal, product, quantities[product]);
             items.add(new ProductionSuggestionItem(
-            product.getId(),
-            product.getName(),
-            maxProducible,
-            totalValue   // já é BigDecimal
+                    snapshot.productId(product),
+                    snapshot.productName(product),
+                    quantities[product],
+                    snapshot.productTotal(product, quantities[product])
             ));
-
-
         }
 
-        return new ProductionSuggestionResponse(items, grandTotal);
+        return new ProductionSuggestionResponse(items, grandTotal.value());
     }
 }
@@ -0,0 +1,197 @@
+package com.example.inventory.service;
+
+import com.example.inventory.dto.BomLine;
+import com.example.inventory.dto.ProductBomRow;
+import com.example.inventory.dto.RawMaterialSummary;
+import com.example.inventory.metrics.PlanningMetrics;
+import com.example.inventory.planning.BomExplosion;
+import com.example.inventory.planning.BomExplosionCache;
+import com.example.inventory.planning.BomSnapshot;
+import com.example.inventory.planning.BomSnapshotLoader;
+import com.example.inventory.planning.FixedPoint;
+import com.example.inventory.planning.GreedyPlanner;
+import com.example.inventory.planning.RankingPolicy;
+import com.example.inventory.repository.ProductRepository;
+import com.example.inventory.repository.RawMaterialRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Same plan as the greedy suggestion of {@link ProductionPlanningService} for a given
+ * {@link RankingPolicy}, written as NDJSON while it is computed. Every line is an
+ * {@code item}; the last one is a {@code total} record with the grand total value.
+ * Products are decided by {@link GreedyPlanner#decide} on either path.
+ * <p>
+ * In {@link RankingPolicy#VALUE} order only the stock vector is held in memory. Products
+ * and their BOM lines come from one forward-only query in planning order, so each product
+ * is decided as soon as its rows have been read and then dropped. Assemblies take their
+ * flattened requirements from the memoized {@link BomExplosion} instead of their own rows.
+ * <p>
+ * The other rankings score every product against the demand of the whole catalog before
+ * the first one is decided, so they plan over the loaded {@link BomSnapshot} and write
+ * each product as {@link GreedyPlanner#plan} decides it.
+ */
+@Service
+public class ProductionStreamService {
+
+    private final ProductRepository productRepository;
+    private final RawMaterialRepository rawMaterialRepository;
+    private final BomExplosionCache bomExplosionCache;
+    private final BomSnapshotLoader bomSnapshotLoader;
+    private final ObjectMapper objectMapper;
+    private final Timer streamTimer;
+
+    public ProductionStreamService(ProductRepository productRepository,
+                                   RawMaterialRepository rawMaterialRepository,
+                                   BomExplosionCache bomExplosionCache,
+                                   BomSnapshotLoader bomSnapshotLoader,
+                                   ObjectMapper objectMapper,
+                                   PlanningMetrics planningMetrics) {
+        this.productRepository = productRepository;
+        this.rawMaterialRepository = rawMaterialRepository;
+        this.bomExplosionCache = bomExplosionCache;
+        this.bomSnapshotLoader = bomSnapshotLoader;
+        this.objectMapper = objectMapper;
+        this.streamTimer = planningMetrics.phaseTimer("stream", "greedy");
+    }
+
+    @Transactional(readOnly = true)
+    public void writeSuggestion(OutputStream out) throws IOException {
+        writeSuggestion(RankingPolicy.VALUE, out);
+    }
+
+    @Transactional(readOnly = true)
+    public void writeSuggestion(RankingPolicy ranking, OutputStream out) throws IOException {
+        Timer.Sample sample = Timer.start();
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+            json.setRootValueSeparator(null);
+            if (ranking == RankingPolicy.VALUE) {
+                writeInPlanningOrder(json);
+            } else {
+                writeRanked(bomSnapshotLoader.load(), ranking, json);
+            }
+        } finally {
+            sample.stop(streamTimer);
+        }
+    }
+
+    private void writeInPlanningOrder(JsonGenerator json) throws IOException {
+        BomExplosion explosion = bomExplosionCache.current();
+        List<RawMaterialSummary> materials = rawMaterialRepository.findAllSummaries();
+        RawMaterialSummary[] byId = materials.toArray(new RawMaterialSummary[0]);
+        Arrays.sort(byId, (a, b) -> Long.compare(a.id(), b.id()));
+        long[] materialIds = new long[byId.length];
+        // One slot past the materials, always empty, for lines whose material is gone.
+        int[] stock = new int[byId.length + 1];
+        int missing = byId.length;
+        for (int m = 0; m < byId.length; m++) {
+            materialIds[m] = byId[m].id();
+            stock[m] = byId[m].stockQuantity();
+        }
+
+        // BOM of the product being read; reused across products.
+        int[] lineMaterials = new int[16];
+        int[] lineQuantities = new int[16];
+
+        FixedPoint.Sum grandTotal = new FixedPoint.Sum();
+        long itemCount = 0;
+
+        try (Stream<ProductBomRow> rows = productRepository.streamInPlanningOrder()) {
+            Iterator<ProductBomRow> iterator = rows.iterator();
+            ProductBomRow row = iterator.hasNext() ? iterator.next() : null;
+            while (row != null) {
+                ProductBomRow product = row;
+                int lineCount = 0;
+                while (row != null && row.productId().equals(product.productId())) {
+                    if (row.rawMaterialId() != null) {
+                        if (lineCount == lineMaterials.length) {
+                            lineMaterials = Arrays.copyOf(lineMaterials, lineCount * 2);
+                            lineQuantities = Arrays.copyOf(lineQuantities, lineCount * 2);
+                        }
+                        int m = Arrays.binarySearch(materialIds, row.rawMaterialId());
+                        lineMaterials[lineCount] = m >= 0 ? m : missing;
+                        lineQuantities[lineCount] = row.requiredQuantity();
+                        lineCount++;
+                    }
+                    row = iterator.hasNext() ? iterator.next() : null;
+                }
+                List<BomLine> flattened = explosion.lines(product.productId());
+                if (flattened != null) {
+                    if (flattened.size() > lineMaterials.length) {
+                        lineMaterials = new int[flattened.size()];
+                        lineQuantities = new int[flattened.size()];
+                    }
+                    lineCount = 0;
+                    for (BomLine line : flattened) {
+                        int m = Arrays.binarySearch(materialIds, line.rawMaterialId());
+                        lineMaterials[lineCount] = m >= 0 ? m : missing;
+                        lineQuantities[lineCount] = line.requiredQuantity();
+                        lineCount++;
+                    }
+                }
+
+                int quantity = GreedyPlanner.decide(stock, lineMaterials, lineQuantities, 0, lineCount);
+                if (quantity > 0) {
+                    BigDecimal totalValue = product.productValue().multiply(BigDecimal.valueOf(quantity));
+                    grandTotal.add(totalValue);
+                    itemCount++;
+                    writeItem(json, product.productId(), product.productName(), quantity, totalValue);
+                }
+            }
+        }
+        writeTotal(json, itemCount, grandTotal.value());
+    }
+
+    private void writeRanked(BomSnapshot snapshot, RankingPolicy ranking, JsonGenerator json) throws IOException {
+        FixedPoint.Sum grandTotal = new FixedPoint.Sum();
+        long[] itemCount = new long[1];
+        try {
+            GreedyPlanner.plan(snapshot, GreedyPlanner.rank(snapshot, ranking), (product, quantity) -> {
+                snapshot.addProductTotal(grandTotal, product, quantity);
+                itemCount[0]++;
+                try {
+                    writeItem(json, snapshot.productId(product), snapshot.productName(product), quantity,
+                            snapshot.productTotal(product, quantity));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writeTotal(json, itemCount[0], grandTotal.value());
+    }
+
+    private static void writeItem(JsonGenerator json, long productId, String productName, int quantity,
+                                  BigDecimal totalValue) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("type", "item");
+        json.writeNumberField("productId", productId);
+        json.writeStringField("productName", productName);
+        json.writeNumberField("producibleQuantity", quantity);
+        json.writeNumberField("totalValue", totalValue);
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+    private static void writeTotal(JsonGenerator json, long itemCount, BigDecimal grandTotal) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("type", "total");
+        json.writeNumberField("itemCount", itemCount);
+        json.writeNumberField("grandTotalValue", grandTotal);
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+}
@@ -1,9 +1,19 @@
 package com.example.inventory.service;
 
+import com.example.inventory.dto.PageResponse;
+import com.example.inventory.dto.RawMaterialListItem;
+import com.example.inventory.dto.RawMaterialMatch;
 import com.example.inventory.dto.RawMaterialRequest;
+import com.example.inventory.dto.StockMovement;
 import com.example.inventory.model.RawMaterial;
+import com.example.inventory.planning.CatalogChangedEvent;
 import com.example.inventory.repository.RawMaterialRepository;
+import com.example.inventory.service.stock.StockJournal;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
 
@@ -11,15 +21,41 @@ import java.util.List;
 public class RawMaterialService {
 
     private final RawMaterialRepository rawMaterialRepository;
+    private final StockJournal stockJournal;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
 
-    public RawMaterialService(RawMaterialRepository rawMaterialRepository) {
+    public RawMaterialService(RawMaterialRepository rawMaterialRepository,
+                              StockJournal stockJournal,
+                              ApplicationEventPublisher eventPublisher,
+                              PlatformTransactionManager transactionManager) {
         this.rawMaterialRepository = rawMaterialRepository;
+        this.stockJournal = stockJournal;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     public List<RawMaterial> findAll() {
         return rawMaterialRepository.findAll();
     }
 
+    public PageResponse<RawMaterialListItem> page(Long cursor, Integer size, String prefix) {
+        int pageSize = Paging.size(size);
+        String pattern = Paging.prefixPattern(prefix);
+        List<RawMaterialListItem> rows = pattern == null
+                ? rawMaterialRepository.findPage(Paging.after(cursor), Paging.limit(pageSize))
+                : rawMaterialRepository.findPageByNamePattern(Paging.after(cursor), pattern, Paging.limit(pageSize));
+        return Paging.page(rows, pageSize, RawMaterialListItem::id);
+    }
+
+    public List<RawMaterialMatch> search(String query, Integer limit) {
+        String pattern = Paging.prefixPattern(query);
+        if (pattern == null) {
+            return List.of();
+        }
+        return rawMaterialRepository.search(RawMaterial.normalize(query), pattern, Paging.size(limit));
+    }
+
     public RawMaterial findById(Long id) {
         return rawMaterialRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Raw material not found"));
@@ -28,31 +64,61 @@ public class RawMaterialService {
     // ✅ AQUI ESTÁ A REGRA CORRETA
     public RawMaterial create(RawMaterialRequest request) {
 
-        return rawMaterialRepository.findByNameIgnoreCase(request.name())
-                .map(existing -> {
-                    // Se já existir → soma estoque
-                    existing.setStockQuantity(
-                            existing.getStockQuantity() + request.stockQuantity()
-                    );
-                    return rawMaterialRepository.save(existing);
-                })
-                .orElseGet(() -> {
-                    // Se não existir → cria novo
-                    RawMaterial material = new RawMaterial();
-                    material.setName(request.name());
-                    material.setStockQuantity(request.stockQuantity());
-                    return rawMaterialRepository.save(material);
-                });
+        // Se já existir (mesmo nome, ignorando maiúsculas) → soma estoque; senão → cria.
+        // Um único upsert atômico: criações concorrentes do mesmo nome não duplicam.
+        Long id = addStock(request);
+        if (id == null) {
+            throw new ConflictException("Stock limit exceeded for raw material " + request.name());
+        }
+        publishChange(id);
+        return findById(id);
     }
 
+    // Protected by @Version: a concurrent stock movement makes this fail instead of being overwritten.
     public RawMaterial update(Long id, RawMaterialRequest request) {
-        RawMaterial material = findById(id);
-        material.setName(request.name());
-        material.setStockQuantity(request.stockQuantity());
-        return rawMaterialRepository.save(material);
+        RawMaterial saved = transactionTemplate.execute(status -> {
+            RawMaterial material = findById(id);
+            if (request.stockQuantity() < material.getReservedQuantity()) {
+                throw new ConflictException("Stock cannot be lower than the reserved quantity ("
+                        + material.getReservedQuantity() + ")");
+            }
+            stockJournal.record(id, StockMovement.Kind.ADJUSTMENT,
+                    request.stockQuantity() - material.getStockQuantity(), "edit");
+            material.setName(request.name());
+            material.setStockQuantity(request.stockQuantity());
+            return rawMaterialRepository.save(material);
+        });
+        publishChange(id);
+        return saved;
     }
 
     public void delete(Long id) {
-        rawMaterialRepository.deleteById(id);
+        transactionTemplate.executeWithoutResult(status -> rawMaterialRepository.findById(id).ifPresent(material -> {
+            stockJournal.record(id, StockMovement.Kind.ADJUSTMENT, -material.getStockQuantity(), "deletion");
+            rawMaterialRepository.delete(material);
+            publishChange(id);
+        }));
+    }
+
+    // Without ON CONFLICT (the MERGE used on H2) two first inserts of a name can still meet
+    // in the unique index; by the retry the row exists and gets updated.
+    private Long addStock(RawMaterialRequest request) {
+        try {
+            return transactionTemplate.execute(status -> receive(request));
+        } catch (DataIntegrityViolationException ex) {
+            return transactionTemplate.execute(status -> receive(request));
+        }
+    }
+
+    private Long receive(RawMaterialRequest request) {
+        Long id = rawMaterialRepository.addStock(request.name(), request.stockQuantity());
+        if (id != null) {
+            stockJournal.record(id, StockMovement.Kind.RECEIPT, request.stockQuantity(), "receipt");
+        }
+        return id;
+    }
+
+    private void publishChange(Long id) {
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Kind.RAW_MATERIAL, id));
     }
 }
@@ -0,0 +1,131 @@
+package com.example.inventory.service;
+
+import com.example.inventory.dto.ProductionSuggestionItem;
+import com.example.inventory.dto.ProductionSuggestionResponse;
+import com.example.inventory.dto.ScenarioRequest;
+import com.example.inventory.dto.ScenarioResponse;
+import com.example.inventory.planning.BomSnapshot;
+import com.example.inventory.planning.PlanningStrategy;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * What-if planning. The catalog is loaded once per request; each scenario is a
+ * copy-on-write {@link BomSnapshot.Variant} of it, planned in parallel on a dedicated
+ * pool so long solver runs do not starve the common pool.
+ */
+@Service
+public class ScenarioService {
+
+    private final ProductionPlanningService productionPlanningService;
+    private final ForkJoinPool pool;
+
+    public ScenarioService(ProductionPlanningService productionPlanningService,
+                           @Value("${inventory.planning.scenarios.parallelism:0}") int parallelism) {
+        this.productionPlanningService = productionPlanningService;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    public ScenarioResponse evaluate(ScenarioRequest request, PlanningStrategy strategy) {
+        BomSnapshot base = productionPlanningService.loadSnapshot();
+
+        // Variants are built up front so invalid ids fail the request before any planning.
+        List<BomSnapshot> variants = new ArrayList<>(request.scenarios().size());
+        for (ScenarioRequest.Scenario scenario : request.scenarios()) {
+            variants.add(variant(base, scenario));
+        }
+
+        Future<ProductionSuggestionResponse> baseline = pool.submit(() -> productionPlanningService.plan(base, strategy));
+        List<Future<ProductionSuggestionResponse>> plans = new ArrayList<>(variants.size());
+        for (BomSnapshot variant : variants) {
+            plans.add(pool.submit(() -> productionPlanningService.plan(variant, strategy)));
+        }
+
+        ProductionSuggestionResponse baselinePlan = join(baseline);
+        List<ScenarioResponse.Result> results = new ArrayList<>(plans.size());
+        for (int i = 0; i < plans.size(); i++) {
+            ProductionSuggestionResponse plan = join(plans.get(i));
+            String name = request.scenarios().get(i).name();
+            results.add(new ScenarioResponse.Result(
+                    name != null ? name : "scenario-" + (i + 1),
+                    plan,
+                    plan.grandTotalValue().subtract(baselinePlan.grandTotalValue()),
+                    diff(baselinePlan, plan)));
+        }
+        return new ScenarioResponse(baselinePlan, results);
+    }
+
+    private static BomSnapshot variant(BomSnapshot base, ScenarioRequest.Scenario scenario) {
+        BomSnapshot.Variant variant = base.variant();
+        if (scenario.stock() != null) {
+            scenario.stock().forEach(change -> variant.adjustStock(change.rawMaterialId(), change.delta()));
+        }
+        if (scenario.prices() != null) {
+            for (ScenarioRequest.PriceChange change : scenario.prices()) {
+                BigDecimal value = change.value() != null
+                        ? change.value()
+                        : variant.value(change.productId()).multiply(change.factor()).setScale(2, RoundingMode.HALF_UP);
+                variant.setValue(change.productId(), value);
+            }
+        }
+        if (scenario.bom() != null) {
+            scenario.bom().forEach(change ->
+                    variant.setRequiredQuantity(change.productId(), change.rawMaterialId(), change.requiredQuantity()));
+        }
+        return variant.build();
+    }
+
+    private static List<ScenarioResponse.ItemDelta> diff(ProductionSuggestionResponse baseline,
+                                                         ProductionSuggestionResponse plan) {
+        Map<Long, ProductionSuggestionItem[]> byProduct = new TreeMap<>();
+        for (ProductionSuggestionItem item : baseline.items()) {
+            byProduct.computeIfAbsent(item.productId(), id -> new ProductionSuggestionItem[2])[0] = item;
+        }
+        for (ProductionSuggestionItem item : plan.items()) {
+            byProduct.computeIfAbsent(item.productId(), id -> new ProductionSuggestionItem[2])[1] = item;
+        }
+
+        List<ScenarioResponse.ItemDelta> changes = new ArrayList<>();
+        byProduct.forEach((productId, pair) -> {
+            int before = pair[0] != null ? pair[0].producibleQuantity() : 0;
+            int after = pair[1] != null ? pair[1].producibleQuantity() : 0;
+            BigDecimal valueBefore = pair[0] != null ? pair[0].totalValue() : BigDecimal.ZERO;
+            BigDecimal valueAfter = pair[1] != null ? pair[1].totalValue() : BigDecimal.ZERO;
+            if (before != after || valueBefore.compareTo(valueAfter) != 0) {
+                String name = (pair[1] != null ? pair[1] : pair[0]).productName();
+                changes.add(new ScenarioResponse.ItemDelta(productId, name, before, after, valueAfter.subtract(valueBefore)));
+            }
+        });
+        return changes;
+    }
+
+    private static ProductionSuggestionResponse join(Future<ProductionSuggestionResponse> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while planning scenarios");
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.inventory.service.bulk;
+
+import org.springframework.http.MediaType;
+
+public enum BulkFormat {
+
+    NDJSON,
+    CSV;
+
+    public static final String NDJSON_VALUE = "application/x-ndjson";
+    public static final String CSV_VALUE = "text/csv";
+
+    public static BulkFormat of(MediaType contentType) {
+        if (contentType != null && contentType.isCompatibleWith(MediaType.parseMediaType(CSV_VALUE))) {
+            return CSV;
+        }
+        return NDJSON;
+    }
+}
@@ -0,0 +1,448 @@
+package com.example.inventory.service.bulk;
+
+import com.example.inventory.config.CatalogCache;
+import com.example.inventory.dto.BulkImportReport;
+import com.example.inventory.dto.BulkRowError;
+import com.example.inventory.dto.StockMovement;
+import com.example.inventory.model.RawMaterial;
+import com.example.inventory.planning.CatalogChangedEvent;
+import com.example.inventory.service.stock.StockJournal;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Streaming catalog import. Rows are parsed incrementally and written in chunks; every
+ * chunk resolves names and ids with IN-queries, writes with JDBC batches and commits in
+ * its own transaction, so a failure only rolls back the chunk it happened in.
+ */
+@Service
+public class BulkImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final String STOCK_LIMIT_EXCEEDED = "Stock limit exceeded";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CatalogCache catalogCache;
+    private final StockJournal stockJournal;
+    private final int chunkSize;
+
+    public BulkImportService(JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             ObjectMapper objectMapper,
+                             ApplicationEventPublisher eventPublisher,
+                             CatalogCache catalogCache,
+                             StockJournal stockJournal,
+                             @Value("${inventory.bulk.chunk-size:1000}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.catalogCache = catalogCache;
+        this.stockJournal = stockJournal;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Rows: {@code name, stockQuantity}. Same rule as {@code POST /api/raw-materials}: a name
+     * that already exists (ignoring case) gets the quantity added to its stock. Rows that
+     * would take a stock past {@link Integer#MAX_VALUE} are rejected.
+     */
+    public BulkImportReport importRawMaterials(InputStream body, BulkFormat format) {
+        return importRows(body, format, CatalogChangedEvent.Kind.RAW_MATERIAL, this::writeRawMaterials);
+    }
+
+    /**
+     * Rows: {@code id, name, value}. Rows with an id update that product, rows without one
+     * create a new product.
+     */
+    public BulkImportReport importProducts(InputStream body, BulkFormat format) {
+        return importRows(body, format, CatalogChangedEvent.Kind.PRODUCT, this::writeProducts);
+    }
+
+    /**
+     * Rows: {@code productId, rawMaterialId} (or {@code rawMaterialName}) {@code , requiredQuantity}.
+     * Existing product/material pairs get their quantity replaced, as in the single upsert.
+     */
+    public BulkImportReport importProductMaterials(InputStream body, BulkFormat format) {
+        return importRows(body, format, CatalogChangedEvent.Kind.BOM, this::writeProductMaterials);
+    }
+
+    @FunctionalInterface
+    private interface ChunkWriter {
+        void write(List<BulkRow> rows, Chunk chunk);
+    }
+
+    private BulkImportReport importRows(InputStream body, BulkFormat format,
+                                        CatalogChangedEvent.Kind kind, ChunkWriter writer) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        BulkRowReader rows = new BulkRowReader(reader, format, objectMapper);
+        Report report = new Report();
+
+        List<BulkRow> buffer = new ArrayList<>(chunkSize);
+        while (rows.hasNext()) {
+            buffer.add(rows.next());
+            if (buffer.size() == chunkSize) {
+                writeChunk(buffer, kind, writer, report);
+                buffer.clear();
+            }
+        }
+        if (!buffer.isEmpty()) {
+            writeChunk(buffer, kind, writer, report);
+        }
+        return report.toResponse();
+    }
+
+    private void writeChunk(List<BulkRow> rows, CatalogChangedEvent.Kind kind, ChunkWriter writer, Report report) {
+        Chunk chunk = new Chunk();
+        for (BulkRow row : rows) {
+            if (row.error() != null) {
+                chunk.reject(row, row.error());
+            }
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                writer.write(rows, chunk);
+                if (chunk.inserted + chunk.updated > 0) {
+                    eventPublisher.publishEvent(new CatalogChangedEvent(kind, null));
+                }
+            });
+            if (chunk.inserted + chunk.updated > 0) {
+                catalogCache.evictAfterJdbcWrite(kind);
+            }
+            report.add(rows.size(), chunk);
+        } catch (DataAccessException ex) {
+            // Nothing in this chunk was committed: every row that had not already failed
+            // validation is reported with the database error.
+            String message = "Chunk rolled back: " + ex.getMostSpecificCause().getMessage();
+            Chunk failed = new Chunk();
+            for (BulkRow row : rows) {
+                failed.reject(row, chunk.rejected.getOrDefault(row.line(), message));
+            }
+            report.add(rows.size(), failed);
+        }
+    }
+
+    private void writeRawMaterials(List<BulkRow> rows, Chunk chunk) {
+        Map<String, String> names = new LinkedHashMap<>();
+        Map<String, Integer> quantities = new HashMap<>();
+        Map<String, List<BulkRow>> rowsByName = new HashMap<>();
+        for (BulkRow row : rows) {
+            if (chunk.isRejected(row)) {
+                continue;
+            }
+            String name = row.text("name");
+            Integer quantity = integer(row, "stockQuantity", 0, chunk);
+            if (name == null) {
+                chunk.reject(row, "name is required");
+                continue;
+            }
+            if (quantity == null) {
+                continue;
+            }
+            String key = RawMaterial.normalize(name);
+            int total;
+            try {
+                total = Math.addExact(quantities.getOrDefault(key, 0), quantity);
+            } catch (ArithmeticException ex) {
+                chunk.reject(row, STOCK_LIMIT_EXCEEDED);
+                continue;
+            }
+            names.putIfAbsent(key, name);
+            quantities.put(key, total);
+            rowsByName.computeIfAbsent(key, k -> new ArrayList<>()).add(row);
+        }
+        if (names.isEmpty()) {
+            return;
+        }
+
+        Map<String, Long> existing = new HashMap<>();
+        namedJdbcTemplate.query(
+                "select id, normalized_name from raw_materials where normalized_name in (:names)",
+                Map.of("names", names.keySet()),
+                rs -> { existing.put(rs.getString(2), rs.getLong(1)); });
+
+        List<Object[]> updates = new ArrayList<>();
+        List<String> updatedKeys = new ArrayList<>();
+        List<Object[]> inserts = new ArrayList<>();
+        for (Map.Entry<String, String> entry : names.entrySet()) {
+            String key = entry.getKey();
+            int matchingRows = rowsByName.get(key).size();
+            Long id = existing.get(key);
+            if (id != null) {
+                updates.add(new Object[]{quantities.get(key), id, quantities.get(key)});
+                updatedKeys.add(key);
+            } else {
+                inserts.add(new Object[]{entry.getValue(), key, quantities.get(key)});
+                chunk.inserted++;
+                chunk.updated += matchingRows - 1;
+            }
+        }
+        int[] counts = jdbcTemplate.batchUpdate("update raw_materials set stock_quantity = stock_quantity + ?, "
+                + "version = version + 1 where id = ? and stock_quantity <= 2147483647 - ?", updates);
+        for (int i = 0; i < counts.length; i++) {
+            String key = updatedKeys.get(i);
+            if (counts[i] == 0) {
+                rowsByName.get(key).forEach(row -> chunk.reject(row, STOCK_LIMIT_EXCEEDED));
+                quantities.remove(key);
+            } else {
+                chunk.updated += rowsByName.get(key).size();
+            }
+        }
+        jdbcTemplate.batchUpdate(
+                "insert into raw_materials (id, name, normalized_name, stock_quantity) "
+                        + "values (nextval('raw_materials_seq'), ?, ?, ?)", inserts);
+
+        if (existing.size() < names.size()) {
+            namedJdbcTemplate.query(
+                    "select id, normalized_name from raw_materials where normalized_name in (:names)",
+                    Map.of("names", names.keySet()),
+                    rs -> { existing.putIfAbsent(rs.getString(2), rs.getLong(1)); });
+        }
+        quantities.forEach((key, quantity) ->
+                stockJournal.record(existing.get(key), StockMovement.Kind.RECEIPT, quantity, "bulk import"));
+    }
+
+    private void writeProducts(List<BulkRow> rows, Chunk chunk) {
+        List<Object[]> updates = new ArrayList<>();
+        List<BulkRow> updatedRows = new ArrayList<>();
+        List<Object[]> inserts = new ArrayList<>();
+        for (BulkRow row : rows) {
+            if (chunk.isRejected(row)) {
+                continue;
+            }
+            Long id = identifier(row, "id", chunk);
+            String name = row.text("name");
+            BigDecimal value = decimal(row, "value", chunk);
+            if (chunk.isRejected(row)) {
+                continue;
+            }
+            if (name == null) {
+                chunk.reject(row, "name is required");
+            } else if (value == null) {
+                chunk.reject(row, "value is required");
+            } else if (value.compareTo(new BigDecimal("0.01")) < 0) {
+                chunk.reject(row, "value must be greater than or equal to 0.01");
+            } else if (id != null) {
+                updates.add(new Object[]{name, value, id});
+                updatedRows.add(row);
+            } else {
+                inserts.add(new Object[]{name, value});
+            }
+        }
+
+        int[] counts = jdbcTemplate.batchUpdate("update products set name = ?, value = ? where id = ?", updates);
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                chunk.reject(updatedRows.get(i), "Product not found");
+            } else {
+                chunk.updated++;
+            }
+        }
+        jdbcTemplate.batchUpdate(
+                "insert into products (id, name, value) values (nextval('products_seq'), ?, ?)", inserts);
+        chunk.inserted += inserts.size();
+    }
+
+    private void writeProductMaterials(List<BulkRow> rows, Chunk chunk) {
+        record Line(BulkRow row, long productId, Long rawMaterialId, String rawMaterialName, int quantity) {}
+
+        List<Line> lines = new ArrayList<>();
+        Set<Long> productIds = new HashSet<>();
+        Set<Long> materialIds = new HashSet<>();
+        Set<String> materialNames = new HashSet<>();
+        for (BulkRow row : rows) {
+            if (chunk.isRejected(row)) {
+                continue;
+            }
+            Long productId = identifier(row, "productId", chunk);
+            Long rawMaterialId = identifier(row, "rawMaterialId", chunk);
+            Integer quantity = integer(row, "requiredQuantity", 1, chunk);
+            String rawMaterialName = row.text("rawMaterialName");
+            if (chunk.isRejected(row) || quantity == null) {
+                continue;
+            }
+            if (productId == null) {
+                chunk.reject(row, "productId is required");
+            } else if (rawMaterialId == null && rawMaterialName == null) {
+                chunk.reject(row, "rawMaterialId or rawMaterialName is required");
+            } else {
+                String key = rawMaterialId == null ? RawMaterial.normalize(rawMaterialName) : null;
+                lines.add(new Line(row, productId, rawMaterialId, key, quantity));
+                productIds.add(productId);
+                if (rawMaterialId != null) {
+                    materialIds.add(rawMaterialId);
+                } else {
+                    materialNames.add(key);
+                }
+            }
+        }
+        if (lines.isEmpty()) {
+            return;
+        }
+
+        Set<Long> knownProducts = new HashSet<>(namedJdbcTemplate.queryForList(
+                "select id from products where id in (:ids)", Map.of("ids", productIds), Long.class));
+        Set<Long> knownMaterials = materialIds.isEmpty() ? Set.of() : new HashSet<>(namedJdbcTemplate.queryForList(
+                "select id from raw_materials where id in (:ids)", Map.of("ids", materialIds), Long.class));
+        Map<String, Long> materialsByName = new HashMap<>();
+        if (!materialNames.isEmpty()) {
+            namedJdbcTemplate.query(
+                    "select id, normalized_name from raw_materials where normalized_name in (:names)",
+                    Map.of("names", materialNames),
+                    rs -> { materialsByName.put(rs.getString(2), rs.getLong(1)); });
+        }
+        Map<List<Long>, Long> existing = new HashMap<>();
+        namedJdbcTemplate.query(
+                "select id, product_id, raw_material_id from product_materials where product_id in (:ids)",
+                Map.of("ids", productIds),
+                rs -> { existing.put(List.of(rs.getLong(2), rs.getLong(3)), rs.getLong(1)); });
+
+        // Last row wins for a product/material pair, as repeated upserts would behave.
+        Map<List<Long>, Integer> pending = new LinkedHashMap<>();
+        for (Line line : lines) {
+            Long rawMaterialId = line.rawMaterialId() != null
+                    ? (knownMaterials.contains(line.rawMaterialId()) ? line.rawMaterialId() : null)
+                    : materialsByName.get(line.rawMaterialName());
+            if (!knownProducts.contains(line.productId())) {
+                chunk.reject(line.row(), "Product not found");
+            } else if (rawMaterialId == null) {
+                chunk.reject(line.row(), "Raw material not found");
+            } else {
+                List<Long> key = List.of(line.productId(), rawMaterialId);
+                if (existing.containsKey(key) || pending.containsKey(key)) {
+                    chunk.updated++;
+                } else {
+                    chunk.inserted++;
+                }
+                pending.put(key, line.quantity());
+            }
+        }
+
+        List<Object[]> updates = new ArrayList<>();
+        List<Object[]> inserts = new ArrayList<>();
+        pending.forEach((key, quantity) -> {
+            Long id = existing.get(key);
+            if (id != null) {
+                updates.add(new Object[]{quantity, id});
+            } else {
+                inserts.add(new Object[]{key.get(0), key.get(1), quantity});
+            }
+        });
+        jdbcTemplate.batchUpdate("update product_materials set required_quantity = ? where id = ?", updates);
+        jdbcTemplate.batchUpdate("insert into product_materials (id, product_id, raw_material_id, required_quantity) "
+                + "values (nextval('product_materials_seq'), ?, ?, ?)", inserts);
+    }
+
+    private static Long identifier(BulkRow row, String field, Chunk chunk) {
+        String text = row.text(field);
+        if (text == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(text);
+        } catch (NumberFormatException ex) {
+            chunk.reject(row, field + " must be a whole number");
+            return null;
+        }
+    }
+
+    private static Integer integer(BulkRow row, String field, int min, Chunk chunk) {
+        String text = row.text(field);
+        if (text == null) {
+            chunk.reject(row, field + " is required");
+            return null;
+        }
+        try {
+            int value = Integer.parseInt(text);
+            if (value < min) {
+                chunk.reject(row, field + " must be greater than or equal to " + min);
+                return null;
+            }
+            return value;
+        } catch (NumberFormatException ex) {
+            chunk.reject(row, field + " must be a whole number");
+            return null;
+        }
+    }
+
+    private static BigDecimal decimal(BulkRow row, String field, Chunk chunk) {
+        String text = row.text(field);
+        if (text == null) {
+            return null;
+        }
+        try {
+            return new BigDecimal(text);
+        } catch (NumberFormatException ex) {
+            chunk.reject(row, field + " must be a number");
+            return null;
+        }
+    }
+
+    /**
+     * Outcome of one chunk; only merged into the report once the chunk has committed or
+     * been fully rejected.
+     */
+    private static final class Chunk {
+        private final Map<Long, String> rejected = new TreeMap<>();
+        private long inserted;
+        private long updated;
+
+        void reject(BulkRow row, String error) {
+            rejected.putIfAbsent(row.line(), error);
+        }
+
+        boolean isRejected(BulkRow row) {
+            return rejected.containsKey(row.line());
+        }
+    }
+
+    private static final class Report {
+        private final List<BulkRowError> errors = new ArrayList<>();
+        private long processed;
+        private long inserted;
+        private long updated;
+        private long failed;
+
+        void add(int rows, Chunk chunk) {
+            processed += rows;
+            inserted += chunk.inserted;
+            updated += chunk.updated;
+            failed += chunk.rejected.size();
+            chunk.rejected.forEach((line, error) -> {
+                if (errors.size() < MAX_REPORTED_ERRORS) {
+                    errors.add(new BulkRowError(line, error));
+                }
+            });
+        }
+
+        BulkImportReport toResponse() {
+            return new BulkImportReport(processed, inserted, updated, failed, errors, failed > errors.size());
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.inventory.service.bulk;
+
+import java.util.Map;
+
+/**
+ * One input record: its 1-based line number and either its fields or a parse error.
+ */
+public record BulkRow(
+        long line,
+        Map<String, String> fields,
+        String error
+) {
+
+    public String text(String field) {
+        String value = fields.get(field);
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
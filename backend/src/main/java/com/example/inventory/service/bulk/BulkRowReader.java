@@ -0,0 +1,150 @@
+package com.example.inventory.service.bulk;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Streams {@link BulkRow}s out of an NDJSON or CSV body one line at a time, so request
+ * bodies of any size are parsed with constant memory. Blank lines are skipped; a CSV body
+ * must start with a header line naming the fields.
+ */
+public class BulkRowReader implements Iterator<BulkRow> {
+
+    private final BufferedReader reader;
+    private final BulkFormat format;
+    private final ObjectMapper objectMapper;
+
+    private List<String> header;
+    private long lineNumber;
+    private BulkRow next;
+
+    public BulkRowReader(BufferedReader reader, BulkFormat format, ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            next = read();
+        }
+        return next != null;
+    }
+
+    @Override
+    public BulkRow next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        BulkRow row = next;
+        next = null;
+        return row;
+    }
+
+    private BulkRow read() {
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == BulkFormat.CSV && header == null) {
+                    header = splitCsv(line.replace("\uFEFF", "").strip());
+                    if (header == null) {
+                        header = List.of();
+                        return new BulkRow(lineNumber, Map.of(), "Malformed CSV header");
+                    }
+                    header = header.stream().map(String::strip).toList();
+                    continue;
+                }
+                return format == BulkFormat.CSV ? csvRow(line) : jsonRow(line);
+            }
+            return null;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private BulkRow jsonRow(String line) {
+        try {
+            JsonNode node = objectMapper.readTree(line);
+            if (!node.isObject()) {
+                return new BulkRow(lineNumber, Map.of(), "Expected a JSON object");
+            }
+            Map<String, String> fields = new HashMap<>();
+            node.fields().forEachRemaining(entry -> {
+                if (!entry.getValue().isNull()) {
+                    fields.put(entry.getKey(), entry.getValue().asText());
+                }
+            });
+            return new BulkRow(lineNumber, fields, null);
+        } catch (JsonProcessingException ex) {
+            return new BulkRow(lineNumber, Map.of(), "Malformed JSON: " + ex.getOriginalMessage());
+        }
+    }
+
+    private BulkRow csvRow(String line) {
+        List<String> values = splitCsv(line);
+        if (values == null) {
+            return new BulkRow(lineNumber, Map.of(), "Unterminated quoted value");
+        }
+        if (values.size() > header.size()) {
+            return new BulkRow(lineNumber, Map.of(), "Expected " + header.size() + " columns but found " + values.size());
+        }
+        Map<String, String> fields = new HashMap<>();
+        for (int i = 0; i < values.size(); i++) {
+            fields.put(header.get(i), values.get(i));
+        }
+        return new BulkRow(lineNumber, fields, null);
+    }
+
+    /**
+     * Splits one RFC 4180 line. Quoted values may contain commas and doubled quotes but
+     * not line breaks.
+     *
+     * @return the values, or {@code null} when a quote is left open
+     */
+    static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            return null;
+        }
+        values.add(current.toString());
+        return values;
+    }
+}
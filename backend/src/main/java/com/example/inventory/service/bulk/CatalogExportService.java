@@ -0,0 +1,80 @@
+package com.example.inventory.service.bulk;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.SQLException;
+
+/**
+ * Writes the whole catalog as NDJSON straight from forward-only result sets, one record per
+ * line: raw materials first, then products, then BOM lines, each tagged with a {@code type}.
+ * Nothing is materialized in memory.
+ */
+@Service
+public class CatalogExportService {
+
+    private static final int FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public CatalogExportService(DataSource dataSource, ObjectMapper objectMapper) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.objectMapper = objectMapper;
+    }
+
+    // PostgreSQL only honours the fetch size (and streams) inside a transaction.
+    @Transactional(readOnly = true)
+    public void exportCatalog(OutputStream out) throws IOException {
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+            json.setRootValueSeparator(null);
+
+            jdbcTemplate.query("select id, name, stock_quantity from raw_materials order by id",
+                    (RowCallbackHandler) rs -> record(json, "rawMaterial", gen -> {
+                        gen.writeNumberField("id", rs.getLong(1));
+                        gen.writeStringField("name", rs.getString(2));
+                        gen.writeNumberField("stockQuantity", rs.getInt(3));
+                    }));
+
+            jdbcTemplate.query("select id, name, value from products order by id",
+                    (RowCallbackHandler) rs -> record(json, "product", gen -> {
+                        gen.writeNumberField("id", rs.getLong(1));
+                        gen.writeStringField("name", rs.getString(2));
+                        gen.writeNumberField("value", rs.getBigDecimal(3));
+                    }));
+
+            jdbcTemplate.query("select product_id, raw_material_id, required_quantity from product_materials order by id",
+                    (RowCallbackHandler) rs -> record(json, "bomLine", gen -> {
+                        gen.writeNumberField("productId", rs.getLong(1));
+                        gen.writeNumberField("rawMaterialId", rs.getLong(2));
+                        gen.writeNumberField("requiredQuantity", rs.getInt(3));
+                    }));
+        }
+    }
+
+    @FunctionalInterface
+    private interface Fields {
+        void write(JsonGenerator json) throws IOException, SQLException;
+    }
+
+    private static void record(JsonGenerator json, String type, Fields fields) throws SQLException {
+        try {
+            json.writeStartObject();
+            json.writeStringField("type", type);
+            fields.write(json);
+            json.writeEndObject();
+            json.writeRaw('\n');
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package com.example.inventory.service.live;
+
+import com.example.inventory.dto.CatalogChanges;
+import com.example.inventory.dto.PlanChanges;
+import com.example.inventory.dto.ProductionSuggestionItem;
+import com.example.inventory.dto.ProductionSuggestionResponse;
+import com.example.inventory.dto.RawMaterialListItem;
+import com.example.inventory.planning.CatalogChangedEvent;
+import com.example.inventory.planning.CatalogVersion;
+import com.example.inventory.repository.RawMaterialRepository;
+import com.example.inventory.service.ProductionPlanningService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pushes catalog and stock changes, and what they do to the production plan, to
+ * Server-Sent Events subscribers.
+ * <p>
+ * Write paths only add the changed ids to a pending set once their transaction commits.
+ * Every {@code inventory.live.batch-window} one thread drains that set into a single
+ * {@code changes} event, however many writes the window saw, re-plans once and, if the
+ * plan moved, adds a {@code plan} event with the items that differ. Each event is
+ * serialized once and queued for every subscriber.
+ * <p>
+ * Every subscriber has a bounded queue written to its connection by its own virtual
+ * thread, so a slow client holds up neither the others nor the writers. A client that
+ * falls {@code inventory.live.subscriber-buffer} events behind has its backlog replaced by
+ * one {@code resync} event: reloading is cheaper than replaying.
+ */
+@Service
+public class LiveUpdateService {
+
+    private static final Logger log = LoggerFactory.getLogger(LiveUpdateService.class);
+
+    // Above this many changed materials a batch asks for a reload rather than listing stock.
+    private static final int MAX_LISTED_MATERIALS = 1000;
+
+    private final ProductionPlanningService productionPlanningService;
+    private final RawMaterialRepository rawMaterialRepository;
+    private final CatalogVersion catalogVersion;
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final long timeoutMillis;
+    private final Counter resyncs;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    private PendingChanges pending = new PendingChanges();
+
+    // Plan the next diff is taken against; only used on the scheduler thread.
+    private ProductionSuggestionResponse lastPlan;
+
+    public LiveUpdateService(ProductionPlanningService productionPlanningService,
+                             RawMaterialRepository rawMaterialRepository,
+                             CatalogVersion catalogVersion,
+                             ObjectMapper objectMapper,
+                             MeterRegistry registry,
+                             @Value("${inventory.live.batch-window:250ms}") Duration batchWindow,
+                             @Value("${inventory.live.heartbeat:15s}") Duration heartbeat,
+                             @Value("${inventory.live.subscriber-buffer:64}") int bufferSize,
+                             @Value("${inventory.live.max-subscribers:1000}") int maxSubscribers,
+                             @Value("${inventory.live.timeout:30m}") Duration timeout) {
+        this.productionPlanningService = productionPlanningService;
+        this.rawMaterialRepository = rawMaterialRepository;
+        this.catalogVersion = catalogVersion;
+        this.objectMapper = objectMapper;
+        this.bufferSize = Math.max(2, bufferSize);
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMillis = timeout.toMillis();
+        Gauge.builder("inventory.live.subscribers", subscribers, Set::size)
+                .description("Open live update streams").register(registry);
+        this.resyncs = Counter.builder("inventory.live.resyncs")
+                .description("Subscribers whose backlog was replaced by a resync").register(registry);
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "live-updates");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::flush, batchWindow.toMillis(), batchWindow.toMillis(), TimeUnit.MILLISECONDS);
+        scheduler.scheduleAtFixedRate(this::heartbeat, heartbeat.toMillis(), heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Opens a stream. It starts with a {@code ready} event, or with {@code resync} when
+     * {@code lastEventId} (sent by reconnecting browsers) is older than the catalog.
+     *
+     * @throws RejectedExecutionException when {@code inventory.live.max-subscribers} are open
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        return subscribe(new SseEmitter(timeoutMillis), lastEventId);
+    }
+
+    SseEmitter subscribe(SseEmitter emitter, String lastEventId) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new RejectedExecutionException("Too many live update subscribers");
+        }
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(ex -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+
+        String eventId = catalogVersion.eTag();
+        boolean missed = lastEventId != null && !lastEventId.equals(eventId);
+        subscriber.offer(event(missed ? "resync" : "ready", eventId, Map.of()), false);
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        synchronized (this) {
+            pending.add(event);
+        }
+    }
+
+    void flush() {
+        try {
+            if (subscribers.isEmpty()) {
+                lastPlan = null;
+                return;
+            }
+            // Taken before draining: the id may understate what a batch holds, never overstate it.
+            String eventId = catalogVersion.eTag();
+            PendingChanges changes;
+            synchronized (this) {
+                changes = pending;
+                pending = new PendingChanges();
+            }
+            if (changes.isEmpty() && lastPlan != null) {
+                return;
+            }
+
+            List<Set<DataWithMediaType>> events = new ArrayList<>(2);
+            if (!changes.isEmpty()) {
+                events.add(event("changes", eventId, changes(changes)));
+            }
+            ProductionSuggestionResponse plan = productionPlanningService.suggestProduction();
+            PlanChanges planChanges = lastPlan != null ? diff(lastPlan, plan) : null;
+            lastPlan = plan;
+            if (planChanges != null) {
+                events.add(event("plan", eventId, planChanges));
+            }
+            for (Set<DataWithMediaType> event : events) {
+                for (Subscriber subscriber : subscribers) {
+                    subscriber.offer(event, false);
+                }
+            }
+        } catch (RuntimeException ex) {
+            // The changes are lost for this batch only; the next plan diff still covers them.
+            log.warn("Live update batch failed: {}", ex.getMessage());
+        }
+    }
+
+    private void heartbeat() {
+        Set<DataWithMediaType> comment = SseEmitter.event().comment("keep-alive").build();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(comment, true);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        senders.shutdownNow();
+    }
+
+    private CatalogChanges changes(PendingChanges changes) {
+        if (changes.reload || changes.rawMaterials.size() > MAX_LISTED_MATERIALS) {
+            return new CatalogChanges(true, List.of(), List.of(), List.of(), List.of());
+        }
+        List<RawMaterialListItem> stock = changes.rawMaterials.isEmpty()
+                ? List.of()
+                : rawMaterialRepository.findListItemsByIds(changes.rawMaterials);
+        return new CatalogChanges(false, sorted(changes.products), sorted(changes.rawMaterials),
+                sorted(changes.boms), stock);
+    }
+
+    /** Items of {@code after} that are new or differ from {@code before}; null if none do. */
+    static PlanChanges diff(ProductionSuggestionResponse before, ProductionSuggestionResponse after) {
+        Map<Long, ProductionSuggestionItem> previous = new HashMap<>();
+        for (ProductionSuggestionItem item : before.items()) {
+            previous.put(item.productId(), item);
+        }
+        List<ProductionSuggestionItem> changed = new ArrayList<>();
+        for (ProductionSuggestionItem item : after.items()) {
+            if (!item.equals(previous.remove(item.productId()))) {
+                changed.add(item);
+            }
+        }
+        if (changed.isEmpty() && previous.isEmpty()) {
+            return null;
+        }
+        List<Long> order = after.items().stream().map(ProductionSuggestionItem::productId).toList();
+        return new PlanChanges(changed, sorted(previous.keySet()), order, after.grandTotalValue());
+    }
+
+    // Serialized once here, so a batch costs one JSON write however many subscribers get it.
+    private Set<DataWithMediaType> event(String name, String id, Object payload) {
+        try {
+            return SseEmitter.event().name(name).id(id).data(objectMapper.writeValueAsString(payload)).build();
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static List<Long> sorted(Set<Long> ids) {
+        return ids.stream().sorted().toList();
+    }
+
+    /** Ids changed since the last batch. */
+    private static final class PendingChanges {
+
+        private final Set<Long> products = new HashSet<>();
+        private final Set<Long> rawMaterials = new HashSet<>();
+        private final Set<Long> boms = new HashSet<>();
+        private boolean reload;
+
+        void add(CatalogChangedEvent event) {
+            if (event.id() == null) {
+                reload = true;
+                return;
+            }
+            switch (event.kind()) {
+                case PRODUCT -> products.add(event.id());
+                case RAW_MATERIAL -> rawMaterials.add(event.id());
+                case BOM -> boms.add(event.id());
+            }
+        }
+
+        boolean isEmpty() {
+            return !reload && products.isEmpty() && rawMaterials.isEmpty() && boms.isEmpty();
+        }
+    }
+
+    /** One open stream and the events waiting to be written to it. */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final ArrayDeque<Set<DataWithMediaType>> queue = new ArrayDeque<>();
+        private boolean sending;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        /** Queues an event; {@code droppable} ones (heartbeats) only go to an idle stream. */
+        void offer(Set<DataWithMediaType> event, boolean droppable) {
+            synchronized (this) {
+                if (droppable && (sending || !queue.isEmpty())) {
+                    return;
+                }
+                if (queue.size() >= bufferSize) {
+                    queue.clear();
+                    queue.add(event("resync", catalogVersion.eTag(), Map.of()));
+                    resyncs.increment();
+                } else {
+                    queue.add(event);
+                }
+                if (sending) {
+                    return;
+                }
+                sending = true;
+            }
+            senders.execute(this::drain);
+        }
+
+        private void drain() {
+            while (true) {
+                Set<DataWithMediaType> next;
+                synchronized (this) {
+                    next = queue.poll();
+                    if (next == null) {
+                        sending = false;
+                        return;
+                    }
+                }
+                try {
+                    emitter.send(next);
+                } catch (IOException | IllegalStateException ex) {
+                    // The client is gone; the container completes the emitter. Stay "sending"
+                    // so nothing else is scheduled for it.
+                    subscribers.remove(this);
+                    return;
+                }
+            }
+        }
+    }
+}
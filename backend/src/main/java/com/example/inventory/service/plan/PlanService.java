@@ -0,0 +1,236 @@
+package com.example.inventory.service.plan;
+
+import com.example.inventory.dto.ProductionSuggestionItem;
+import com.example.inventory.dto.ProductionSuggestionResponse;
+import com.example.inventory.metrics.PlanningMetrics;
+import com.example.inventory.model.ProductionPlan;
+import com.example.inventory.model.ProductionPlanItem;
+import com.example.inventory.model.ProductionPlanMaterial;
+import com.example.inventory.planning.BomSnapshot;
+import com.example.inventory.planning.CatalogVersion;
+import com.example.inventory.planning.GreedyPlanner;
+import com.example.inventory.planning.PlanningStrategy;
+import com.example.inventory.planning.RankingPolicy;
+import com.example.inventory.repository.ProductionPlanRepository;
+import com.example.inventory.service.ConflictException;
+import com.example.inventory.service.ProductionPlanningService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Accepted production plans, kept up to date as the catalog changes.
+ * <p>
+ * Every {@code inventory.plans.replan-interval} in which the catalog moved, each accepted
+ * plan is re-planned against one freshly loaded snapshot. Greedy plans in value order are
+ * repaired with {@link GreedyPlanner#repair} from the snapshot and quantities of their last
+ * revision, so only products touched by the change, and those below them that see
+ * different stock as a result, are decided again. That basis lives in memory: the first
+ * re-plan after a restart, and every re-plan of the other strategies and rankings (whose
+ * product order depends on stock), runs in full. Each plan reports how many products its
+ * last re-plan revisited and reused.
+ */
+@Service
+public class PlanService {
+
+    private static final Logger log = LoggerFactory.getLogger(PlanService.class);
+
+    /** What a plan's last revision was computed from. */
+    private record Basis(long structure, BomSnapshot snapshot, int[] quantities) {}
+
+    private final ProductionPlanRepository productionPlanRepository;
+    private final ProductionPlanningService productionPlanningService;
+    private final CatalogVersion catalogVersion;
+    private final PlanningMetrics planningMetrics;
+    private final TransactionTemplate transactionTemplate;
+    private final ScheduledExecutorService executor;
+
+    private final Map<Long, Basis> bases = new ConcurrentHashMap<>();
+    // Catalog version the accepted plans were last re-planned at; only used under the lock.
+    private long replannedVersion = -1;
+
+    public PlanService(ProductionPlanRepository productionPlanRepository,
+                       ProductionPlanningService productionPlanningService,
+                       CatalogVersion catalogVersion,
+                       PlanningMetrics planningMetrics,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${inventory.plans.replan-interval:1s}") Duration interval) {
+        this.productionPlanRepository = productionPlanRepository;
+        this.productionPlanningService = productionPlanningService;
+        this.catalogVersion = catalogVersion;
+        this.planningMetrics = planningMetrics;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        if (interval.isZero() || interval.isNegative()) {
+            this.executor = null;
+            return;
+        }
+        this.executor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "plan-repair");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::replanAccepted, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    public List<ProductionPlan> findAll() {
+        return productionPlanRepository.findAll();
+    }
+
+    public ProductionPlan findById(Long id) {
+        return productionPlanRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Production plan not found"));
+    }
+
+    /** Plans the current catalog and keeps the result as an accepted plan. */
+    public synchronized ProductionPlan accept(PlanningStrategy strategy, RankingPolicy ranking) {
+        long structure = catalogVersion.structure();
+        BomSnapshot snapshot = productionPlanningService.loadSnapshot();
+        ProductionPlan plan = new ProductionPlan();
+        plan.setStrategy(strategy);
+        plan.setRanking(strategy == PlanningStrategy.GREEDY ? ranking : RankingPolicy.VALUE);
+        plan.setRevision(0);
+        Basis basis = apply(plan, structure, snapshot);
+        ProductionPlan saved = productionPlanRepository.save(plan);
+        if (basis != null) {
+            bases.put(saved.getId(), basis);
+        }
+        return saved;
+    }
+
+    /** Re-plans an accepted plan now, without waiting for the next interval. */
+    public synchronized ProductionPlan replan(Long id) {
+        long structure = catalogVersion.structure();
+        return replan(id, structure, productionPlanningService.loadSnapshot());
+    }
+
+    public synchronized ProductionPlan close(Long id) {
+        ProductionPlan closed = transactionTemplate.execute(status -> {
+            ProductionPlan plan = findById(id);
+            plan.setStatus(ProductionPlan.Status.CLOSED);
+            return plan;
+        });
+        bases.remove(id);
+        return closed;
+    }
+
+    synchronized void replanAccepted() {
+        try {
+            // Read before loading: a change landing meanwhile is picked up by the next run.
+            long version = catalogVersion.current();
+            if (version == replannedVersion) {
+                return;
+            }
+            List<ProductionPlan> plans = productionPlanRepository.findAllByStatusOrderById(ProductionPlan.Status.ACCEPTED);
+            if (!plans.isEmpty()) {
+                long structure = catalogVersion.structure();
+                BomSnapshot snapshot = productionPlanningService.loadSnapshot();
+                for (ProductionPlan plan : plans) {
+                    replan(plan.getId(), structure, snapshot);
+                }
+            }
+            replannedVersion = version;
+        } catch (RuntimeException ex) {
+            // The version is not recorded, so the next run tries again.
+            log.warn("Re-planning accepted plans failed: {}", ex.getMessage());
+        }
+    }
+
+    // Runs on the managed entity, so an unchanged plan only has its header updated.
+    private ProductionPlan replan(Long id, long structure, BomSnapshot snapshot) {
+        return transactionTemplate.execute(status -> {
+            ProductionPlan plan = findById(id);
+            if (plan.getStatus() != ProductionPlan.Status.ACCEPTED) {
+                throw new ConflictException("Production plan " + id + " is closed");
+            }
+            Basis basis = apply(plan, structure, snapshot);
+            plan.setReplannedAt(Instant.now());
+            if (basis != null) {
+                bases.put(id, basis);
+            }
+            return plan;
+        });
+    }
+
+    /** Plans {@code plan} over {@code snapshot}; returns the basis to repair it from next time, if any. */
+    private Basis apply(ProductionPlan plan, long structure, BomSnapshot snapshot) {
+        boolean repairable = plan.getStrategy() == PlanningStrategy.GREEDY && plan.getRanking() == RankingPolicy.VALUE;
+        Basis basis = plan.getId() != null && repairable ? bases.get(plan.getId()) : null;
+
+        int[] quantities;
+        int revisited;
+        ProductionSuggestionResponse response;
+        if (basis != null) {
+            GreedyPlanner.Repair repair = planningMetrics.time("repair", "greedy", () -> GreedyPlanner.repair(
+                    basis.snapshot(), basis.quantities(), snapshot, basis.structure() != structure));
+            quantities = repair.quantities();
+            revisited = repair.revisited();
+            response = ProductionPlanningService.toResponse(snapshot, quantities, null);
+        } else {
+            response = productionPlanningService.plan(snapshot, plan.getStrategy(), plan.getRanking());
+            quantities = quantities(snapshot, response);
+            revisited = snapshot.productCount();
+        }
+
+        List<ProductionPlanItem> items = new ArrayList<>(response.items().size());
+        for (ProductionSuggestionItem item : response.items()) {
+            items.add(new ProductionPlanItem(item.productId(), item.productName(), item.producibleQuantity(), item.totalValue()));
+        }
+        // Replacing the collections rewrites every line, so they are only set when they differ.
+        if (plan.getRevision() == 0 || !items.equals(plan.getItems())) {
+            plan.setItems(items);
+            plan.setMaterials(consumption(snapshot, quantities));
+            plan.setGrandTotalValue(response.grandTotalValue());
+            plan.setRevision(plan.getRevision() + 1);
+        }
+        plan.setRevisitedProducts(revisited);
+        plan.setReusedProducts(snapshot.productCount() - revisited);
+        return repairable ? new Basis(structure, snapshot, quantities) : null;
+    }
+
+    private static int[] quantities(BomSnapshot snapshot, ProductionSuggestionResponse response) {
+        int[] quantities = new int[snapshot.productCount()];
+        for (ProductionSuggestionItem item : response.items()) {
+            quantities[snapshot.indexOfProduct(item.productId())] = item.producibleQuantity();
+        }
+        return quantities;
+    }
+
+    // Stock used up per material, by material id.
+    private static List<ProductionPlanMaterial> consumption(BomSnapshot snapshot, int[] quantities) {
+        long[] consumed = new long[snapshot.materialCount()];
+        for (int p = 0; p < quantities.length; p++) {
+            for (int edge = snapshot.bomStart(p); edge < snapshot.bomEnd(p) && quantities[p] > 0; edge++) {
+                consumed[snapshot.edgeMaterial(edge)] += (long) quantities[p] * snapshot.edgeQuantity(edge);
+            }
+        }
+        List<ProductionPlanMaterial> materials = new ArrayList<>();
+        for (int m = 0; m < consumed.length; m++) {
+            if (consumed[m] > 0) {
+                materials.add(new ProductionPlanMaterial(snapshot.materialId(m), (int) consumed[m]));
+            }
+        }
+        materials.sort((a, b) -> Long.compare(a.getRawMaterialId(), b.getRawMaterialId()));
+        return materials;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.inventory.service.stock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed set of locks that raw material ids hash onto. Stock movements for the same
+ * material queue here, in the JVM, instead of each holding a pooled connection while it
+ * waits for the row lock in the database. Correctness does not depend on these locks: the
+ * SQL updates are atomic on their own, and other instances of the app do not share them.
+ */
+@Component
+public class MaterialLockStripes {
+
+    private final ReentrantLock[] stripes;
+
+    public MaterialLockStripes(@Value("${inventory.stock.lock-stripes:64}") int count) {
+        int size = Integer.highestOneBit(Math.max(1, count - 1)) << 1;
+        stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Locks the stripes of all given materials. Stripes are always taken in ascending index
+     * order, so two callers touching overlapping sets of materials cannot deadlock.
+     */
+    public Held lock(Collection<Long> materialIds) {
+        int[] indexes = materialIds.stream().mapToInt(this::stripe).distinct().sorted().toArray();
+        int acquired = 0;
+        try {
+            for (int index : indexes) {
+                stripes[index].lockInterruptibly();
+                acquired++;
+            }
+        } catch (InterruptedException ex) {
+            unlock(indexes, acquired);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for stock lock");
+        }
+        return () -> unlock(indexes, indexes.length);
+    }
+
+    private void unlock(int[] indexes, int count) {
+        for (int i = count - 1; i >= 0; i--) {
+            stripes[indexes[i]].unlock();
+        }
+    }
+
+    private int stripe(Long materialId) {
+        int hash = Long.hashCode(materialId);
+        return (hash ^ (hash >>> 16)) & (stripes.length - 1);
+    }
+
+    @FunctionalInterface
+    public interface Held extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.inventory.service.stock;
+
+import com.example.inventory.dto.PageResponse;
+import com.example.inventory.dto.StockMovement;
+import com.example.inventory.dto.StockPosition;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only journal of stock changes ({@code stock_movements}) and the snapshots that
+ * keep reading it cheap.
+ * <p>
+ * Movements are recorded inside the transaction that changes {@code stock_quantity} and
+ * are written together, in one batch, right before that transaction commits: the journal
+ * never has a movement that did not happen, nor misses one that did. So
+ * {@code stock_quantity} is always the latest snapshot plus the movements after it.
+ * <p>
+ * Stock as of any instant is the last snapshot taken at or before it plus the movements
+ * up to that instant, so the cost of a time-travel query is bounded by the snapshot
+ * interval rather than by the age of the journal.
+ */
+@Component
+public class StockJournal {
+
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private static final String INSERT_MOVEMENT =
+            "insert into stock_movements (raw_material_id, kind, quantity, occurred_at, reference) values (?, ?, ?, ?, ?)";
+
+    // Running totals: a snapshot's items plus the movements in (snapshot, at].
+    private static final String TOTALS_FROM_SNAPSHOT =
+            "select raw_material_id, sum(quantity) as quantity from ("
+                    + "select raw_material_id, stock_quantity as quantity from stock_snapshot_items where snapshot_id = :snapshotId "
+                    + "union all "
+                    + "select raw_material_id, quantity from stock_movements where occurred_at > :from and occurred_at <= :at"
+                    + ") totals group by raw_material_id";
+
+    private static final String TOTALS_FROM_START =
+            "select raw_material_id, sum(quantity) as quantity from stock_movements where occurred_at <= :at "
+                    + "group by raw_material_id";
+
+    private record Snapshot(long id, Instant takenAt) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public StockJournal(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    /**
+     * Adds a movement to the current transaction's batch. {@code quantity} is the signed
+     * change of stock; zero is ignored.
+     *
+     * @throws IllegalStateException outside a transaction
+     */
+    public void record(Long rawMaterialId, StockMovement.Kind kind, int quantity, String reference) {
+        if (quantity == 0) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Stock movements must be recorded in the transaction that applies them");
+        }
+        Batch batch = (Batch) TransactionSynchronizationManager.getResource(this);
+        if (batch == null) {
+            batch = new Batch();
+            TransactionSynchronizationManager.bindResource(this, batch);
+            TransactionSynchronizationManager.registerSynchronization(batch);
+        }
+        batch.movements.add(new StockMovement(null, rawMaterialId, kind, quantity, now(), reference));
+    }
+
+    /**
+     * Movements of one material in journal order, {@code size} at a time after {@code cursor}.
+     */
+    public PageResponse<StockMovement> movements(Long rawMaterialId, Long cursor, Integer size) {
+        int pageSize = size == null ? 50 : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        List<StockMovement> rows = jdbcTemplate.query(
+                "select id, raw_material_id, kind, quantity, occurred_at, reference from stock_movements "
+                        + "where raw_material_id = ? and id > ? order by id limit ?",
+                StockJournal::movement, rawMaterialId, cursor == null ? 0L : cursor, pageSize + 1);
+        if (rows.size() <= pageSize) {
+            return new PageResponse<>(rows, null);
+        }
+        List<StockMovement> items = List.copyOf(rows.subList(0, pageSize));
+        return new PageResponse<>(items, items.get(pageSize - 1).id());
+    }
+
+    /**
+     * Stock of every material as of {@code at}, rebuilt from the journal; materials at zero
+     * are left out.
+     */
+    public List<StockPosition> stockAsOf(Instant at) {
+        Snapshot snapshot = latestSnapshot(at);
+        MapSqlParameterSource params = new MapSqlParameterSource("at", timestamp(at));
+        String sql = TOTALS_FROM_START;
+        if (snapshot != null) {
+            params.addValue("snapshotId", snapshot.id()).addValue("from", timestamp(snapshot.takenAt()));
+            sql = TOTALS_FROM_SNAPSHOT;
+        }
+        List<StockPosition> positions = new ArrayList<>();
+        namedJdbcTemplate.query(sql, params, rs -> {
+            long quantity = rs.getLong(2);
+            if (quantity != 0) {
+                positions.add(new StockPosition(rs.getLong(1), quantity));
+            }
+        });
+        positions.sort((a, b) -> Long.compare(a.rawMaterialId(), b.rawMaterialId()));
+        return positions;
+    }
+
+    /**
+     * Stores the running totals as of {@code at}, computed in the database from the previous
+     * snapshot and the movements since. Movements must no longer be arriving with earlier
+     * timestamps, so {@code at} should trail the clock by more than the longest stock
+     * transaction. Returns {@code false} if there is already a snapshot at or after {@code at}.
+     */
+    @Transactional
+    public boolean snapshot(Instant at) {
+        Instant takenAt = at.truncatedTo(ChronoUnit.MICROS);
+        Snapshot previous = latestSnapshot(null);
+        if (previous != null && !previous.takenAt().isBefore(takenAt)) {
+            return false;
+        }
+        jdbcTemplate.update("insert into stock_snapshots (taken_at) values (?)", timestamp(takenAt));
+        Long id = jdbcTemplate.queryForObject("select id from stock_snapshots where taken_at = ?", Long.class,
+                timestamp(takenAt));
+
+        MapSqlParameterSource params = new MapSqlParameterSource("at", timestamp(takenAt)).addValue("id", id);
+        String totals = TOTALS_FROM_START;
+        if (previous != null) {
+            params.addValue("snapshotId", previous.id()).addValue("from", timestamp(previous.takenAt()));
+            totals = TOTALS_FROM_SNAPSHOT;
+        }
+        namedJdbcTemplate.update("insert into stock_snapshot_items (snapshot_id, raw_material_id, stock_quantity) "
+                + "select :id, raw_material_id, quantity from ("
+                + totals
+                + ") items where quantity <> 0", params);
+        return true;
+    }
+
+    // Last snapshot taken at or before {@code at}; the last one overall if {@code at} is null.
+    private Snapshot latestSnapshot(Instant at) {
+        RowMapper<Snapshot> mapper = (rs, row) -> new Snapshot(rs.getLong(1), instant(rs, 2));
+        List<Snapshot> snapshots = at == null
+                ? jdbcTemplate.query("select id, taken_at from stock_snapshots order by taken_at desc limit 1", mapper)
+                : jdbcTemplate.query("select id, taken_at from stock_snapshots where taken_at <= ? "
+                        + "order by taken_at desc limit 1", mapper, timestamp(at));
+        return snapshots.isEmpty() ? null : snapshots.get(0);
+    }
+
+    private void insert(List<StockMovement> movements) {
+        jdbcTemplate.batchUpdate(INSERT_MOVEMENT, movements, movements.size(), (ps, movement) -> {
+            ps.setLong(1, movement.rawMaterialId());
+            ps.setString(2, movement.kind().name());
+            ps.setInt(3, movement.quantity());
+            ps.setObject(4, timestamp(movement.occurredAt()));
+            ps.setString(5, movement.reference());
+        });
+    }
+
+    private static StockMovement movement(ResultSet rs, int row) throws SQLException {
+        return new StockMovement(rs.getLong(1), rs.getLong(2), StockMovement.Kind.valueOf(rs.getString(3)),
+                rs.getInt(4), instant(rs, 5), rs.getString(6));
+    }
+
+    // Microseconds: what timestamp(6) stores, so a recorded instant compares equal after a round trip.
+    private static Instant now() {
+        return Instant.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    private static OffsetDateTime timestamp(Instant instant) {
+        return instant.atOffset(ZoneOffset.UTC);
+    }
+
+    private static Instant instant(ResultSet rs, int column) throws SQLException {
+        return rs.getObject(column, OffsetDateTime.class).toInstant();
+    }
+
+    /** Movements recorded in one transaction, inserted just before it commits. */
+    private final class Batch implements TransactionSynchronization {
+
+        private final List<StockMovement> movements = new ArrayList<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            insert(movements);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(StockJournal.this);
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.inventory.service.stock;
+
+import com.example.inventory.dto.BomLine;
+import com.example.inventory.dto.ProductionExecutionRequest;
+import com.example.inventory.dto.ProductionExecutionResponse;
+import com.example.inventory.dto.StockItemRequest;
+import com.example.inventory.dto.StockLevel;
+import com.example.inventory.dto.StockMovement;
+import com.example.inventory.model.Product;
+import com.example.inventory.model.RawMaterial;
+import com.example.inventory.model.StockReservation;
+import com.example.inventory.model.StockReservationItem;
+import com.example.inventory.planning.BomExplosionCache;
+import com.example.inventory.planning.CatalogChangedEvent;
+import com.example.inventory.repository.ProductRepository;
+import com.example.inventory.repository.RawMaterialRepository;
+import com.example.inventory.repository.StockReservationRepository;
+import com.example.inventory.service.ConflictException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+/**
+ * Stock movements: receive, reserve, commit, release and production execution.
+ * <p>
+ * Every movement is a conditional UPDATE on the raw material row (see
+ * {@link RawMaterialRepository}), so concurrent movements never lose updates and stock never
+ * goes below what is reserved. Calls touching several materials run in one transaction and
+ * either apply to all of them or to none. The transaction runs while holding the materials'
+ * {@link MaterialLockStripes}, which keeps bursts on a hot material from piling up on the
+ * database row lock.
+ */
+@Service
+public class StockLedgerService {
+
+    private final RawMaterialRepository rawMaterialRepository;
+    private final StockReservationRepository stockReservationRepository;
+    private final ProductRepository productRepository;
+    private final BomExplosionCache bomExplosionCache;
+    private final MaterialLockStripes lockStripes;
+    private final StockJournal stockJournal;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public StockLedgerService(RawMaterialRepository rawMaterialRepository,
+                              StockReservationRepository stockReservationRepository,
+                              ProductRepository productRepository,
+                              BomExplosionCache bomExplosionCache,
+                              MaterialLockStripes lockStripes,
+                              StockJournal stockJournal,
+                              PlatformTransactionManager transactionManager,
+                              ApplicationEventPublisher eventPublisher) {
+        this.rawMaterialRepository = rawMaterialRepository;
+        this.stockReservationRepository = stockReservationRepository;
+        this.productRepository = productRepository;
+        this.bomExplosionCache = bomExplosionCache;
+        this.lockStripes = lockStripes;
+        this.stockJournal = stockJournal;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+    }
+
+    public RawMaterial receive(Long rawMaterialId, int quantity) {
+        return inTransaction(List.of(rawMaterialId), () -> {
+            if (rawMaterialRepository.receive(rawMaterialId, quantity) == 0) {
+                throw failure(rawMaterialId, "Stock limit exceeded for raw material ");
+            }
+            stockJournal.record(rawMaterialId, StockMovement.Kind.RECEIPT, quantity, "receipt");
+            publishChange(rawMaterialId);
+            return findMaterial(rawMaterialId);
+        });
+    }
+
+    public StockReservation reserve(List<StockItemRequest> items) {
+        Map<Long, Integer> quantities = new TreeMap<>();
+        for (StockItemRequest item : items) {
+            quantities.merge(item.rawMaterialId(), item.quantity(), StockLedgerService::addExact);
+        }
+        return inTransaction(quantities.keySet(), () -> {
+            StockReservation reservation = new StockReservation();
+            quantities.forEach((id, quantity) -> {
+                if (rawMaterialRepository.reserve(id, quantity) == 0) {
+                    throw failure(id, "Insufficient stock for raw material ");
+                }
+                reservation.getItems().add(new StockReservationItem(id, quantity));
+                publishChange(id);
+            });
+            return stockReservationRepository.save(reservation);
+        });
+    }
+
+    public StockReservation findReservation(Long id) {
+        return stockReservationRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Reservation not found"));
+    }
+
+    /**
+     * Consumes the reserved quantities: stock and reserved quantity both go down.
+     */
+    public StockReservation commit(Long reservationId) {
+        return settle(reservationId, StockReservation.Status.COMMITTED);
+    }
+
+    /**
+     * Gives the reserved quantities back to the available stock.
+     */
+    public StockReservation release(Long reservationId) {
+        return settle(reservationId, StockReservation.Status.RELEASED);
+    }
+
+    private StockReservation settle(Long reservationId, StockReservation.Status to) {
+        List<StockReservationItem> items = findReservation(reservationId).getItems();
+        List<Long> materialIds = items.stream().map(StockReservationItem::getRawMaterialId).toList();
+        return inTransaction(materialIds, () -> {
+            if (stockReservationRepository.transition(reservationId, StockReservation.Status.RESERVED, to) == 0) {
+                throw new ConflictException("Reservation is no longer open");
+            }
+            for (StockReservationItem item : items) {
+                int updated = to == StockReservation.Status.COMMITTED
+                        ? rawMaterialRepository.consumeReserved(item.getRawMaterialId(), item.getQuantity())
+                        : rawMaterialRepository.release(item.getRawMaterialId(), item.getQuantity());
+                if (updated == 0) {
+                    throw failure(item.getRawMaterialId(), "Reserved stock is missing for raw material ");
+                }
+                if (to == StockReservation.Status.COMMITTED) {
+                    stockJournal.record(item.getRawMaterialId(), StockMovement.Kind.CONSUMPTION, -item.getQuantity(),
+                            "reservation " + reservationId);
+                }
+                publishChange(item.getRawMaterialId());
+            }
+            return findReservation(reservationId);
+        });
+    }
+
+    /**
+     * Produces {@code quantity} units of a product, taking every BOM material out of the
+     * available stock in one transaction. If any material is short nothing is consumed.
+     * Sub-assemblies are built on the way, so assemblies consume their flattened BOM.
+     */
+    public ProductionExecutionResponse execute(ProductionExecutionRequest request) {
+        Product product = productRepository.findById(request.productId())
+                .orElseThrow(() -> new IllegalArgumentException("Product not found"));
+        Map<Long, Integer> required = new TreeMap<>();
+        for (BomLine line : bomExplosionCache.requirements(product.getId())) {
+            int quantity = multiplyExact(line.requiredQuantity(), request.quantity());
+            required.merge(line.rawMaterialId(), quantity, StockLedgerService::addExact);
+        }
+        if (required.isEmpty()) {
+            throw new ConflictException("Product has no materials");
+        }
+
+        List<StockLevel> levels = inTransaction(required.keySet(), () -> {
+            required.forEach((id, quantity) -> {
+                if (rawMaterialRepository.consume(id, quantity) == 0) {
+                    throw failure(id, "Insufficient stock for raw material ");
+                }
+                stockJournal.record(id, StockMovement.Kind.CONSUMPTION, -quantity,
+                        "production of " + request.quantity() + " x product " + product.getId());
+                publishChange(id);
+            });
+            List<StockLevel> result = new ArrayList<>(required.size());
+            for (RawMaterial material : rawMaterialRepository.findAllById(required.keySet())) {
+                result.add(new StockLevel(material.getId(), material.getStockQuantity(), material.getReservedQuantity()));
+            }
+            result.sort(Comparator.comparing(StockLevel::rawMaterialId));
+            return result;
+        });
+
+        BigDecimal totalValue = product.getValue().multiply(BigDecimal.valueOf(request.quantity()));
+        return new ProductionExecutionResponse(product.getId(), product.getName(), request.quantity(), totalValue, levels);
+    }
+
+    private <T> T inTransaction(Collection<Long> materialIds, Supplier<T> work) {
+        try (MaterialLockStripes.Held ignored = lockStripes.lock(materialIds)) {
+            return transactionTemplate.execute(status -> work.get());
+        }
+    }
+
+    private RawMaterial findMaterial(Long id) {
+        return rawMaterialRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Raw material not found"));
+    }
+
+    /**
+     * A guarded update matched no row: tell a missing material (404) apart from a failed
+     * guard (409). Throwing rolls back every movement already applied in the transaction.
+     */
+    private RuntimeException failure(Long rawMaterialId, String conflict) {
+        if (!rawMaterialRepository.existsById(rawMaterialId)) {
+            return new IllegalArgumentException("Raw material not found");
+        }
+        return new ConflictException(conflict + rawMaterialId);
+    }
+
+    private void publishChange(Long rawMaterialId) {
+        eventPublisher.publishEvent(new CatalogChangedEvent(CatalogChangedEvent.Kind.RAW_MATERIAL, rawMaterialId));
+    }
+
+    private static int addExact(int a, int b) {
+        try {
+            return Math.addExact(a, b);
+        } catch (ArithmeticException ex) {
+            throw new ConflictException("Quantity is too large");
+        }
+    }
+
+    private static int multiplyExact(int a, int b) {
+        try {
+            return Math.multiplyExact(a, b);
+        } catch (ArithmeticException ex) {
+            throw new ConflictException("Quantity is too large");
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.inventory.service.stock;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Takes a {@link StockJournal} snapshot every {@code inventory.stock.snapshots.interval}
+ * (zero turns it off). Each snapshot trails the clock by {@code settle}, so stock
+ * transactions still in flight when it is taken cannot add movements before it.
+ */
+@Component
+public class StockSnapshotScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(StockSnapshotScheduler.class);
+
+    private final StockJournal stockJournal;
+    private final Duration settle;
+    private final ScheduledExecutorService executor;
+
+    public StockSnapshotScheduler(StockJournal stockJournal,
+                                  @Value("${inventory.stock.snapshots.interval:1h}") Duration interval,
+                                  @Value("${inventory.stock.snapshots.settle:1m}") Duration settle) {
+        this.stockJournal = stockJournal;
+        this.settle = settle;
+        if (interval.isZero() || interval.isNegative()) {
+            this.executor = null;
+            return;
+        }
+        this.executor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "stock-snapshots");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::takeSnapshot, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    void takeSnapshot() {
+        try {
+            stockJournal.snapshot(Instant.now().minus(settle));
+        } catch (RuntimeException ex) {
+            // A failed run only makes reads replay a longer tail; the next one catches up.
+            log.warn("Stock snapshot failed: {}", ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.inventory.service.warehouse;
+
+import com.example.inventory.dto.ProductionSuggestionItem;
+import com.example.inventory.dto.ProductionSuggestionResponse;
+import com.example.inventory.dto.WarehouseSuggestionsResponse;
+import com.example.inventory.metrics.PlanningMetrics;
+import com.example.inventory.model.Warehouse;
+import com.example.inventory.planning.BomSnapshot;
+import com.example.inventory.planning.CatalogVersion;
+import com.example.inventory.planning.PlanningStrategy;
+import com.example.inventory.planning.RankingPolicy;
+import com.example.inventory.service.ProductionPlanningService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Production plans per location. Each location is planned by the shared engine over the
+ * catalog with its own stock swapped in; the catalog is loaded once per request and the
+ * locations that need planning run in parallel on a dedicated pool.
+ * <p>
+ * Plans are cached per location. An entry holds until the BOM structure changes (which
+ * affects every location) or that location's stock does, so a receipt at one plant never
+ * re-plans the others and adding plants only adds entries.
+ */
+@Service
+public class WarehousePlanningService {
+
+    private record Slot(Long warehouseId, PlanningStrategy strategy, RankingPolicy ranking) {}
+
+    private record Entry(long structure, long stock, ProductionSuggestionResponse response) {
+
+        boolean newerThan(Entry other) {
+            return structure >= other.structure && stock >= other.stock;
+        }
+    }
+
+    private final ProductionPlanningService productionPlanningService;
+    private final WarehouseService warehouseService;
+    private final CatalogVersion catalogVersion;
+    private final PlanningMetrics planningMetrics;
+    private final ForkJoinPool pool;
+
+    private final Map<Long, AtomicLong> stockVersions = new ConcurrentHashMap<>();
+    private final Map<Slot, Entry> plans = new ConcurrentHashMap<>();
+
+    public WarehousePlanningService(ProductionPlanningService productionPlanningService,
+                                    WarehouseService warehouseService,
+                                    CatalogVersion catalogVersion,
+                                    PlanningMetrics planningMetrics,
+                                    @Value("${inventory.planning.warehouses.parallelism:0}") int parallelism) {
+        this.productionPlanningService = productionPlanningService;
+        this.warehouseService = warehouseService;
+        this.catalogVersion = catalogVersion;
+        this.planningMetrics = planningMetrics;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStockChanged(WarehouseStockChangedEvent event) {
+        stockVersions.computeIfAbsent(event.warehouseId(), id -> new AtomicLong()).incrementAndGet();
+    }
+
+    public ProductionSuggestionResponse suggestProduction(Long warehouseId, PlanningStrategy strategy,
+                                                          RankingPolicy ranking) {
+        return plan(List.of(warehouseService.findById(warehouseId)), strategy, ranking).get(0);
+    }
+
+    /** Every location's plan and the sum of them. */
+    public WarehouseSuggestionsResponse suggestProduction(PlanningStrategy strategy, RankingPolicy ranking) {
+        List<Warehouse> warehouses = warehouseService.findAll();
+        List<ProductionSuggestionResponse> plans = plan(warehouses, strategy, ranking);
+        List<WarehouseSuggestionsResponse.Location> locations = new ArrayList<>(warehouses.size());
+        for (int i = 0; i < warehouses.size(); i++) {
+            Warehouse warehouse = warehouses.get(i);
+            locations.add(new WarehouseSuggestionsResponse.Location(warehouse.getId(), warehouse.getCode(), plans.get(i)));
+        }
+        return new WarehouseSuggestionsResponse(locations, total(plans));
+    }
+
+    private List<ProductionSuggestionResponse> plan(List<Warehouse> warehouses, PlanningStrategy strategy,
+                                                    RankingPolicy ranking) {
+        RankingPolicy effective = strategy == PlanningStrategy.GREEDY ? ranking : RankingPolicy.VALUE;
+        // Versions are read before loading, as in SuggestionCache: a write landing meanwhile
+        // leaves an entry under the older version and the next read re-plans.
+        long structure = catalogVersion.structure();
+        ProductionSuggestionResponse[] result = new ProductionSuggestionResponse[warehouses.size()];
+        long[] stockSeen = new long[warehouses.size()];
+        boolean missed = false;
+        for (int i = 0; i < result.length; i++) {
+            Long id = warehouses.get(i).getId();
+            AtomicLong stock = stockVersions.get(id);
+            stockSeen[i] = stock != null ? stock.get() : 0;
+            Entry cached = plans.get(new Slot(id, strategy, effective));
+            if (cached != null && cached.structure() == structure && cached.stock() == stockSeen[i]) {
+                planningMetrics.cacheHit();
+                result[i] = cached.response();
+            } else {
+                planningMetrics.cacheMiss();
+                missed = true;
+            }
+        }
+        if (!missed) {
+            return Arrays.asList(result);
+        }
+
+        BomSnapshot catalog = productionPlanningService.loadSnapshot();
+        List<Future<ProductionSuggestionResponse>> pending = new ArrayList<>(result.length);
+        for (int i = 0; i < result.length; i++) {
+            Long id = warehouses.get(i).getId();
+            pending.add(result[i] != null ? null : pool.submit(() ->
+                    productionPlanningService.plan(atLocation(catalog, id), strategy, effective)));
+        }
+        for (int i = 0; i < result.length; i++) {
+            if (pending.get(i) == null) {
+                continue;
+            }
+            result[i] = join(pending.get(i));
+            Entry fresh = new Entry(structure, stockSeen[i], result[i]);
+            plans.merge(new Slot(warehouses.get(i).getId(), strategy, effective), fresh,
+                    (current, candidate) -> current.newerThan(candidate) ? current : candidate);
+        }
+        return Arrays.asList(result);
+    }
+
+    // The catalog with the location's stock in place of the main site's.
+    private BomSnapshot atLocation(BomSnapshot catalog, Long warehouseId) {
+        Map<Long, Integer> stock = warehouseService.stockByMaterial(warehouseId);
+        BomSnapshot.Variant variant = catalog.variant();
+        for (int m = 0; m < catalog.materialCount(); m++) {
+            variant.adjustStock(catalog.materialId(m), stock.getOrDefault(catalog.materialId(m), 0) - catalog.stock(m));
+        }
+        return variant.build();
+    }
+
+    // Items summed by product, in the order they first appear.
+    private static ProductionSuggestionResponse total(List<ProductionSuggestionResponse> plans) {
+        Map<Long, ProductionSuggestionItem> items = new LinkedHashMap<>();
+        BigDecimal grandTotal = BigDecimal.ZERO;
+        for (ProductionSuggestionResponse plan : plans) {
+            grandTotal = grandTotal.add(plan.grandTotalValue());
+            for (ProductionSuggestionItem item : plan.items()) {
+                items.merge(item.productId(), item, (sum, more) -> new ProductionSuggestionItem(
+                        sum.productId(), sum.productName(),
+                        sum.producibleQuantity() + more.producibleQuantity(),
+                        sum.totalValue().add(more.totalValue())));
+            }
+        }
+        return new ProductionSuggestionResponse(new ArrayList<>(items.values()), grandTotal);
+    }
+
+    private static ProductionSuggestionResponse join(Future<ProductionSuggestionResponse> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while planning locations");
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+}
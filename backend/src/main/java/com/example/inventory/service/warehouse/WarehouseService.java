@@ -0,0 +1,115 @@
+package com.example.inventory.service.warehouse;
+
+import com.example.inventory.dto.StockPosition;
+import com.example.inventory.dto.WarehouseRequest;
+import com.example.inventory.model.Warehouse;
+import com.example.inventory.repository.RawMaterialRepository;
+import com.example.inventory.repository.WarehouseRepository;
+import com.example.inventory.service.ConflictException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Locations and their stock. Products and BOMs are shared; only stock is per location, in
+ * {@code warehouse_stock} rows keyed by (warehouse, material) and partitioned by warehouse
+ * on PostgreSQL. A missing row means none of that material is held there.
+ * <p>
+ * Like the main site's ledger, every change is one conditional UPDATE, so concurrent
+ * receipts never lose increments.
+ */
+@Service
+public class WarehouseService {
+
+    // Makes sure the row exists before the guarded update; a concurrent insert is fine.
+    private static final String ENSURE_ROW = "insert into warehouse_stock (warehouse_id, raw_material_id, stock_quantity) "
+            + "values (?, ?, 0) on conflict do nothing";
+
+    private final WarehouseRepository warehouseRepository;
+    private final RawMaterialRepository rawMaterialRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public WarehouseService(WarehouseRepository warehouseRepository,
+                            RawMaterialRepository rawMaterialRepository,
+                            JdbcTemplate jdbcTemplate,
+                            ApplicationEventPublisher eventPublisher) {
+        this.warehouseRepository = warehouseRepository;
+        this.rawMaterialRepository = rawMaterialRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+    }
+
+    public List<Warehouse> findAll() {
+        return warehouseRepository.findAllByOrderByCode();
+    }
+
+    public Warehouse findById(Long id) {
+        return warehouseRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Warehouse not found"));
+    }
+
+    public Warehouse create(WarehouseRequest request) {
+        Warehouse warehouse = new Warehouse();
+        warehouse.setCode(request.code().strip());
+        warehouse.setName(request.name().strip());
+        return warehouseRepository.save(warehouse);
+    }
+
+    /** Materials held at the location, by id; materials without stock there are left out. */
+    public List<StockPosition> stock(Long warehouseId) {
+        findById(warehouseId);
+        return jdbcTemplate.query("select raw_material_id, stock_quantity from warehouse_stock "
+                        + "where warehouse_id = ? and stock_quantity > 0 order by raw_material_id",
+                (rs, rowNum) -> new StockPosition(rs.getLong(1), rs.getLong(2)), warehouseId);
+    }
+
+    /** Stock quantity by material id, for planning. Reads the location's rows only. */
+    Map<Long, Integer> stockByMaterial(Long warehouseId) {
+        Map<Long, Integer> stock = new HashMap<>();
+        jdbcTemplate.query("select raw_material_id, stock_quantity from warehouse_stock where warehouse_id = ?",
+                rs -> { stock.put(rs.getLong(1), rs.getInt(2)); }, warehouseId);
+        return stock;
+    }
+
+    @Transactional
+    public StockPosition receive(Long warehouseId, Long rawMaterialId, int quantity) {
+        ensureRow(warehouseId, rawMaterialId);
+        int updated = jdbcTemplate.update("update warehouse_stock set stock_quantity = stock_quantity + ? "
+                        + "where warehouse_id = ? and raw_material_id = ? and stock_quantity <= 2147483647 - ?",
+                quantity, warehouseId, rawMaterialId, quantity);
+        if (updated == 0) {
+            throw new ConflictException("Stock limit exceeded for raw material " + rawMaterialId);
+        }
+        return publishChange(warehouseId, rawMaterialId);
+    }
+
+    /** Sets the stock of a material at the location, as after a physical count. */
+    @Transactional
+    public StockPosition count(Long warehouseId, Long rawMaterialId, int quantity) {
+        ensureRow(warehouseId, rawMaterialId);
+        jdbcTemplate.update("update warehouse_stock set stock_quantity = ? where warehouse_id = ? and raw_material_id = ?",
+                quantity, warehouseId, rawMaterialId);
+        return publishChange(warehouseId, rawMaterialId);
+    }
+
+    private void ensureRow(Long warehouseId, Long rawMaterialId) {
+        findById(warehouseId);
+        if (!rawMaterialRepository.existsById(rawMaterialId)) {
+            throw new IllegalArgumentException("Raw material not found");
+        }
+        jdbcTemplate.update(ENSURE_ROW, warehouseId, rawMaterialId);
+    }
+
+    private StockPosition publishChange(Long warehouseId, Long rawMaterialId) {
+        eventPublisher.publishEvent(new WarehouseStockChangedEvent(warehouseId));
+        Long stock = jdbcTemplate.queryForObject("select stock_quantity from warehouse_stock "
+                + "where warehouse_id = ? and raw_material_id = ?", Long.class, warehouseId, rawMaterialId);
+        return new StockPosition(rawMaterialId, stock);
+    }
+}
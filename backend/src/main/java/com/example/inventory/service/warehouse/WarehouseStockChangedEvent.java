@@ -0,0 +1,8 @@
+package com.example.inventory.service.warehouse;
+
+/**
+ * Published when the stock of one location changes. Only that location's cached plans are
+ * affected.
+ */
+public record WarehouseStockChangedEvent(Long warehouseId) {
+}
@@ -0,0 +1,110 @@
+package db.migration.common;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Converts the tables of a database created by {@code hibernate.ddl-auto=update} to the
+ * V1 schema: identity ids become sequence ids, and raw materials get their normalized name,
+ * reserved quantity and version. Raw materials whose names only differed in case or
+ * surrounding spaces are merged, since the normalized name is unique. Does nothing on a
+ * database that V1 created.
+ */
+public class V1_1__Upgrade_ddl_auto_schema extends BaseJavaMigration {
+
+    private static final String[] SEQUENCE_TABLES = {"products", "raw_materials", "product_materials"};
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        if (hasColumn(connection, "raw_materials", "normalized_name")) {
+            return;
+        }
+        JdbcTemplate jdbc = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+
+        jdbc.execute("alter table raw_materials add column normalized_name varchar(255)");
+        jdbc.execute("alter table raw_materials add column reserved_quantity integer default 0 not null");
+        jdbc.execute("alter table raw_materials add column version bigint default 0 not null");
+        normalizeNames(jdbc);
+        jdbc.execute("alter table raw_materials alter column normalized_name set not null");
+        jdbc.execute("alter table raw_materials add constraint raw_materials_normalized_name_key unique (normalized_name)");
+
+        for (String table : SEQUENCE_TABLES) {
+            dropGeneratedId(jdbc, connection.getSchema(), table);
+            // The sequences hand out blocks of 50 ending at the value returned; start the first
+            // block past the existing rows.
+            long maxId = jdbc.queryForObject("select coalesce(max(id), 0) from " + table, Long.class);
+            jdbc.execute("alter sequence " + table + "_seq restart with " + (maxId + 50));
+        }
+    }
+
+    // Fills normalized_name, folding every duplicate into the material with the lowest id.
+    private static void normalizeNames(JdbcTemplate jdbc) {
+        Map<String, Long> firstIds = new HashMap<>();
+        Map<Long, Long> duplicates = new HashMap<>();
+        List<Object[]> names = new ArrayList<>();
+        jdbc.query("select id, name from raw_materials order by id", (ResultSet rs) -> {
+            long id = rs.getLong("id");
+            String normalized = normalize(rs.getString("name"));
+            Long first = firstIds.putIfAbsent(normalized, id);
+            if (first == null) {
+                names.add(new Object[]{normalized, id});
+            } else {
+                duplicates.put(id, first);
+            }
+        });
+
+        duplicates.forEach((duplicate, into) -> {
+            jdbc.update("update raw_materials set stock_quantity = stock_quantity "
+                    + "+ (select d.stock_quantity from raw_materials d where d.id = ?) where id = ?", duplicate, into);
+            // A product using both keeps one line with the quantities added up.
+            jdbc.update("update product_materials set required_quantity = required_quantity "
+                    + "+ (select d.required_quantity from product_materials d "
+                    + "where d.product_id = product_materials.product_id and d.raw_material_id = ?) "
+                    + "where raw_material_id = ? "
+                    + "and product_id in (select product_id from product_materials where raw_material_id = ?)",
+                    duplicate, into, duplicate);
+            jdbc.update("delete from product_materials where raw_material_id = ? "
+                    + "and product_id in (select product_id from product_materials where raw_material_id = ?)",
+                    duplicate, into);
+            jdbc.update("update product_materials set raw_material_id = ? where raw_material_id = ?", into, duplicate);
+            jdbc.update("delete from raw_materials where id = ?", duplicate);
+        });
+        jdbc.batchUpdate("update raw_materials set normalized_name = ? where id = ?", names);
+    }
+
+    // RawMaterial.normalize as of this migration; later changes to it must not change what
+    // an upgrade produces.
+    private static String normalize(String name) {
+        return name.strip().toLowerCase(Locale.ROOT);
+    }
+
+    // Identity columns on newer Hibernate versions, serial defaults on older ones.
+    private static void dropGeneratedId(JdbcTemplate jdbc, String schema, String table) {
+        Map<String, Object> id = jdbc.queryForMap("select is_identity, column_default from information_schema.columns "
+                + "where table_schema = ? and table_name = ? and column_name = 'id'", schema, table);
+        if ("YES".equalsIgnoreCase(String.valueOf(id.get("is_identity")))) {
+            jdbc.execute("alter table " + table + " alter column id drop identity");
+        }
+        if (id.get("column_default") != null) {
+            jdbc.execute("alter table " + table + " alter column id drop default");
+        }
+    }
+
+    private static boolean hasColumn(Connection connection, String table, String column) throws SQLException {
+        try (ResultSet columns = connection.getMetaData().getColumns(null, connection.getSchema(), table, column)) {
+            return columns.next();
+        }
+    }
+}
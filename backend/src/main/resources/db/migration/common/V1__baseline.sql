@@ -0,0 +1,63 @@
+-- Schema of the first release with migrations. Databases created by the releases before
+-- (hibernate.ddl-auto=update) are baselined at V0, so this runs on them too: it only creates
+-- what they lack, and V1_1 converts the tables they already have.
+
+create sequence if not exists products_seq start with 1 increment by 50;
+create sequence if not exists raw_materials_seq start with 1 increment by 50;
+create sequence if not exists product_materials_seq start with 1 increment by 50;
+create sequence if not exists product_components_seq start with 1 increment by 50;
+create sequence if not exists stock_reservations_seq start with 1 increment by 50;
+
+create table if not exists products (
+    id bigint not null,
+    name varchar(255) not null,
+    value numeric(12,2) not null,
+    primary key (id)
+);
+
+create table if not exists raw_materials (
+    id bigint not null,
+    name varchar(255) not null,
+    normalized_name varchar(255) not null,
+    stock_quantity integer not null check (stock_quantity >= 0),
+    reserved_quantity integer default 0 not null,
+    version bigint default 0 not null,
+    primary key (id),
+    constraint raw_materials_normalized_name_key unique (normalized_name)
+);
+
+create table if not exists product_materials (
+    id bigint not null,
+    product_id bigint not null,
+    raw_material_id bigint not null,
+    required_quantity integer not null check (required_quantity >= 1),
+    primary key (id),
+    constraint product_materials_product_material_key unique (product_id, raw_material_id),
+    constraint product_materials_product_fk foreign key (product_id) references products,
+    constraint product_materials_raw_material_fk foreign key (raw_material_id) references raw_materials
+);
+
+create table if not exists product_components (
+    id bigint not null,
+    product_id bigint not null,
+    component_id bigint not null,
+    required_quantity integer not null check (required_quantity >= 1),
+    primary key (id),
+    constraint product_components_product_component_key unique (product_id, component_id),
+    constraint product_components_product_fk foreign key (product_id) references products,
+    constraint product_components_component_fk foreign key (component_id) references products
+);
+
+create table if not exists stock_reservations (
+    id bigint not null,
+    status varchar(16) not null check (status in ('RESERVED', 'COMMITTED', 'RELEASED')),
+    created_at timestamp(6) with time zone not null,
+    primary key (id)
+);
+
+create table if not exists stock_reservation_items (
+    reservation_id bigint not null,
+    raw_material_id bigint not null,
+    quantity integer not null,
+    constraint stock_reservation_items_reservation_fk foreign key (reservation_id) references stock_reservations
+);
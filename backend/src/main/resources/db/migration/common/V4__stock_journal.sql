@@ -0,0 +1,35 @@
+-- Append-only journal of stock changes, with periodic snapshots of the running totals.
+
+create table stock_movements (
+    id bigint generated by default as identity primary key,
+    raw_material_id bigint not null,
+    kind varchar(16) not null check (kind in ('RECEIPT', 'CONSUMPTION', 'ADJUSTMENT')),
+    -- Signed change of stock_quantity.
+    quantity integer not null,
+    occurred_at timestamp(6) with time zone not null,
+    reference varchar(255)
+);
+
+-- No foreign key: the history outlives deleted materials.
+create index stock_movements_occurred_at_idx on stock_movements (occurred_at);
+create index stock_movements_raw_material_idx on stock_movements (raw_material_id, id);
+
+create table stock_snapshots (
+    id bigint generated by default as identity primary key,
+    taken_at timestamp(6) with time zone not null,
+    constraint stock_snapshots_taken_at_key unique (taken_at)
+);
+
+create table stock_snapshot_items (
+    snapshot_id bigint not null,
+    raw_material_id bigint not null,
+    stock_quantity bigint not null,
+    primary key (snapshot_id, raw_material_id),
+    constraint stock_snapshot_items_snapshot_fk foreign key (snapshot_id) references stock_snapshots
+);
+
+-- Stock that existed before the journal enters it as one opening adjustment per material.
+insert into stock_movements (raw_material_id, kind, quantity, occurred_at, reference)
+select id, 'ADJUSTMENT', stock_quantity, current_timestamp, 'opening balance'
+from raw_materials
+where stock_quantity <> 0;
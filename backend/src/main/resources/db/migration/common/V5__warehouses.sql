@@ -0,0 +1,13 @@
+-- Plants and other stock locations. BOMs are shared by all of them; each keeps its own
+-- stock in warehouse_stock (vendor-specific, see V6). raw_materials.stock_quantity stays
+-- the stock of the main site.
+
+create sequence warehouses_seq start with 1 increment by 50;
+
+create table warehouses (
+    id bigint not null,
+    code varchar(64) not null,
+    name varchar(255) not null,
+    primary key (id),
+    constraint warehouses_code_key unique (code)
+);
@@ -0,0 +1,42 @@
+-- Accepted production plans. They are repaired in place when stock or BOMs change; the
+-- lines describe the current revision.
+
+create sequence production_plans_seq start with 1 increment by 50;
+
+create table production_plans (
+    id bigint not null,
+    strategy varchar(16) not null,
+    ranking varchar(32) not null,
+    status varchar(16) not null check (status in ('ACCEPTED', 'CLOSED')),
+    accepted_at timestamp(6) with time zone not null,
+    replanned_at timestamp(6) with time zone,
+    revision integer not null,
+    grand_total_value numeric(19,2) not null,
+    -- Products decided again by the last (re)plan, and those whose decision it kept.
+    revisited_products integer not null,
+    reused_products integer not null,
+    primary key (id)
+);
+
+create index production_plans_status_idx on production_plans (status);
+
+-- No foreign keys to products or materials: a plan keeps its lines after they are deleted.
+create table production_plan_items (
+    plan_id bigint not null,
+    line_number integer not null,
+    product_id bigint not null,
+    product_name varchar(255) not null,
+    quantity integer not null,
+    total_value numeric(19,2) not null,
+    primary key (plan_id, line_number),
+    constraint production_plan_items_plan_fk foreign key (plan_id) references production_plans on delete cascade
+);
+
+create table production_plan_materials (
+    plan_id bigint not null,
+    line_number integer not null,
+    raw_material_id bigint not null,
+    consumed_quantity integer not null,
+    primary key (plan_id, line_number),
+    constraint production_plan_materials_plan_fk foreign key (plan_id) references production_plans on delete cascade
+);
@@ -0,0 +1,11 @@
+-- Counter of product, BOM and component changes, moved by the transactions that make them.
+-- Together with raw_materials.version it tells a stored catalog snapshot whether the
+-- database has changed since the snapshot was written.
+
+create table catalog_revision (
+    id integer not null,
+    revision bigint not null,
+    primary key (id)
+);
+
+insert into catalog_revision (id, revision) values (1, 0);
@@ -0,0 +1,5 @@
+-- numeric(19,2) held 17 integer digits, fewer than a product value (numeric(12,2)) times an
+-- int quantity can take; plan totals get room for any plan the engine computes.
+
+alter table production_plans alter column grand_total_value set data type numeric(38,2);
+alter table production_plan_items alter column total_value set data type numeric(38,2);
@@ -0,0 +1,8 @@
+-- Same indexes as the PostgreSQL migration, without what H2 lacks
+-- (INCLUDE columns, expression indexes, operator classes).
+
+create index product_materials_raw_material_idx on product_materials (raw_material_id);
+create index product_materials_product_idx on product_materials (product_id, id);
+create index products_planning_order_idx on products (value desc, id);
+create index product_components_component_idx on product_components (component_id);
+create index stock_reservation_items_reservation_idx on stock_reservation_items (reservation_id);
@@ -0,0 +1,13 @@
+-- Stock per location. H2 has no partitioning; the primary key leads with the warehouse so a
+-- location's rows are still one index range.
+
+create table warehouse_stock (
+    warehouse_id bigint not null,
+    raw_material_id bigint not null,
+    stock_quantity integer not null check (stock_quantity >= 0),
+    primary key (warehouse_id, raw_material_id),
+    constraint warehouse_stock_warehouse_fk foreign key (warehouse_id) references warehouses on delete cascade,
+    constraint warehouse_stock_raw_material_fk foreign key (raw_material_id) references raw_materials on delete cascade
+);
+
+create index warehouse_stock_raw_material_idx on warehouse_stock (raw_material_id);
@@ -0,0 +1,24 @@
+-- Indexes for the repository queries. INCLUDE columns let the hot read paths answer from
+-- the index alone.
+
+-- Where-used lookups and the foreign key check when a raw material is deleted.
+create index product_materials_raw_material_idx
+    on product_materials (raw_material_id) include (product_id, required_quantity);
+
+-- BOM lines of a product (planning, BOM pages keyed by id).
+create index product_materials_product_idx
+    on product_materials (product_id, id) include (raw_material_id, required_quantity);
+
+-- Planning order of the suggestion services: value desc, then id.
+create index products_planning_order_idx on products (value desc, id) include (name);
+
+-- Name prefix filters (LIKE 'abc%'); the pattern ops make them indexable under any collation.
+create index products_name_prefix_idx on products (lower(name) varchar_pattern_ops);
+create index raw_materials_normalized_name_prefix_idx on raw_materials (normalized_name varchar_pattern_ops);
+
+-- Assemblies using a component, and link cleanup when a product is deleted.
+create index product_components_component_idx
+    on product_components (component_id) include (product_id, required_quantity);
+
+-- Items of a reservation (loaded eagerly with it).
+create index stock_reservation_items_reservation_idx on stock_reservation_items (reservation_id);
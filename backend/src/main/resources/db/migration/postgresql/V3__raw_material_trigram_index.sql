@@ -0,0 +1,18 @@
+-- Fuzzy raw material search (pg_trgm). Creating the extension needs privileges the
+-- application role may not have; without it the search scans in the application instead.
+do $$
+begin
+    create extension if not exists pg_trgm;
+exception when others then
+    raise warning 'pg_trgm unavailable (%), raw material search will not use an index', sqlerrm;
+end
+$$;
+
+do $$
+begin
+    if exists (select 1 from pg_extension where extname = 'pg_trgm') then
+        create index raw_materials_normalized_name_trgm_idx
+            on raw_materials using gin (normalized_name gin_trgm_ops);
+    end if;
+end
+$$;
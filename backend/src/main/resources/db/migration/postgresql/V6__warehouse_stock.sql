@@ -0,0 +1,23 @@
+-- Stock per location, hash-partitioned by warehouse: planning a location reads one
+-- partition, and locations receiving stock at the same time do not share index pages.
+
+create table warehouse_stock (
+    warehouse_id bigint not null,
+    raw_material_id bigint not null,
+    stock_quantity integer not null check (stock_quantity >= 0),
+    primary key (warehouse_id, raw_material_id),
+    constraint warehouse_stock_warehouse_fk foreign key (warehouse_id) references warehouses on delete cascade,
+    constraint warehouse_stock_raw_material_fk foreign key (raw_material_id) references raw_materials on delete cascade
+) partition by hash (warehouse_id);
+
+create table warehouse_stock_p0 partition of warehouse_stock for values with (modulus 8, remainder 0);
+create table warehouse_stock_p1 partition of warehouse_stock for values with (modulus 8, remainder 1);
+create table warehouse_stock_p2 partition of warehouse_stock for values with (modulus 8, remainder 2);
+create table warehouse_stock_p3 partition of warehouse_stock for values with (modulus 8, remainder 3);
+create table warehouse_stock_p4 partition of warehouse_stock for values with (modulus 8, remainder 4);
+create table warehouse_stock_p5 partition of warehouse_stock for values with (modulus 8, remainder 5);
+create table warehouse_stock_p6 partition of warehouse_stock for values with (modulus 8, remainder 6);
+create table warehouse_stock_p7 partition of warehouse_stock for values with (modulus 8, remainder 7);
+
+-- Materials are deleted by id; the cascade looks their rows up here.
+create index warehouse_stock_raw_material_idx on warehouse_stock (raw_material_id);
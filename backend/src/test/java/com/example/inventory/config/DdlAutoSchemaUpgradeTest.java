@@ -0,0 +1,86 @@
+package com.example.inventory.config;
+
+import com.example.inventory.dto.ProductRequest;
+import com.example.inventory.dto.RawMaterialRequest;
+import com.example.inventory.model.Product;
+import com.example.inventory.model.RawMaterial;
+import com.example.inventory.service.ProductService;
+import com.example.inventory.service.RawMaterialService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Starts on a database as the releases before the migrations left it and checks that the
+ * migrations bring it to a schema Hibernate validates, with its data intact.
+ */
+@SpringBootTest
+class DdlAutoSchemaUpgradeTest {
+
+    private static final String URL = "jdbc:h2:mem:ddlauto;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+            + "DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1;NON_KEYWORDS=VALUE";
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RawMaterialService rawMaterialService;
+
+    @Autowired
+    private ProductService productService;
+
+    @DynamicPropertySource
+    static void ddlAutoDatabase(DynamicPropertyRegistry registry) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(URL, "sa", "")) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/ddl-auto-schema.sql"));
+        }
+        registry.add("spring.datasource.url", () -> URL);
+    }
+
+    @Test
+    void shouldUpgradeADdlAutoDatabase() {
+        List<String> versions = Arrays.stream(flyway.info().applied())
+                .map(info -> info.getVersion().getVersion()).toList();
+        assertEquals(List.of("0", "1", "1.1", "2", "4", "5", "6", "7", "8", "9"), versions);
+
+        // " steel " folded into "Steel": stock and the Chair's quantities added up.
+        assertEquals(List.of(Map.of("id", 1L, "normalized_name", "steel", "stock_quantity", 15),
+                        Map.of("id", 2L, "normalized_name", "wood", "stock_quantity", 40)),
+                jdbcTemplate.queryForList("select id, normalized_name, stock_quantity from raw_materials order by id"));
+        assertEquals(List.of(List.of(1L, 1L, 5), List.of(1L, 2L, 4), List.of(2L, 1L, 6)),
+                jdbcTemplate.query("select product_id, raw_material_id, required_quantity from product_materials "
+                                + "order by product_id, raw_material_id",
+                        (rs, row) -> List.of(rs.getLong(1), rs.getLong(2), rs.getInt(3))));
+        assertEquals(15, jdbcTemplate.queryForObject(
+                "select sum(quantity) from stock_movements where raw_material_id = 1", Integer.class));
+
+        // New rows take ids from the sequences, past the existing ones.
+        RawMaterial steel = rawMaterialService.create(new RawMaterialRequest("STEEL", 1));
+        assertEquals(1L, steel.getId());
+        assertEquals(16, steel.getStockQuantity());
+        RawMaterial glue = rawMaterialService.create(new RawMaterialRequest("Glue", 3));
+        assertTrue(glue.getId() > 3);
+        Product stool = productService.create(new ProductRequest("Stool", new BigDecimal("45.00")));
+        assertTrue(stool.getId() > 2);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.inventory.config;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The schema comes from the migrations and Hibernate only validates it. Runs on H2 in
+ * PostgreSQL mode, which gets the {@code h2} variant of the vendor-specific migrations.
+ */
+@SpringBootTest
+class SchemaMigrationTest {
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void shouldApplyEveryMigrationQuickly() {
+        MigrationInfo[] applied = flyway.info().applied();
+
+        assertEquals(List.of("1", "1.1", "2", "4", "5", "6", "7", "8", "9"), Arrays.stream(applied).map(info -> info.getVersion().getVersion()).toList());
+        assertTrue(Arrays.stream(applied).allMatch(info -> info.getState().isApplied()));
+        int totalMillis = Arrays.stream(applied).mapToInt(MigrationInfo::getExecutionTime).sum();
+        assertTrue(totalMillis < 5_000, "migrations took " + totalMillis + " ms");
+    }
+
+    @Test
+    void shouldServeRepositoryQueriesFromIndexes() {
+        List<String> lookups = List.of(
+                "select product_id from product_materials where raw_material_id = 1",
+                "select raw_material_id, required_quantity from product_materials where product_id = 1 and id > 0 order by id",
+                "select product_id from product_components where component_id = 1",
+                "select quantity from stock_reservation_items where reservation_id = 1",
+                "select id from raw_materials where normalized_name = 'steel'",
+                "select id from raw_materials where normalized_name like 'st%' order by id",
+                "select raw_material_id, stock_quantity from warehouse_stock where warehouse_id = 1");
+        for (String query : lookups) {
+            String plan = explain(query);
+            assertFalse(plan.contains("tablescan"), () -> query + " was planned as: " + plan);
+        }
+
+        String planningOrder = explain("select id, name, value from products order by value desc, id");
+        assertTrue(planningOrder.contains("products_planning_order_idx") && planningOrder.contains("index sorted"),
+                () -> "planning order was planned as: " + planningOrder);
+    }
+
+    private String explain(String query) {
+        return jdbcTemplate.queryForObject("explain " + query, String.class).toLowerCase(Locale.ROOT);
+    }
+}
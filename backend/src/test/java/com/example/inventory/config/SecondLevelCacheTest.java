@@ -0,0 +1,124 @@
+package com.example.inventory.config;
+
+import com.example.inventory.dto.ProductMaterialRequest;
+import com.example.inventory.dto.ProductRequest;
+import com.example.inventory.dto.RawMaterialRequest;
+import com.example.inventory.model.Product;
+import com.example.inventory.model.RawMaterial;
+import com.example.inventory.repository.ProductMaterialRepository;
+import com.example.inventory.repository.ProductRepository;
+import com.example.inventory.repository.RawMaterialRepository;
+import com.example.inventory.service.ProductMaterialService;
+import com.example.inventory.service.ProductService;
+import com.example.inventory.service.RawMaterialService;
+import com.example.inventory.service.bulk.BulkFormat;
+import com.example.inventory.service.bulk.BulkImportService;
+import com.example.inventory.service.stock.StockLedgerService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class SecondLevelCacheTest {
+
+    @Autowired
+    private RawMaterialService rawMaterialService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductMaterialService productMaterialService;
+
+    @Autowired
+    private StockLedgerService stockLedgerService;
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private RawMaterialRepository rawMaterialRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductMaterialRepository productMaterialRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void cleanUp() {
+        productMaterialRepository.deleteAll();
+        productRepository.deleteAll();
+        rawMaterialRepository.deleteAll();
+        // Off in the test configuration; turned on here without the per-session log listener.
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @Test
+    void shouldServeRepeatedReadsFromCacheAndNeverReturnStaleStock() {
+        RawMaterial steel = rawMaterialService.create(new RawMaterialRequest("Steel", 10));
+
+        rawMaterialService.findById(steel.getId());
+        rawMaterialService.findById(steel.getId());
+        CacheRegionStatistics region = statistics.getDomainDataRegionStatistics(SecondLevelCacheConfig.RAW_MATERIALS);
+        assertTrue(region.getHitCount() >= 2);
+
+        stockLedgerService.receive(steel.getId(), 5);
+        assertEquals(15, rawMaterialService.findById(steel.getId()).getStockQuantity());
+
+        bulkImportService.importRawMaterials(new ByteArrayInputStream(
+                "{\"name\":\"Steel\",\"stockQuantity\":7}\n".getBytes(StandardCharsets.UTF_8)), BulkFormat.NDJSON);
+        assertEquals(22, rawMaterialService.findById(steel.getId()).getStockQuantity());
+    }
+
+    @Test
+    void shouldKeepBomListingsCurrent() {
+        RawMaterial steel = rawMaterialService.create(new RawMaterialRequest("Steel", 10));
+        RawMaterial wood = rawMaterialService.create(new RawMaterialRequest("Wood", 10));
+        Product table = productService.create(new ProductRequest("Table", new BigDecimal("100.00")));
+
+        productMaterialService.upsert(table.getId(), new ProductMaterialRequest(steel.getId(), 2));
+        assertEquals(1, productMaterialService.findByProductId(table.getId()).size());
+        assertEquals(1, productMaterialService.findByProductId(table.getId()).size());
+        assertTrue(statistics.getQueryCacheHitCount() >= 1);
+
+        productMaterialService.upsert(table.getId(), new ProductMaterialRequest(wood.getId(), 3));
+        assertEquals(2, productMaterialService.findByProductId(table.getId()).size());
+
+        bulkImportService.importProductMaterials(new ByteArrayInputStream(
+                ("{\"productId\":" + table.getId() + ",\"rawMaterialId\":" + wood.getId() + ",\"requiredQuantity\":9}\n")
+                        .getBytes(StandardCharsets.UTF_8)), BulkFormat.NDJSON);
+        assertEquals(9, productMaterialService.findByProductId(table.getId()).stream()
+                .filter(line -> line.getRawMaterial().getId().equals(wood.getId()))
+                .findFirst().orElseThrow().getRequiredQuantity());
+
+        productMaterialService.delete(productMaterialService.findByProductId(table.getId()).get(0).getId());
+        assertEquals(1, productMaterialService.findByProductId(table.getId()).size());
+        assertEquals(Integer.valueOf(1), new TransactionTemplate(transactionManager).execute(
+                status -> productService.findById(table.getId()).getMaterials().size()));
+    }
+}
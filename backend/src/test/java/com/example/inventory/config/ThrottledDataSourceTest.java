@@ -0,0 +1,38 @@
+package com.example.inventory.config;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ThrottledDataSourceTest {
+
+    @Test
+    void shouldHandOutPermitsUntilConnectionsAreClosed() throws Exception {
+        DataSource target = mock(DataSource.class);
+        Connection first = mock(Connection.class);
+        Connection second = mock(Connection.class);
+        when(target.getConnection()).thenReturn(first, second);
+        ThrottledDataSource dataSource = new ThrottledDataSource(target, 1, Duration.ofMillis(50));
+
+        Connection held = dataSource.getConnection();
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+
+        held.close();
+        held.close();
+        verify(first, times(1)).close();
+
+        Connection next = dataSource.getConnection();
+        next.close();
+        verify(second).close();
+        verify(target, times(2)).getConnection();
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.inventory.metrics;
+
+import com.example.inventory.model.Product;
+import com.example.inventory.model.ProductMaterial;
+import com.example.inventory.model.RawMaterial;
+import com.example.inventory.planning.CatalogChangedEvent;
+import com.example.inventory.planning.CatalogVersion;
+import com.example.inventory.repository.ProductMaterialRepository;
+import com.example.inventory.repository.ProductRepository;
+import com.example.inventory.repository.RawMaterialRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class PlanningMetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private RawMaterialRepository rawMaterialRepository;
+
+    @Autowired
+    private ProductMaterialRepository productMaterialRepository;
+
+    @BeforeEach
+    void cleanUp() {
+        productMaterialRepository.deleteAll();
+        productRepository.deleteAll();
+        rawMaterialRepository.deleteAll();
+    }
+
+    @Test
+    void shouldRecordPhasesCatalogSizeAndQueriesPerRequest() throws Exception {
+        RawMaterial steel = new RawMaterial();
+        steel.setName("Steel");
+        steel.setStockQuantity(10);
+        rawMaterialRepository.save(steel);
+        Product table = new Product();
+        table.setName("Table");
+        table.setValue(new BigDecimal("100.00"));
+        productRepository.save(table);
+        ProductMaterial line = new ProductMaterial();
+        line.setProduct(table);
+        line.setRawMaterial(steel);
+        line.setRequiredQuantity(2);
+        productMaterialRepository.save(line);
+        catalogVersion.onCatalogChanged(new CatalogChangedEvent(CatalogChangedEvent.Kind.PRODUCT, table.getId()));
+
+        mockMvc.perform(get("/api/production/suggestion")).andExpect(status().isOk());
+
+        assertEquals(1.0, registry.get("inventory.catalog.products").gauge().value());
+        assertEquals(1.0, registry.get("inventory.catalog.bom.edges").gauge().value());
+        Timer plan = registry.get("inventory.planning.phase").tags("phase", "plan", "strategy", "greedy").timer();
+        assertTrue(plan.count() > 0);
+        assertTrue(registry.get("inventory.planning.phase").tags("phase", "serialize").timer().count() > 0);
+
+        DistributionSummary statements = registry.get("inventory.request.sql.statements")
+                .tags("method", "GET", "uri", "/api/production/suggestion").summary();
+        assertNotNull(statements);
+        assertTrue(statements.max() >= 3);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.inventory.planning;
+
+import com.example.inventory.dto.BomLine;
+import com.example.inventory.dto.ComponentLine;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BomExplosionTest {
+
+    // Table (1) = 4 legs (2) + 1 top (3) + 8 screws (20); leg (2) = 2 wood (10) + 2 screws;
+    // top (3) = 5 wood. Shelf (4) = 2 legs.
+    private static final List<ComponentLine> COMPONENTS = List.of(
+            new ComponentLine(1L, 2L, 4),
+            new ComponentLine(1L, 3L, 1),
+            new ComponentLine(4L, 2L, 2));
+    private static final List<BomLine> LINES = List.of(
+            new BomLine(1L, 20L, 8),
+            new BomLine(2L, 10L, 2),
+            new BomLine(2L, 20L, 2),
+            new BomLine(3L, 10L, 5),
+            new BomLine(5L, 10L, 1));
+
+    @Test
+    void shouldFlattenAssembliesInTopologicalOrder() {
+        BomExplosion explosion = BomExplosion.explode(COMPONENTS, LINES);
+
+        assertEquals(List.of(new BomLine(1L, 10L, 13), new BomLine(1L, 20L, 16)), explosion.lines(1L));
+        assertEquals(List.of(new BomLine(4L, 10L, 4), new BomLine(4L, 20L, 4)), explosion.lines(4L));
+        assertTrue(explosion.isAssembly(1L));
+        assertFalse(explosion.isAssembly(2L));
+        assertNull(explosion.lines(2L));
+
+        long[] order = explosion.order();
+        assertTrue(indexOf(order, 2L) < indexOf(order, 1L));
+        assertTrue(indexOf(order, 3L) < indexOf(order, 1L));
+        assertTrue(indexOf(order, 2L) < indexOf(order, 4L));
+
+        List<BomLine> applied = explosion.apply(LINES);
+        assertEquals(8, applied.size());
+        assertFalse(applied.contains(new BomLine(1L, 20L, 8)));
+        assertTrue(applied.contains(new BomLine(5L, 10L, 1)));
+    }
+
+    @Test
+    void shouldSaturateRequirementsThatOverflow() {
+        BomExplosion explosion = BomExplosion.explode(
+                List.of(new ComponentLine(1L, 2L, Integer.MAX_VALUE), new ComponentLine(2L, 3L, Integer.MAX_VALUE)),
+                List.of(new BomLine(3L, 10L, 3)));
+
+        assertEquals(List.of(new BomLine(1L, 10L, Integer.MAX_VALUE)), explosion.lines(1L));
+    }
+
+    @Test
+    void shouldDetectCycles() {
+        assertEquals(List.of(1L, 2L), BomExplosion.cycleIfLinked(COMPONENTS, 2L, 1L));
+        assertEquals(List.of(3L, 3L), BomExplosion.cycleIfLinked(COMPONENTS, 3L, 3L));
+        assertEquals(List.of(), BomExplosion.cycleIfLinked(COMPONENTS, 4L, 3L));
+
+        assertThrows(IllegalStateException.class, () -> BomExplosion.explode(
+                List.of(new ComponentLine(1L, 2L, 1), new ComponentLine(2L, 1L, 1)), List.of()));
+    }
+
+    private static int indexOf(long[] order, long id) {
+        for (int i = 0; i < order.length; i++) {
+            if (order[i] == id) {
+                return i;
+            }
+        }
+        throw new AssertionError(id);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.inventory.planning;
+
+import com.example.inventory.dto.BomLine;
+import com.example.inventory.dto.ProductSummary;
+import com.example.inventory.dto.RawMaterialSummary;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BomSnapshotTest {
+
+    @Test
+    void shouldCompileProductsInValueOrderWithCsrLines() {
+        BomSnapshot snapshot = BomSnapshot.compile(
+                List.of(new ProductSummary(1L, "Chair", new BigDecimal("50.00")),
+                        new ProductSummary(2L, "Table", new BigDecimal("120.00")),
+                        new ProductSummary(3L, "Stool", new BigDecimal("50.00"))),
+                List.of(new RawMaterialSummary(10L, "Wood", 40),
+                        new RawMaterialSummary(20L, "Screw", 300)),
+                List.of(new BomLine(1L, 10L, 4),
+                        new BomLine(2L, 10L, 10),
+                        new BomLine(1L, 20L, 8),
+                        new BomLine(2L, 30L, 1)));
+
+        assertEquals(3, snapshot.productCount());
+        assertEquals(2L, snapshot.productId(0));
+        assertEquals(1L, snapshot.productId(1));
+        assertEquals(3L, snapshot.productId(2));
+
+        assertEquals(2, snapshot.bomEnd(0) - snapshot.bomStart(0));
+        assertEquals(2, snapshot.bomEnd(1) - snapshot.bomStart(1));
+        assertEquals(0, snapshot.bomEnd(2) - snapshot.bomStart(2));
+        assertEquals(4, snapshot.edgeCount());
+
+        int chairScrew = snapshot.bomStart(1) + 1;
+        assertEquals(20L, snapshot.materialId(snapshot.edgeMaterial(chairScrew)));
+        assertEquals(8, snapshot.edgeQuantity(chairScrew));
+
+        // Material 30 is referenced but unknown, so it gets an empty stock slot.
+        assertEquals(3, snapshot.materialCount());
+        int unknown = snapshot.edgeMaterial(snapshot.bomStart(0) + 1);
+        assertEquals(30L, snapshot.materialId(unknown));
+        assertEquals(0, snapshot.stock(unknown));
+    }
+
+    @Test
+    void shouldDeriveVariantsWithoutTouchingTheBase() {
+        BomSnapshot base = BomSnapshot.compile(
+                List.of(new ProductSummary(1L, "Chair", new BigDecimal("50.00")),
+                        new ProductSummary(2L, "Table", new BigDecimal("120.00"))),
+                List.of(new RawMaterialSummary(10L, "Wood", 40),
+                        new RawMaterialSummary(20L, "Screw", 300)),
+                List.of(new BomLine(1L, 10L, 4),
+                        new BomLine(1L, 20L, 8),
+                        new BomLine(2L, 10L, 10)));
+
+        BomSnapshot variant = base.variant()
+                .adjustStock(10L, -100)
+                .setValue(1L, new BigDecimal("130.00"))
+                .setRequiredQuantity(1L, 20L, 0)
+                .setRequiredQuantity(2L, 20L, 6)
+                .build();
+
+        assertEquals(0, variant.stock(variant.indexOfMaterial(10L)));
+        assertEquals(1L, variant.productId(0));
+        assertEquals(0, variant.indexOfProduct(1L));
+        assertEquals(1, variant.bomEnd(0) - variant.bomStart(0));
+        assertEquals(2, variant.bomEnd(1) - variant.bomStart(1));
+        assertEquals(6, variant.edgeQuantity(variant.bomEnd(1) - 1));
+
+        assertEquals(40, base.stock(base.indexOfMaterial(10L)));
+        assertEquals(2L, base.productId(0));
+        assertEquals(3, base.edgeCount());
+        assertEquals(-1, base.indexOfProduct(3L));
+    }
+}
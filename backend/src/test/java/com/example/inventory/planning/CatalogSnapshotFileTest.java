@@ -0,0 +1,82 @@
+package com.example.inventory.planning;
+
+import com.example.inventory.dto.BomLine;
+import com.example.inventory.dto.ProductSummary;
+import com.example.inventory.dto.RawMaterialSummary;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CatalogSnapshotFileTest {
+
+    private final BomSnapshot snapshot = BomSnapshot.compile(
+            List.of(new ProductSummary(1L, "Mesa de jantar", new BigDecimal("100.00")),
+                    new ProductSummary(2L, "Cadeira ergonômica", new BigDecimal("60.50")),
+                    new ProductSummary(3L, "", new BigDecimal("7"))),
+            List.of(new RawMaterialSummary(10L, "Steel", 10),
+                    new RawMaterialSummary(20L, "Wood", 1000)),
+            List.of(new BomLine(1L, 10L, 10),
+                    new BomLine(2L, 10L, 1),
+                    new BomLine(2L, 20L, 50),
+                    new BomLine(3L, 30L, 1)));
+
+    private final CatalogSnapshotFile.Stamp stamp = new CatalogSnapshotFile.Stamp(4, 2, 17, 20);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldReadBackWhatWasWritten() throws IOException {
+        Path path = directory.resolve("catalog.snapshot");
+        CatalogSnapshotFile.write(path, stamp, snapshot);
+
+        CatalogSnapshotFile.Contents contents = CatalogSnapshotFile.read(path);
+        BomSnapshot restored = contents.snapshot();
+        assertEquals(stamp, contents.stamp());
+        assertEquals(snapshot.productCount(), restored.productCount());
+        for (int p = 0; p < snapshot.productCount(); p++) {
+            assertEquals(snapshot.productId(p), restored.productId(p));
+            assertEquals(snapshot.productName(p), restored.productName(p));
+            assertEquals(snapshot.productValue(p), restored.productValue(p));
+            assertEquals(snapshot.bomStart(p), restored.bomStart(p));
+            assertEquals(snapshot.bomEnd(p), restored.bomEnd(p));
+        }
+        assertEquals(snapshot.edgeCount(), restored.edgeCount());
+        for (int edge = 0; edge < snapshot.edgeCount(); edge++) {
+            assertEquals(snapshot.edgeMaterial(edge), restored.edgeMaterial(edge));
+            assertEquals(snapshot.edgeQuantity(edge), restored.edgeQuantity(edge));
+        }
+        // The material only a BOM line mentions is kept too.
+        assertEquals(3, restored.materialCount());
+        assertArrayEquals(snapshot.copyStock(), restored.copyStock());
+        assertEquals(2, restored.indexOfMaterial(30L));
+        assertArrayEquals(GreedyPlanner.plan(snapshot, null), GreedyPlanner.plan(restored, null));
+    }
+
+    @Test
+    void shouldRejectDamagedOrForeignFiles() throws IOException {
+        Path path = directory.resolve("catalog.snapshot");
+        CatalogSnapshotFile.write(path, stamp, snapshot);
+        byte[] bytes = Files.readAllBytes(path);
+
+        bytes[bytes.length - 3] ^= 1;
+        Files.write(path, bytes);
+        assertThrows(IOException.class, () -> CatalogSnapshotFile.read(path));
+
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 8));
+        assertThrows(IOException.class, () -> CatalogSnapshotFile.read(path));
+
+        Files.writeString(path, "not a snapshot, but long enough to hold the header of one..........");
+        assertThrows(IOException.class, () -> CatalogSnapshotFile.read(path));
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.inventory.planning;
+
+import com.example.inventory.dto.ProductMaterialRequest;
+import com.example.inventory.dto.ProductRequest;
+import com.example.inventory.dto.RawMaterialRequest;
+import com.example.inventory.model.Product;
+import com.example.inventory.model.RawMaterial;
+import com.example.inventory.metrics.PlanningMetrics;
+import com.example.inventory.repository.ProductMaterialRepository;
+import com.example.inventory.repository.ProductRepository;
+import com.example.inventory.repository.RawMaterialRepository;
+import com.example.inventory.service.ProductMaterialService;
+import com.example.inventory.service.ProductService;
+import com.example.inventory.service.RawMaterialService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class CatalogSnapshotStoreTest {
+
+    @Autowired
+    private CatalogRevision catalogRevision;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private RawMaterialRepository rawMaterialRepository;
+
+    @Autowired
+    private ProductMaterialRepository productMaterialRepository;
+
+    @Autowired
+    private BomExplosionCache bomExplosionCache;
+
+    @Autowired
+    private PlanningMetrics planningMetrics;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private RawMaterialService rawMaterialService;
+
+    @Autowired
+    private ProductMaterialService productMaterialService;
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void cleanUp() {
+        productMaterialRepository.deleteAll();
+        productRepository.deleteAll();
+        rawMaterialRepository.deleteAll();
+    }
+
+    @Test
+    void shouldSeedTheLoaderFromAnUpToDateFile() {
+        RawMaterial wood = rawMaterialService.create(new RawMaterialRequest("Wood", 100));
+        Product table = productService.create(new ProductRequest("Table", new BigDecimal("300.00")));
+        productMaterialService.upsert(table.getId(), new ProductMaterialRequest(wood.getId(), 30));
+
+        Path path = directory.resolve("catalog.snapshot");
+        store(loader(new CatalogVersion()), new CatalogVersion(), path).write();
+        assertTrue(Files.exists(path));
+
+        CatalogVersion version = new CatalogVersion();
+        BomSnapshotLoader loader = loader(version);
+        assertTrue(store(loader, version, path).restore());
+        BomSnapshot seeded = loader.load();
+        assertSame(seeded, loader.load());
+        assertArrayEquals(new int[] {3}, GreedyPlanner.plan(seeded, null));
+
+        // Once the catalog moves the seed is dropped and the database is read again.
+        version.onCatalogChanged(new CatalogChangedEvent(CatalogChangedEvent.Kind.PRODUCT, table.getId()));
+        assertNotSame(seeded, loader.load());
+    }
+
+    @Test
+    void shouldIgnoreAFileTheDatabaseHasMovedPast() {
+        RawMaterial wood = rawMaterialService.create(new RawMaterialRequest("Wood", 100));
+        Product table = productService.create(new ProductRequest("Table", new BigDecimal("300.00")));
+        productMaterialService.upsert(table.getId(), new ProductMaterialRequest(wood.getId(), 30));
+        Path path = directory.resolve("catalog.snapshot");
+        store(loader(new CatalogVersion()), new CatalogVersion(), path).write();
+
+        // A stock change only shows in the raw material versions.
+        rawMaterialService.update(wood.getId(), new RawMaterialRequest("Wood", 90));
+        assertFalse(store(loader(new CatalogVersion()), new CatalogVersion(), path).restore());
+
+        store(loader(new CatalogVersion()), new CatalogVersion(), path).write();
+        assertTrue(store(loader(new CatalogVersion()), new CatalogVersion(), path).restore());
+
+        // A BOM change only shows in the revision.
+        productMaterialService.upsert(table.getId(), new ProductMaterialRequest(wood.getId(), 20));
+        assertFalse(store(loader(new CatalogVersion()), new CatalogVersion(), path).restore());
+    }
+
+    @Test
+    void shouldNotFailWithoutOrWithABrokenFile() throws Exception {
+        Path path = directory.resolve("catalog.snapshot");
+        assertFalse(store(loader(new CatalogVersion()), new CatalogVersion(), path).restore());
+
+        Files.writeString(path, "garbage");
+        assertFalse(store(loader(new CatalogVersion()), new CatalogVersion(), path).restore());
+    }
+
+    // Each store gets its own loader and version, as a fresh start of the service would.
+    private BomSnapshotLoader loader(CatalogVersion version) {
+        return new BomSnapshotLoader(productRepository, rawMaterialRepository, productMaterialRepository,
+                bomExplosionCache, planningMetrics, version);
+    }
+
+    private CatalogSnapshotStore store(BomSnapshotLoader loader, CatalogVersion version, Path path) {
+        return new CatalogSnapshotStore(loader, catalogRevision, version, path.toString(), Duration.ZERO);
+    }
+}
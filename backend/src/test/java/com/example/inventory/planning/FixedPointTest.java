@@ -0,0 +1,180 @@
+package com.example.inventory.planning;
+
+import com.example.inventory.dto.BomLine;
+import com.example.inventory.dto.ProductSummary;
+import com.example.inventory.dto.ProductionSuggestionItem;
+import com.example.inventory.dto.ProductionSuggestionResponse;
+import com.example.inventory.dto.RawMaterialSummary;
+import com.example.inventory.service.ProductionPlanningService;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Random properties: every fixed-point result must equal, scale included, what the
+ * {@code BigDecimal} code it replaced gives.
+ */
+class FixedPointTest {
+
+    @Test
+    void shouldAgreeWithBigDecimalOperations() {
+        Random random = new Random(5);
+        for (int round = 0; round < 200_000; round++) {
+            long unitsA = units(random);
+            int scaleA = scale(random);
+            long unitsB = random.nextInt(4) == 0 ? unitsA : units(random);
+            int scaleB = random.nextInt(4) == 0 ? scaleA : scale(random);
+            int quantity = random.nextInt(3) == 0 ? random.nextInt(Integer.MAX_VALUE) : random.nextInt(1000);
+            BigDecimal a = BigDecimal.valueOf(unitsA, scaleA);
+            BigDecimal b = BigDecimal.valueOf(unitsB, scaleB);
+
+            assertEquals(a.multiply(BigDecimal.valueOf(quantity)), FixedPoint.times(unitsA, scaleA, quantity));
+            assertEquals(Integer.signum(a.compareTo(b)), Integer.signum(FixedPoint.compare(unitsA, scaleA, unitsB, scaleB)));
+            assertEquals(a.doubleValue(), FixedPoint.toDouble(unitsA, scaleA));
+        }
+    }
+
+    @Test
+    void shouldSumLikeBigDecimalAddition() {
+        Random random = new Random(6);
+        for (int round = 0; round < 20_000; round++) {
+            FixedPoint.Sum sum = new FixedPoint.Sum();
+            BigDecimal expected = BigDecimal.ZERO;
+            for (int i = random.nextInt(20); i > 0; i--) {
+                BigDecimal amount = BigDecimal.valueOf(units(random), scale(random));
+                if (random.nextBoolean()) {
+                    sum.add(amount.unscaledValue().longValueExact(), amount.scale());
+                } else {
+                    sum.add(amount);
+                }
+                expected = expected.add(amount);
+            }
+            assertEquals(expected, sum.value());
+        }
+        // Past a long the sum carries on in BigDecimal.
+        FixedPoint.Sum sum = new FixedPoint.Sum();
+        sum.add(Long.MAX_VALUE, 2);
+        sum.add(Long.MAX_VALUE, 2);
+        sum.add(new BigDecimal(BigInteger.TEN.pow(30), 1));
+        assertEquals(BigDecimal.valueOf(Long.MAX_VALUE, 2).multiply(BigDecimal.TWO)
+                .add(new BigDecimal(BigInteger.TEN.pow(30), 1)), sum.value());
+    }
+
+    @Test
+    void shouldPlanExactlyAsWithBigDecimalValues() {
+        Random random = new Random(7);
+        for (int round = 0; round < 300; round++) {
+            List<ProductSummary> products = new ArrayList<>();
+            List<RawMaterialSummary> materials = new ArrayList<>();
+            List<BomLine> lines = new ArrayList<>();
+            int materialCount = 1 + random.nextInt(8);
+            for (long m = 0; m < materialCount; m++) {
+                materials.add(new RawMaterialSummary(100 + m, "M" + m, random.nextInt(5000)));
+            }
+            boolean huge = round % 10 == 0;
+            for (long p = 0; p < 1 + random.nextInt(40); p++) {
+                products.add(new ProductSummary(p, "P" + p, value(random, huge)));
+                for (int m = 0; m < materialCount; m++) {
+                    if (random.nextInt(3) == 0) {
+                        lines.add(new BomLine(p, 100L + m, 1 + random.nextInt(20)));
+                    }
+                }
+            }
+
+            BomSnapshot snapshot = BomSnapshot.compile(products, materials, lines);
+            assertEquals(huge && products.stream().anyMatch(product -> !FixedPoint.fits(product.value())),
+                    !snapshot.fixedPointValues());
+            List<ProductSummary> ordered = new ArrayList<>(products);
+            ordered.sort(Comparator.comparing(ProductSummary::value).reversed().thenComparing(ProductSummary::id));
+            for (int p = 0; p < ordered.size(); p++) {
+                assertEquals(ordered.get(p).id(), snapshot.productId(p));
+                assertEquals(ordered.get(p).value(), snapshot.productValue(p));
+            }
+
+            for (RankingPolicy ranking : RankingPolicy.values()) {
+                int[] order = GreedyPlanner.rank(snapshot, ranking);
+                int[] quantities = GreedyPlanner.plan(snapshot, order);
+                assertEquals(reference(snapshot, quantities, order),
+                        ProductionPlanningService.toResponse(snapshot, quantities, order));
+            }
+
+            // A what-if change of value reorders the products the same way.
+            ProductSummary changed = products.get(random.nextInt(products.size()));
+            BigDecimal newValue = value(random, false);
+            BomSnapshot variant = snapshot.variant().setValue(changed.id(), newValue).build();
+            ordered.replaceAll(product -> product.id().equals(changed.id())
+                    ? new ProductSummary(product.id(), product.name(), newValue) : product);
+            ordered.sort(Comparator.comparing(ProductSummary::value).reversed().thenComparing(ProductSummary::id));
+            for (int p = 0; p < ordered.size(); p++) {
+                assertEquals(ordered.get(p).id(), variant.productId(p));
+                assertEquals(ordered.get(p).value(), variant.productValue(p));
+            }
+        }
+    }
+
+    @Test
+    void shouldFallBackToBigDecimalForHugeValues() {
+        BigDecimal huge = new BigDecimal(BigInteger.TEN.pow(25), 2);
+        assertFalse(FixedPoint.fits(huge));
+        assertTrue(FixedPoint.fits(BigDecimal.valueOf(Long.MIN_VALUE, 2)));
+
+        BomSnapshot snapshot = BomSnapshot.compile(
+                List.of(new ProductSummary(1L, "Rocket", huge), new ProductSummary(2L, "Bolt", new BigDecimal("0.10"))),
+                List.of(new RawMaterialSummary(10L, "Steel", 100)),
+                List.of(new BomLine(1L, 10L, 30), new BomLine(2L, 10L, 1)));
+        int[] quantities = GreedyPlanner.plan(snapshot, null);
+        ProductionSuggestionResponse response = ProductionPlanningService.toResponse(snapshot, quantities, null);
+        assertEquals(huge.multiply(BigDecimal.valueOf(3)), response.items().get(0).totalValue());
+        assertEquals(huge.multiply(BigDecimal.valueOf(3)).add(new BigDecimal("1.00")), response.grandTotalValue());
+    }
+
+    // The response as the BigDecimal loop built it.
+    private static ProductionSuggestionResponse reference(BomSnapshot snapshot, int[] quantities, int[] order) {
+        List<ProductionSuggestionItem> items = new ArrayList<>();
+        BigDecimal grandTotal = BigDecimal.ZERO;
+        for (int i = 0; i < quantities.length; i++) {
+            int product = order == null ? i : order[i];
+            if (quantities[product] <= 0) {
+                continue;
+            }
+            BigDecimal totalValue = snapshot.productValue(product).multiply(BigDecimal.valueOf(quantities[product]));
+            grandTotal = grandTotal.add(totalValue);
+            items.add(new ProductionSuggestionItem(snapshot.productId(product), snapshot.productName(product),
+                    quantities[product], totalValue));
+        }
+        return new ProductionSuggestionResponse(items, grandTotal);
+    }
+
+    // Mostly money-like, with equal values at different scales and the odd overflow.
+    private static BigDecimal value(Random random, boolean huge) {
+        return switch (random.nextInt(huge ? 5 : 4)) {
+            case 0 -> BigDecimal.valueOf(1 + random.nextInt(100_000), 2);
+            case 1 -> BigDecimal.valueOf(1 + random.nextInt(1000), random.nextInt(4));
+            case 2 -> BigDecimal.valueOf((1 + random.nextInt(50)) * 100L, 2).stripTrailingZeros();
+            case 3 -> BigDecimal.valueOf(Long.MAX_VALUE / (1 + random.nextInt(1000)), 2);
+            default -> new BigDecimal(BigInteger.valueOf(1 + random.nextInt(1000)).multiply(BigInteger.TEN.pow(20)), 2);
+        };
+    }
+
+    private static long units(Random random) {
+        return switch (random.nextInt(4)) {
+            case 0 -> random.nextInt(100_000) - 50_000;
+            case 1 -> random.nextLong() >> random.nextInt(64);
+            case 2 -> random.nextBoolean() ? Long.MAX_VALUE - random.nextInt(100) : Long.MIN_VALUE + random.nextInt(100);
+            default -> random.nextLong();
+        };
+    }
+
+    private static int scale(Random random) {
+        return random.nextInt(10) == 0 ? random.nextInt(50) - 25 : random.nextInt(5);
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.inventory.planning;
+
+import com.example.inventory.dto.BomLine;
+import com.example.inventory.dto.ProductSummary;
+import com.example.inventory.dto.RawMaterialSummary;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GreedyPlannerTest {
+
+    // Steel is what everything competes for; the table alone would use all of it.
+    private final BomSnapshot snapshot = BomSnapshot.compile(
+            List.of(new ProductSummary(1L, "Table", new BigDecimal("100.00")),
+                    new ProductSummary(2L, "Cabinet", new BigDecimal("60.00")),
+                    new ProductSummary(3L, "Shelf", new BigDecimal("59.00"))),
+            List.of(new RawMaterialSummary(10L, "Steel", 10),
+                    new RawMaterialSummary(20L, "Wood", 1000)),
+            List.of(new BomLine(1L, 10L, 10),
+                    new BomLine(2L, 10L, 1),
+                    new BomLine(2L, 20L, 50),
+                    new BomLine(3L, 10L, 1),
+                    new BomLine(3L, 20L, 1)));
+
+    @Test
+    void shouldServeProductsInPolicyOrder() {
+        assertEquals(List.of(1L), planned(RankingPolicy.VALUE));
+        // Cabinet and shelf both need one unit of steel; the cabinet is worth more.
+        assertEquals(List.of(2L), planned(RankingPolicy.SCARCE_MATERIAL));
+        // Counting its wood as well, the cabinet costs three times the shelf.
+        assertEquals(List.of(3L), planned(RankingPolicy.SCARCITY_WEIGHTED));
+    }
+
+    @Test
+    void shouldMatchThePlainGreedyLoopInValueOrder() {
+        Random random = new Random(11);
+        for (int round = 0; round < 50; round++) {
+            List<ProductSummary> products = new ArrayList<>();
+            List<RawMaterialSummary> materials = new ArrayList<>();
+            List<BomLine> lines = new ArrayList<>();
+            int materialCount = 1 + random.nextInt(6);
+            for (long m = 0; m < materialCount; m++) {
+                materials.add(new RawMaterialSummary(100 + m, "M" + m, random.nextInt(300)));
+            }
+            for (long p = 0; p < 1 + random.nextInt(30); p++) {
+                products.add(new ProductSummary(p, "P" + p, BigDecimal.valueOf(1 + random.nextInt(4) * 500, 2)));
+                for (int m = 0; m < materialCount; m++) {
+                    if (random.nextInt(3) == 0) {
+                        lines.add(new BomLine(p, 100L + m, 1 + random.nextInt(9)));
+                    }
+                }
+            }
+            BomSnapshot catalog = BomSnapshot.compile(products, materials, lines);
+
+            assertArrayEquals(plainGreedy(catalog), GreedyPlanner.plan(catalog, GreedyPlanner.rank(catalog, RankingPolicy.VALUE)));
+            for (RankingPolicy policy : RankingPolicy.values()) {
+                int[] order = GreedyPlanner.rank(catalog, policy);
+                if (order != null) {
+                    assertEquals(catalog.productCount(), Arrays.stream(order).distinct().count());
+                }
+            }
+        }
+    }
+
+    @Test
+    void shouldRepairPlansToWhatAFullPassGives() {
+        Random random = new Random(17);
+        int revisitedOnStockChanges = 0;
+        int productsOnStockChanges = 0;
+        for (int round = 0; round < 200; round++) {
+            List<ProductSummary> products = new ArrayList<>();
+            List<RawMaterialSummary> materials = new ArrayList<>();
+            List<BomLine> lines = new ArrayList<>();
+            for (long m = 0; m < 40; m++) {
+                materials.add(new RawMaterialSummary(100 + m, "M" + m, random.nextInt(500)));
+            }
+            for (long p = 0; p < 60; p++) {
+                products.add(new ProductSummary(p, "P" + p, BigDecimal.valueOf(100 + random.nextInt(50) * 100, 2)));
+                for (int l = 0; l < 1 + random.nextInt(3); l++) {
+                    lines.add(new BomLine(p, 100L + (p + l * 7) % 40, 1 + random.nextInt(9)));
+                }
+            }
+            BomSnapshot previous = BomSnapshot.compile(products, materials, lines);
+            int[] quantities = GreedyPlanner.plan(previous, null);
+
+            // One material moves; on even rounds the structure changes as well.
+            int moved = random.nextInt(materials.size());
+            RawMaterialSummary material = materials.get(moved);
+            materials.set(moved, new RawMaterialSummary(material.id(), material.name(), random.nextInt(500)));
+            boolean structureChanged = round % 2 == 0;
+            if (structureChanged) {
+                int changed = random.nextInt(products.size());
+                ProductSummary product = products.get(changed);
+                products.set(changed, new ProductSummary(product.id(), product.name(),
+                        BigDecimal.valueOf(100 + random.nextInt(50) * 100, 2)));
+                BomLine removed = lines.remove(random.nextInt(lines.size()));
+                lines.add(new BomLine(removed.productId(), removed.rawMaterialId(), 1 + random.nextInt(9)));
+                products.remove(random.nextInt(products.size()));
+                products.add(new ProductSummary(1000L + round, "New", BigDecimal.valueOf(100 + random.nextInt(50) * 100, 2)));
+                lines.add(new BomLine(1000L + round, 100L + random.nextInt(40), 1 + random.nextInt(9)));
+            }
+            BomSnapshot current = BomSnapshot.compile(products, materials, lines);
+
+            GreedyPlanner.Repair repair = GreedyPlanner.repair(previous, quantities, current, structureChanged);
+            assertArrayEquals(plainGreedy(current), repair.quantities());
+            if (!structureChanged) {
+                revisitedOnStockChanges += repair.revisited();
+                productsOnStockChanges += current.productCount();
+            }
+        }
+        // A single stock change leaves most decisions alone.
+        assertTrue(revisitedOnStockChanges < productsOnStockChanges / 2,
+                revisitedOnStockChanges + " of " + productsOnStockChanges + " revisited");
+    }
+
+    private List<Long> planned(RankingPolicy policy) {
+        int[] quantities = GreedyPlanner.plan(snapshot, GreedyPlanner.rank(snapshot, policy));
+        List<Long> ids = new ArrayList<>();
+        for (int p = 0; p < quantities.length; p++) {
+            if (quantities[p] > 0) {
+                ids.add(snapshot.productId(p));
+            }
+        }
+        return ids;
+    }
+
+    // Highest value first, each product as much as what is left allows.
+    private static int[] plainGreedy(BomSnapshot catalog) {
+        int[] stock = catalog.copyStock();
+        int[] quantities = new int[catalog.productCount()];
+        for (int p = 0; p < catalog.productCount(); p++) {
+            if (catalog.bomStart(p) == catalog.bomEnd(p)) {
+                continue;
+            }
+            int units = Integer.MAX_VALUE;
+            for (int e = catalog.bomStart(p); e < catalog.bomEnd(p); e++) {
+                units = Math.min(units, stock[catalog.edgeMaterial(e)] / catalog.edgeQuantity(e));
+            }
+            if (units <= 0) {
+                continue;
+            }
+            for (int e = catalog.bomStart(p); e < catalog.bomEnd(p); e++) {
+                stock[catalog.edgeMaterial(e)] -= units * catalog.edgeQuantity(e);
+            }
+            quantities[p] = units;
+        }
+        return quantities;
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.inventory.planning;
+
+import com.example.inventory.dto.BomLine;
+import com.example.inventory.dto.ProductSummary;
+import com.example.inventory.dto.RawMaterialSummary;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OptimalPlannerTest {
+
+    private final OptimalPlanner planner = new OptimalPlanner(Duration.ofSeconds(5));
+
+    @Test
+    void shouldBeatGreedyWhenExpensiveProductStarvesCheaperOnes() {
+        BomSnapshot snapshot = BomSnapshot.compile(
+                List.of(new ProductSummary(1L, "Premium Item", new BigDecimal("100.00")),
+                        new ProductSummary(2L, "Basic Item", new BigDecimal("30.00"))),
+                List.of(new RawMaterialSummary(1L, "Steel", 10)),
+                List.of(new BomLine(1L, 1L, 10), new BomLine(2L, 1L, 2)));
+
+        assertArrayEquals(new int[]{0, 5}, planner.plan(snapshot, PlanningStrategy.ILP));
+        assertArrayEquals(new int[]{0, 5}, planner.plan(snapshot, PlanningStrategy.LP));
+    }
+
+    @Test
+    void shouldFallBackToGreedyPlanWhenBudgetIsExhausted() {
+        BomSnapshot snapshot = BomSnapshot.compile(
+                List.of(new ProductSummary(1L, "Premium Item", new BigDecimal("100.00")),
+                        new ProductSummary(2L, "Basic Item", new BigDecimal("30.00"))),
+                List.of(new RawMaterialSummary(1L, "Steel", 10)),
+                List.of(new BomLine(1L, 1L, 10), new BomLine(2L, 1L, 2)));
+
+        int[] plan = new OptimalPlanner(Duration.ZERO).plan(snapshot, PlanningStrategy.ILP);
+
+        assertArrayEquals(new int[]{1, 0}, plan);
+    }
+
+    @Test
+    void shouldMatchExhaustiveSearchOnSmallCatalogs() {
+        Random random = new Random(42);
+        for (int round = 0; round < 200; round++) {
+            int productCount = 1 + random.nextInt(4);
+            int materialCount = 1 + random.nextInt(3);
+
+            List<ProductSummary> products = new ArrayList<>();
+            List<RawMaterialSummary> materials = new ArrayList<>();
+            List<BomLine> lines = new ArrayList<>();
+            for (long m = 1; m <= materialCount; m++) {
+                materials.add(new RawMaterialSummary(m, "M" + m, random.nextInt(25)));
+            }
+            for (long p = 1; p <= productCount; p++) {
+                products.add(new ProductSummary(p, "P" + p, BigDecimal.valueOf(1 + random.nextInt(5000), 2)));
+                for (long m = 1; m <= materialCount; m++) {
+                    if (m == 1 || random.nextBoolean()) {
+                        lines.add(new BomLine(p, m, 1 + random.nextInt(6)));
+                    }
+                }
+            }
+            BomSnapshot snapshot = BomSnapshot.compile(products, materials, lines);
+
+            int[] plan = planner.plan(snapshot, PlanningStrategy.ILP);
+
+            assertEquals(bruteForce(snapshot, 0, snapshot.copyStock()), value(snapshot, plan), 1e-6,
+                    "round " + round);
+        }
+    }
+
+    private static double bruteForce(BomSnapshot snapshot, int product, int[] stock) {
+        if (product == snapshot.productCount()) {
+            return 0;
+        }
+        double best = bruteForce(snapshot, product + 1, stock);
+        int units = 0;
+        while (true) {
+            for (int e = snapshot.bomStart(product); e < snapshot.bomEnd(product); e++) {
+                if (stock[snapshot.edgeMaterial(e)] < snapshot.edgeQuantity(e)) {
+                    restore(snapshot, product, stock, units);
+                    return best;
+                }
+            }
+            for (int e = snapshot.bomStart(product); e < snapshot.bomEnd(product); e++) {
+                stock[snapshot.edgeMaterial(e)] -= snapshot.edgeQuantity(e);
+            }
+            units++;
+            best = Math.max(best, units * snapshot.productValue(product).doubleValue()
+                    + bruteForce(snapshot, product + 1, stock));
+        }
+    }
+
+    private static void restore(BomSnapshot snapshot, int product, int[] stock, int units) {
+        for (int e = snapshot.bomStart(product); e < snapshot.bomEnd(product); e++) {
+            stock[snapshot.edgeMaterial(e)] += units * snapshot.edgeQuantity(e);
+        }
+    }
+
+    private static double value(BomSnapshot snapshot, int[] plan) {
+        int[] stock = snapshot.copyStock();
+        double total = 0;
+        for (int p = 0; p < plan.length; p++) {
+            for (int e = snapshot.bomStart(p); e < snapshot.bomEnd(p); e++) {
+                stock[snapshot.edgeMaterial(e)] -= plan[p] * snapshot.edgeQuantity(e);
+            }
+            total += plan[p] * snapshot.productValue(p).doubleValue();
+        }
+        for (int s : stock) {
+            assertTrue(s >= 0, "plan exceeds stock");
+        }
+        return total;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.inventory.planning;
+
+import com.example.inventory.dto.ProductionSuggestionResponse;
+import com.example.inventory.metrics.PlanningMetrics;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class SuggestionCacheTest {
+
+    @Test
+    void shouldReuseResponseUntilCatalogChanges() {
+        CatalogVersion catalogVersion = new CatalogVersion();
+        SuggestionCache cache = new SuggestionCache(catalogVersion, PlanningMetrics.detached());
+        AtomicInteger computations = new AtomicInteger();
+
+        ProductionSuggestionResponse first = cache.get("suggestions", () -> {
+            computations.incrementAndGet();
+            return new ProductionSuggestionResponse(List.of(), BigDecimal.ZERO);
+        });
+        ProductionSuggestionResponse second = cache.get("suggestions", () -> {
+            computations.incrementAndGet();
+            return new ProductionSuggestionResponse(List.of(), BigDecimal.ONE);
+        });
+
+        assertSame(first, second);
+        assertEquals(1, computations.get());
+
+        String eTag = catalogVersion.eTag();
+        catalogVersion.onCatalogChanged(new CatalogChangedEvent(CatalogChangedEvent.Kind.RAW_MATERIAL, 1L));
+
+        ProductionSuggestionResponse third = cache.get("suggestions", () -> {
+            computations.incrementAndGet();
+            return new ProductionSuggestionResponse(List.of(), BigDecimal.TEN);
+        });
+
+        assertEquals(BigDecimal.TEN, third.grandTotalValue());
+        assertEquals(2, computations.get());
+        assertNotEquals(eTag, catalogVersion.eTag());
+    }
+}
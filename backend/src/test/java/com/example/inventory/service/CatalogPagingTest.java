@@ -0,0 +1,133 @@
+package com.example.inventory.service;
+
+import com.example.inventory.dto.PageResponse;
+import com.example.inventory.dto.ProductListItem;
+import com.example.inventory.dto.ProductMaterialLine;
+import com.example.inventory.dto.ProductRequest;
+import com.example.inventory.dto.RawMaterialListItem;
+import com.example.inventory.model.Product;
+import com.example.inventory.model.ProductMaterial;
+import com.example.inventory.model.RawMaterial;
+import com.example.inventory.repository.ProductMaterialRepository;
+import com.example.inventory.repository.ProductRepository;
+import com.example.inventory.repository.RawMaterialRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest
+class CatalogPagingTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private RawMaterialService rawMaterialService;
+
+    @Autowired
+    private ProductMaterialService productMaterialService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private RawMaterialRepository rawMaterialRepository;
+
+    @Autowired
+    private ProductMaterialRepository productMaterialRepository;
+
+    @BeforeEach
+    void cleanUp() {
+        productMaterialRepository.deleteAll();
+        productRepository.deleteAll();
+        rawMaterialRepository.deleteAll();
+    }
+
+    @Test
+    void shouldWalkProductsWithCursorAndPrefix() {
+        for (String name : List.of("Chair", "Table", "Chair 100%", "Cabinet", "chair_b")) {
+            productService.create(new ProductRequest(name, new BigDecimal("10.00")));
+        }
+
+        List<String> names = new ArrayList<>();
+        Long cursor = null;
+        int pages = 0;
+        do {
+            PageResponse<ProductListItem> page = productService.page(cursor, 2, null, false);
+            page.items().forEach(item -> names.add(item.name()));
+            page.items().forEach(item -> assertNull(item.materials()));
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(List.of("Chair", "Table", "Chair 100%", "Cabinet", "chair_b"), names);
+        assertEquals(3, pages);
+
+        assertEquals(List.of("Chair", "Chair 100%", "chair_b"),
+                productService.page(null, 10, "CHAIR", false).items().stream().map(ProductListItem::name).toList());
+        assertEquals(List.of("Chair 100%"),
+                productService.page(null, 10, "chair 100%", false).items().stream().map(ProductListItem::name).toList());
+        assertEquals(List.of("chair_b"),
+                productService.page(null, 10, "chair_", false).items().stream().map(ProductListItem::name).toList());
+    }
+
+    @Test
+    void shouldIncludeBomLinesForThePage() {
+        RawMaterial steel = material("Steel", 10);
+        RawMaterial wood = material("Wood", 20);
+        Product table = product("Table");
+        Product chair = product("Chair");
+        Product lamp = product("Lamp");
+        line(table, steel, 2);
+        line(table, wood, 3);
+        line(chair, wood, 1);
+
+        PageResponse<ProductListItem> page = productService.page(null, 10, null, true);
+
+        assertEquals(3, page.items().size());
+        assertEquals(List.of("Steel", "Wood"),
+                page.items().get(0).materials().stream().map(ProductMaterialLine::rawMaterialName).toList());
+        assertEquals(1, page.items().get(1).materials().size());
+        assertEquals(List.of(), page.items().get(2).materials());
+        assertEquals(lamp.getId(), page.items().get(2).id());
+
+        PageResponse<ProductMaterialLine> lines = productMaterialService.page(table.getId(), null, 1);
+        assertEquals(steel.getId(), lines.items().get(0).rawMaterialId());
+        assertEquals(wood.getId(),
+                productMaterialService.page(table.getId(), lines.nextCursor(), 1).items().get(0).rawMaterialId());
+
+        PageResponse<RawMaterialListItem> materials = rawMaterialService.page(null, 5, "wo");
+        assertEquals(List.of(new RawMaterialListItem(wood.getId(), "Wood", 20, 0)), materials.items());
+        assertNull(materials.nextCursor());
+    }
+
+    private RawMaterial material(String name, int stock) {
+        RawMaterial material = new RawMaterial();
+        material.setName(name);
+        material.setStockQuantity(stock);
+        return rawMaterialRepository.save(material);
+    }
+
+    private Product product(String name) {
+        Product product = new Product();
+        product.setName(name);
+        product.setValue(new BigDecimal("10.00"));
+        return productRepository.save(product);
+    }
+
+    private void line(Product product, RawMaterial material, int quantity) {
+        ProductMaterial line = new ProductMaterial();
+        line.setProduct(product);
+        line.setRawMaterial(material);
+        line.setRequiredQuantity(quantity);
+        productMaterialRepository.save(line);
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.inventory.service;
+
+import com.example.inventory.dto.MaterialImpactResponse;
+import com.example.inventory.dto.ProductComponentRequest;
+import com.example.inventory.dto.ProductImpact;
+import com.example.inventory.dto.ProductMaterialRequest;
+import com.example.inventory.dto.ProductRequest;
+import com.example.inventory.dto.RawMaterialRequest;
+import com.example.inventory.model.Product;
+import com.example.inventory.model.RawMaterial;
+import com.example.inventory.repository.ProductComponentRepository;
+import com.example.inventory.repository.ProductMaterialRepository;
+import com.example.inventory.repository.ProductRepository;
+import com.example.inventory.repository.RawMaterialRepository;
+import com.example.inventory.service.stock.StockLedgerService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class ImpactServiceTest {
+
+    @Autowired
+    private ImpactService impactService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private RawMaterialService rawMaterialService;
+
+    @Autowired
+    private ProductMaterialService productMaterialService;
+
+    @Autowired
+    private ProductComponentService productComponentService;
+
+    @Autowired
+    private StockLedgerService stockLedgerService;
+
+    @Autowired
+    private ProductComponentRepository productComponentRepository;
+
+    @Autowired
+    private ProductMaterialRepository productMaterialRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private RawMaterialRepository rawMaterialRepository;
+
+    @BeforeEach
+    @AfterEach
+    void cleanUp() {
+        productComponentRepository.deleteAll();
+        productMaterialRepository.deleteAll();
+        productRepository.deleteAll();
+        rawMaterialRepository.deleteAll();
+    }
+
+    @Test
+    void shouldReportProductsUsingAMaterialDirectlyOrThroughComponents() {
+        RawMaterial wood = rawMaterialService.create(new RawMaterialRequest("Wood", 6));
+        RawMaterial steel = rawMaterialService.create(new RawMaterialRequest("Steel", 10));
+        RawMaterial bolt = rawMaterialService.create(new RawMaterialRequest("Bolt", 100));
+        Product chair = product("Chair");
+        Product table = product("Table");
+        Product set = product("Dining set");
+        productMaterialService.upsert(chair.getId(), new ProductMaterialRequest(wood.getId(), 2));
+        productMaterialService.upsert(chair.getId(), new ProductMaterialRequest(bolt.getId(), 4));
+        productMaterialService.upsert(table.getId(), new ProductMaterialRequest(steel.getId(), 5));
+        productMaterialService.upsert(table.getId(), new ProductMaterialRequest(bolt.getId(), 8));
+        productMaterialService.upsert(set.getId(), new ProductMaterialRequest(bolt.getId(), 1));
+        productComponentService.upsert(set.getId(), new ProductComponentRequest(chair.getId(), 2));
+        productComponentService.upsert(set.getId(), new ProductComponentRequest(table.getId(), 1));
+
+        // Set per unit: 4 wood, 5 steel, 17 bolts.
+        assertEquals(List.of(
+                        new ProductImpact(chair.getId(), "Chair", 2, 3, 3),
+                        new ProductImpact(set.getId(), "Dining set", 4, 1, 1)),
+                impactService.impact(wood.getId(), 0).items());
+
+        stockLedgerService.receive(wood.getId(), 6);
+        MaterialImpactResponse afterReceipt = impactService.impact(wood.getId(), 6);
+        assertEquals(12, afterReceipt.availableQuantity());
+        assertEquals(List.of(
+                        new ProductImpact(chair.getId(), "Chair", 2, 6, 3),
+                        new ProductImpact(set.getId(), "Dining set", 4, 2, 1)),
+                afterReceipt.items());
+
+        assertEquals(List.of(chair.getId(), table.getId(), set.getId()),
+                impactService.impact(bolt.getId(), 0).items().stream().map(ProductImpact::productId).toList());
+
+        // A BOM change rebuilds the index.
+        productMaterialService.upsert(table.getId(), new ProductMaterialRequest(wood.getId(), 3));
+        assertEquals(List.of(
+                        new ProductImpact(chair.getId(), "Chair", 2, 6, 6),
+                        new ProductImpact(table.getId(), "Table", 3, 2, 2),
+                        new ProductImpact(set.getId(), "Dining set", 7, 1, 1)),
+                impactService.impact(wood.getId(), 0).items());
+
+        assertThrows(IllegalArgumentException.class, () -> impactService.impact(-1L, 0));
+    }
+
+    private Product product(String name) {
+        return productService.create(new ProductRequest(name, new BigDecimal("10.00")));
+    }
+}
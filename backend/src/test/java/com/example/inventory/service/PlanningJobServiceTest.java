@@ -0,0 +1,87 @@
+package com.example.inventory.service;
+
+import com.example.inventory.dto.PlanningJobResponse;
+import com.example.inventory.dto.ProductionSuggestionResponse;
+import com.example.inventory.planning.CatalogVersion;
+import com.example.inventory.planning.PlanningStrategy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PlanningJobServiceTest {
+
+    private final ProductionPlanningService planningService = mock(ProductionPlanningService.class);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final PlanningJobService service = new PlanningJobService(planningService, new CatalogVersion(), 1, 1, 10);
+
+    PlanningJobServiceTest() {
+        when(planningService.suggestProduction(any(PlanningStrategy.class))).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return new ProductionSuggestionResponse(List.of(), BigDecimal.TEN);
+        });
+    }
+
+    @AfterEach
+    void shutdown() {
+        release.countDown();
+        service.shutdown();
+    }
+
+    @Test
+    void shouldCoalesceIdenticalJobsAndRejectWhenFull() throws Exception {
+        PlanningJobResponse greedy = service.submit(PlanningStrategy.GREEDY);
+        assertEquals(greedy.id(), service.submit(PlanningStrategy.GREEDY).id());
+
+        PlanningJobResponse lp = service.submit(PlanningStrategy.LP);
+        assertNotEquals(greedy.id(), lp.id());
+        assertThrows(PlanningQueueFullException.class, () -> service.submit(PlanningStrategy.ILP));
+
+        release.countDown();
+        PlanningJobResponse done = await(lp.id());
+        assertEquals(PlanningJobResponse.Status.SUCCEEDED, done.status());
+        assertEquals(BigDecimal.TEN, done.result().grandTotalValue());
+        assertNotNull(done.completedAt());
+        assertEquals(PlanningJobResponse.Status.SUCCEEDED, service.find(greedy.id()).status());
+        verify(planningService, times(1)).suggestProduction(PlanningStrategy.GREEDY);
+
+        assertThrows(IllegalArgumentException.class, () -> service.find("missing"));
+    }
+
+    @Test
+    void shouldFailTheJobWhenPlanningThrowsAnError() throws Exception {
+        when(planningService.suggestProduction(PlanningStrategy.LP)).thenThrow(new StackOverflowError());
+
+        PlanningJobResponse failed = await(service.submit(PlanningStrategy.LP).id());
+        assertEquals(PlanningJobResponse.Status.FAILED, failed.status());
+        assertEquals("StackOverflowError", failed.error());
+        assertNotNull(failed.completedAt());
+
+        release.countDown();
+        assertEquals(PlanningJobResponse.Status.SUCCEEDED, await(service.submit(PlanningStrategy.GREEDY).id()).status());
+    }
+
+    private PlanningJobResponse await(String id) throws InterruptedException {
+        for (int attempt = 0; attempt < 500; attempt++) {
+            PlanningJobResponse job = service.find(id);
+            if (job.status() == PlanningJobResponse.Status.SUCCEEDED || job.status() == PlanningJobResponse.Status.FAILED) {
+                return job;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Job " + id + " did not finish");
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.inventory.service;
+
+import com.example.inventory.dto.BomLine;
+import com.example.inventory.dto.ProductComponentRequest;
+import com.example.inventory.dto.ProductMaterialRequest;
+import com.example.inventory.dto.ProductRequest;
+import com.example.inventory.dto.ProductionExecutionRequest;
+import com.example.inventory.dto.ProductionSuggestionItem;
+import com.example.inventory.dto.ProductionSuggestionResponse;
+import com.example.inventory.dto.RawMaterialRequest;
+import com.example.inventory.model.Product;
+import com.example.inventory.model.RawMaterial;
+import com.example.inventory.repository.ProductComponentRepository;
+import com.example.inventory.repository.ProductMaterialRepository;
+import com.example.inventory.repository.ProductRepository;
+import com.example.inventory.repository.RawMaterialRepository;
+import com.example.inventory.service.stock.StockLedgerService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class ProductComponentServiceTest {
+
+    @Autowired
+    private ProductComponentService productComponentService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private RawMaterialService rawMaterialService;
+
+    @Autowired
+    private ProductMaterialService productMaterialService;
+
+    @Autowired
+    private ProductionPlanningService productionPlanningService;
+
+    @Autowired
+    private ProductionStreamService productionStreamService;
+
+    @Autowired
+    private StockLedgerService stockLedgerService;
+
+    @Autowired
+    private ProductComponentRepository productComponentRepository;
+
+    @Autowired
+    private ProductMaterialRepository productMaterialRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private RawMaterialRepository rawMaterialRepository;
+
+    // Other suites do not know about component links, so leave none behind.
+    @BeforeEach
+    @AfterEach
+    void cleanUp() {
+        productComponentRepository.deleteAll();
+        productMaterialRepository.deleteAll();
+        productRepository.deleteAll();
+        rawMaterialRepository.deleteAll();
+    }
+
+    @Test
+    void shouldPlanAndExecuteAssembliesOnFlattenedRequirements() throws Exception {
+        RawMaterial wood = rawMaterialService.create(new RawMaterialRequest("Wood", 30));
+        RawMaterial screw = rawMaterialService.create(new RawMaterialRequest("Screw", 40));
+        Product table = productService.create(new ProductRequest("Table", new BigDecimal("100.00")));
+        Product leg = productService.create(new ProductRequest("Leg", new BigDecimal("10.00")));
+        productMaterialService.upsert(table.getId(), new ProductMaterialRequest(screw.getId(), 8));
+        productMaterialService.upsert(leg.getId(), new ProductMaterialRequest(wood.getId(), 2));
+        productMaterialService.upsert(leg.getId(), new ProductMaterialRequest(screw.getId(), 2));
+        productComponentService.upsert(table.getId(), new ProductComponentRequest(leg.getId(), 4));
+
+        assertEquals(List.of(new BomLine(table.getId(), wood.getId(), 8), new BomLine(table.getId(), screw.getId(), 16)),
+                productComponentService.requirements(table.getId()));
+
+        // Table: min(30 / 8, 40 / 16) = 2, leaving 14 wood and 8 screws for 4 legs.
+        ProductionSuggestionResponse plan = productionPlanningService.suggestProduction();
+        assertEquals(List.of(2, 4), plan.items().stream().map(ProductionSuggestionItem::producibleQuantity).toList());
+        assertEquals(new BigDecimal("240.00"), plan.grandTotalValue());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        productionStreamService.writeSuggestion(out);
+        assertTrue(out.toString(StandardCharsets.UTF_8).contains("\"grandTotalValue\":240.00"));
+
+        stockLedgerService.execute(new ProductionExecutionRequest(table.getId(), 1));
+        assertEquals(22, rawMaterialRepository.findById(wood.getId()).orElseThrow().getStockQuantity());
+        assertEquals(24, rawMaterialRepository.findById(screw.getId()).orElseThrow().getStockQuantity());
+    }
+
+    @Test
+    void shouldRejectLinksThatCloseACycle() {
+        Product table = productService.create(new ProductRequest("Table", new BigDecimal("100.00")));
+        Product top = productService.create(new ProductRequest("Top", new BigDecimal("30.00")));
+        Product board = productService.create(new ProductRequest("Board", new BigDecimal("5.00")));
+        productComponentService.upsert(table.getId(), new ProductComponentRequest(top.getId(), 1));
+        productComponentService.upsert(top.getId(), new ProductComponentRequest(board.getId(), 3));
+
+        assertThrows(ConflictException.class,
+                () -> productComponentService.upsert(board.getId(), new ProductComponentRequest(table.getId(), 1)));
+        assertThrows(ConflictException.class,
+                () -> productComponentService.upsert(top.getId(), new ProductComponentRequest(top.getId(), 1)));
+        assertEquals(2, productComponentRepository.count());
+
+        productComponentService.upsert(top.getId(), new ProductComponentRequest(board.getId(), 4));
+        assertEquals(4, productComponentService.findByProductId(top.getId()).get(0).requiredQuantity());
+
+        productService.delete(top.getId());
+        assertEquals(0, productComponentRepository.count());
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.inventory.service;
+
+import com.example.inventory.dto.ProductMaterialLine;
+import com.example.inventory.dto.ProductMaterialRequest;
+import com.example.inventory.dto.ProductRecipeRequest;
+import com.example.inventory.dto.ProductRecipeResponse;
+import com.example.inventory.dto.ProductRequest;
+import com.example.inventory.dto.RawMaterialRequest;
+import com.example.inventory.model.Product;
+import com.example.inventory.model.RawMaterial;
+import com.example.inventory.planning.CatalogVersion;
+import com.example.inventory.repository.ProductMaterialRepository;
+import com.example.inventory.repository.ProductRepository;
+import com.example.inventory.repository.RawMaterialRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class ProductMaterialServiceTest {
+
+    @Autowired
+    private ProductMaterialService productMaterialService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private RawMaterialService rawMaterialService;
+
+    @Autowired
+    private ProductionPlanningService productionPlanningService;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private ProductMaterialRepository productMaterialRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private RawMaterialRepository rawMaterialRepository;
+
+    private RawMaterial steel;
+    private RawMaterial wood;
+    private RawMaterial glue;
+    private Product table;
+
+    @BeforeEach
+    void setUp() {
+        productMaterialRepository.deleteAll();
+        productRepository.deleteAll();
+        rawMaterialRepository.deleteAll();
+        steel = rawMaterialService.create(new RawMaterialRequest("Steel", 100));
+        wood = rawMaterialService.create(new RawMaterialRequest("Wood", 100));
+        glue = rawMaterialService.create(new RawMaterialRequest("Glue", 100));
+        table = productService.create(new ProductRequest("Table", new BigDecimal("100.00")));
+        productMaterialService.upsert(table.getId(), new ProductMaterialRequest(steel.getId(), 10));
+        productMaterialService.upsert(table.getId(), new ProductMaterialRequest(wood.getId(), 20));
+    }
+
+    @Test
+    void shouldWriteOnlyTheDifferences() {
+        assertEquals(5, productionPlanningService.suggestProduction().items().get(0).producibleQuantity());
+
+        ProductRecipeResponse response = productMaterialService.replaceMaterials(table.getId(), recipe(
+                steel, 10, wood, 50, glue, 1), false);
+        assertEquals(List.of(1, 1, 0), List.of(response.inserted(), response.updated(), response.deleted()));
+        assertEquals(Map.of(steel.getId(), 10, wood.getId(), 50, glue.getId(), 1), quantities(response.materials()));
+        assertEquals(2, productionPlanningService.suggestProduction().items().get(0).producibleQuantity());
+
+        response = productMaterialService.replaceMaterials(table.getId(), recipe(glue, 4), false);
+        assertEquals(List.of(0, 1, 2), List.of(response.inserted(), response.updated(), response.deleted()));
+        assertEquals(Map.of(glue.getId(), 4), quantities(productMaterialRepository
+                .findDetailedLinesByProductIds(List.of(table.getId()))));
+        assertEquals(25, productionPlanningService.suggestProduction().items().get(0).producibleQuantity());
+    }
+
+    @Test
+    void shouldMergeAndLeaveTheCatalogAloneWhenNothingChanges() {
+        long version = catalogVersion.current();
+        ProductRecipeResponse response = productMaterialService.replaceMaterials(table.getId(), recipe(steel, 10), true);
+        assertEquals(List.of(0, 0, 0), List.of(response.inserted(), response.updated(), response.deleted()));
+        assertEquals(2, response.materials().size());
+        assertEquals(version, catalogVersion.current());
+
+        response = productMaterialService.replaceMaterials(table.getId(), recipe(glue, 2, glue, 3), true);
+        assertEquals(List.of(1, 0, 0), List.of(response.inserted(), response.updated(), response.deleted()));
+        assertEquals(Map.of(steel.getId(), 10, wood.getId(), 20, glue.getId(), 3), quantities(response.materials()));
+        assertEquals(version + 1, catalogVersion.current());
+    }
+
+    @Test
+    void shouldRejectUnknownIdsWithoutWritingAnything() {
+        assertThrows(IllegalArgumentException.class,
+                () -> productMaterialService.replaceMaterials(-1L, recipe(glue, 1), false));
+
+        rawMaterialService.delete(glue.getId());
+        assertThrows(IllegalArgumentException.class,
+                () -> productMaterialService.replaceMaterials(table.getId(), recipe(steel, 1, glue, 1), false));
+        assertEquals(Map.of(steel.getId(), 10, wood.getId(), 20), quantities(productMaterialRepository
+                .findDetailedLinesByProductIds(List.of(table.getId()))));
+    }
+
+    // Pairs of material and quantity.
+    private static ProductRecipeRequest recipe(Object... pairs) {
+        List<ProductMaterialRequest> lines = new ArrayList<>();
+        for (int i = 0; i < pairs.length; i += 2) {
+            lines.add(new ProductMaterialRequest(((RawMaterial) pairs[i]).getId(), (Integer) pairs[i + 1]));
+        }
+        return new ProductRecipeRequest(lines);
+    }
+
+    private static Map<Long, Integer> quantities(List<ProductMaterialLine> lines) {
+        return lines.stream().collect(Collectors.toMap(ProductMaterialLine::rawMaterialId, ProductMaterialLine::requiredQuantity));
+    }
+}
@@ -1,14 +1,24 @@
 package com.example.inventory.service;
 
+import com.example.inventory.dto.BomLine;
+import com.example.inventory.dto.ProductSummary;
 import com.example.inventory.dto.ProductionSuggestionResponse;
-import com.example.inventory.model.Product;
-import com.example.inventory.model.ProductMaterial;
-import com.example.inventory.model.RawMaterial;
+import com.example.inventory.dto.RawMaterialSummary;
+import com.example.inventory.metrics.PlanningMetrics;
+import com.example.inventory.planning.BomExplosionCache;
+import com.example.inventory.planning.BomSnapshotLoader;
+import com.example.inventory.planning.CatalogVersion;
+import com.example.inventory.planning.OptimalPlanner;
+import com.example.inventory.planning.SuggestionCache;
+import com.example.inventory.repository.ProductComponentRepository;
+import com.example.inventory.repository.ProductMaterialRepository;
 import com.example.inventory.repository.ProductRepository;
 import com.example.inventory.repository.RawMaterialRepository;
+import com.example.inventory.service.stock.StockJournal;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -21,39 +31,28 @@ class ProductionPlanningServiceTest {
     void shouldPrioritizeHigherValueProducts() {
         ProductRepository productRepository = mock(ProductRepository.class);
         RawMaterialRepository rawMaterialRepository = mock(RawMaterialRepository.class);
+        ProductMaterialRepository productMaterialRepository = mock(ProductMaterialRepository.class);
 
-        RawMaterial steel = new RawMaterial();
-        steel.setId(1L);
-        steel.setName("Steel");
-        steel.setStockQuantity(10);
+        RawMaterialSummary steel = new RawMaterialSummary(1L, "Steel", 10);
 
-        Product highValue = new Product();
-        highValue.setId(1L);
-        highValue.setName("Premium Item");
-        highValue.setValue(new BigDecimal("100.00"));
+        ProductSummary highValue = new ProductSummary(1L, "Premium Item", new BigDecimal("100.00"));
+        ProductSummary lowValue = new ProductSummary(2L, "Basic Item", new BigDecimal("40.00"));
 
-        Product lowValue = new Product();
-        lowValue.setId(2L);
-        lowValue.setName("Basic Item");
-        lowValue.setValue(new BigDecimal("40.00"));
+        BomLine pm1 = new BomLine(highValue.id(), steel.id(), 5);
+        BomLine pm2 = new BomLine(lowValue.id(), steel.id(), 2);
 
-        ProductMaterial pm1 = new ProductMaterial();
-        pm1.setProduct(highValue);
-        pm1.setRawMaterial(steel);
-        pm1.setRequiredQuantity(5);
+        when(rawMaterialRepository.findAllSummaries()).thenReturn(List.of(steel));
+        when(productRepository.findAllSummaries()).thenReturn(List.of(lowValue, highValue));
+        when(productMaterialRepository.findAllLines()).thenReturn(List.of(pm2, pm1));
 
-        ProductMaterial pm2 = new ProductMaterial();
-        pm2.setProduct(lowValue);
-        pm2.setRawMaterial(steel);
-        pm2.setRequiredQuantity(2);
-
-        highValue.setMaterials(List.of(pm1));
-        lowValue.setMaterials(List.of(pm2));
-
-        when(rawMaterialRepository.findAll()).thenReturn(List.of(steel));
-        when(productRepository.findAll()).thenReturn(List.of(lowValue, highValue));
-
-        ProductionPlanningService service = new ProductionPlanningService(productRepository, rawMaterialRepository);
+        PlanningMetrics metrics = PlanningMetrics.detached();
+        BomExplosionCache explosions = new BomExplosionCache(mock(ProductComponentRepository.class), productMaterialRepository,
+                new CatalogVersion(), metrics);
+        BomSnapshotLoader loader = new BomSnapshotLoader(productRepository, rawMaterialRepository, productMaterialRepository,
+                explosions, metrics, new CatalogVersion());
+        ProductionPlanningService service = new ProductionPlanningService(loader,
+                new SuggestionCache(new CatalogVersion(), metrics), new OptimalPlanner(Duration.ofSeconds(1)), metrics,
+                mock(StockJournal.class));
         ProductionSuggestionResponse result = service.suggestProduction();
 
         assertEquals(1, result.items().size());
@@ -0,0 +1,95 @@
+package com.example.inventory.service;
+
+import com.example.inventory.dto.ProductionSuggestionItem;
+import com.example.inventory.dto.ProductionSuggestionResponse;
+import com.example.inventory.model.Product;
+import com.example.inventory.model.ProductMaterial;
+import com.example.inventory.model.RawMaterial;
+import com.example.inventory.repository.ProductMaterialRepository;
+import com.example.inventory.repository.ProductRepository;
+import com.example.inventory.repository.RawMaterialRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class ProductionStreamServiceTest {
+
+    @Autowired
+    private ProductionStreamService productionStreamService;
+
+    @Autowired
+    private ProductionPlanningService productionPlanningService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private RawMaterialRepository rawMaterialRepository;
+
+    @Autowired
+    private ProductMaterialRepository productMaterialRepository;
+
+    @BeforeEach
+    void cleanUp() {
+        productMaterialRepository.deleteAll();
+        productRepository.deleteAll();
+        rawMaterialRepository.deleteAll();
+    }
+
+    @Test
+    void shouldStreamTheSamePlanAsTheBufferedSuggestion() throws Exception {
+        Random random = new Random(7);
+        List<RawMaterial> materials = new ArrayList<>();
+        for (int m = 0; m < 8; m++) {
+            RawMaterial material = new RawMaterial();
+            material.setName("Material " + m);
+            material.setStockQuantity(random.nextInt(200));
+            materials.add(rawMaterialRepository.save(material));
+        }
+        for (int p = 0; p < 40; p++) {
+            Product product = new Product();
+            product.setName("Product " + p);
+            // Few distinct values, so the id tie-break matters.
+            product.setValue(BigDecimal.valueOf(1 + random.nextInt(5) * 250, 2));
+            productRepository.save(product);
+            int lines = random.nextInt(4);
+            for (int l = 0; l < lines; l++) {
+                ProductMaterial line = new ProductMaterial();
+                line.setProduct(product);
+                line.setRawMaterial(materials.get((p + l * 3) % materials.size()));
+                line.setRequiredQuantity(1 + random.nextInt(9));
+                productMaterialRepository.save(line);
+            }
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        productionStreamService.writeSuggestion(out);
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+
+        // Values are compared as written, scale included.
+        List<String> expectedLines = new ArrayList<>();
+        ProductionSuggestionResponse expected = productionPlanningService.suggestProduction();
+        for (ProductionSuggestionItem item : expected.items()) {
+            expectedLines.add("{\"type\":\"item\",\"productId\":" + item.productId()
+                    + ",\"productName\":\"" + item.productName()
+                    + "\",\"producibleQuantity\":" + item.producibleQuantity()
+                    + ",\"totalValue\":" + item.totalValue() + "}");
+        }
+        expectedLines.add("{\"type\":\"total\",\"itemCount\":" + expected.items().size()
+                + ",\"grandTotalValue\":" + expected.grandTotalValue() + "}");
+
+        assertEquals(expectedLines, lines);
+        assertEquals(9, expected.items().size());
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.inventory.service;
+
+import com.example.inventory.dto.RawMaterialMatch;
+import com.example.inventory.dto.RawMaterialRequest;
+import com.example.inventory.model.RawMaterial;
+import com.example.inventory.planning.CatalogVersion;
+import com.example.inventory.repository.ProductMaterialRepository;
+import com.example.inventory.repository.ProductRepository;
+import com.example.inventory.repository.RawMaterialRepository;
+import com.example.inventory.repository.StockReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class RawMaterialServiceTest {
+
+    @Autowired
+    private RawMaterialService rawMaterialService;
+
+    @Autowired
+    private RawMaterialRepository rawMaterialRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductMaterialRepository productMaterialRepository;
+
+    @Autowired
+    private StockReservationRepository stockReservationRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @BeforeEach
+    void cleanUp() {
+        stockReservationRepository.deleteAll();
+        productMaterialRepository.deleteAll();
+        productRepository.deleteAll();
+        rawMaterialRepository.deleteAll();
+    }
+
+    @Test
+    void shouldMergeConcurrentCreatesOfTheSameName() throws Exception {
+        List<String> spellings = List.of("Steel", "STEEL", " steel ", "sTeel");
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<RawMaterial>> results = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                String name = spellings.get(i % spellings.size());
+                results.add(executor.submit(() -> rawMaterialService.create(new RawMaterialRequest(name, 5))));
+            }
+            for (Future<RawMaterial> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        List<RawMaterial> materials = rawMaterialRepository.findAll();
+        assertEquals(1, materials.size());
+        assertEquals(200, materials.get(0).getStockQuantity());
+        assertEquals("steel", materials.get(0).getNormalizedName());
+    }
+
+    @Test
+    void shouldRejectStockOverflowAndDuplicateRenames() {
+        RawMaterial steel = rawMaterialService.create(new RawMaterialRequest("Steel", Integer.MAX_VALUE - 1));
+        RawMaterial wood = rawMaterialService.create(new RawMaterialRequest("Wood", 1));
+
+        assertThrows(ConflictException.class,
+                () -> rawMaterialService.create(new RawMaterialRequest("steel", 2)));
+        assertEquals(Integer.MAX_VALUE - 1, rawMaterialService.findById(steel.getId()).getStockQuantity());
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> rawMaterialService.update(wood.getId(), new RawMaterialRequest("STEEL", 1)));
+    }
+
+    @Test
+    void shouldRankPrefixMatchesBeforeFuzzyOnes() {
+        for (String name : List.of("Steel sheet", "Stainless steel", "Steel", "Wood", "Stele", "100% cotton")) {
+            rawMaterialService.create(new RawMaterialRequest(name, 1));
+        }
+
+        List<String> names = rawMaterialService.search("steel", null).stream().map(RawMaterialMatch::name).toList();
+        assertEquals(List.of("Steel", "Steel sheet"), names.subList(0, 2));
+        assertTrue(names.contains("Stainless steel"));
+        assertTrue(!names.contains("Wood"));
+
+        assertEquals(List.of("Stainless steel"),
+                rawMaterialService.search("stainles stel", 5).stream().map(RawMaterialMatch::name).toList());
+        assertEquals(List.of("100% cotton"),
+                rawMaterialService.search("100%", 5).stream().map(RawMaterialMatch::name).toList());
+        assertEquals(1, rawMaterialService.search("STEEL", 1).size());
+        assertEquals(List.of(), rawMaterialService.search("  ", null));
+    }
+
+    @Test
+    void shouldLeaveTheCatalogVersionAloneWhenDeletingUnknownIds() {
+        RawMaterial steel = rawMaterialService.create(new RawMaterialRequest("Steel", 3));
+        long version = catalogVersion.current();
+
+        rawMaterialService.delete(steel.getId() + 1000);
+        productService.delete(Long.MAX_VALUE);
+        assertEquals(version, catalogVersion.current());
+
+        rawMaterialService.delete(steel.getId());
+        assertEquals(version + 1, catalogVersion.current());
+    }
+}
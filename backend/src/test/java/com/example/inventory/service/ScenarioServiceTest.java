@@ -0,0 +1,106 @@
+package com.example.inventory.service;
+
+import com.example.inventory.dto.BomLine;
+import com.example.inventory.dto.ProductSummary;
+import com.example.inventory.dto.RawMaterialSummary;
+import com.example.inventory.dto.ScenarioRequest;
+import com.example.inventory.dto.ScenarioResponse;
+import com.example.inventory.metrics.PlanningMetrics;
+import com.example.inventory.planning.BomExplosionCache;
+import com.example.inventory.planning.BomSnapshotLoader;
+import com.example.inventory.planning.CatalogVersion;
+import com.example.inventory.planning.OptimalPlanner;
+import com.example.inventory.planning.PlanningStrategy;
+import com.example.inventory.planning.SuggestionCache;
+import com.example.inventory.repository.ProductComponentRepository;
+import com.example.inventory.repository.ProductMaterialRepository;
+import com.example.inventory.repository.ProductRepository;
+import com.example.inventory.repository.RawMaterialRepository;
+import com.example.inventory.service.stock.StockJournal;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ScenarioServiceTest {
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final RawMaterialRepository rawMaterialRepository = mock(RawMaterialRepository.class);
+    private final ProductMaterialRepository productMaterialRepository = mock(ProductMaterialRepository.class);
+
+    private final ScenarioService service;
+
+    ScenarioServiceTest() {
+        when(rawMaterialRepository.findAllSummaries()).thenReturn(List.of(
+                new RawMaterialSummary(1L, "Steel", 10),
+                new RawMaterialSummary(2L, "Wood", 6)));
+        when(productRepository.findAllSummaries()).thenReturn(List.of(
+                new ProductSummary(1L, "Premium Item", new BigDecimal("100.00")),
+                new ProductSummary(2L, "Basic Item", new BigDecimal("40.00"))));
+        when(productMaterialRepository.findAllLines()).thenReturn(List.of(
+                new BomLine(1L, 1L, 5),
+                new BomLine(2L, 1L, 2)));
+
+        PlanningMetrics metrics = PlanningMetrics.detached();
+        BomExplosionCache explosions = new BomExplosionCache(mock(ProductComponentRepository.class), productMaterialRepository,
+                new CatalogVersion(), metrics);
+        BomSnapshotLoader loader = new BomSnapshotLoader(productRepository, rawMaterialRepository, productMaterialRepository,
+                explosions, metrics, new CatalogVersion());
+        ProductionPlanningService planningService = new ProductionPlanningService(loader,
+                new SuggestionCache(new CatalogVersion(), metrics), new OptimalPlanner(Duration.ofSeconds(1)), metrics,
+                mock(StockJournal.class));
+        service = new ScenarioService(planningService, 2);
+    }
+
+    @Test
+    void shouldPlanEveryScenarioAgainstOneLoadedCatalog() {
+        ScenarioResponse response = service.evaluate(new ScenarioRequest(List.of(
+                new ScenarioRequest.Scenario("more steel",
+                        List.of(new ScenarioRequest.StockChange(1L, 5)), null, null),
+                new ScenarioRequest.Scenario("premium discount", null,
+                        List.of(new ScenarioRequest.PriceChange(1L, null, new BigDecimal("0.3"))), null),
+                new ScenarioRequest.Scenario("wood in basic", null, null,
+                        List.of(new ScenarioRequest.BomChange(2L, 2L, 3))))),
+                PlanningStrategy.GREEDY);
+
+        // Baseline: 2 premium (10 steel), nothing left for basic.
+        assertEquals(new BigDecimal("200.00"), response.baseline().grandTotalValue());
+
+        ScenarioResponse.Result moreSteel = response.scenarios().get(0);
+        assertEquals(new BigDecimal("300.00"), moreSteel.plan().grandTotalValue());
+        assertEquals(new BigDecimal("100.00"), moreSteel.grandTotalDelta());
+        assertEquals(List.of(new ScenarioResponse.ItemDelta(1L, "Premium Item", 2, 3, new BigDecimal("100.00"))),
+                moreSteel.changes());
+
+        // Premium drops to 30.00, so basic (40.00) goes first and takes all the steel.
+        ScenarioResponse.Result discount = response.scenarios().get(1);
+        assertEquals("Basic Item", discount.plan().items().get(0).productName());
+        assertEquals(5, discount.plan().items().get(0).producibleQuantity());
+        assertEquals(new BigDecimal("200.00"), discount.plan().grandTotalValue());
+        assertEquals(List.of(
+                new ScenarioResponse.ItemDelta(1L, "Premium Item", 2, 0, new BigDecimal("-200.00")),
+                new ScenarioResponse.ItemDelta(2L, "Basic Item", 0, 5, new BigDecimal("200.00"))),
+                discount.changes());
+
+        // The added wood line does not change the baseline plan.
+        assertEquals(List.of(), response.scenarios().get(2).changes());
+
+        verify(productRepository, times(1)).findAllSummaries();
+    }
+
+    @Test
+    void shouldRejectUnknownIdsBeforePlanning() {
+        ScenarioRequest request = new ScenarioRequest(List.of(new ScenarioRequest.Scenario(null,
+                List.of(new ScenarioRequest.StockChange(99L, 5)), null, null)));
+
+        assertThrows(IllegalArgumentException.class, () -> service.evaluate(request, PlanningStrategy.GREEDY));
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.inventory.service;
+
+import com.example.inventory.dto.ProductionSuggestionItem;
+import com.example.inventory.dto.ProductionSuggestionResponse;
+import com.example.inventory.model.Product;
+import com.example.inventory.model.ProductMaterial;
+import com.example.inventory.model.RawMaterial;
+import com.example.inventory.planning.CatalogChangedEvent;
+import com.example.inventory.planning.CatalogVersion;
+import com.example.inventory.planning.PlanningStrategy;
+import com.example.inventory.planning.RankingPolicy;
+import com.example.inventory.repository.ProductMaterialRepository;
+import com.example.inventory.repository.ProductRepository;
+import com.example.inventory.repository.RawMaterialRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Every suggestion endpoint answers from the same engine, so for a given ranking they must
+ * agree item for item.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class SuggestionParityTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProductionPlanningService productionPlanningService;
+
+    @Autowired
+    private ProductionStreamService productionStreamService;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private RawMaterialRepository rawMaterialRepository;
+
+    @Autowired
+    private ProductMaterialRepository productMaterialRepository;
+
+    @BeforeEach
+    void cleanUp() {
+        productMaterialRepository.deleteAll();
+        productRepository.deleteAll();
+        rawMaterialRepository.deleteAll();
+    }
+
+    @Test
+    void shouldAnswerTheSamePlanOnEveryEndpoint() throws Exception {
+        seed(new Random(3));
+
+        List<ProductionSuggestionResponse> plans = new ArrayList<>();
+        for (RankingPolicy ranking : RankingPolicy.values()) {
+            String parameter = ranking.name().toLowerCase(Locale.ROOT);
+            ProductionSuggestionResponse single = fetch("/api/production/suggestion?ranking=" + parameter);
+            ProductionSuggestionResponse plural = fetch("/api/production/suggestions?strategy=greedy&ranking=" + parameter);
+
+            assertEquals(single, plural);
+            assertEquals(single, productionPlanningService.plan(productionPlanningService.loadSnapshot(),
+                    PlanningStrategy.GREEDY, ranking));
+            assertEquals(single, streamed(ranking));
+            assertEquals(single, streamed("/api/production/suggestion/stream?ranking=" + parameter));
+            plans.add(single);
+        }
+        assertEquals(plans.get(0), fetch("/api/production/suggestion"));
+        assertEquals(plans.get(0), streamed("/api/production/suggestion/stream"));
+        // The catalog is contended enough for the rankings to disagree.
+        assertNotEquals(plans.get(0).items(), plans.get(2).items());
+
+        mockMvc.perform(get("/api/production/suggestion?ranking=cheapest")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/production/suggestion/stream?ranking=cheapest")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldStreamTheValueRankingWithoutLoadingTheCatalog() throws Exception {
+        seed(new Random(4));
+
+        // Value order is read forward-only from the database, the other rankings plan over
+        // a freshly loaded snapshot; both must give the buffered plan.
+        double compiled = snapshotsCompiled();
+        assertEquals(productionPlanningService.plan(productionPlanningService.loadSnapshot(),
+                PlanningStrategy.GREEDY, RankingPolicy.VALUE), streamed(RankingPolicy.VALUE));
+        assertEquals(compiled + 1, snapshotsCompiled());
+
+        ProductionSuggestionResponse streamed = streamed(RankingPolicy.SCARCITY_WEIGHTED);
+        assertEquals(compiled + 2, snapshotsCompiled());
+        assertEquals(productionPlanningService.plan(productionPlanningService.loadSnapshot(),
+                PlanningStrategy.GREEDY, RankingPolicy.SCARCITY_WEIGHTED), streamed);
+    }
+
+    private double snapshotsCompiled() {
+        Timer compile = meterRegistry.find("inventory.planning.phase").tags("phase", "compile").timer();
+        return compile == null ? 0 : compile.count();
+    }
+
+    private void seed(Random random) {
+        List<RawMaterial> materials = new ArrayList<>();
+        for (int m = 0; m < 6; m++) {
+            RawMaterial material = new RawMaterial();
+            material.setName("Material " + m);
+            material.setStockQuantity(20 + random.nextInt(200));
+            materials.add(rawMaterialRepository.save(material));
+        }
+        for (int p = 0; p < 30; p++) {
+            Product product = new Product();
+            product.setName("Product " + p);
+            product.setValue(BigDecimal.valueOf(100 + random.nextInt(40) * 125, 2));
+            productRepository.save(product);
+            for (int l = 1 + random.nextInt(3); l > 0; l--) {
+                ProductMaterial line = new ProductMaterial();
+                line.setProduct(product);
+                line.setRawMaterial(materials.get((p + l * 2) % materials.size()));
+                line.setRequiredQuantity(1 + random.nextInt(12));
+                productMaterialRepository.save(line);
+            }
+        }
+        catalogVersion.onCatalogChanged(new CatalogChangedEvent(CatalogChangedEvent.Kind.PRODUCT, null));
+    }
+
+    private ProductionSuggestionResponse fetch(String uri) throws Exception {
+        String body = mockMvc.perform(get(uri)).andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(body, ProductionSuggestionResponse.class);
+    }
+
+    private ProductionSuggestionResponse streamed(RankingPolicy ranking) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        productionStreamService.writeSuggestion(ranking, out);
+        return parse(out.toString(StandardCharsets.UTF_8));
+    }
+
+    private ProductionSuggestionResponse streamed(String uri) throws Exception {
+        return parse(mockMvc.perform(get(uri)).andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    private ProductionSuggestionResponse parse(String ndjson) throws Exception {
+        List<ProductionSuggestionItem> items = new ArrayList<>();
+        BigDecimal grandTotal = null;
+        for (String line : ndjson.lines().toList()) {
+            StreamRecord record = objectMapper.readValue(line, StreamRecord.class);
+            if (record.type().equals("item")) {
+                items.add(new ProductionSuggestionItem(record.productId(), record.productName(),
+                        record.producibleQuantity(), record.totalValue()));
+            } else {
+                grandTotal = record.grandTotalValue();
+            }
+        }
+        return new ProductionSuggestionResponse(items, grandTotal);
+    }
+
+    private record StreamRecord(String type, Long productId, String productName, int producibleQuantity,
+                                BigDecimal totalValue, BigDecimal grandTotalValue) {}
+}
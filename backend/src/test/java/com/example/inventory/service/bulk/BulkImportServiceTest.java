@@ -0,0 +1,163 @@
+package com.example.inventory.service.bulk;
+
+import com.example.inventory.dto.BulkImportReport;
+import com.example.inventory.dto.BulkRowError;
+import com.example.inventory.model.RawMaterial;
+import com.example.inventory.repository.ProductMaterialRepository;
+import com.example.inventory.repository.ProductRepository;
+import com.example.inventory.repository.RawMaterialRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "inventory.bulk.chunk-size=2")
+class BulkImportServiceTest {
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private CatalogExportService catalogExportService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private RawMaterialRepository rawMaterialRepository;
+
+    @Autowired
+    private ProductMaterialRepository productMaterialRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void cleanUp() {
+        productMaterialRepository.deleteAll();
+        productRepository.deleteAll();
+        rawMaterialRepository.deleteAll();
+    }
+
+    @Test
+    void shouldAddStockToExistingNamesAndInsertNewOnes() {
+        RawMaterial steel = new RawMaterial();
+        steel.setName("Steel");
+        steel.setStockQuantity(10);
+        rawMaterialRepository.save(steel);
+
+        BulkImportReport report = bulkImportService.importRawMaterials(body("""
+                name,stockQuantity
+                steel,5
+                Wood,7
+                "Glue, hot",3
+                WOOD,1
+                Paint,-1
+                """), BulkFormat.CSV);
+
+        assertEquals(5, report.processed());
+        assertEquals(2, report.inserted());
+        assertEquals(2, report.updated());
+        assertEquals(1, report.failed());
+        assertEquals(List.of(new BulkRowError(6, "stockQuantity must be greater than or equal to 0")), report.errors());
+
+        assertEquals(15, rawMaterialRepository.findByNameIgnoreCase("STEEL").orElseThrow().getStockQuantity());
+        assertEquals(8, rawMaterialRepository.findByNameIgnoreCase("wood").orElseThrow().getStockQuantity());
+        assertEquals(3, rawMaterialRepository.findByNameIgnoreCase("Glue, hot").orElseThrow().getStockQuantity());
+        assertEquals(3, rawMaterialRepository.count());
+    }
+
+    @Test
+    void shouldRejectRowsThatWouldOverflowTheStock() {
+        RawMaterial steel = new RawMaterial();
+        steel.setName("Steel");
+        steel.setStockQuantity(10);
+        rawMaterialRepository.save(steel);
+
+        // Two rows per chunk: the bolts add up past an int within their chunk, the steel row
+        // only overflows on top of the stored stock and must not take the wood down with it.
+        BulkImportReport report = bulkImportService.importRawMaterials(body("""
+                name,stockQuantity
+                Bolt,2000000000
+                bolt,2000000000
+                steel,2147483640
+                Wood,5
+                """), BulkFormat.CSV);
+
+        assertEquals(4, report.processed());
+        assertEquals(2, report.inserted());
+        assertEquals(0, report.updated());
+        assertEquals(List.of(new BulkRowError(3, "Stock limit exceeded"), new BulkRowError(4, "Stock limit exceeded")),
+                report.errors());
+
+        RawMaterial bolt = rawMaterialRepository.findByNameIgnoreCase("Bolt").orElseThrow();
+        assertEquals(2_000_000_000, bolt.getStockQuantity());
+        assertEquals(10, rawMaterialRepository.findByNameIgnoreCase("Steel").orElseThrow().getStockQuantity());
+        assertEquals(5, rawMaterialRepository.findByNameIgnoreCase("Wood").orElseThrow().getStockQuantity());
+        assertEquals(List.of(2_000_000_000L), jdbcTemplate.queryForList(
+                "select quantity from stock_movements where raw_material_id = ?", Long.class, bolt.getId()));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "select count(*) from stock_movements where raw_material_id = ?", Integer.class, steel.getId()));
+    }
+
+    @Test
+    void shouldImportProductsAndBomLinesFromNdjson() throws Exception {
+        bulkImportService.importRawMaterials(body("""
+                {"name":"Steel","stockQuantity":100}
+                {"name":"Wood","stockQuantity":50}
+                """), BulkFormat.NDJSON);
+        long steelId = rawMaterialRepository.findByNameIgnoreCase("Steel").orElseThrow().getId();
+
+        BulkImportReport products = bulkImportService.importProducts(body("""
+                {"name":"Table","value":250.00}
+                {"name":"Chair","value":"80.5"}
+                {"id":999999,"name":"Ghost","value":1}
+                not json
+                """), BulkFormat.NDJSON);
+
+        assertEquals(2, products.inserted());
+        assertEquals(2, products.failed());
+        assertEquals("Product not found", products.errors().get(0).error());
+        assertTrue(products.errors().get(1).error().startsWith("Malformed JSON"));
+
+        long tableId = productRepository.findAll().stream()
+                .filter(p -> p.getName().equals("Table")).findFirst().orElseThrow().getId();
+
+        BulkImportReport lines = bulkImportService.importProductMaterials(body(
+                "{\"productId\":" + tableId + ",\"rawMaterialId\":" + steelId + ",\"requiredQuantity\":4}\n"
+                        + "{\"productId\":" + tableId + ",\"rawMaterialName\":\"wood\",\"requiredQuantity\":2}\n"
+                        + "{\"productId\":" + tableId + ",\"rawMaterialName\":\"Plastic\",\"requiredQuantity\":2}\n"
+                        + "{\"productId\":" + tableId + ",\"rawMaterialId\":" + steelId + ",\"requiredQuantity\":6}\n"),
+                BulkFormat.NDJSON);
+
+        assertEquals(2, lines.inserted());
+        assertEquals(1, lines.updated());
+        assertEquals(List.of(new BulkRowError(3, "Raw material not found")), lines.errors());
+        assertEquals(6, productMaterialRepository.findByProductIdAndRawMaterialId(tableId, steelId)
+                .orElseThrow().getRequiredQuantity());
+        assertFalse(lines.errorsTruncated());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        catalogExportService.exportCatalog(out);
+        List<String> exported = out.toString(StandardCharsets.UTF_8).lines().toList();
+
+        assertEquals(6, exported.size());
+        assertTrue(exported.get(0).startsWith("{\"type\":\"rawMaterial\""));
+        assertTrue(exported.get(5).startsWith("{\"type\":\"bomLine\""));
+    }
+
+    private static InputStream body(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,216 @@
+package com.example.inventory.service.live;
+
+import com.example.inventory.dto.ProductionSuggestionItem;
+import com.example.inventory.dto.ProductionSuggestionResponse;
+import com.example.inventory.dto.RawMaterialListItem;
+import com.example.inventory.planning.CatalogChangedEvent;
+import com.example.inventory.planning.CatalogVersion;
+import com.example.inventory.repository.RawMaterialRepository;
+import com.example.inventory.service.ProductionPlanningService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LiveUpdateServiceTest {
+
+    private final ProductionPlanningService planningService = mock(ProductionPlanningService.class);
+    private final RawMaterialRepository rawMaterialRepository = mock(RawMaterialRepository.class);
+    private final CatalogVersion catalogVersion = new CatalogVersion();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    // Batches are flushed by the tests, never by the schedule.
+    private final LiveUpdateService service = new LiveUpdateService(planningService, rawMaterialRepository,
+            catalogVersion, objectMapper, registry, Duration.ofHours(1), Duration.ofHours(1), 4, 3, Duration.ofMinutes(1));
+
+    @AfterEach
+    void shutdown() {
+        service.shutdown();
+    }
+
+    @Test
+    void shouldCoalesceChangesIntoOneBatchAndDiffThePlan() throws Exception {
+        when(planningService.suggestProduction()).thenReturn(
+                plan(item(1L, 2, "20.00")),
+                plan(item(1L, 2, "20.00"), item(2L, 5, "15.00")));
+        when(rawMaterialRepository.findListItemsByIds(anyCollection()))
+                .thenReturn(List.of(new RawMaterialListItem(10L, "Steel", 40, 4)));
+        RecordingEmitter client = new RecordingEmitter();
+        service.subscribe(client, null);
+        service.flush();
+
+        for (int i = 0; i < 5; i++) {
+            change(CatalogChangedEvent.Kind.RAW_MATERIAL, 10L);
+        }
+        change(CatalogChangedEvent.Kind.BOM, 2L);
+        service.flush();
+        service.flush();
+
+        await(() -> client.events.size() == 3);
+        assertEquals(List.of("ready", "changes", "plan"), client.events.stream().map(LiveUpdateServiceTest::name).toList());
+
+        JsonNode changes = client.payload(1);
+        assertEquals("[10]", changes.get("rawMaterials").toString());
+        assertEquals("[2]", changes.get("boms").toString());
+        assertEquals(40, changes.get("stock").get(0).get("stockQuantity").asInt());
+        assertEquals("Steel", changes.get("stock").get(0).get("name").asText());
+
+        JsonNode plan = client.payload(2);
+        assertEquals(1, plan.get("changed").size());
+        assertEquals(2L, plan.get("changed").get(0).get("productId").asLong());
+        assertEquals(0, plan.get("removed").size());
+        assertEquals("[1,2]", plan.get("order").toString());
+        assertEquals(35.0, plan.get("grandTotalValue").asDouble());
+    }
+
+    @Test
+    void shouldReplaceTheBacklogOfASlowSubscriberWithAResync() throws Exception {
+        when(planningService.suggestProduction()).thenReturn(plan());
+        RecordingEmitter slow = new RecordingEmitter();
+        RecordingEmitter fast = new RecordingEmitter();
+        slow.gate = new CountDownLatch(1);
+        service.subscribe(slow, null);
+        service.subscribe(fast, null);
+
+        for (long id = 1; id <= 10; id++) {
+            change(CatalogChangedEvent.Kind.PRODUCT, id);
+            service.flush();
+            int delivered = (int) id + 1;
+            await(() -> fast.events.size() == delivered);
+        }
+        assertTrue(fast.events.stream().noneMatch(event -> name(event).equals("resync")));
+
+        slow.gate.countDown();
+        await(() -> slow.events.stream().anyMatch(event -> name(event).equals("changes")
+                && event.contains("[10]")));
+        List<String> names = slow.events.stream().map(LiveUpdateServiceTest::name).toList();
+        assertEquals("ready", names.get(0));
+        assertTrue(names.contains("resync"));
+        assertTrue(slow.events.size() < 11);
+        assertTrue(registry.get("inventory.live.resyncs").counter().count() >= 1);
+    }
+
+    @Test
+    void shouldResyncClientsReconnectingFromAnOlderVersion() throws Exception {
+        RecordingEmitter current = new RecordingEmitter();
+        service.subscribe(current, catalogVersion.eTag());
+        await(() -> current.events.size() == 1);
+        assertEquals("ready", name(current.events.get(0)));
+
+        change(CatalogChangedEvent.Kind.PRODUCT, 1L);
+        RecordingEmitter stale = new RecordingEmitter();
+        service.subscribe(stale, current.id(0));
+        await(() -> stale.events.size() == 1);
+        assertEquals("resync", name(stale.events.get(0)));
+
+        service.subscribe(new RecordingEmitter(), null);
+        assertThrows(RejectedExecutionException.class, () -> service.subscribe(new RecordingEmitter(), null));
+        current.complete();
+        service.subscribe(new RecordingEmitter(), null);
+    }
+
+    private void change(CatalogChangedEvent.Kind kind, Long id) {
+        CatalogChangedEvent event = new CatalogChangedEvent(kind, id);
+        catalogVersion.onCatalogChanged(event);
+        service.onCatalogChanged(event);
+    }
+
+    private static ProductionSuggestionResponse plan(ProductionSuggestionItem... items) {
+        BigDecimal total = BigDecimal.ZERO.setScale(2);
+        for (ProductionSuggestionItem item : items) {
+            total = total.add(item.totalValue());
+        }
+        return new ProductionSuggestionResponse(List.of(items), total);
+    }
+
+    private static ProductionSuggestionItem item(Long productId, int quantity, String totalValue) {
+        return new ProductionSuggestionItem(productId, "Product " + productId, quantity, new BigDecimal(totalValue));
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("Timed out waiting for live update events");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private static String name(String event) {
+        return field(event, "event:");
+    }
+
+    private static String field(String event, String prefix) {
+        for (String line : event.split("\n")) {
+            if (line.startsWith(prefix)) {
+                return line.substring(prefix.length());
+            }
+        }
+        return "";
+    }
+
+    /** Keeps what would have been written to the connection, optionally holding up writes. */
+    private final class RecordingEmitter extends SseEmitter {
+
+        private final List<String> events = new CopyOnWriteArrayList<>();
+        private volatile CountDownLatch gate;
+        private Runnable completion = () -> {};
+
+        @Override
+        public synchronized void onCompletion(Runnable callback) {
+            completion = callback;
+        }
+
+        @Override
+        public synchronized void complete() {
+            completion.run();
+        }
+
+        @Override
+        public void send(Set<DataWithMediaType> items) {
+            try {
+                if (gate != null) {
+                    gate.await(5, TimeUnit.SECONDS);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            StringBuilder event = new StringBuilder();
+            for (DataWithMediaType item : items) {
+                event.append(item.getData());
+            }
+            if (event.charAt(0) != ':') {
+                events.add(event.toString());
+            }
+        }
+
+        String id(int index) {
+            return field(events.get(index), "id:");
+        }
+
+        JsonNode payload(int index) throws Exception {
+            return objectMapper.readTree(field(events.get(index), "data:"));
+        }
+    }
+}
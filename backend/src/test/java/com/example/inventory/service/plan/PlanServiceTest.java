@@ -0,0 +1,157 @@
+package com.example.inventory.service.plan;
+
+import com.example.inventory.dto.ProductMaterialRequest;
+import com.example.inventory.dto.ProductRequest;
+import com.example.inventory.dto.RawMaterialRequest;
+import com.example.inventory.model.Product;
+import com.example.inventory.model.ProductionPlan;
+import com.example.inventory.model.ProductionPlanItem;
+import com.example.inventory.model.ProductionPlanMaterial;
+import com.example.inventory.model.RawMaterial;
+import com.example.inventory.planning.PlanningStrategy;
+import com.example.inventory.planning.RankingPolicy;
+import com.example.inventory.repository.ProductMaterialRepository;
+import com.example.inventory.repository.ProductRepository;
+import com.example.inventory.repository.ProductionPlanRepository;
+import com.example.inventory.repository.RawMaterialRepository;
+import com.example.inventory.service.ConflictException;
+import com.example.inventory.service.ProductMaterialService;
+import com.example.inventory.service.ProductService;
+import com.example.inventory.service.RawMaterialService;
+import com.example.inventory.service.stock.StockLedgerService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class PlanServiceTest {
+
+    @Autowired
+    private PlanService planService;
+
+    @Autowired
+    private StockLedgerService stockLedgerService;
+
+    @Autowired
+    private RawMaterialService rawMaterialService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductMaterialService productMaterialService;
+
+    @Autowired
+    private ProductionPlanRepository productionPlanRepository;
+
+    @Autowired
+    private ProductMaterialRepository productMaterialRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private RawMaterialRepository rawMaterialRepository;
+
+    private RawMaterial wood;
+    private RawMaterial steel;
+    private Product table;
+    private Product chair;
+    private Product stool;
+
+    @BeforeEach
+    void setUp() {
+        productionPlanRepository.deleteAll();
+        productMaterialRepository.deleteAll();
+        productRepository.deleteAll();
+        rawMaterialRepository.deleteAll();
+
+        wood = rawMaterialService.create(new RawMaterialRequest("Wood", 10));
+        steel = rawMaterialService.create(new RawMaterialRequest("Steel", 3));
+        table = productService.create(new ProductRequest("Table", new BigDecimal("90.00")));
+        chair = productService.create(new ProductRequest("Chair", new BigDecimal("40.00")));
+        stool = productService.create(new ProductRequest("Stool", new BigDecimal("15.00")));
+        productMaterialService.upsert(table.getId(), new ProductMaterialRequest(steel.getId(), 1));
+        productMaterialService.upsert(chair.getId(), new ProductMaterialRequest(wood.getId(), 4));
+        productMaterialService.upsert(stool.getId(), new ProductMaterialRequest(wood.getId(), 1));
+    }
+
+    @Test
+    void shouldPersistTheAcceptedPlanWithItsConsumption() {
+        ProductionPlan accepted = planService.accept(PlanningStrategy.GREEDY, RankingPolicy.VALUE);
+
+        ProductionPlan stored = planService.findById(accepted.getId());
+        assertEquals(ProductionPlan.Status.ACCEPTED, stored.getStatus());
+        assertEquals(1, stored.getRevision());
+        assertEquals(List.of(table.getId(), chair.getId(), stool.getId()),
+                stored.getItems().stream().map(ProductionPlanItem::getProductId).toList());
+        assertEquals(List.of(3, 2, 2), stored.getItems().stream().map(ProductionPlanItem::getQuantity).toList());
+        assertEquals(new BigDecimal("380.00"), stored.getGrandTotalValue());
+        assertEquals(List.of(10, 3), stored.getMaterials().stream()
+                .sorted((a, b) -> a.getRawMaterialId().compareTo(b.getRawMaterialId()))
+                .map(ProductionPlanMaterial::getConsumedQuantity).toList());
+    }
+
+    @Test
+    void shouldStoreTotalsWiderThanALong() {
+        RawMaterial gold = rawMaterialService.create(new RawMaterialRequest("Gold", Integer.MAX_VALUE));
+        Product ingot = productService.create(new ProductRequest("Ingot", new BigDecimal("9999999999.99")));
+        productMaterialService.upsert(ingot.getId(), new ProductMaterialRequest(gold.getId(), 1));
+
+        ProductionPlan stored = planService.findById(planService.accept(PlanningStrategy.GREEDY, RankingPolicy.VALUE).getId());
+        BigDecimal ingots = new BigDecimal("9999999999.99").multiply(BigDecimal.valueOf(Integer.MAX_VALUE));
+        assertEquals(ingots, stored.getItems().get(0).getTotalValue());
+        assertEquals(ingots.add(new BigDecimal("380.00")), stored.getGrandTotalValue());
+    }
+
+    @Test
+    void shouldRevisitOnlyProductsTouchedByAStockChange() {
+        ProductionPlan accepted = planService.accept(PlanningStrategy.GREEDY, RankingPolicy.VALUE);
+        stockLedgerService.receive(wood.getId(), 5);
+
+        ProductionPlan replanned = planService.replan(accepted.getId());
+        assertTrue(replanned.getRevision() >= 2);
+        assertEquals(List.of(3, 3, 3), replanned.getItems().stream().map(ProductionPlanItem::getQuantity).toList());
+        // The table only needs steel, which did not move.
+        assertEquals(2, replanned.getRevisitedProducts());
+        assertEquals(1, replanned.getReusedProducts());
+
+        // Nothing changed since: every decision is reused and the lines are left alone.
+        int revision = replanned.getRevision();
+        ProductionPlan again = planService.replan(accepted.getId());
+        assertEquals(revision, again.getRevision());
+        assertEquals(3, again.getReusedProducts());
+    }
+
+    @Test
+    void shouldRepairAfterABomChange() {
+        ProductionPlan accepted = planService.accept(PlanningStrategy.GREEDY, RankingPolicy.VALUE);
+        productMaterialService.upsert(table.getId(), new ProductMaterialRequest(wood.getId(), 2));
+
+        ProductionPlan replanned = planService.replan(accepted.getId());
+        // Tables now take six of the wood, leaving enough for one chair and no stools.
+        assertEquals(List.of(table.getId(), chair.getId()),
+                replanned.getItems().stream().map(ProductionPlanItem::getProductId).toList());
+        assertEquals(List.of(3, 1), replanned.getItems().stream().map(ProductionPlanItem::getQuantity).toList());
+        assertEquals(new BigDecimal("310.00"), replanned.getGrandTotalValue());
+    }
+
+    @Test
+    void shouldStopReplanningClosedPlans() {
+        ProductionPlan accepted = planService.accept(PlanningStrategy.LP, RankingPolicy.SCARCE_MATERIAL);
+        assertEquals(RankingPolicy.VALUE, accepted.getRanking());
+        assertEquals(3, planService.replan(accepted.getId()).getRevisitedProducts());
+
+        planService.close(accepted.getId());
+        assertThrows(ConflictException.class, () -> planService.replan(accepted.getId()));
+        assertThrows(IllegalArgumentException.class, () -> planService.replan(-1L));
+    }
+}
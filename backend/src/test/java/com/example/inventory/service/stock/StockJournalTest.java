@@ -0,0 +1,169 @@
+package com.example.inventory.service.stock;
+
+import com.example.inventory.dto.PageResponse;
+import com.example.inventory.dto.ProductMaterialRequest;
+import com.example.inventory.dto.ProductRequest;
+import com.example.inventory.dto.RawMaterialRequest;
+import com.example.inventory.dto.StockItemRequest;
+import com.example.inventory.dto.StockMovement;
+import com.example.inventory.dto.StockPosition;
+import com.example.inventory.model.Product;
+import com.example.inventory.model.RawMaterial;
+import com.example.inventory.planning.PlanningStrategy;
+import com.example.inventory.planning.RankingPolicy;
+import com.example.inventory.repository.ProductMaterialRepository;
+import com.example.inventory.repository.ProductRepository;
+import com.example.inventory.repository.RawMaterialRepository;
+import com.example.inventory.repository.StockReservationRepository;
+import com.example.inventory.service.ProductMaterialService;
+import com.example.inventory.service.ProductService;
+import com.example.inventory.service.ProductionPlanningService;
+import com.example.inventory.service.RawMaterialService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class StockJournalTest {
+
+    @Autowired
+    private StockJournal stockJournal;
+
+    @Autowired
+    private StockLedgerService stockLedgerService;
+
+    @Autowired
+    private RawMaterialService rawMaterialService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductMaterialService productMaterialService;
+
+    @Autowired
+    private ProductionPlanningService productionPlanningService;
+
+    @Autowired
+    private StockReservationRepository stockReservationRepository;
+
+    @Autowired
+    private ProductMaterialRepository productMaterialRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private RawMaterialRepository rawMaterialRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void cleanUp() {
+        stockReservationRepository.deleteAll();
+        productMaterialRepository.deleteAll();
+        productRepository.deleteAll();
+        rawMaterialRepository.deleteAll();
+        jdbcTemplate.update("delete from stock_snapshot_items");
+        jdbcTemplate.update("delete from stock_snapshots");
+        jdbcTemplate.update("delete from stock_movements");
+    }
+
+    @Test
+    void shouldJournalEveryStockChange() {
+        RawMaterial wood = rawMaterialService.create(new RawMaterialRequest("Wood", 10));
+        stockLedgerService.receive(wood.getId(), 5);
+        rawMaterialService.update(wood.getId(), new RawMaterialRequest("Wood", 12));
+        Long reservationId = stockLedgerService.reserve(List.of(new StockItemRequest(wood.getId(), 4))).getId();
+        stockLedgerService.commit(reservationId);
+
+        PageResponse<StockMovement> first = stockJournal.movements(wood.getId(), null, 2);
+        PageResponse<StockMovement> second = stockJournal.movements(wood.getId(), first.nextCursor(), 2);
+        List<StockMovement> movements = List.of(first.items().get(0), first.items().get(1),
+                second.items().get(0), second.items().get(1));
+        assertNull(second.nextCursor());
+        assertEquals(List.of(StockMovement.Kind.RECEIPT, StockMovement.Kind.RECEIPT,
+                        StockMovement.Kind.ADJUSTMENT, StockMovement.Kind.CONSUMPTION),
+                movements.stream().map(StockMovement::kind).toList());
+        assertEquals(List.of(10, 5, -3, -4), movements.stream().map(StockMovement::quantity).toList());
+
+        assertEquals(8, stockAsOf(Instant.now(), wood.getId()));
+        assertEquals(8, rawMaterialRepository.findById(wood.getId()).orElseThrow().getStockQuantity());
+
+        rawMaterialService.delete(wood.getId());
+        assertEquals(0, stockAsOf(Instant.now(), wood.getId()));
+    }
+
+    @Test
+    void shouldRebuildPastStockAcrossSnapshots() throws Exception {
+        RawMaterial wood = rawMaterialService.create(new RawMaterialRequest("Wood", 10));
+        Instant afterCreate = tick();
+        stockLedgerService.receive(wood.getId(), 5);
+        Instant afterReceipt = tick();
+
+        assertTrue(stockJournal.snapshot(afterReceipt));
+        assertFalse(stockJournal.snapshot(afterCreate));
+        stockLedgerService.receive(wood.getId(), 7);
+        Instant afterSecondReceipt = tick();
+        rawMaterialService.update(wood.getId(), new RawMaterialRequest("Wood", 20));
+
+        assertEquals(10, stockAsOf(afterCreate, wood.getId()));
+        assertEquals(15, stockAsOf(afterReceipt, wood.getId()));
+        assertEquals(22, stockAsOf(afterSecondReceipt, wood.getId()));
+        assertEquals(20, stockAsOf(Instant.now(), wood.getId()));
+
+        // A second snapshot builds on the first one and gives the same answers.
+        assertTrue(stockJournal.snapshot(tick()));
+        assertEquals(10, stockAsOf(afterCreate, wood.getId()));
+        assertEquals(20, stockAsOf(Instant.now(), wood.getId()));
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "select count(*) from stock_snapshot_items where raw_material_id = ?", Integer.class, wood.getId()));
+    }
+
+    @Test
+    void shouldPlanAgainstPastStock() throws Exception {
+        RawMaterial wood = rawMaterialService.create(new RawMaterialRequest("Wood", 10));
+        Product chair = productService.create(new ProductRequest("Chair", new BigDecimal("40.00")));
+        productMaterialService.upsert(chair.getId(), new ProductMaterialRequest(wood.getId(), 2));
+        Instant before = tick();
+        stockLedgerService.receive(wood.getId(), 6);
+
+        assertEquals(8, productionPlanningService.suggestProduction().items().get(0).producibleQuantity());
+        assertEquals(5, productionPlanningService.suggestProductionAsOf(PlanningStrategy.GREEDY, RankingPolicy.VALUE, before)
+                .items().get(0).producibleQuantity());
+    }
+
+    @Test
+    void shouldRefuseMovementsOutsideATransaction() {
+        assertThrows(IllegalStateException.class,
+                () -> stockJournal.record(1L, StockMovement.Kind.RECEIPT, 1, "test"));
+    }
+
+    private long stockAsOf(Instant at, Long rawMaterialId) {
+        return stockJournal.stockAsOf(at).stream()
+                .filter(position -> position.rawMaterialId().equals(rawMaterialId))
+                .mapToLong(StockPosition::stockQuantity)
+                .sum();
+    }
+
+    // An instant strictly between the movements recorded before and after it.
+    private static Instant tick() throws InterruptedException {
+        Thread.sleep(2);
+        Instant now = Instant.now();
+        Thread.sleep(2);
+        return now;
+    }
+}
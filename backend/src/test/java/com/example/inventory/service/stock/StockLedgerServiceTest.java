@@ -0,0 +1,145 @@
+package com.example.inventory.service.stock;
+
+import com.example.inventory.dto.ProductionExecutionRequest;
+import com.example.inventory.dto.ProductionExecutionResponse;
+import com.example.inventory.dto.StockItemRequest;
+import com.example.inventory.dto.StockLevel;
+import com.example.inventory.model.Product;
+import com.example.inventory.model.ProductMaterial;
+import com.example.inventory.model.RawMaterial;
+import com.example.inventory.model.StockReservation;
+import com.example.inventory.repository.ProductMaterialRepository;
+import com.example.inventory.repository.ProductRepository;
+import com.example.inventory.repository.RawMaterialRepository;
+import com.example.inventory.repository.StockReservationRepository;
+import com.example.inventory.service.ConflictException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class StockLedgerServiceTest {
+
+    @Autowired
+    private StockLedgerService stockLedgerService;
+
+    @Autowired
+    private RawMaterialRepository rawMaterialRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductMaterialRepository productMaterialRepository;
+
+    @Autowired
+    private StockReservationRepository stockReservationRepository;
+
+    @BeforeEach
+    void cleanUp() {
+        stockReservationRepository.deleteAll();
+        productMaterialRepository.deleteAll();
+        productRepository.deleteAll();
+        rawMaterialRepository.deleteAll();
+    }
+
+    @Test
+    void shouldNotLoseConcurrentReceipts() throws Exception {
+        RawMaterial steel = material("Steel", 0);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 400; i++) {
+                futures.add(executor.submit(() -> stockLedgerService.receive(steel.getId(), 3)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(1200, stock(steel).getStockQuantity());
+    }
+
+    @Test
+    void shouldReserveCommitAndReleaseAtomically() {
+        RawMaterial steel = material("Steel", 10);
+        RawMaterial wood = material("Wood", 5);
+
+        StockReservation first = stockLedgerService.reserve(List.of(
+                new StockItemRequest(steel.getId(), 6),
+                new StockItemRequest(wood.getId(), 2)));
+
+        // Only 4 steel left to reserve: the whole reservation fails and wood is untouched.
+        assertThrows(ConflictException.class, () -> stockLedgerService.reserve(List.of(
+                new StockItemRequest(wood.getId(), 1),
+                new StockItemRequest(steel.getId(), 5))));
+        assertEquals(2, stock(wood).getReservedQuantity());
+
+        StockReservation second = stockLedgerService.reserve(List.of(new StockItemRequest(steel.getId(), 4)));
+
+        assertEquals(StockReservation.Status.COMMITTED, stockLedgerService.commit(first.getId()).getStatus());
+        assertEquals(StockReservation.Status.RELEASED, stockLedgerService.release(second.getId()).getStatus());
+        assertThrows(ConflictException.class, () -> stockLedgerService.release(first.getId()));
+
+        assertEquals(4, stock(steel).getStockQuantity());
+        assertEquals(0, stock(steel).getReservedQuantity());
+        assertEquals(3, stock(wood).getStockQuantity());
+        assertEquals(0, stock(wood).getReservedQuantity());
+    }
+
+    @Test
+    void shouldConsumeEveryBomMaterialOrNone() {
+        RawMaterial steel = material("Steel", 10);
+        RawMaterial wood = material("Wood", 4);
+        Product table = new Product();
+        table.setName("Table");
+        table.setValue(new BigDecimal("100.00"));
+        productRepository.save(table);
+        line(table, steel, 3);
+        line(table, wood, 2);
+
+        ProductionExecutionResponse response = stockLedgerService.execute(new ProductionExecutionRequest(table.getId(), 2));
+
+        assertEquals(new BigDecimal("200.00"), response.totalValue());
+        assertEquals(List.of(new StockLevel(steel.getId(), 4, 0), new StockLevel(wood.getId(), 0, 0)),
+                response.materials());
+
+        // Steel would still cover one more, wood would not: nothing is consumed.
+        assertThrows(ConflictException.class,
+                () -> stockLedgerService.execute(new ProductionExecutionRequest(table.getId(), 1)));
+        assertEquals(4, stock(steel).getStockQuantity());
+    }
+
+    private RawMaterial material(String name, int stock) {
+        RawMaterial material = new RawMaterial();
+        material.setName(name);
+        material.setStockQuantity(stock);
+        return rawMaterialRepository.save(material);
+    }
+
+    private void line(Product product, RawMaterial material, int quantity) {
+        ProductMaterial line = new ProductMaterial();
+        line.setProduct(product);
+        line.setRawMaterial(material);
+        line.setRequiredQuantity(quantity);
+        productMaterialRepository.save(line);
+    }
+
+    private RawMaterial stock(RawMaterial material) {
+        return rawMaterialRepository.findById(material.getId()).orElseThrow();
+    }
+}
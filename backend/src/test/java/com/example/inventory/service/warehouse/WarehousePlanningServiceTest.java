@@ -0,0 +1,155 @@
+package com.example.inventory.service.warehouse;
+
+import com.example.inventory.dto.ProductMaterialRequest;
+import com.example.inventory.dto.ProductRequest;
+import com.example.inventory.dto.ProductionSuggestionResponse;
+import com.example.inventory.dto.RawMaterialRequest;
+import com.example.inventory.dto.StockPosition;
+import com.example.inventory.dto.WarehouseRequest;
+import com.example.inventory.dto.WarehouseSuggestionsResponse;
+import com.example.inventory.model.Product;
+import com.example.inventory.model.RawMaterial;
+import com.example.inventory.model.Warehouse;
+import com.example.inventory.planning.PlanningStrategy;
+import com.example.inventory.planning.RankingPolicy;
+import com.example.inventory.repository.ProductMaterialRepository;
+import com.example.inventory.repository.ProductRepository;
+import com.example.inventory.repository.RawMaterialRepository;
+import com.example.inventory.repository.WarehouseRepository;
+import com.example.inventory.service.ConflictException;
+import com.example.inventory.service.ProductMaterialService;
+import com.example.inventory.service.ProductService;
+import com.example.inventory.service.ProductionPlanningService;
+import com.example.inventory.service.RawMaterialService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class WarehousePlanningServiceTest {
+
+    @Autowired
+    private WarehousePlanningService warehousePlanningService;
+
+    @Autowired
+    private WarehouseService warehouseService;
+
+    @Autowired
+    private ProductionPlanningService productionPlanningService;
+
+    @Autowired
+    private RawMaterialService rawMaterialService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductMaterialService productMaterialService;
+
+    @Autowired
+    private WarehouseRepository warehouseRepository;
+
+    @Autowired
+    private ProductMaterialRepository productMaterialRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private RawMaterialRepository rawMaterialRepository;
+
+    private RawMaterial wood;
+    private RawMaterial steel;
+    private Product chair;
+    private Product table;
+
+    @BeforeEach
+    void setUp() {
+        warehouseRepository.deleteAll();
+        productMaterialRepository.deleteAll();
+        productRepository.deleteAll();
+        rawMaterialRepository.deleteAll();
+
+        wood = rawMaterialService.create(new RawMaterialRequest("Wood", 100));
+        steel = rawMaterialService.create(new RawMaterialRequest("Steel", 100));
+        chair = productService.create(new ProductRequest("Chair", new BigDecimal("40.00")));
+        table = productService.create(new ProductRequest("Table", new BigDecimal("90.00")));
+        productMaterialService.upsert(chair.getId(), new ProductMaterialRequest(wood.getId(), 2));
+        productMaterialService.upsert(table.getId(), new ProductMaterialRequest(wood.getId(), 4));
+        productMaterialService.upsert(table.getId(), new ProductMaterialRequest(steel.getId(), 1));
+    }
+
+    @Test
+    void shouldPlanEveryLocationAgainstItsOwnStock() {
+        Warehouse north = warehouseService.create(new WarehouseRequest("north", "North plant"));
+        Warehouse south = warehouseService.create(new WarehouseRequest("south", "South plant"));
+        warehouseService.receive(north.getId(), wood.getId(), 10);
+        warehouseService.receive(north.getId(), steel.getId(), 1);
+        warehouseService.count(south.getId(), wood.getId(), 6);
+
+        ProductionSuggestionResponse northPlan = plan(north);
+        assertEquals(List.of(table.getId(), chair.getId()), northPlan.items().stream().map(item -> item.productId()).toList());
+        assertEquals(List.of(1, 3), northPlan.items().stream().map(item -> item.producibleQuantity()).toList());
+        ProductionSuggestionResponse southPlan = plan(south);
+        assertEquals(1, southPlan.items().size());
+        assertEquals(3, southPlan.items().get(0).producibleQuantity());
+
+        WarehouseSuggestionsResponse all = warehousePlanningService.suggestProduction(PlanningStrategy.GREEDY, RankingPolicy.VALUE);
+        assertEquals(List.of("north", "south"), all.warehouses().stream().map(WarehouseSuggestionsResponse.Location::code).toList());
+        assertEquals(new BigDecimal("330.00"), all.total().grandTotalValue());
+        assertEquals(6, all.total().items().get(1).producibleQuantity());
+
+        // The main site's stock is untouched by either location.
+        assertEquals(100, rawMaterialRepository.findById(wood.getId()).orElseThrow().getStockQuantity());
+        assertEquals(new BigDecimal("2250.00"), productionPlanningService.suggestProduction().grandTotalValue());
+        assertEquals(List.of(new StockPosition(wood.getId(), 6L)), warehouseService.stock(south.getId()));
+    }
+
+    @Test
+    void shouldKeepOtherLocationsCachedWhenOneReceivesStock() {
+        Warehouse north = warehouseService.create(new WarehouseRequest("north", "North plant"));
+        Warehouse south = warehouseService.create(new WarehouseRequest("south", "South plant"));
+        warehouseService.receive(north.getId(), wood.getId(), 4);
+        warehouseService.receive(south.getId(), wood.getId(), 4);
+        ProductionSuggestionResponse northPlan = plan(north);
+        ProductionSuggestionResponse southPlan = plan(south);
+        assertSame(northPlan, plan(north));
+
+        warehouseService.receive(north.getId(), wood.getId(), 2);
+        assertNotSame(northPlan, plan(north));
+        assertEquals(3, plan(north).items().get(0).producibleQuantity());
+        assertSame(southPlan, plan(south));
+        // Main site movements leave every location's plan alone.
+        rawMaterialService.update(wood.getId(), new RawMaterialRequest("Wood", 50));
+        assertSame(southPlan, plan(south));
+
+        // A BOM change reaches every location.
+        productMaterialService.upsert(chair.getId(), new ProductMaterialRequest(wood.getId(), 1));
+        assertEquals(4, plan(south).items().get(0).producibleQuantity());
+    }
+
+    @Test
+    void shouldRejectUnknownLocationsAndMaterials() {
+        Warehouse north = warehouseService.create(new WarehouseRequest("north", "North plant"));
+
+        assertThrows(IllegalArgumentException.class, () -> warehouseService.receive(north.getId(), -1L, 5));
+        assertThrows(IllegalArgumentException.class, () -> warehouseService.receive(-1L, wood.getId(), 5));
+        assertThrows(IllegalArgumentException.class,
+                () -> warehousePlanningService.suggestProduction(-1L, PlanningStrategy.GREEDY, RankingPolicy.VALUE));
+        warehouseService.receive(north.getId(), wood.getId(), Integer.MAX_VALUE);
+        assertThrows(ConflictException.class, () -> warehouseService.receive(north.getId(), wood.getId(), 1));
+    }
+
+    private ProductionSuggestionResponse plan(Warehouse warehouse) {
+        return warehousePlanningService.suggestProduction(warehouse.getId(), PlanningStrategy.GREEDY, RankingPolicy.VALUE);
+    }
+}
@@ -0,0 +1,13 @@
+-- Schema and data as the releases before the migrations left them: Hibernate 6.5 with
+-- ddl-auto=update on H2, identity ids, raw material names unique only ignoring case.
+
+create table products (value numeric(12,2) not null, id bigint generated by default as identity, name varchar(255) not null, primary key (id));
+create table raw_materials (stock_quantity integer not null check (stock_quantity>=0), id bigint generated by default as identity, name varchar(255) not null, primary key (id));
+create table product_materials (required_quantity integer not null check (required_quantity>=1), id bigint generated by default as identity, product_id bigint not null, raw_material_id bigint not null, primary key (id));
+alter table if exists product_materials add constraint UKbkyoa4m3ojwt5yg0ejo2o0p7w unique (product_id, raw_material_id);
+alter table if exists product_materials add constraint FKo2ojm64jpmaeg1wle4lr61f7x foreign key (product_id) references products;
+alter table if exists product_materials add constraint FKkxv6swq40k5l1ssf3iu8rpq57 foreign key (raw_material_id) references raw_materials;
+
+insert into raw_materials (stock_quantity, name) values (10, 'Steel'), (40, 'Wood'), (5, ' steel ');
+insert into products (value, name) values (120.00, 'Chair'), (300.00, 'Table');
+insert into product_materials (required_quantity, product_id, raw_material_id) values (2, 1, 1), (4, 1, 2), (3, 1, 3), (6, 2, 3);
@@ -1,4 +1,4 @@
-import { useEffect, useMemo, useState } from 'react'
+import { useEffect, useMemo, useRef, useState } from 'react'
 
 const API = 'http://localhost:8080/api'
 
@@ -54,6 +54,17 @@ function BarChart({ title, items, valueKey, labelKey, formatValue = (v) => Strin
   )
 }
 
+// Pushed rows replace the materials they describe; a changed id without a row was deleted.
+function applyMaterialChanges(current, changedIds, rows) {
+  const byId = new Map(rows.map((row) => [row.id, row]))
+  const changed = new Set(changedIds)
+  const known = new Set(current.map((m) => m.id))
+  const updated = current
+    .filter((m) => !changed.has(m.id) || byId.has(m.id))
+    .map((m) => (byId.has(m.id) ? { ...m, ...byId.get(m.id) } : m))
+  return [...updated, ...rows.filter((row) => !known.has(row.id))]
+}
+
 function money(n) {
   const v = Number(n)
   if (Number.isNaN(v)) return '0.00'
@@ -74,6 +85,10 @@ export default function App() {
   const [materialForm, setMaterialForm] = useState({ name: '', stockQuantity: '' })
   const [linkForm, setLinkForm] = useState({ rawMaterialId: '', requiredQuantity: '' })
 
+  // The live update handler outlives renders; it reads the open product from here.
+  const selectedProductRef = useRef(selectedProduct)
+  useEffect(() => { selectedProductRef.current = selectedProduct }, [selectedProduct])
+
   async function loadAll() {
     try {
       setError('')
@@ -92,6 +107,45 @@ export default function App() {
 
   useEffect(() => { loadAll() }, [])
 
+  // Server-pushed changes replace re-fetching on a timer.
+  useEffect(() => {
+    const events = new EventSource(`${API}/live`)
+
+    events.addEventListener('resync', () => loadAll())
+
+    events.addEventListener('changes', (e) => {
+      const changes = JSON.parse(e.data)
+      if (changes.reload || changes.products.length > 0) {
+        request('/products').then(setProducts).catch((err) => setError(err.message))
+      }
+      if (changes.reload) {
+        request('/raw-materials').then(setMaterials).catch((err) => setError(err.message))
+      } else if (changes.rawMaterials.length > 0) {
+        setMaterials((current) => applyMaterialChanges(current, changes.rawMaterials, changes.stock))
+      }
+      const open = selectedProductRef.current
+      if (open && (changes.reload || changes.boms.some((id) => String(id) === String(open)))) {
+        request(`/products/${open}/materials`)
+          .then((lines) => {
+            if (selectedProductRef.current === open) setProductMaterials(lines)
+          })
+          .catch((err) => setError(err.message))
+      }
+    })
+
+    events.addEventListener('plan', (e) => {
+      const diff = JSON.parse(e.data)
+      setSuggestion((current) => {
+        const byProduct = new Map(current.items.map((item) => [item.productId, item]))
+        diff.changed.forEach((item) => byProduct.set(item.productId, item))
+        const items = diff.order.map((productId) => byProduct.get(productId)).filter(Boolean)
+        return { items, grandTotalValue: diff.grandTotalValue }
+      })
+    })
+
+    return () => events.close()
+  }, [])
+
   useEffect(() => {
     if (!selectedProduct) {
       setProductMaterials([])